@@ -0,0 +1,93 @@
+package ch.wisv.events.core.service.googlewallet;
+
+import ch.wisv.events.core.exception.normal.TicketPassFailedException;
+import ch.wisv.events.core.model.customer.Customer;
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.model.ticket.Ticket;
+import ch.wisv.events.core.service.product.ProductChangedEvent;
+import com.google.auth.oauth2.ServiceAccountCredentials;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the number of Google Wallet save links generated per second, with the ticket class taken from the cache
+ * and with the ticket class built for every link. Signing the link takes most of the time, so compare gc.alloc.rate.norm
+ * as well as the throughput. Run with ./gradlew jmh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class GoogleWalletBenchmark {
+
+    /** GoogleWalletServiceImpl. */
+    private GoogleWalletServiceImpl googleWalletService;
+
+    /** Ticket. */
+    private Ticket ticket;
+
+    /** Event published when the product changes. */
+    private ProductChangedEvent productChangedEvent;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+
+        ServiceAccountCredentials credentials = ServiceAccountCredentials.newBuilder()
+                .setClientEmail("wallet@example.com")
+                .setPrivateKey(generator.generateKeyPair().getPrivate())
+                .build();
+        googleWalletService = new GoogleWalletServiceImpl(
+                credentials, "3388000000022297569", "https://example.com/events", "https://example.com", "https://example.com/gtc");
+
+        Event event = new Event();
+        event.setTitle("Event");
+        event.setLocation("CH");
+        event.setStart(LocalDateTime.now().plusDays(1));
+        event.setEnding(LocalDateTime.now().plusDays(1).plusHours(3));
+
+        Product product = new Product();
+        product.setTitle("Product");
+        product.setCost(2.5);
+        product.setEvent(event);
+        event.getProducts().add(product);
+
+        Customer customer = new Customer();
+        customer.setName("Christiaan Huygens");
+        ticket = new Ticket(null, customer, product, UUID.randomUUID().toString());
+
+        productChangedEvent = new ProductChangedEvent(List.of(product.getKey()));
+    }
+
+    @Benchmark
+    public String cachedClass() throws TicketPassFailedException {
+        return googleWalletService.getPass(ticket);
+    }
+
+    @Benchmark
+    public String uncachedClass() throws TicketPassFailedException {
+        googleWalletService.onProductChanged(productChangedEvent);
+
+        return googleWalletService.getPass(ticket);
+    }
+}
@@ -0,0 +1,116 @@
+package ch.wisv.events.core.service.ticket;
+
+import ch.wisv.events.EventsApplicationTest;
+import ch.wisv.events.core.model.customer.Customer;
+import ch.wisv.events.core.model.order.Order;
+import ch.wisv.events.core.model.order.OrderProduct;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.model.ticket.Ticket;
+import ch.wisv.events.core.repository.CustomerRepository;
+import ch.wisv.events.core.repository.OrderProductRepository;
+import ch.wisv.events.core.repository.OrderRepository;
+import ch.wisv.events.core.repository.ProductRepository;
+import ch.wisv.events.core.util.VatRate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Measures the latency of TicketService.createByOrder per Order for a growing number of Tickets, against the test
+ * application context and its database. Every Order is created outside the measurement, the Tickets are issued in a
+ * transaction that loads the Order first, like when an Order is paid. Run with ./gradlew jmh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketIssuanceBenchmark {
+
+    /** Number of Tickets in an Order. */
+    @Param({"1", "5", "25", "100"})
+    private int ticketCount;
+
+    /** Application context of the tests. */
+    private ConfigurableApplicationContext context;
+
+    /** TicketService. */
+    private TicketService ticketService;
+
+    /** OrderProductRepository. */
+    private OrderProductRepository orderProductRepository;
+
+    /** OrderRepository. */
+    private OrderRepository orderRepository;
+
+    /** Transaction the Tickets are issued in. */
+    private TransactionTemplate transactionTemplate;
+
+    /** Product of the Tickets. */
+    private Product product;
+
+    /** Owner of the Orders. */
+    private Customer customer;
+
+    /** Id of the Order of which the Tickets are issued next. */
+    private Integer orderId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(EventsApplicationTest.class)
+                .profiles("test")
+                .properties("server.port=0")
+                .run();
+
+        ticketService = context.getBean(TicketService.class);
+        orderProductRepository = context.getBean(OrderProductRepository.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        product = new Product("Benchmark", "Benchmark ticket", 1.d, VatRate.VAT_HIGH, null, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusDays(1));
+        context.getBean(ProductRepository.class).saveAndFlush(product);
+
+        customer = new Customer("benchmark", "Benchmark", "benchmark@ch.tudelft.nl", "");
+        context.getBean(CustomerRepository.class).saveAndFlush(customer);
+    }
+
+    @Setup(Level.Invocation)
+    public void createOrder() {
+        OrderProduct orderProduct = new OrderProduct(product, product.getCost(), (long) ticketCount);
+        orderProductRepository.saveAndFlush(orderProduct);
+
+        Order order = new Order();
+        order.setOwner(customer);
+        order.addOrderProduct(orderProduct);
+
+        orderId = orderRepository.saveAndFlush(order).getId();
+    }
+
+    @Benchmark
+    public List<Ticket> createByOrder() {
+        return transactionTemplate.execute(status -> ticketService.createByOrder(orderRepository.findById(orderId).orElseThrow()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,50 @@
+package ch.wisv.events.core.util;
+
+import com.google.zxing.WriterException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares rendering a ticket QR code through a BufferedImage and ImageIO with writing it straight from the modules.
+ * Run with ./gradlew jmh, the gc profiler reports the bytes allocated per operation (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QrCodeBenchmark {
+
+    /** Unique code of a ticket. */
+    private final String uniqueCode = UUID.randomUUID().toString();
+
+    @Benchmark
+    public byte[] imageIoPng() throws WriterException, IOException {
+        return QrCode.bufferedImageToBytes(QrCode.generateQrCode(uniqueCode));
+    }
+
+    @Benchmark
+    public byte[] directPng() throws WriterException {
+        return QrCode.generateQrCodePng(uniqueCode);
+    }
+
+    @Benchmark
+    public int directSvg() throws WriterException, IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        QrCode.writeSvg(QrCode.encode(uniqueCode), out);
+
+        return out.size();
+    }
+}
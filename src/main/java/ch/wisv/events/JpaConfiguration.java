@@ -0,0 +1,28 @@
+package ch.wisv.events;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * JpaConfiguration class.
+ */
+@Configuration
+public class JpaConfiguration {
+
+    /** Number of statements sent to the database in one JDBC batch. */
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    /**
+     * Enable JDBC batching of inserts, unless configured otherwise. Used to insert all Tickets of an Order at once.
+     *
+     * @return HibernatePropertiesCustomizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer() {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", JDBC_BATCH_SIZE);
+            properties.putIfAbsent("hibernate.order_inserts", true);
+        };
+    }
+}
@@ -1,15 +1,42 @@
 package ch.wisv.events;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfiguration implements WebMvcConfigurer {
 
+    /** Paths of the long-lived event streams. */
+    private static final String[] STREAM_PATHS = {"/*/stock"};
+
     @Override
     public void configurePathMatch(PathMatchConfigurer configurer) {
       configurer.setUseTrailingSlashMatch(true);
     }
 
-}
\ No newline at end of file
+    /**
+     * EntityManager kept open while rendering the view. Replaces the one Spring Boot registers for all paths.
+     *
+     * @return OpenEntityManagerInViewInterceptor
+     */
+    @Bean
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        return new OpenEntityManagerInViewInterceptor();
+    }
+
+    /**
+     * Keep the EntityManager open in view, except for the event streams. An open EntityManager holds its database
+     * connection until the request completes, which for a stream is when the client disconnects.
+     *
+     * @param registry of type InterceptorRegistry
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(this.openEntityManagerInViewInterceptor()).excludePathPatterns(STREAM_PATHS);
+    }
+
+}
@@ -1,18 +1,26 @@
 package ch.wisv.events.admin.controller;
 
+import ch.wisv.events.core.model.webhook.WebhookTaskSummary;
 import ch.wisv.events.core.service.webhook.WebhookTaskService;
+import java.time.LocalDateTime;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @Controller
 @RequestMapping("/administrator/tasks")
 @PreAuthorize("hasRole('ADMIN')")
 public class DashboardTasksController extends DashboardController {
 
+    /** Number of tasks on a page. */
+    private static final int PAGE_SIZE = 100;
+
     /** WebhookTaskService. */
     private final WebhookTaskService webhookTaskService;
 
@@ -27,15 +35,30 @@ public DashboardTasksController(WebhookTaskService webhookTaskService) {
     }
 
     /**
-     * Index of vendor [GET "/"].
+     * Index of tasks [GET "/"], one page at a time without the payloads. A page starts after the task with the given
+     * creation time and id, the newest tasks are shown without them.
      *
-     * @param model String model
+     * @param model           String model
+     * @param beforeCreatedAt of type LocalDateTime, creation time of the last task of the previous page
+     * @param beforeId        of type Integer, id of the last task of the previous page
      *
      * @return path to Thymeleaf template location
      */
     @GetMapping()
-    public String index(Model model) {
-        model.addAttribute(OBJ_TASKS, webhookTaskService.getAll());
+    public String index(
+            Model model,
+            @RequestParam(value = "beforeCreatedAt", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeCreatedAt,
+            @RequestParam(value = "beforeId", required = false) Integer beforeId
+    ) {
+        if (beforeCreatedAt == null || beforeId == null) {
+            beforeCreatedAt = null;
+            beforeId = null;
+        }
+
+        Slice<WebhookTaskSummary> tasks = webhookTaskService.getSummaries(beforeCreatedAt, beforeId, PAGE_SIZE);
+        model.addAttribute(OBJ_TASKS, tasks.getContent());
+        model.addAttribute(OBJ_PAGE, tasks);
 
         return "admin/tasks/index";
     }
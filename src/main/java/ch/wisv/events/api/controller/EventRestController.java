@@ -2,22 +2,41 @@
 
 import ch.wisv.events.core.model.event.Event;
 import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.service.catalog.CatalogService;
 import ch.wisv.events.core.service.event.EventService;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
-import org.springframework.http.HttpStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
 /**
  * EventRestController class.
+ *
+ * <p>The upcoming events are polled constantly, so the serialized response is kept until the catalog changes or one
+ * of the events ends. The ETag is derived from the catalog change count and the moment the first event ends, so a
+ * client that already has the current response gets a 304 without a database query. An ending event only replaces
+ * this response, the catalog snapshot of the webshop is left alone.</p>
  */
 @RestController
 @RequestMapping("/api/v1/event")
@@ -25,30 +44,120 @@ public class EventRestController {
     /** EventService. */
     private final EventService eventService;
 
+    /** CatalogService. */
+    private final CatalogService catalogService;
+
+    /** ObjectMapper. */
+    private final ObjectMapper objectMapper;
+
+    /** Distinguishes the ETags of different runs of the application, as the change count starts at zero. */
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+
+    /** Serialized upcoming events, null before the first request. */
+    private volatile UpcomingEvents upcomingEvents;
+
     /**
      * EventRestController.
      *
-     * @param eventService of type EventService
+     * @param eventService   of type EventService
+     * @param catalogService of type CatalogService
+     * @param objectMapper   of type ObjectMapper
      */
-    public EventRestController(EventService eventService) {
+    public EventRestController(EventService eventService, CatalogService catalogService, ObjectMapper objectMapper) {
         this.eventService = eventService;
+        this.catalogService = catalogService;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * Get published, upcoming events.
      * This is used by the website to promote them.
+     * @param request  of type HttpServletRequest
+     * @param response of type HttpServletResponse
      * @return an array with the upcoming events.
+     * @throws JsonProcessingException when the events could not be serialized
      */
     @ResponseBody
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<Object>> getUpcoming() {
-        List<Object> events = new ArrayList<Object>();
+    public ResponseEntity<byte[]> getUpcoming(HttpServletRequest request, HttpServletResponse response)
+            throws JsonProcessingException {
+        UpcomingEvents upcoming = this.getUpcomingEvents();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified(upcoming.getETag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(upcoming.getETag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(upcoming.getBody());
+    }
 
-        for (Event event : this.eventService.getUpcoming()) {
-            events.add(this.stripEvent(event));
+    /**
+     * Get the serialized upcoming events, they are only serialized again after a change or when an event has ended.
+     * @return the serialized upcoming events.
+     * @throws JsonProcessingException when the events could not be serialized
+     */
+    private UpcomingEvents getUpcomingEvents() throws JsonProcessingException {
+        UpcomingEvents current = upcomingEvents;
+        if (current != null && this.isCurrent(current)) {
+            return current;
         }
 
-        return new ResponseEntity<List<Object>>(events, HttpStatus.OK);
+        synchronized (this) {
+            current = upcomingEvents;
+            if (current != null && this.isCurrent(current)) {
+                return current;
+            }
+
+            long changeCount = catalogService.getChangeCount();
+            LocalDateTime validUntil = null;
+            List<Object> events = new ArrayList<Object>();
+
+            for (Event event : this.eventService.getUpcoming()) {
+                events.add(this.stripEvent(event));
+
+                if (validUntil == null || event.getEnding().isBefore(validUntil)) {
+                    validUntil = event.getEnding();
+                }
+            }
+
+            current = new UpcomingEvents(
+                    changeCount,
+                    this.createETag(changeCount, validUntil),
+                    objectMapper.writeValueAsBytes(events),
+                    validUntil
+            );
+            upcomingEvents = current;
+
+            return current;
+        }
+    }
+
+    /**
+     * Create the ETag of the upcoming events. The moment the first event ends is part of it, as the response changes
+     * when that event ends without a change of the catalog.
+     * @param changeCount the catalog change count the events were serialized at.
+     * @param validUntil  the moment the first event ends, null when there are no events.
+     * @return the quoted ETag.
+     */
+    private String createETag(long changeCount, LocalDateTime validUntil) {
+        String ending = validUntil != null
+                ? Long.toString(validUntil.toInstant(ZoneOffset.UTC).toEpochMilli(), 36)
+                : "none";
+
+        return "\"" + instanceId + "-" + changeCount + "-" + ending + "\"";
+    }
+
+    /**
+     * Check if the serialized upcoming events are still current.
+     * @param upcoming the serialized upcoming events.
+     * @return true if nothing changed and no event has ended since they were serialized.
+     */
+    private boolean isCurrent(UpcomingEvents upcoming) {
+        return upcoming.getChangeCount() == catalogService.getChangeCount()
+                && (upcoming.getValidUntil() == null || LocalDateTime.now().isBefore(upcoming.getValidUntil()));
     }
 
     /**
@@ -99,4 +208,24 @@ private HashMap<String, Object> stripProduct(Product product) {
 
         return p;
     }
+
+    /**
+     * Serialized upcoming events.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class UpcomingEvents {
+
+        /** Catalog change count the events were serialized at. */
+        private final long changeCount;
+
+        /** ETag of the response. */
+        private final String eTag;
+
+        /** Serialized events. */
+        private final byte[] body;
+
+        /** Moment the first event ends, null when there are no events. */
+        private final LocalDateTime validUntil;
+    }
 }
@@ -0,0 +1,292 @@
+package ch.wisv.events.api.controller;
+
+import ch.wisv.events.core.model.event.EventCategory;
+import ch.wisv.events.core.model.event.EventSummary;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.service.event.EventService;
+import static ch.wisv.events.utils.ResponseEntityBuilder.createResponseEntity;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * EventV2RestController class.
+ *
+ * <p>Pages through the upcoming events with a cursor instead of returning all of them, filtering is done by the
+ * database and only the requested fields are written. The description and the products are left out unless they are
+ * requested, the events are written to the response one by one instead of being collected first. The events are
+ * loaded as summaries, the categories and products are only loaded for the whole page when they are requested.</p>
+ */
+@RestController
+@RequestMapping("/api/v2/event")
+public class EventV2RestController {
+
+    /** Number of events on a page when no limit is given. */
+    private static final int DEFAULT_LIMIT = 20;
+
+    /** Maximum number of events on a page. */
+    private static final int MAX_LIMIT = 100;
+
+    /** Separator of the start and id in a cursor. */
+    private static final String CURSOR_SEPARATOR = "|";
+
+    /** EventService. */
+    private final EventService eventService;
+
+    /** ObjectMapper. */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * EventV2RestController.
+     *
+     * @param eventService of type EventService
+     * @param objectMapper of type ObjectMapper
+     */
+    public EventV2RestController(EventService eventService, ObjectMapper objectMapper) {
+        this.eventService = eventService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Get a page of the published, upcoming events.
+     *
+     * @param cursor   of type String, the nextCursor of the previous page
+     * @param limit    of type int
+     * @param fields   of type String, comma separated fields of the events
+     * @param category of type EventCategory
+     * @param from     of type LocalDateTime, the events start at or after this moment
+     * @param to       of type LocalDateTime, the events start before this moment
+     * @param response of type HttpServletResponse
+     * @return null when the page is written to the response, a bad request otherwise.
+     * @throws IOException when the page could not be written
+     */
+    @GetMapping
+    public ResponseEntity<?> getUpcoming(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "" + DEFAULT_LIMIT) int limit,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "category", required = false) EventCategory category,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response
+    ) throws IOException {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return createResponseEntity(HttpStatus.BAD_REQUEST, "Limit should be between 1 and " + MAX_LIMIT);
+        }
+
+        Set<Field> selected;
+        try {
+            selected = Field.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return createResponseEntity(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        LocalDateTime afterStart = null;
+        Integer afterId = null;
+        if (cursor != null) {
+            try {
+                String[] decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                        .split("\\" + CURSOR_SEPARATOR, 2);
+                afterStart = LocalDateTime.parse(decoded[0]);
+                afterId = Integer.valueOf(decoded[1]);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                return createResponseEntity(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+
+        // One extra event tells whether there is a next page
+        List<EventSummary> events = eventService.getUpcomingPage(category, from, to, afterStart, afterId, limit + 1,
+                selected.contains(Field.DESCRIPTION), selected.contains(Field.CATEGORIES), selected.contains(Field.PRODUCTS));
+        boolean hasNext = events.size() > limit;
+        if (hasNext) {
+            events = events.subList(0, limit);
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        try (JsonGenerator generator = objectMapper.createGenerator(response.getOutputStream())) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("events");
+            for (EventSummary event : events) {
+                this.writeEvent(generator, event, selected);
+            }
+            generator.writeEndArray();
+
+            if (hasNext) {
+                generator.writeStringField("nextCursor", this.createCursor(events.get(events.size() - 1)));
+            } else {
+                generator.writeNullField("nextCursor");
+            }
+            generator.writeEndObject();
+        }
+
+        return null;
+    }
+
+    /**
+     * Create the cursor pointing after an event.
+     *
+     * @param event the last event of the page.
+     * @return the cursor.
+     */
+    private String createCursor(EventSummary event) {
+        String value = event.getStart() + CURSOR_SEPARATOR + event.getId();
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write the selected public fields of an event.
+     *
+     * @param generator the generator to write to.
+     * @param event     the event to write.
+     * @param fields    the fields to write.
+     * @throws IOException when the event could not be written
+     */
+    private void writeEvent(JsonGenerator generator, EventSummary event, Set<Field> fields) throws IOException {
+        generator.writeStartObject();
+
+        for (Field field : fields) {
+            generator.writeFieldName(field.getName());
+
+            switch (field) {
+                case ID -> generator.writeNumber(event.getId());
+                case KEY -> generator.writeString(event.getKey());
+                case TITLE -> generator.writeString(event.getTitle());
+                case SHORT_DESCRIPTION -> generator.writeString(event.getShortDescription());
+                case DESCRIPTION -> generator.writeString(event.getDescription());
+                case EXTERNAL_URL -> generator.writeString(event.getExternalProductUrl());
+                case LOCATION -> generator.writeString(event.getLocation());
+                case CATEGORIES -> generator.writeObject(event.getCategories());
+                case START -> generator.writeObject(event.getStart());
+                case END -> generator.writeObject(event.getEnding());
+                case SOLD_OUT -> generator.writeBoolean(event.isSoldOut());
+                case PRODUCTS -> {
+                    generator.writeStartArray();
+                    for (Product product : event.getProducts()) {
+                        this.writeProduct(generator, product);
+                    }
+                    generator.writeEndArray();
+                }
+            }
+        }
+
+        generator.writeEndObject();
+    }
+
+    /**
+     * Write the public fields of a product.
+     *
+     * @param generator the generator to write to.
+     * @param product   the product to write.
+     * @throws IOException when the product could not be written
+     */
+    private void writeProduct(JsonGenerator generator, Product product) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", product.getId());
+        generator.writeStringField("key", product.getKey());
+        generator.writeStringField("title", product.getTitle());
+        generator.writeStringField("description", product.getDescription());
+        generator.writeNumberField("cost", product.getCost());
+        generator.writeBooleanField("chOnly", product.isChOnly());
+        generator.writeBooleanField("soldOut", product.isSoldOut());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Public fields of an event.
+     */
+    private enum Field {
+        ID("id", true),
+        KEY("key", true),
+        TITLE("title", true),
+        SHORT_DESCRIPTION("shortDescription", true),
+        DESCRIPTION("description", false),
+        EXTERNAL_URL("externalUrl", true),
+        LOCATION("location", true),
+        CATEGORIES("categories", true),
+        START("start", true),
+        END("end", true),
+        SOLD_OUT("soldOut", true),
+        PRODUCTS("products", false);
+
+        /** Name of the field in the response. */
+        private final String name;
+
+        /** If the field is written when no fields are requested. */
+        private final boolean byDefault;
+
+        /**
+         * Field constructor.
+         *
+         * @param name      of type String
+         * @param byDefault of type boolean
+         */
+        Field(String name, boolean byDefault) {
+            this.name = name;
+            this.byDefault = byDefault;
+        }
+
+        /**
+         * Get the name of the field in the response.
+         *
+         * @return String
+         */
+        String getName() {
+            return name;
+        }
+
+        /**
+         * Parse the requested fields.
+         *
+         * @param fields comma separated names of the fields, null for the default fields.
+         * @return the fields in response order.
+         * @throws IllegalArgumentException when a field does not exist or no field is selected
+         */
+        static Set<Field> parse(String fields) {
+            Set<Field> selected = EnumSet.noneOf(Field.class);
+
+            if (fields == null || fields.isBlank()) {
+                Arrays.stream(values()).filter(field -> field.byDefault).forEach(selected::add);
+
+                return selected;
+            }
+
+            for (String name : fields.split(",")) {
+                Field field = Arrays.stream(values())
+                        .filter(x -> x.name.equals(name.trim()))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalArgumentException("Unknown field " + name.trim()));
+                selected.add(field);
+            }
+
+            if (selected.isEmpty()) {
+                throw new IllegalArgumentException("No fields selected");
+            }
+
+            return selected;
+        }
+    }
+}
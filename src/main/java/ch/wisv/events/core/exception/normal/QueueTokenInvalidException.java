@@ -0,0 +1,13 @@
+package ch.wisv.events.core.exception.normal;
+
+import ch.wisv.events.core.exception.LogLevelEnum;
+
+public class QueueTokenInvalidException extends EventsException {
+
+    /**
+     * QueueTokenInvalidException.
+     */
+    public QueueTokenInvalidException() {
+        super(LogLevelEnum.DEBUG, "Your place in the queue has expired, please try again.");
+    }
+}
@@ -0,0 +1,237 @@
+package ch.wisv.events.core.mail;
+
+import ch.wisv.events.core.exception.normal.OrderNotFoundException;
+import ch.wisv.events.core.model.mail.MailTask;
+import ch.wisv.events.core.model.mail.MailTaskStatus;
+import ch.wisv.events.core.model.order.Order;
+import ch.wisv.events.core.repository.MailTaskRepository;
+import ch.wisv.events.core.service.mail.MailService;
+import ch.wisv.events.core.service.order.OrderService;
+import ch.wisv.events.core.service.ticket.TicketService;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * MailDispatcher class. Renders and sends the mails in the outbox on a pool of worker threads, so the requests that
+ * change an order do not wait for the rendering, the wallet passes or the mail server.
+ *
+ * <p>New tasks are dispatched directly after the transaction that created them commits, the MailTaskScheduler sweeps
+ * up the tasks that are due for a retry or were missed, e.g. because of a restart. Failed tasks are retried with an
+ * exponential backoff, after the maximum number of attempts they are moved to the dead letters.</p>
+ */
+@Component
+@Slf4j
+public class MailDispatcher {
+
+    /** Time to wait for running tasks on shutdown in seconds. */
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    /** Backoff after the first failed attempt in seconds. */
+    private static final long INITIAL_BACKOFF_SECONDS = 60;
+
+    /** Maximum backoff in seconds. */
+    private static final long MAX_BACKOFF_SECONDS = 6 * 60 * 60;
+
+    /** MailTaskRepository. */
+    private final MailTaskRepository mailTaskRepository;
+
+    /** OrderService. */
+    private final OrderService orderService;
+
+    /** TicketService. */
+    private final TicketService ticketService;
+
+    /** MailService. */
+    private final MailService mailService;
+
+    /** Worker pool. */
+    private final ExecutorService executor;
+
+    /** Number of attempts after which a task is moved to the dead letters. */
+    private final int maxAttempts;
+
+    /** Ids of the tasks that are queued or being sent. */
+    private final Set<Integer> dispatched = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor MailDispatcher creates a new MailDispatcher instance.
+     *
+     * @param mailTaskRepository of type MailTaskRepository
+     * @param orderService       of type OrderService
+     * @param ticketService      of type TicketService
+     * @param mailService        of type MailService
+     * @param workers            of type int
+     * @param maxAttempts        of type int
+     */
+    public MailDispatcher(
+            MailTaskRepository mailTaskRepository,
+            OrderService orderService,
+            TicketService ticketService,
+            MailService mailService,
+            @Value("${wisvch.events.mail.workers:4}") int workers,
+            @Value("${wisvch.events.mail.maxAttempts:8}") int maxAttempts
+    ) {
+        this.mailTaskRepository = mailTaskRepository;
+        this.orderService = orderService;
+        this.ticketService = ticketService;
+        this.mailService = mailService;
+        this.maxAttempts = maxAttempts;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "mail-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    /**
+     * Dispatch a MailTask by its id, unless it is already queued or being sent. The task is loaded by the worker that
+     * sends it.
+     *
+     * @param taskId of type Integer
+     *
+     * @return boolean true if the task has been dispatched
+     */
+    public boolean dispatch(Integer taskId) {
+        if (!dispatched.add(taskId)) {
+            return false;
+        }
+
+        executor.execute(() -> this.run(taskId));
+
+        return true;
+    }
+
+    /**
+     * Dispatch a newly created MailTask as soon as the transaction in which it is created has been committed.
+     *
+     * @param event of type MailTaskCreatedEvent
+     */
+    @TransactionalEventListener
+    public void onMailTaskCreated(MailTaskCreatedEvent event) {
+        this.dispatch(event.getTaskId());
+    }
+
+    /**
+     * Get the number of tasks that are queued or being sent.
+     *
+     * @return int
+     */
+    public int getDispatchedCount() {
+        return dispatched.size();
+    }
+
+    /**
+     * Stop the workers, the tasks that have not been sent are picked up again after a restart.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Send a task, if it still has to be sent.
+     *
+     * @param taskId of type Integer
+     */
+    private void run(Integer taskId) {
+        try {
+            mailTaskRepository.findById(taskId)
+                    .filter(mailTask -> MailTaskStatus.DUE.contains(mailTask.getMailTaskStatus()))
+                    .ifPresent(this::send);
+        } catch (RuntimeException e) {
+            log.error("Sending MailTask #" + taskId + " failed", e);
+        } finally {
+            dispatched.remove(taskId);
+        }
+    }
+
+    /**
+     * Render and send the mail of a MailTask and store the result.
+     *
+     * @param mailTask of type MailTask
+     */
+    private void send(MailTask mailTask) {
+        mailTask.setAttempts(mailTask.getAttempts() + 1);
+
+        try {
+            Order order = orderService.getByReference(mailTask.getOrderReference());
+
+            switch (mailTask.getType()) {
+                case ORDER_CONFIRMATION:
+                    mailService.sendOrderConfirmation(order, ticketService.getAllByOrder(order));
+                    break;
+                case ORDER_RESERVATION:
+                    mailService.sendOrderReservation(order);
+                    break;
+                default:
+                    break;
+            }
+
+            mailTask.setMailTaskStatus(MailTaskStatus.SENT);
+            mailTask.setSentAt(LocalDateTime.now());
+            mailTask.setError(null);
+            log.info("Order " + order.getPublicReference() + ": Sent " + mailTask.getType() + " mail #" + mailTask.getId());
+        } catch (OrderNotFoundException e) {
+            log.error("MailTask #" + mailTask.getId() + ": " + e.getMessage());
+            this.failed(mailTask, e.getMessage(), true);
+        } catch (RuntimeException e) {
+            log.error("MailTask #" + mailTask.getId() + " failed: " + e.getMessage());
+            this.failed(mailTask, e.toString(), false);
+        }
+
+        mailTaskRepository.save(mailTask);
+    }
+
+    /**
+     * Mark an attempt as failed. The task is retried with an exponential backoff with jitter, until the maximum number
+     * of attempts is reached or the failure is permanent.
+     *
+     * @param mailTask  of type MailTask
+     * @param error     of type String
+     * @param permanent of type boolean
+     */
+    private void failed(MailTask mailTask, String error, boolean permanent) {
+        mailTask.setError(error);
+
+        if (permanent || mailTask.getAttempts() >= maxAttempts) {
+            mailTask.setMailTaskStatus(MailTaskStatus.DEAD_LETTER);
+        } else {
+            mailTask.setMailTaskStatus(MailTaskStatus.ERROR);
+            mailTask.setNextAttemptAt(LocalDateTime.now().plusSeconds(this.getBackoff(mailTask.getAttempts())));
+        }
+    }
+
+    /**
+     * Get the backoff after a number of attempts in seconds. The backoff doubles every attempt, half of it is random,
+     * so mails that failed together, e.g. because the mail server was down, are not retried together.
+     *
+     * @param attempts of type int
+     *
+     * @return long
+     */
+    long getBackoff(int attempts) {
+        long backoff = INITIAL_BACKOFF_SECONDS << Math.min(attempts - 1, 20);
+        backoff = Math.min(backoff, MAX_BACKOFF_SECONDS);
+
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+}
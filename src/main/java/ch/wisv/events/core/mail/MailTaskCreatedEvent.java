@@ -0,0 +1,22 @@
+package ch.wisv.events.core.mail;
+
+import lombok.Getter;
+
+/**
+ * MailTaskCreatedEvent class. Published when a MailTask has been created.
+ */
+@Getter
+public class MailTaskCreatedEvent {
+
+    /** Id of the MailTask. */
+    private final Integer taskId;
+
+    /**
+     * Constructor MailTaskCreatedEvent creates a new MailTaskCreatedEvent instance.
+     *
+     * @param taskId of type Integer
+     */
+    public MailTaskCreatedEvent(Integer taskId) {
+        this.taskId = taskId;
+    }
+}
@@ -0,0 +1,58 @@
+package ch.wisv.events.core.mail;
+
+import ch.wisv.events.core.model.mail.MailTask;
+import ch.wisv.events.core.model.mail.MailTaskStatus;
+import ch.wisv.events.core.repository.MailTaskRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class MailTaskScheduler {
+
+    /** Task interval in seconds. */
+    private static final int MAIL_TASK_INTERVAL_SECONDS = 30;
+
+    /** Maximum number of tasks dispatched per run. */
+    private static final int MAIL_TASK_BATCH_SIZE = 100;
+
+    /** MailTaskRepository. */
+    private final MailTaskRepository mailTaskRepository;
+
+    /** MailDispatcher. */
+    private final MailDispatcher mailDispatcher;
+
+    /**
+     * Constructor MailTaskScheduler creates a new MailTaskScheduler instance.
+     *
+     * @param mailTaskRepository of type MailTaskRepository
+     * @param mailDispatcher     of type MailDispatcher
+     */
+    @Autowired
+    public MailTaskScheduler(MailTaskRepository mailTaskRepository, MailDispatcher mailDispatcher) {
+        this.mailTaskRepository = mailTaskRepository;
+        this.mailDispatcher = mailDispatcher;
+    }
+
+    /**
+     * Hand the MailTasks that are due to the dispatcher, tasks which are still being sent are skipped. New tasks are
+     * dispatched when they are created, so this sweep only picks up retries and tasks that have been missed.
+     */
+    @Scheduled(fixedDelay = MAIL_TASK_INTERVAL_SECONDS * 1000)
+    public void mailTask() {
+        List<MailTask> mailTaskList = this.mailTaskRepository
+                .findAllByMailTaskStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                        MailTaskStatus.DUE, LocalDateTime.now(), PageRequest.of(0, MAIL_TASK_BATCH_SIZE)
+                );
+
+        long count = mailTaskList.stream().map(MailTask::getId).filter(mailDispatcher::dispatch).count();
+        if (count > 0) {
+            log.info("Dispatched " + count + " MailTasks");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ch.wisv.events.core.model.catalog;
+
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.event.EventCategory;
+import ch.wisv.events.core.model.product.Product;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * CatalogEvent class. Read-only view of an Event in the webshop, containing only the Products that are on sale.
+ */
+@Getter
+public class CatalogEvent {
+
+    /** Key of the Event. */
+    private final String key;
+
+    /** Title of the Event. */
+    private final String title;
+
+    /** Short description of the Event. */
+    private final String shortDescription;
+
+    /** Description of the Event. */
+    private final String description;
+
+    /** Location of the Event. */
+    private final String location;
+
+    /** Image of the Event. */
+    private final String imageUrl;
+
+    /** External url where the tickets are sold. */
+    private final String externalProductUrl;
+
+    /** Start of the Event. */
+    private final LocalDateTime start;
+
+    /** End of the Event. */
+    private final LocalDateTime ending;
+
+    /** Categories of the Event. */
+    private final List<EventCategory> categories;
+
+    /** Event is sold out. */
+    private final boolean soldOut;
+
+    /** Products that are on sale. */
+    private final List<CatalogProduct> products;
+
+    /**
+     * Constructor CatalogEvent creates a new CatalogEvent instance.
+     *
+     * @param event    of type Event
+     * @param products of type List of CatalogProducts that are on sale
+     */
+    public CatalogEvent(Event event, List<CatalogProduct> products) {
+        this.key = event.getKey();
+        this.title = event.getTitle();
+        this.shortDescription = event.getShortDescription();
+        this.description = event.getDescription();
+        this.location = event.getLocation();
+        this.imageUrl = event.getImageUrl();
+        this.externalProductUrl = event.getExternalProductUrl();
+        this.start = event.getStart();
+        this.ending = event.getEnding();
+        this.categories = event.getCategories() == null ? List.of() : List.copyOf(event.getCategories());
+        this.soldOut = event.isSoldOut();
+        this.products = List.copyOf(products);
+    }
+
+    /**
+     * Create a view of an Event containing only the Products that are on sale at a moment, the Event is not changed.
+     *
+     * @param event  of type Event
+     * @param moment of type LocalDateTime
+     *
+     * @return CatalogEvent
+     */
+    public static CatalogEvent ofSalableProducts(Event event, LocalDateTime moment) {
+        return new CatalogEvent(event, event.getProducts().stream()
+                .filter(product -> isOnSale(product, moment))
+                .map(CatalogProduct::new)
+                .toList());
+    }
+
+    /**
+     * Check if a Product is on sale at a moment.
+     *
+     * @param product of type Product
+     * @param moment  of type LocalDateTime
+     *
+     * @return boolean
+     */
+    public static boolean isOnSale(Product product, LocalDateTime moment) {
+        return (product.getSellStart() == null || moment.isAfter(product.getSellStart()))
+                && (product.getSellEnd() == null || moment.isBefore(product.getSellEnd()));
+    }
+
+    /**
+     * Check if the event has an external ticket URL configured.
+     *
+     * @return boolean
+     */
+    public boolean hasExternalProductUrl() {
+        return this.externalProductUrl != null && this.externalProductUrl.length() > 0;
+    }
+}
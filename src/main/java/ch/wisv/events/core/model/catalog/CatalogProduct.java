@@ -0,0 +1,47 @@
+package ch.wisv.events.core.model.catalog;
+
+import ch.wisv.events.core.model.product.Product;
+import lombok.Getter;
+
+/**
+ * CatalogProduct class. Read-only view of a Product that can be bought in the webshop.
+ */
+@Getter
+public class CatalogProduct {
+
+    /** Key of the Product. */
+    private final String key;
+
+    /** Title of the Product. */
+    private final String title;
+
+    /** Description of the Product. */
+    private final String description;
+
+    /** Cost of the Product. */
+    private final Double cost;
+
+    /** Maximum number of the Product one customer can buy. */
+    private final Integer maxSoldPerCustomer;
+
+    /** Product is only for CH members. */
+    private final boolean chOnly;
+
+    /** Product is sold out. */
+    private final boolean soldOut;
+
+    /**
+     * Constructor CatalogProduct creates a new CatalogProduct instance.
+     *
+     * @param product of type Product
+     */
+    public CatalogProduct(Product product) {
+        this.key = product.getKey();
+        this.title = product.getTitle();
+        this.description = product.getDescription();
+        this.cost = product.getCost();
+        this.maxSoldPerCustomer = product.getMaxSoldPerCustomer();
+        this.chOnly = product.isChOnly();
+        this.soldOut = product.isSoldOut();
+    }
+}
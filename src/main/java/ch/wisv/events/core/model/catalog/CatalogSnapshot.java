@@ -0,0 +1,62 @@
+package ch.wisv.events.core.model.catalog;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.Getter;
+
+/**
+ * CatalogSnapshot class. Immutable view of the upcoming, published Events in the webshop at one moment.
+ */
+@Getter
+public class CatalogSnapshot {
+
+    /** Version of the snapshot, increases with every rebuild. */
+    private final long version;
+
+    /** Moment the snapshot was built. */
+    private final LocalDateTime createdAt;
+
+    /** First moment a Product starts or stops selling or an Event ends, null when there is none. */
+    private final LocalDateTime nextBoundary;
+
+    /** Events that are shown on the front page, ordered by start. */
+    private final List<CatalogEvent> events;
+
+    /** All upcoming, published Events by key. */
+    private final Map<String, CatalogEvent> eventsByKey;
+
+    /**
+     * Constructor CatalogSnapshot creates a new CatalogSnapshot instance.
+     *
+     * @param version      of type long
+     * @param createdAt    of type LocalDateTime
+     * @param nextBoundary of type LocalDateTime
+     * @param upcoming     of type List of all upcoming, published CatalogEvents
+     */
+    public CatalogSnapshot(long version, LocalDateTime createdAt, LocalDateTime nextBoundary, List<CatalogEvent> upcoming) {
+        this.version = version;
+        this.createdAt = createdAt;
+        this.nextBoundary = nextBoundary;
+
+        Map<String, CatalogEvent> byKey = new LinkedHashMap<>();
+        upcoming.forEach(event -> byKey.put(event.getKey(), event));
+        this.eventsByKey = Map.copyOf(byKey);
+        this.events = upcoming.stream()
+                .filter(event -> !event.getProducts().isEmpty() || event.hasExternalProductUrl())
+                .toList();
+    }
+
+    /**
+     * Get an upcoming, published Event by key.
+     *
+     * @param key of type String
+     *
+     * @return Optional of CatalogEvent
+     */
+    public Optional<CatalogEvent> getEvent(String key) {
+        return Optional.ofNullable(eventsByKey.get(key));
+    }
+}
@@ -0,0 +1,104 @@
+package ch.wisv.events.core.model.event;
+
+import ch.wisv.events.core.model.product.Product;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * EventSummary class. The public fields of an Event, loaded without the Event entity and its Products. The description,
+ * categories and Products are only filled when they are requested.
+ */
+@Getter
+public class EventSummary {
+
+    /** ID of the Event. */
+    private final Integer id;
+
+    /** Key of the Event. */
+    private final String key;
+
+    /** Title of the Event. */
+    private final String title;
+
+    /** Short description of the Event. */
+    private final String shortDescription;
+
+    /** Description of the Event, null when not loaded. */
+    @Setter
+    private String description;
+
+    /** Link to an external url for registering for the Event. */
+    private final String externalProductUrl;
+
+    /** Location of the Event. */
+    private final String location;
+
+    /** Starting time of the Event. */
+    private final LocalDateTime start;
+
+    /** Ending time of the Event. */
+    private final LocalDateTime ending;
+
+    /** Maximum number of products sold for the Event, null when there is no limit. */
+    private final Integer maxSold;
+
+    /** Number of products sold for the Event. */
+    private final long sold;
+
+    /** Categories of the Event, null when not loaded. */
+    @Setter
+    private List<EventCategory> categories;
+
+    /** Products of the Event, null when not loaded. */
+    @Setter
+    private List<Product> products;
+
+    /**
+     * EventSummary constructor.
+     *
+     * @param id                 of type Integer
+     * @param key                of type String
+     * @param title              of type String
+     * @param shortDescription   of type String
+     * @param externalProductUrl of type String
+     * @param location           of type String
+     * @param start              of type LocalDateTime
+     * @param ending             of type LocalDateTime
+     * @param maxSold            of type Integer
+     * @param sold               of type Long
+     */
+    public EventSummary(
+            Integer id,
+            String key,
+            String title,
+            String shortDescription,
+            String externalProductUrl,
+            String location,
+            LocalDateTime start,
+            LocalDateTime ending,
+            Integer maxSold,
+            Long sold
+    ) {
+        this.id = id;
+        this.key = key;
+        this.title = title;
+        this.shortDescription = shortDescription;
+        this.externalProductUrl = externalProductUrl;
+        this.location = location;
+        this.start = start;
+        this.ending = ending;
+        this.maxSold = maxSold;
+        this.sold = sold == null ? 0 : sold;
+    }
+
+    /**
+     * If the Event is sold out, see {@link Event#isSoldOut()}.
+     *
+     * @return boolean
+     */
+    public boolean isSoldOut() {
+        return this.maxSold != null && this.sold >= this.maxSold;
+    }
+}
@@ -0,0 +1,83 @@
+package ch.wisv.events.core.model.mail;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Data;
+
+/**
+ * MailTask class. A mail about an order in the outbox, it is rendered and sent after the order has been stored.
+ */
+@Entity
+@Data
+@Table(indexes = @Index(name = "mail_task_status_next_attempt_at_idx", columnList = "mailTaskStatus, nextAttemptAt"))
+public class MailTask {
+
+    /**
+     * ID of the task, getter only so it can not be changed.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mail_task_seq")
+    private Integer id;
+
+    /**
+     * Type of the mail.
+     */
+    private MailTaskType type;
+
+    /**
+     * Public reference of the order the mail is about.
+     */
+    private String orderReference;
+
+    /**
+     * Time at which the task has been created.
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * Status of the task.
+     */
+    private MailTaskStatus mailTaskStatus;
+
+    /**
+     * Error of the last attempt.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    /**
+     * Number of times the task has been sent.
+     */
+    private int attempts;
+
+    /**
+     * Time at which a pending task is due to be sent.
+     */
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Time at which the mail has been sent.
+     */
+    private LocalDateTime sentAt;
+
+    /**
+     * Constructor MailTask creates a new MailTask instance.
+     */
+    public MailTask() {
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+        this.mailTaskStatus = MailTaskStatus.PENDING;
+    }
+
+    /**
+     * Constructor MailTask creates a new MailTask instance.
+     *
+     * @param type           of type MailTaskType
+     * @param orderReference of type String
+     */
+    public MailTask(MailTaskType type, String orderReference) {
+        this();
+        this.type = type;
+        this.orderReference = orderReference;
+    }
+}
@@ -0,0 +1,19 @@
+package ch.wisv.events.core.model.mail;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Status of a MailTask. A PENDING task is sent when it is due, a failed attempt makes it ERROR with a later due time,
+ * until it has been sent (SENT) or is given up on (DEAD_LETTER).
+ */
+public enum MailTaskStatus {
+
+    PENDING, SENT, ERROR, DEAD_LETTER;
+
+    /**
+     * Statuses of the tasks that still have to be sent.
+     */
+    public static final Set<MailTaskStatus> DUE = Collections.unmodifiableSet(EnumSet.of(PENDING, ERROR));
+}
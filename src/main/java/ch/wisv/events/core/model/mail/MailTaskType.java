@@ -0,0 +1,9 @@
+package ch.wisv.events.core.model.mail;
+
+/**
+ * Type of a MailTask, i.e. the mail that is sent about the order.
+ */
+public enum MailTaskType {
+
+    ORDER_CONFIRMATION, ORDER_RESERVATION
+}
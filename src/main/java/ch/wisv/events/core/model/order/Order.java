@@ -21,7 +21,7 @@
 import static org.springframework.format.annotation.DateTimeFormat.ISO;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "orders_status_created_at_idx", columnList = "status, createdAt"))
 @Data
 @Getter
 @Setter
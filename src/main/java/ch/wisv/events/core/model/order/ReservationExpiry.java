@@ -0,0 +1,84 @@
+package ch.wisv.events.core.model.order;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+
+/**
+ * ReservationExpiry class. Moment at which a reservation expires.
+ */
+@Getter
+public class ReservationExpiry implements Delayed {
+
+    /** Max number of days a reservation is valid. */
+    public static final int MAX_RESERVATION_DAYS = 3;
+
+    /** Public reference of the Order. */
+    private final String publicReference;
+
+    /** Moment the reservation expires. */
+    private final LocalDateTime deadline;
+
+    /**
+     * ReservationExpiry constructor.
+     *
+     * @param publicReference of type String
+     * @param createdAt       of type LocalDateTime, creation moment of the Order
+     */
+    public ReservationExpiry(String publicReference, LocalDateTime createdAt) {
+        this.publicReference = publicReference;
+        this.deadline = createdAt.plusDays(MAX_RESERVATION_DAYS);
+    }
+
+    /**
+     * ReservationExpiry constructor.
+     *
+     * @param deadline        of type LocalDateTime, moment the reservation expires
+     * @param publicReference of type String
+     */
+    private ReservationExpiry(LocalDateTime deadline, String publicReference) {
+        this.publicReference = publicReference;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Get the same reservation expiring after a delay from now, used to try again when expiring failed.
+     *
+     * @param delay of type Duration
+     *
+     * @return ReservationExpiry
+     */
+    public ReservationExpiry postpone(Duration delay) {
+        return new ReservationExpiry(LocalDateTime.now().plus(delay), publicReference);
+    }
+
+    /**
+     * Get the remaining time until the deadline.
+     *
+     * @param unit of type TimeUnit
+     *
+     * @return long
+     */
+    @Override
+    public long getDelay(TimeUnit unit) {
+        return unit.convert(Duration.between(LocalDateTime.now(), deadline).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Order by deadline.
+     *
+     * @param other of type Delayed
+     *
+     * @return int
+     */
+    @Override
+    public int compareTo(Delayed other) {
+        if (other instanceof ReservationExpiry expiry) {
+            return deadline.compareTo(expiry.getDeadline());
+        }
+
+        return Long.compare(this.getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
+    }
+}
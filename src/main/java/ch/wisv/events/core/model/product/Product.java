@@ -17,14 +17,19 @@
 import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.format.annotation.DateTimeFormat.ISO;
 
 /**
  * Product Entity.
+ *
+ * <p>Only changed columns are written on update, so saving a Product never overwrites the sold and reserved counters
+ * which are maintained by the InventoryService.</p>
  */
 @Entity
 @Data
+@DynamicUpdate
 public class Product {
 
     /**
@@ -146,6 +151,12 @@ public class Product {
      */
     private boolean reservable = false;
 
+    /**
+     * Checkouts containing this product have to pass the admission queue first.
+     * Defaults to false.
+     */
+    private boolean queued = false;
+
     /**
      * Product constructor.
      */
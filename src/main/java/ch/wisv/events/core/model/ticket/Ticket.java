@@ -18,13 +18,19 @@
 
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "ticket_product_unique_code_idx", columnList = "product_id, uniqueCode", unique = true),
+        @Index(name = "ticket_product_updated_at_idx", columnList = "product_id, updatedAt")
+})
 public class Ticket {
 
     /**
-     * ID of the ticket, getter only so it can not be changed.
+     * ID of the ticket, getter only so it can not be changed. Ids are allocated in blocks of 50, so the Tickets of an
+     * Order can be inserted in a single batch.
      */
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "ticket_seq", allocationSize = 50)
     @Setter(AccessLevel.NONE)
     public Integer id;
 
@@ -70,6 +76,22 @@ public class Ticket {
      */
     private boolean valid;
 
+    /**
+     * Time at which the Ticket has been scanned.
+     */
+    private LocalDateTime scannedAt;
+
+    /**
+     * Name of the user that scanned the Ticket.
+     */
+    private String scannedBy;
+
+    /**
+     * Time at which the Ticket has been created or last changed, used to send only the changed Tickets to the
+     * scanners.
+     */
+    private LocalDateTime updatedAt;
+
     /**
      * Ticket constructor.
      */
@@ -95,6 +117,15 @@ public Ticket(Order order, Customer owner, Product product, String uniqueCode) {
         this.valid = true;
     }
 
+    /**
+     * Set the time of the last change.
+     */
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
     /**
      * Can the ticket be transferred to another customer by the given customer.
      * This is only possible if the ticket is not scanned and not already transferred and if the ticket is valid.
@@ -0,0 +1,59 @@
+package ch.wisv.events.core.model.ticket;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Setter;
+
+/**
+ * TicketRemoval class. A unique code that is no longer valid because its Ticket has been deleted or transferred, so
+ * the scanners can drop it from their offline bundle.
+ */
+@Entity
+@Data
+@Table(indexes = @Index(name = "ticket_removal_product_removed_at_idx", columnList = "productId, removedAt"))
+public class TicketRemoval {
+
+    /**
+     * ID of the removal, getter only so it can not be changed.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_removal_seq")
+    @Setter(AccessLevel.NONE)
+    private Integer id;
+
+    /**
+     * ID of the Product of the Ticket. Not a relation, so the removal does not prevent deleting the Product.
+     */
+    private Integer productId;
+
+    /**
+     * Unique code that is no longer valid.
+     */
+    private String uniqueCode;
+
+    /**
+     * Time at which the unique code has been removed.
+     */
+    private LocalDateTime removedAt;
+
+    /**
+     * Constructor TicketRemoval creates a new TicketRemoval instance.
+     */
+    public TicketRemoval() {
+        this.removedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Constructor TicketRemoval creates a new TicketRemoval instance.
+     *
+     * @param productId  of type Integer
+     * @param uniqueCode of type String
+     */
+    public TicketRemoval(Integer productId, String uniqueCode) {
+        this();
+        this.productId = productId;
+        this.uniqueCode = uniqueCode;
+    }
+}
@@ -0,0 +1,59 @@
+package ch.wisv.events.core.model.ticket;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * TicketScanEntry class. The information of a Ticket needed at the door.
+ */
+@Getter
+public class TicketScanEntry {
+
+    /** ID of the Ticket. */
+    private final Integer ticketId;
+
+    /** Unique code of the Ticket. */
+    private final String uniqueCode;
+
+    /** Title of the Product of the Ticket. */
+    private final String productTitle;
+
+    /** Name of the owner of the Ticket. */
+    private final String ownerName;
+
+    /** Last known status of the Ticket. */
+    @Setter
+    private volatile TicketStatus status;
+
+    /**
+     * TicketScanEntry constructor.
+     *
+     * @param ticketId     of type Integer
+     * @param uniqueCode   of type String
+     * @param status       of type TicketStatus
+     * @param productTitle of type String
+     * @param ownerName    of type String
+     */
+    public TicketScanEntry(Integer ticketId, String uniqueCode, TicketStatus status, String productTitle, String ownerName) {
+        this.ticketId = ticketId;
+        this.uniqueCode = uniqueCode;
+        this.status = status;
+        this.productTitle = productTitle;
+        this.ownerName = ownerName;
+    }
+
+    /**
+     * TicketScanEntry constructor.
+     *
+     * @param ticket of type Ticket
+     */
+    public TicketScanEntry(Ticket ticket) {
+        this(
+                ticket.getId(),
+                ticket.getUniqueCode(),
+                ticket.getStatus(),
+                ticket.getProduct().getTitle(),
+                ticket.getOwner() == null ? null : ticket.getOwner().getName()
+        );
+    }
+}
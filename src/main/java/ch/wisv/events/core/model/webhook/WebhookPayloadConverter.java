@@ -0,0 +1,47 @@
+package ch.wisv.events.core.model.webhook;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+
+/**
+ * WebhookPayloadConverter class. Stores the payload of a WebhookTask as its JSON document, which is a lot smaller and
+ * cheaper to read than the serialized JSONObject and can be queried by the database.
+ */
+@Converter
+public class WebhookPayloadConverter implements AttributeConverter<JSONObject, String> {
+
+    /**
+     * Convert the payload to its JSON document.
+     *
+     * @param attribute of type JSONObject
+     *
+     * @return String
+     */
+    @Override
+    public String convertToDatabaseColumn(JSONObject attribute) {
+        return attribute == null ? null : attribute.toJSONString();
+    }
+
+    /**
+     * Parse the stored JSON document.
+     *
+     * @param dbData of type String
+     *
+     * @return JSONObject
+     */
+    @Override
+    public JSONObject convertToEntityAttribute(String dbData) {
+        if (dbData == null) {
+            return null;
+        }
+
+        try {
+            return (JSONObject) new JSONParser().parse(dbData);
+        } catch (ParseException | ClassCastException e) {
+            throw new IllegalStateException("Stored webhook payload is not a JSON object", e);
+        }
+    }
+}
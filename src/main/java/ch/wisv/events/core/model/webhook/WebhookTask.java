@@ -8,6 +8,11 @@
 
 @Entity
 @Data
+@Table(indexes = {
+        @Index(name = "webhook_task_status_next_attempt_at_idx", columnList = "webhookTaskStatus, nextAttemptAt"),
+        @Index(name = "webhook_task_entity_key_trigger_idx", columnList = "entityKey, trigger"),
+        @Index(name = "webhook_task_created_at_id_idx", columnList = "createdAt, id")
+})
 public class WebhookTask {
 
     /**
@@ -29,8 +34,17 @@ public class WebhookTask {
     private Webhook webhook;
 
     /**
-     * Field object.
+     * Key of the event or product the task is about.
      */
+    private String entityKey;
+
+    /**
+     * Payload of the task, stored as its JSON document. Only loaded when it is read, so finding and updating tasks does
+     * not read the document.
+     */
+    @Basic(fetch = FetchType.LAZY)
+    @Convert(converter = WebhookPayloadConverter.class)
+    @Column(name = "payload", columnDefinition = "TEXT")
     private JSONObject object;
 
     /**
@@ -49,11 +63,28 @@ public class WebhookTask {
     @Column(columnDefinition = "TEXT")
     private String webhookError;
 
+    /**
+     * Number of times the task has been sent.
+     */
+    private int attempts;
+
+    /**
+     * Time at which a pending task is due to be sent.
+     */
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Version of the task, so a payload replaced while the task is being sent is not overwritten by the result.
+     */
+    @Version
+    private Integer version;
+
     /**
      * Constructor WebhookTask creates a new WebhookTask instance.
      */
     public WebhookTask() {
         this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
         this.webhookTaskStatus = WebhookTaskStatus.PENDING;
     }
 
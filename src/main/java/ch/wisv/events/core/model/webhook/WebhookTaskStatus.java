@@ -1,10 +1,24 @@
 package ch.wisv.events.core.model.webhook;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
 import lombok.Getter;
 
+/**
+ * Status of a WebhookTask. A PENDING task is sent when it is due, a failed attempt makes it ERROR with a later due
+ * time, until it succeeds (SUCCESS) or is given up on (DEAD_LETTER). A task that is still due when its entity is
+ * deleted is CANCELLED.
+ */
 public enum WebhookTaskStatus {
 
-    PENDING("badge-warning"), SUCCESS("badge-success"), ERROR("badge-danger");
+    PENDING("badge-warning"), SUCCESS("badge-success"), ERROR("badge-danger"), DEAD_LETTER("badge-dark"),
+    CANCELLED("badge-secondary");
+
+    /**
+     * Statuses of the tasks that still have to be sent.
+     */
+    public static final Set<WebhookTaskStatus> DUE = Collections.unmodifiableSet(EnumSet.of(PENDING, ERROR));
 
     /**
      * Badge class.
@@ -0,0 +1,37 @@
+package ch.wisv.events.core.model.webhook;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * WebhookTaskSummary class. A WebhookTask as shown in the list of tasks, without its payload.
+ */
+@Data
+@AllArgsConstructor
+public class WebhookTaskSummary {
+
+    /** ID of the WebhookTask. */
+    private Integer id;
+
+    /** Time at which the task has been created. */
+    private LocalDateTime createdAt;
+
+    /** Trigger of the task. */
+    private WebhookTrigger trigger;
+
+    /** Payload url of the webhook. */
+    private String payloadUrl;
+
+    /** Status of the task. */
+    private WebhookTaskStatus webhookTaskStatus;
+
+    /** Error of the last attempt. */
+    private String webhookError;
+
+    /** Number of times the task has been sent. */
+    private int attempts;
+
+    /** Time at which the task is due to be sent. */
+    private LocalDateTime nextAttemptAt;
+}
@@ -1,5 +1,6 @@
 package ch.wisv.events.core.model.webhook;
 
+import java.util.Optional;
 import lombok.Getter;
 
 public enum WebhookTrigger {
@@ -33,4 +34,18 @@ public enum WebhookTrigger {
         this.name = name;
         this.description = description;
     }
+
+    /**
+     * Get the trigger of which the pending tasks become obsolete when a task of this trigger is created, e.g. an update
+     * of an event that is deleted afterwards.
+     *
+     * @return Optional of WebhookTrigger
+     */
+    public Optional<WebhookTrigger> getSupersededTrigger() {
+        return switch (this) {
+            case EVENT_DELETE -> Optional.of(EVENT_CREATE_UPDATE);
+            case PRODUCT_DELETE -> Optional.of(PRODUCT_CREATE_UPDATE);
+            default -> Optional.empty();
+        };
+    }
 }
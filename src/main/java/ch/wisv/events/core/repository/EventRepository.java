@@ -2,15 +2,22 @@
 
 import ch.wisv.events.core.admin.Attendance;
 import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.event.EventCategory;
 import ch.wisv.events.core.model.event.EventStatus;
+import ch.wisv.events.core.model.event.EventSummary;
 import ch.wisv.events.core.model.product.Product;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 /**
@@ -36,6 +43,93 @@ public interface EventRepository extends JpaRepository<Event, Integer> {
      */
     List<Event> findAllByPublishedAndEndingIsAfter(EventStatus published, LocalDateTime ending);
 
+    /**
+     * Find the Events with a status that end after a moment, together with their Products. The entities are loaded
+     * read-only, so they are never flushed.
+     *
+     * @param published of type EventStatus
+     * @param ending    of type LocalDateTime
+     *
+     * @return List of Events ordered by start
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select e from Event e left join fetch e.products "
+            + "where e.published = :published and e.ending > :ending order by e.start asc")
+    List<Event> findAllReadOnlyByPublishedAndEndingAfter(
+            @Param("published") EventStatus published,
+            @Param("ending") LocalDateTime ending
+    );
+
+    /**
+     * Find a page of the Events with a status that end after a moment, ordered by start and id. The optional filters
+     * are ignored when they are null, the page starts after the Event with the given start and id. Only the columns of
+     * the Events are selected, so their Products are not loaded. The description is left out, it is large and only
+     * loaded when requested.
+     *
+     * @param published  of type EventStatus
+     * @param ending     of type LocalDateTime
+     * @param category   of type EventCategory, may be null
+     * @param from       of type LocalDateTime, the Events start at or after this moment, may be null
+     * @param to         of type LocalDateTime, the Events start before this moment, may be null
+     * @param afterStart of type LocalDateTime, start of the last Event of the previous page, may be null
+     * @param afterId    of type Integer, id of the last Event of the previous page, may be null
+     * @param pageable   of type Pageable, only the page size is used
+     *
+     * @return List of EventSummaries
+     */
+    @Query("select new ch.wisv.events.core.model.event.EventSummary(e.id, e.key, e.title, e.shortDescription, "
+            + "e.externalProductUrl, e.location, e.start, e.ending, e.maxSold, "
+            + "(select coalesce(sum(p.sold), 0L) from Product p where p.event = e)) "
+            + "from Event e where e.published = :published and e.ending > :ending "
+            + "and (:category is null or :category member of e.categories) "
+            + "and (cast(:from as LocalDateTime) is null or e.start >= :from) "
+            + "and (cast(:to as LocalDateTime) is null or e.start < :to) "
+            + "and (cast(:afterStart as LocalDateTime) is null or e.start > :afterStart "
+            + "or (e.start = :afterStart and e.id > :afterId)) "
+            + "order by e.start asc, e.id asc")
+    List<EventSummary> findSummaryPageByPublishedAndEndingAfter(
+            @Param("published") EventStatus published,
+            @Param("ending") LocalDateTime ending,
+            @Param("category") EventCategory category,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("afterStart") LocalDateTime afterStart,
+            @Param("afterId") Integer afterId,
+            Pageable pageable
+    );
+
+    /**
+     * Find the descriptions of Events in a single query.
+     *
+     * @param ids of type Collection of Event ids
+     *
+     * @return List of pairs of the Event id and its description
+     */
+    @Query("select e.id, e.description from Event e where e.id in :ids")
+    List<Object[]> findAllDescriptionsByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Find the categories of Events in a single query.
+     *
+     * @param ids of type Collection of Event ids
+     *
+     * @return List of pairs of the Event id and a category
+     */
+    @Query("select e.id, c from Event e join e.categories c where e.id in :ids")
+    List<Object[]> findAllCategoriesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Find Events together with their Products in a single query. The entities are loaded read-only, so they are
+     * never flushed.
+     *
+     * @param ids of type Collection of Event ids
+     *
+     * @return List of Events
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select e from Event e left join fetch e.products where e.id in :ids")
+    List<Event> findAllWithProductsByIdIn(@Param("ids") Collection<Integer> ids);
+
     /**
      * Find an Event by key.
      *
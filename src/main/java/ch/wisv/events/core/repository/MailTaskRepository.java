@@ -0,0 +1,28 @@
+package ch.wisv.events.core.repository;
+
+import ch.wisv.events.core.model.mail.MailTask;
+import ch.wisv.events.core.model.mail.MailTaskStatus;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * MailTaskRepository interface.
+ */
+public interface MailTaskRepository extends JpaRepository<MailTask, Integer> {
+
+    /**
+     * Find the MailTasks with one of the statuses that are due at the given time, the first due first.
+     *
+     * @param mailTaskStatuses of type Collection
+     * @param before           of type LocalDateTime
+     * @param pageable         of type Pageable
+     *
+     * @return List
+     */
+    List<MailTask> findAllByMailTaskStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+            Collection<MailTaskStatus> mailTaskStatuses, LocalDateTime before, Pageable pageable
+    );
+}
@@ -4,12 +4,16 @@
 import ch.wisv.events.core.model.order.Order;
 import ch.wisv.events.core.model.order.OrderProduct;
 import ch.wisv.events.core.model.order.OrderStatus;
+import ch.wisv.events.core.model.order.ReservationExpiry;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Collection;
 
 import ch.wisv.events.core.admin.TreasurerData;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -65,6 +69,17 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
      */
     List<Order> findAllByStatus(OrderStatus status);
 
+    /**
+     * Find the expiry moments of all Orders with a certain status, without loading the Orders.
+     *
+     * @param status of type OrderStatus
+     *
+     * @return List of ReservationExpiry
+     */
+    @Query("SELECT new ch.wisv.events.core.model.order.ReservationExpiry(o.publicReference, o.createdAt) "
+            + "FROM Order o WHERE o.status = :status")
+    List<ReservationExpiry> findAllReservationExpiriesByStatus(@Param("status") OrderStatus status);
+
     /**
      * Find one by CH Payments Reference.
      *
@@ -83,6 +98,31 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
      */
     List<Order> findAllByOrderProducts(OrderProduct orderProduct);
 
+    /**
+     * Find the ids of Orders with one of the given statuses created before a certain moment.
+     *
+     * @param statuses of type Collection
+     * @param before   of type LocalDateTime
+     * @param pageable of type Pageable, limits the number of ids
+     *
+     * @return List of Order ids
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.createdAt < :before ORDER BY o.id")
+    List<Integer> findIdsByStatusInAndCreatedAtBefore(
+            @Param("statuses") Collection<OrderStatus> statuses, @Param("before") LocalDateTime before, Pageable pageable
+    );
+
+    /**
+     * Remove the links between Orders and their OrderProducts, has to be done before the Orders can be bulk deleted.
+     *
+     * @param ids of type Collection
+     *
+     * @return number of removed links
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ORDERS_ORDER_PRODUCTS WHERE ORDER_ID IN :ids", nativeQuery = true)
+    int deleteOrderProductLinksByOrderIds(@Param("ids") Collection<Integer> ids);
+
     @Query(value =
             "SELECT B.TITLE AS productTitle,B.PRICE AS price,B.AMOUNT AS amount,B.VAT_RATE AS vatRate, O.PAID_AT AS paidAt " +
                     "FROM " +
@@ -5,6 +5,10 @@
 import java.util.Collection;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * ProductRepository class.
@@ -36,4 +40,80 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
      */
     Collection<Product> findAllBySellStartBefore(LocalDateTime sellStart);
 
+    /**
+     * Get the current sold and reserved count of a Product straight from the database.
+     *
+     * @param id of type Integer
+     *
+     * @return Optional of the sum of sold and reserved
+     */
+    @Query("SELECT p.sold + p.reserved FROM Product p WHERE p.id = :id")
+    Optional<Integer> findSoldAndReservedById(@Param("id") Integer id);
+
+    /**
+     * Atomically increase the sold count of a Product, as long as sold and reserved stay within the limit.
+     *
+     * @param id     of type Integer
+     * @param amount of type int
+     * @param limit  of type int
+     *
+     * @return number of updated rows, 0 when the limit would be exceeded
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.sold = p.sold + :amount WHERE p.id = :id AND p.sold + p.reserved + :amount <= :limit")
+    int increaseSoldWithinLimit(@Param("id") Integer id, @Param("amount") int amount, @Param("limit") int limit);
+
+    /**
+     * Atomically increase the reserved count of a Product, as long as sold and reserved stay within the limit.
+     *
+     * @param id     of type Integer
+     * @param amount of type int
+     * @param limit  of type int
+     *
+     * @return number of updated rows, 0 when the limit would be exceeded
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.reserved = p.reserved + :amount WHERE p.id = :id AND p.sold + p.reserved + :amount <= :limit")
+    int increaseReservedWithinLimit(@Param("id") Integer id, @Param("amount") int amount, @Param("limit") int limit);
+
+    /**
+     * Atomically change the sold count of a Product, without checking the limit.
+     *
+     * @param id     of type Integer
+     * @param amount of type int, negative to decrease
+     *
+     * @return number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.sold = p.sold + :amount WHERE p.id = :id")
+    int addSold(@Param("id") Integer id, @Param("amount") int amount);
+
+    /**
+     * Atomically change the reserved count of a Product, without checking the limit.
+     *
+     * @param id     of type Integer
+     * @param amount of type int, negative to decrease
+     *
+     * @return number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.reserved = p.reserved + :amount WHERE p.id = :id")
+    int addReserved(@Param("id") Integer id, @Param("amount") int amount);
+
+    /**
+     * Atomically move an amount of a Product from reserved to sold.
+     *
+     * @param id     of type Integer
+     * @param amount of type int
+     *
+     * @return number of updated rows
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.sold = p.sold + :amount, p.reserved = p.reserved - :amount WHERE p.id = :id")
+    int moveReservedToSold(@Param("id") Integer id, @Param("amount") int amount);
 }
@@ -0,0 +1,30 @@
+package ch.wisv.events.core.repository;
+
+import ch.wisv.events.core.model.ticket.TicketRemoval;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.stream.Stream;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * TicketRemovalRepository interface.
+ */
+public interface TicketRemovalRepository extends JpaRepository<TicketRemoval, Integer> {
+
+    /**
+     * Stream the unique codes of the given Products that have been removed since the given time. Has to be consumed
+     * within a transaction.
+     *
+     * @param productIds of type Collection
+     * @param since      of type LocalDateTime
+     *
+     * @return Stream of unique codes
+     */
+    @Query("SELECT r.uniqueCode FROM TicketRemoval r WHERE r.productId IN :productIds AND r.removedAt >= :since")
+    Stream<String> streamUniqueCodesByProductIdInRemovedSince(
+            @Param("productIds") Collection<Integer> productIds,
+            @Param("since") LocalDateTime since
+    );
+}
@@ -4,9 +4,21 @@
 import ch.wisv.events.core.model.order.Order;
 import ch.wisv.events.core.model.product.Product;
 import ch.wisv.events.core.model.ticket.Ticket;
+import ch.wisv.events.core.model.ticket.TicketScanEntry;
+import ch.wisv.events.core.model.ticket.TicketStatus;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * TicketRepository interface.
@@ -60,16 +72,6 @@ public interface TicketRepository extends JpaRepository<Ticket, Integer> {
      */
     List<Ticket> findAllByOrder(Order order);
 
-    /**
-     * Check if there exists a Ticket with a Product and a Unique code.
-     *
-     * @param product    of type Product
-     * @param uniqueCode of type String
-     *
-     * @return boolean
-     */
-    boolean existsByProductAndUniqueCode(Product product, String uniqueCode);
-
     /**
      * Find a Ticket by Product and UniqueCode.
      *
@@ -88,4 +90,105 @@ public interface TicketRepository extends JpaRepository<Ticket, Integer> {
      * @return Optional
      */
     Optional<Ticket> findByKey(String key);
+
+    /**
+     * Find the scan information of all Tickets of the given Products.
+     *
+     * @param products of type Collection
+     *
+     * @return List of TicketScanEntry
+     */
+    @Query("SELECT new ch.wisv.events.core.model.ticket.TicketScanEntry(t.id, t.uniqueCode, t.status, p.title, o.name) "
+            + "FROM Ticket t JOIN t.product p LEFT JOIN t.owner o WHERE p IN :products")
+    List<TicketScanEntry> findAllScanEntriesByProductIn(@Param("products") Collection<Product> products);
+
+    /**
+     * Stream the scan information of all Tickets of the given Products. Has to be consumed within a transaction.
+     *
+     * @param products of type Collection
+     *
+     * @return Stream of TicketScanEntry
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new ch.wisv.events.core.model.ticket.TicketScanEntry(t.id, t.uniqueCode, t.status, p.title, o.name) "
+            + "FROM Ticket t JOIN t.product p LEFT JOIN t.owner o WHERE p IN :products")
+    Stream<TicketScanEntry> streamAllScanEntriesByProductIn(@Param("products") Collection<Product> products);
+
+    /**
+     * Stream the scan information of the Tickets of the given Products that have been created or changed since the
+     * given time. Has to be consumed within a transaction.
+     *
+     * @param products of type Collection
+     * @param since    of type LocalDateTime
+     *
+     * @return Stream of TicketScanEntry
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new ch.wisv.events.core.model.ticket.TicketScanEntry(t.id, t.uniqueCode, t.status, p.title, o.name) "
+            + "FROM Ticket t JOIN t.product p LEFT JOIN t.owner o "
+            + "WHERE p IN :products AND t.updatedAt >= :since")
+    Stream<TicketScanEntry> streamAllScanEntriesByProductInUpdatedSince(
+            @Param("products") Collection<Product> products,
+            @Param("since") LocalDateTime since
+    );
+
+    /**
+     * Find which of the given unique codes are already used by a Ticket of one of the given Products.
+     *
+     * @param products    of type Collection
+     * @param uniqueCodes of type Collection
+     *
+     * @return List of unique codes
+     */
+    @Query("SELECT t.uniqueCode FROM Ticket t WHERE t.product IN :products AND t.uniqueCode IN :uniqueCodes")
+    List<String> findAllUniqueCodesByProductInAndUniqueCodeIn(
+            @Param("products") Collection<Product> products,
+            @Param("uniqueCodes") Collection<String> uniqueCodes
+    );
+
+    /**
+     * Find the scan information of a Ticket of one of the given Products by its unique code.
+     *
+     * @param products   of type Collection
+     * @param uniqueCode of type String
+     *
+     * @return List of TicketScanEntry
+     */
+    @Query("SELECT new ch.wisv.events.core.model.ticket.TicketScanEntry(t.id, t.uniqueCode, t.status, p.title, o.name) "
+            + "FROM Ticket t JOIN t.product p LEFT JOIN t.owner o WHERE p IN :products AND t.uniqueCode = :uniqueCode")
+    List<TicketScanEntry> findAllScanEntriesByProductInAndUniqueCode(
+            @Param("products") Collection<Product> products,
+            @Param("uniqueCode") String uniqueCode
+    );
+
+    /**
+     * Find the status of a Ticket.
+     *
+     * @param id of type Integer
+     *
+     * @return Optional of TicketStatus
+     */
+    @Query("SELECT t.status FROM Ticket t WHERE t.id = :id")
+    Optional<TicketStatus> findStatusById(@Param("id") Integer id);
+
+    /**
+     * Check in an open Ticket. The Ticket is only updated when it is still open, so of multiple concurrent scans of
+     * the same Ticket only one succeeds.
+     *
+     * @param id        of type Integer
+     * @param scannedAt of type LocalDateTime
+     * @param scannedBy of type String
+     *
+     * @return int number of updated Tickets
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Ticket t SET t.status = ch.wisv.events.core.model.ticket.TicketStatus.SCANNED, "
+            + "t.scannedAt = :scannedAt, t.scannedBy = :scannedBy, t.updatedAt = :scannedAt "
+            + "WHERE t.id = :id AND t.status = ch.wisv.events.core.model.ticket.TicketStatus.OPEN")
+    int checkIn(
+            @Param("id") Integer id,
+            @Param("scannedAt") LocalDateTime scannedAt,
+            @Param("scannedBy") String scannedBy
+    );
 }
@@ -3,8 +3,18 @@
 import ch.wisv.events.core.model.webhook.Webhook;
 import ch.wisv.events.core.model.webhook.WebhookTask;
 import ch.wisv.events.core.model.webhook.WebhookTaskStatus;
+import ch.wisv.events.core.model.webhook.WebhookTaskSummary;
+import ch.wisv.events.core.model.webhook.WebhookTrigger;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * WebhookTaskRepository interface.
@@ -12,11 +22,38 @@
 public interface WebhookTaskRepository extends JpaRepository<WebhookTask, Integer> {
 
     /**
-     * Method findAllOrderBy_CreatedAt_Asc ...
+     * Find a slice of WebhookTasks without their payloads, the newest first. The slice starts after the WebhookTask
+     * with the given creation time and id, so the tasks are not counted and no rows are skipped.
      *
-     * @return List
+     * @param beforeCreatedAt of type LocalDateTime, creation time of the last WebhookTask of the previous slice, may
+     *                        be null
+     * @param beforeId        of type Integer, id of the last WebhookTask of the previous slice, may be null
+     * @param pageable        of type Pageable, only the page size is used
+     *
+     * @return Slice
+     */
+    @Query("SELECT new ch.wisv.events.core.model.webhook.WebhookTaskSummary(t.id, t.createdAt, t.trigger, "
+            + "w.payloadUrl, t.webhookTaskStatus, t.webhookError, t.attempts, t.nextAttemptAt) "
+            + "FROM WebhookTask t JOIN t.webhook w "
+            + "WHERE cast(:beforeCreatedAt as LocalDateTime) IS NULL OR t.createdAt < :beforeCreatedAt "
+            + "OR (t.createdAt = :beforeCreatedAt AND t.id < :beforeId) "
+            + "ORDER BY t.createdAt DESC, t.id DESC")
+    Slice<WebhookTaskSummary> findAllSummariesBefore(
+            @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+            @Param("beforeId") Integer beforeId,
+            Pageable pageable
+    );
+
+    /**
+     * Find a WebhookTask together with its payload, which is otherwise only loaded when it is read.
+     *
+     * @param id of type Integer
+     *
+     * @return Optional of WebhookTask
      */
-    List<WebhookTask> findAllByOrderByCreatedAtDesc();
+    @EntityGraph(attributePaths = "object")
+    @Query("SELECT t FROM WebhookTask t WHERE t.id = :id")
+    Optional<WebhookTask> findWithPayloadById(@Param("id") Integer id);
 
     /**
      * Method findAllByWebhookTaskStatus().
@@ -27,6 +64,33 @@ public interface WebhookTaskRepository extends JpaRepository<WebhookTask, Intege
      */
     List<WebhookTask> findAllByWebhookTaskStatus(WebhookTaskStatus webhookTaskStatus);
 
+    /**
+     * Find the WebhookTasks with one of the statuses that are due at the given time, the first due first.
+     *
+     * @param webhookTaskStatuses of type Collection
+     * @param before              of type LocalDateTime
+     * @param pageable            of type Pageable
+     *
+     * @return List
+     */
+    List<WebhookTask> findAllByWebhookTaskStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+            Collection<WebhookTaskStatus> webhookTaskStatuses, LocalDateTime before, Pageable pageable
+    );
+
+    /**
+     * Find the WebhookTasks of a webhook with a trigger for an entity that have one of the statuses.
+     *
+     * @param webhook             of type Webhook
+     * @param trigger             of type WebhookTrigger
+     * @param entityKey           of type String
+     * @param webhookTaskStatuses of type Collection
+     *
+     * @return List
+     */
+    List<WebhookTask> findAllByWebhookAndTriggerAndEntityKeyAndWebhookTaskStatusIn(
+            Webhook webhook, WebhookTrigger trigger, String entityKey, Collection<WebhookTaskStatus> webhookTaskStatuses
+    );
+
     /**
      * Returns all WebhookTasks associated with the given webhook
      *
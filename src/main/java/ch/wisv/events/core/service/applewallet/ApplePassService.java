@@ -0,0 +1,23 @@
+package ch.wisv.events.core.service.applewallet;
+
+import ch.wisv.events.core.exception.normal.TicketPassFailedException;
+import ch.wisv.events.core.model.ticket.Ticket;
+import java.util.List;
+import java.util.Map;
+
+public interface ApplePassService {
+    /**
+     * Get Apple Wallet pass for a Ticket.
+     * @param ticket of type Ticket.
+     * @return byte[] the .pkpass file
+     * @throws TicketPassFailedException when pass is not generated
+     */
+    byte[] getPass(Ticket ticket) throws TicketPassFailedException;
+
+    /**
+     * Get the Apple Wallet passes of a number of Tickets, they are generated concurrently.
+     * @param tickets of type List of Tickets.
+     * @return Map of the .pkpass files by ticket key, without the passes that could not be generated
+     */
+    Map<String, byte[]> getPasses(List<Ticket> tickets);
+}
@@ -0,0 +1,251 @@
+package ch.wisv.events.core.service.applewallet;
+
+import ch.wisv.events.core.exception.normal.TicketPassFailedException;
+import ch.wisv.events.core.model.ticket.Ticket;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * ApplePassServiceImpl class. Gets the Apple Wallet passes from the passes service with a shared, pooled HTTP client.
+ *
+ * <p>Generated passes are cached by ticket key and unique code, a transferred ticket gets a new unique code and thus a
+ * new pass. The passes of an order are requested concurrently.</p>
+ */
+@Service
+@Slf4j
+public class ApplePassServiceImpl implements ApplePassService {
+
+    /** Connect timeout in milliseconds. */
+    private static final int CONNECT_TIMEOUT = 5000;
+
+    /** Read timeout in milliseconds. */
+    private static final int READ_TIMEOUT = 15000;
+
+    /** Time to wait for the passes of an order in milliseconds. */
+    private static final int PASSES_TIMEOUT = 2 * READ_TIMEOUT;
+
+    /** Url of the passes service. */
+    private final String passesLink;
+
+    /** Shared HTTP client. */
+    private final CloseableHttpClient httpClient;
+
+    /** Worker pool for getting the passes of an order. */
+    private final ExecutorService executor;
+
+    /** Passes by ticket key and unique code, the least recently used is evicted first. */
+    private final Map<String, byte[]> passes;
+
+    /**
+     * Constructor ApplePassServiceImpl creates a new ApplePassServiceImpl instance.
+     *
+     * @param passesLink of type String
+     * @param workers    of type int
+     * @param cacheSize  of type int
+     */
+    public ApplePassServiceImpl(
+            @Value("${links.passes}") String passesLink,
+            @Value("${wisvch.events.passes.workers:4}") int workers,
+            @Value("${wisvch.events.passes.cacheSize:512}") int cacheSize
+    ) {
+        this.passesLink = passesLink;
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(workers);
+        connectionManager.setDefaultMaxPerRoute(workers);
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(CONNECT_TIMEOUT)
+                        .setConnectionRequestTimeout(READ_TIMEOUT)
+                        .setSocketTimeout(READ_TIMEOUT)
+                        .build())
+                .build();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "apple-pass-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+
+        this.passes = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return this.size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Get Apple Wallet pass for a Ticket.
+     *
+     * @param ticket of type Ticket
+     *
+     * @return byte[]
+     * @throws TicketPassFailedException when the Apple Pass is not generated
+     */
+    @Override
+    public byte[] getPass(Ticket ticket) throws TicketPassFailedException {
+        byte[] pass = passes.get(this.getCacheKey(ticket));
+        if (pass != null) {
+            return pass;
+        }
+
+        return this.fetch(this.getCacheKey(ticket), this.getPassUri(ticket));
+    }
+
+    /**
+     * Get the Apple Wallet passes of a number of Tickets. The passes that are not cached are requested concurrently,
+     * a pass that fails or takes too long is left out.
+     *
+     * @param tickets of type List of Tickets
+     *
+     * @return Map of the passes by ticket key
+     */
+    @Override
+    public Map<String, byte[]> getPasses(List<Ticket> tickets) {
+        Map<String, byte[]> result = new LinkedHashMap<>();
+        Map<String, CompletableFuture<byte[]>> requests = new LinkedHashMap<>();
+
+        for (Ticket ticket : tickets) {
+            String cacheKey = this.getCacheKey(ticket);
+            byte[] pass = passes.get(cacheKey);
+
+            if (pass != null) {
+                result.put(ticket.getKey(), pass);
+                continue;
+            }
+
+            try {
+                // The request is built here, so the workers do not touch the entities
+                URI uri = this.getPassUri(ticket);
+                requests.put(ticket.getKey(), CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return this.fetch(cacheKey, uri);
+                    } catch (TicketPassFailedException e) {
+                        throw new IllegalStateException(e.getMessage(), e);
+                    }
+                }, executor));
+            } catch (TicketPassFailedException e) {
+                log.warn("Unable to generate wallet pass of ticket " + ticket.getKey() + ": " + e.getMessage());
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + PASSES_TIMEOUT;
+        for (Map.Entry<String, CompletableFuture<byte[]>> request : requests.entrySet()) {
+            try {
+                long timeout = Math.max(0, deadline - System.currentTimeMillis());
+                result.put(request.getKey(), request.getValue().get(timeout, TimeUnit.MILLISECONDS));
+            } catch (ExecutionException | TimeoutException e) {
+                request.getValue().cancel(true);
+                log.warn("Unable to generate wallet pass of ticket " + request.getKey() + ": " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Stop the workers and close the HTTP client.
+     *
+     * @throws IOException when the client could not be closed
+     */
+    @PreDestroy
+    public void shutdown() throws IOException {
+        executor.shutdownNow();
+        httpClient.close();
+    }
+
+    /**
+     * Request a pass from the passes service and cache it.
+     *
+     * @param cacheKey of type String
+     * @param uri      of type URI
+     *
+     * @return byte[]
+     * @throws TicketPassFailedException when the Apple Pass is not generated
+     */
+    private byte[] fetch(String cacheKey, URI uri) throws TicketPassFailedException {
+        try (CloseableHttpResponse response = httpClient.execute(new HttpGet(uri))) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode != HttpStatus.SC_OK || response.getEntity() == null) {
+                EntityUtils.consume(response.getEntity());
+                throw new TicketPassFailedException("Passes service responded with " + statusCode);
+            }
+
+            byte[] pass = EntityUtils.toByteArray(response.getEntity());
+            passes.put(cacheKey, pass);
+
+            return pass;
+        } catch (IOException e) {
+            throw new TicketPassFailedException(e.getMessage());
+        }
+    }
+
+    /**
+     * Get the url of the pass of a Ticket.
+     *
+     * @param ticket of type Ticket
+     *
+     * @return URI
+     * @throws TicketPassFailedException when the ticket misses information for the pass
+     */
+    private URI getPassUri(Ticket ticket) throws TicketPassFailedException {
+        try {
+            return new URIBuilder(passesLink)
+                    .addParameter("title", ticket.getProduct().getTitle())
+                    .addParameter("description", ticket.getProduct().getDescription())
+                    .addParameter("date", ticket.getProduct().getEvent().getStart().format(DateTimeFormatter.ISO_LOCAL_DATE))
+                    .addParameter("time", ticket.getProduct().getEvent().getStart().format(DateTimeFormatter.ofPattern("HH:mm")))
+                    .addParameter("location", ticket.getProduct().getEvent().getLocation())
+                    .addParameter("code", ticket.getUniqueCode())
+                    .addParameter("name", ticket.getOwner().getName())
+                    .build();
+        } catch (URISyntaxException | RuntimeException e) {
+            throw new TicketPassFailedException(e.getMessage());
+        }
+    }
+
+    /**
+     * Get the cache key of the pass of a Ticket.
+     *
+     * @param ticket of type Ticket
+     *
+     * @return String
+     */
+    private String getCacheKey(Ticket ticket) {
+        return ticket.getKey() + ":" + ticket.getUniqueCode();
+    }
+}
@@ -11,4 +11,11 @@ public interface AuthenticationService {
      */
     Customer getCurrentCustomer();
 
+    /**
+     * Get the name of the user that is currently logged in, without looking up the Customer.
+     *
+     * @return String or null when no user is logged in
+     */
+    String getCurrentUsername();
+
 }
@@ -73,6 +73,26 @@ public Customer getCurrentCustomer() {
         }
     }
 
+    /**
+     * Get the name of the user that is currently logged in, without looking up the Customer. For OIDC users this is
+     * their email address.
+     *
+     * @return String or null when no user is logged in
+     */
+    @Override
+    public String getCurrentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null) {
+            return null;
+        }
+
+        if (auth.getPrincipal() instanceof OidcUser oidcUser && oidcUser.getEmail() != null) {
+            return oidcUser.getEmail();
+        }
+
+        return auth.getName();
+    }
+
     /**
      * Get OIDCIdToken from a Authentication object.
      *
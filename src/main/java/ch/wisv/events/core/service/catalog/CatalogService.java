@@ -0,0 +1,29 @@
+package ch.wisv.events.core.service.catalog;
+
+import ch.wisv.events.core.model.catalog.CatalogSnapshot;
+
+/**
+ * CatalogService interface.
+ */
+public interface CatalogService {
+
+    /**
+     * Get the current snapshot of the upcoming, published Events and the Products on sale.
+     *
+     * @return CatalogSnapshot
+     */
+    CatalogSnapshot getSnapshot();
+
+    /**
+     * Rebuild the snapshot on the next request.
+     */
+    void invalidate();
+
+    /**
+     * Get the number of changes to the Events, Products and their sold and reserved counts since the start of the
+     * application. Can be used to detect changes without querying the database.
+     *
+     * @return long
+     */
+    long getChangeCount();
+}
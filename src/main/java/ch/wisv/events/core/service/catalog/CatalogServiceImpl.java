@@ -0,0 +1,209 @@
+package ch.wisv.events.core.service.catalog;
+
+import ch.wisv.events.core.model.catalog.CatalogEvent;
+import ch.wisv.events.core.model.catalog.CatalogSnapshot;
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.event.EventStatus;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.repository.EventRepository;
+import ch.wisv.events.core.service.inventory.InventoryChangedEvent;
+import ch.wisv.events.core.service.product.ProductChangedEvent;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * CatalogServiceImpl class. Keeps an immutable snapshot of the webshop catalog in memory, so the webshop pages do not
+ * query the database on every request.
+ *
+ * <p>The Events are loaded read-only with their Products in a single query, and are only read to create the views.
+ * The snapshot is rebuilt on the first request after an Event or Product changed, or after a Product starts or
+ * stops selling or an Event ends. Changes of the sold and reserved counts are picked up after a short delay, so a
+ * ticket sale does not rebuild the snapshot for every order.</p>
+ */
+@Service
+public class CatalogServiceImpl implements CatalogService {
+
+    /** EventRepository. */
+    private final EventRepository eventRepository;
+
+    /** Read-only transaction the snapshot is built in. */
+    private final TransactionTemplate transactionTemplate;
+
+    /** Seconds after which changed sold and reserved counts are shown. */
+    private final int inventoryRefreshSeconds;
+
+    /** Lock held while building a snapshot. */
+    private final Object lock = new Object();
+
+    /** Current snapshot, null before the first request. */
+    private volatile CatalogSnapshot snapshot;
+
+    /** An Event or Product changed since the snapshot was built. */
+    private volatile boolean catalogChanged;
+
+    /** Sold or reserved counts changed since the snapshot was built. */
+    private volatile boolean inventoryChanged;
+
+    /** Version of the last snapshot. */
+    private long version;
+
+    /** Number of changes since the start of the application. */
+    private final AtomicLong changeCount = new AtomicLong();
+
+    /**
+     * Constructor CatalogServiceImpl creates a new CatalogServiceImpl instance.
+     *
+     * @param eventRepository         of type EventRepository
+     * @param transactionManager      of type PlatformTransactionManager
+     * @param inventoryRefreshSeconds of type int
+     */
+    @Autowired
+    public CatalogServiceImpl(
+            EventRepository eventRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${wisvch.events.catalog.inventoryRefreshSeconds:2}") int inventoryRefreshSeconds
+    ) {
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.inventoryRefreshSeconds = inventoryRefreshSeconds;
+    }
+
+    /**
+     * Get the current snapshot of the upcoming, published Events and the Products on sale.
+     *
+     * @return CatalogSnapshot
+     */
+    @Override
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current != null && !this.isExpired(current, LocalDateTime.now())) {
+            return current;
+        }
+
+        synchronized (lock) {
+            current = snapshot;
+            if (current == null || this.isExpired(current, LocalDateTime.now())) {
+                current = this.build();
+                snapshot = current;
+            }
+
+            return current;
+        }
+    }
+
+    /**
+     * Rebuild the snapshot on the next request.
+     */
+    @Override
+    public void invalidate() {
+        catalogChanged = true;
+        changeCount.incrementAndGet();
+    }
+
+    /**
+     * Get the number of changes to the Events, Products and their sold and reserved counts since the start of the
+     * application.
+     *
+     * @return long
+     */
+    @Override
+    public long getChangeCount() {
+        return changeCount.get();
+    }
+
+    /**
+     * Rebuild the snapshot on the next request after Events or Products changed.
+     *
+     * @param event of type ProductChangedEvent
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        this.invalidate();
+    }
+
+    /**
+     * Rebuild the snapshot after a short delay when sold or reserved counts changed.
+     *
+     * @param event of type InventoryChangedEvent
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        inventoryChanged = true;
+        changeCount.incrementAndGet();
+    }
+
+    /**
+     * Check if a snapshot should be rebuilt.
+     *
+     * @param snapshot of type CatalogSnapshot
+     * @param now      of type LocalDateTime
+     *
+     * @return boolean
+     */
+    private boolean isExpired(CatalogSnapshot snapshot, LocalDateTime now) {
+        if (catalogChanged) {
+            return true;
+        }
+
+        if (snapshot.getNextBoundary() != null && !now.isBefore(snapshot.getNextBoundary())) {
+            return true;
+        }
+
+        return inventoryChanged && !now.isBefore(snapshot.getCreatedAt().plusSeconds(inventoryRefreshSeconds));
+    }
+
+    /**
+     * Build a new snapshot. The flags are cleared first, so changes during the build cause another rebuild.
+     *
+     * @return CatalogSnapshot
+     */
+    private CatalogSnapshot build() {
+        catalogChanged = false;
+        inventoryChanged = false;
+        LocalDateTime now = LocalDateTime.now();
+
+        return transactionTemplate.execute(status -> {
+            List<CatalogEvent> events = new ArrayList<>();
+            LocalDateTime nextBoundary = null;
+
+            for (Event event : eventRepository.findAllReadOnlyByPublishedAndEndingAfter(EventStatus.PUBLISHED, now)) {
+                nextBoundary = this.getNextBoundary(nextBoundary, event.getEnding(), now);
+
+                for (Product product : event.getProducts()) {
+                    nextBoundary = this.getNextBoundary(nextBoundary, product.getSellStart(), now);
+                    nextBoundary = this.getNextBoundary(nextBoundary, product.getSellEnd(), now);
+                }
+
+                events.add(CatalogEvent.ofSalableProducts(event, now));
+            }
+
+            return new CatalogSnapshot(++version, now, nextBoundary, events);
+        });
+    }
+
+    /**
+     * Get the earliest of the boundary found so far and a moment that is not yet in the past.
+     *
+     * @param boundary of type LocalDateTime, may be null
+     * @param moment   of type LocalDateTime, may be null
+     * @param now      of type LocalDateTime
+     *
+     * @return LocalDateTime
+     */
+    private LocalDateTime getNextBoundary(LocalDateTime boundary, LocalDateTime moment, LocalDateTime now) {
+        if (moment == null || moment.isBefore(now)) {
+            return boundary;
+        }
+
+        return boundary == null || moment.isBefore(boundary) ? moment : boundary;
+    }
+}
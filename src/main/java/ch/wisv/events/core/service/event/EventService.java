@@ -5,6 +5,8 @@
 import ch.wisv.events.core.exception.normal.EventNotFoundException;
 import ch.wisv.events.core.model.document.Document;
 import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.event.EventCategory;
+import ch.wisv.events.core.model.event.EventSummary;
 import ch.wisv.events.core.model.product.Product;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -55,6 +57,33 @@ public interface EventService {
      */
     List<Event> getUpcoming();
 
+    /**
+     * Get a page of the upcoming Events ordered by start, optionally filtered on category and start.
+     *
+     * @param category    of type EventCategory, may be null
+     * @param from        of type LocalDateTime, the Events start at or after this moment, may be null
+     * @param to          of type LocalDateTime, the Events start before this moment, may be null
+     * @param afterStart  of type LocalDateTime, start of the last Event of the previous page, may be null
+     * @param afterId     of type Integer, id of the last Event of the previous page, may be null
+     * @param limit       of type int
+     * @param description of type boolean, if the descriptions of the Events are loaded
+     * @param categories  of type boolean, if the categories of the Events are loaded
+     * @param products    of type boolean, if the Products of the Events are loaded
+     *
+     * @return List of EventSummaries
+     */
+    List<EventSummary> getUpcomingPage(
+            EventCategory category,
+            LocalDateTime from,
+            LocalDateTime to,
+            LocalDateTime afterStart,
+            Integer afterId,
+            int limit,
+            boolean description,
+            boolean categories,
+            boolean products
+    );
+
     /**
      * Get Event by key.
      *
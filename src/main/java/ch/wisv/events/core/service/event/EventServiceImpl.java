@@ -7,16 +7,24 @@
 import ch.wisv.events.core.exception.normal.ProductNotFoundException;
 import ch.wisv.events.core.model.document.Document;
 import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.event.EventCategory;
 import ch.wisv.events.core.model.event.EventStatus;
+import ch.wisv.events.core.model.event.EventSummary;
 import ch.wisv.events.core.model.product.Product;
 import ch.wisv.events.core.repository.EventRepository;
+import ch.wisv.events.core.service.product.ProductChangedEvent;
 import ch.wisv.events.core.service.product.ProductService;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 /**
@@ -31,6 +39,9 @@ public class EventServiceImpl implements EventService {
     /** ProductRepository. */
     private final ProductService productService;
 
+    /** ApplicationEventPublisher. */
+    private final ApplicationEventPublisher applicationEventPublisher;
+
     /** Image location. */
     @Value("${wisvch.events.image.path}")
     private String imageLocation;
@@ -38,13 +49,19 @@ public class EventServiceImpl implements EventService {
     /**
      * Constructor EventServiceImpl creates a new EventServiceImpl instance.
      *
-     * @param eventRepository of type EventRepository
-     * @param productService  of type ProductService
+     * @param eventRepository           of type EventRepository
+     * @param productService            of type ProductService
+     * @param applicationEventPublisher of type ApplicationEventPublisher
      */
     @Autowired
-    public EventServiceImpl(EventRepository eventRepository, ProductService productService) {
+    public EventServiceImpl(
+            EventRepository eventRepository,
+            ProductService productService,
+            ApplicationEventPublisher applicationEventPublisher
+    ) {
         this.eventRepository = eventRepository;
         this.productService = productService;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -105,6 +122,65 @@ public List<Event> getUpcoming() {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get a page of the upcoming Events ordered by start, optionally filtered on category and start.
+     *
+     * @param category    of type EventCategory, may be null
+     * @param from        of type LocalDateTime, the Events start at or after this moment, may be null
+     * @param to          of type LocalDateTime, the Events start before this moment, may be null
+     * @param afterStart  of type LocalDateTime, start of the last Event of the previous page, may be null
+     * @param afterId     of type Integer, id of the last Event of the previous page, may be null
+     * @param limit       of type int
+     * @param description of type boolean, if the descriptions of the Events are loaded
+     * @param categories  of type boolean, if the categories of the Events are loaded
+     * @param products    of type boolean, if the Products of the Events are loaded
+     *
+     * @return List of EventSummaries
+     */
+    @Override
+    public List<EventSummary> getUpcomingPage(
+            EventCategory category,
+            LocalDateTime from,
+            LocalDateTime to,
+            LocalDateTime afterStart,
+            Integer afterId,
+            int limit,
+            boolean description,
+            boolean categories,
+            boolean products
+    ) {
+        List<EventSummary> events = eventRepository.findSummaryPageByPublishedAndEndingAfter(
+                EventStatus.PUBLISHED, LocalDateTime.now(), category, from, to, afterStart, afterId, PageRequest.of(0, limit));
+        if (events.isEmpty()) {
+            return events;
+        }
+
+        Map<Integer, EventSummary> byId = new HashMap<>();
+        events.forEach(event -> byId.put(event.getId(), event));
+
+        // The descriptions, categories and Products of the whole page are loaded with a single query each
+        if (description) {
+            for (Object[] row : eventRepository.findAllDescriptionsByIdIn(byId.keySet())) {
+                byId.get((Integer) row[0]).setDescription((String) row[1]);
+            }
+        }
+
+        if (categories) {
+            events.forEach(event -> event.setCategories(new ArrayList<>()));
+            for (Object[] row : eventRepository.findAllCategoriesByIdIn(byId.keySet())) {
+                byId.get((Integer) row[0]).getCategories().add((EventCategory) row[1]);
+            }
+        }
+
+        if (products) {
+            for (Event event : eventRepository.findAllWithProductsByIdIn(byId.keySet())) {
+                byId.get(event.getId()).setProducts(event.getProducts());
+            }
+        }
+
+        return events;
+    }
+
     /**
      * Get Event by key.
      *
@@ -154,6 +230,7 @@ public void create(Event event) throws EventInvalidException {
         this.updateLinkedProducts(event, event.getProducts(), true);
 
         eventRepository.saveAndFlush(event);
+        this.publishProductChanged(event);
     }
 
     /**
@@ -188,6 +265,7 @@ public void update(Event event) throws EventNotFoundException, EventInvalidExcep
 
         this.updateLinkedProducts(event, update.getProducts(), true);
         eventRepository.save(update);
+        this.publishProductChanged(update);
     }
 
     /**
@@ -198,6 +276,7 @@ public void update(Event event) throws EventNotFoundException, EventInvalidExcep
     @Override
     public void delete(Event event) {
         eventRepository.delete(event);
+        this.publishProductChanged(event);
     }
 
     /**
@@ -288,4 +367,15 @@ private void updateLinkedProducts(Event event, List<Product> products, boolean l
             }
         });
     }
+
+    /**
+     * Publish that an Event and its Products have changed, since the Products show information of the Event.
+     *
+     * @param event of type Event
+     */
+    private void publishProductChanged(Event event) {
+        List<String> productKeys = event.getProducts().stream().map(Product::getKey).collect(Collectors.toList());
+
+        applicationEventPublisher.publishEvent(new ProductChangedEvent(productKeys));
+    }
 }
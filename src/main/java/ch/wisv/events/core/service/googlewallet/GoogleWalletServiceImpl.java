@@ -1,80 +1,146 @@
 package ch.wisv.events.core.service.googlewallet;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import ch.wisv.events.core.exception.normal.TicketPassFailedException;
 import ch.wisv.events.core.model.event.Event;
 import ch.wisv.events.core.model.product.Product;
 import ch.wisv.events.core.model.ticket.Ticket;
+import ch.wisv.events.core.service.product.ProductChangedEvent;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.google.api.services.walletobjects.model.*;
 import com.google.auth.oauth2.ServiceAccountCredentials;
 
-import jakarta.validation.constraints.NotNull;
+import lombok.extern.slf4j.Slf4j;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.interfaces.RSAPrivateKey;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * GoogleWalletServiceImpl class. The service account credentials and the signer are loaded once, the ticket class of a
+ * product is cached until the product or its event changes. Generating a save link builds the ticket object and signs
+ * the claims.
+ */
 @Service
+@Slf4j
 public class GoogleWalletServiceImpl implements GoogleWalletService {
-    /** Service account credentials for Google Wallet APIs. */
-    public static ServiceAccountCredentials credentials;
 
-    @Value("${googleWallet.serviceKeyPath}")
-    @NotNull
-    private String serviceKeyPath;
+    /** Link returned when the service account could not be loaded. */
+    private static final String FAILED_LINK = "https://pay.google.com/gp/v/save/FAILED";
 
-    @Value("${googleWallet.issuerId}")
-    @NotNull
-    private String issuerId;
+    /** Maximum number of cached ticket classes. */
+    private static final int CLASS_CACHE_SIZE = 1024;
 
-    @Value("${googleWallet.baseUrl}")
-    @NotNull
-    private String baseUrl;
+    /** Date format Google expects. */
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSX");
 
-    @Value("${googleWallet.origin}")
-    @NotNull
-    private String origin;
+    /** Client email of the service account, null when it could not be loaded. */
+    private final String clientEmail;
 
-    @Value("${links.gtc}")
-    @NotNull
-    private String linkGTC;
+    /** Signer of the save links, null when the service account could not be loaded. */
+    private final Algorithm algorithm;
+
+    private final String issuerId;
+
+    private final String baseUrl;
+
+    private final String origin;
+
+    /** Links shown on the classes and objects. */
+    private final LinksModuleData linksModuleData;
+
+    /** Ticket classes by product key, the least recently used is evicted first. */
+    private final Map<String, EventTicketClass> ticketClasses;
+
+    /**
+     * Constructor GoogleWalletServiceImpl creates a new GoogleWalletServiceImpl instance.
+     *
+     * @param serviceKeyPath of type String
+     * @param issuerId       of type String
+     * @param baseUrl        of type String
+     * @param origin         of type String
+     * @param linkGTC        of type String
+     */
+    @Autowired
+    public GoogleWalletServiceImpl(
+            @Value("${googleWallet.serviceKeyPath}") String serviceKeyPath,
+            @Value("${googleWallet.issuerId}") String issuerId,
+            @Value("${googleWallet.baseUrl}") String baseUrl,
+            @Value("${googleWallet.origin}") String origin,
+            @Value("${links.gtc}") String linkGTC
+    ) {
+        this(loadCredentials(serviceKeyPath), issuerId, baseUrl, origin, linkGTC);
+    }
+
+    /**
+     * Constructor GoogleWalletServiceImpl creates a new GoogleWalletServiceImpl instance.
+     *
+     * @param credentials of type ServiceAccountCredentials, may be null
+     * @param issuerId    of type String
+     * @param baseUrl     of type String
+     * @param origin      of type String
+     * @param linkGTC     of type String
+     */
+    public GoogleWalletServiceImpl(
+            ServiceAccountCredentials credentials,
+            String issuerId,
+            String baseUrl,
+            String origin,
+            String linkGTC
+    ) {
+        this.clientEmail = credentials != null ? credentials.getClientEmail() : null;
+        this.algorithm = credentials != null ? Algorithm.RSA256(null, (RSAPrivateKey) credentials.getPrivateKey()) : null;
+        this.issuerId = issuerId;
+        this.baseUrl = baseUrl;
+        this.origin = origin;
+
+        Uri tnc = new Uri()
+                .setUri(linkGTC)
+                .setDescription("Terms & Conditions")
+                .setId("LINK_GTC");
+        this.linksModuleData = new LinksModuleData().setUris(List.of(tnc));
+
+        this.ticketClasses = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, EventTicketClass> eldest) {
+                return this.size() > CLASS_CACHE_SIZE;
+            }
+        });
+    }
 
     /**
      * Get Google Wallet pass for a Ticket.
-     * 
+     *
      * @param ticket of type Ticket.
      * @return A link the user can use to add the ticket to their wallet.
      * @throws TicketPassFailedException when pass is not generated
      */
     public String getPass(Ticket ticket) throws TicketPassFailedException {
-        if (credentials == null) {
-            try {
-                credentials = ServiceAccountCredentials.fromStream(new FileInputStream(this.serviceKeyPath));
-            } catch (IOException e) {
-                System.out.println("WARN: Failed to parse service account");
-                System.out.println(e);
-                return "https://pay.google.com/gp/v/save/FAILED";
-            }
+        if (algorithm == null) {
+            return FAILED_LINK;
         }
 
-        Product product = ticket.getProduct();
-        EventTicketClass ticketClass = this.createClass(product);
+        EventTicketClass ticketClass = this.getTicketClass(ticket.getProduct());
         EventTicketObject ticketObject = this.createObject(ticket);
 
         HashMap<String, Object> claims = new HashMap<String, Object>();
-        claims.put("iss", credentials.getClientEmail());
+        claims.put("iss", clientEmail);
         claims.put("aud", "google");
         claims.put("origins", List.of(origin));
         claims.put("typ", "savetowallet");
@@ -85,16 +151,56 @@ public String getPass(Ticket ticket) throws TicketPassFailedException {
         payload.put("eventTicketObjects", List.of(ticketObject));
         claims.put("payload", payload);
 
-        Algorithm algorithm = Algorithm.RSA256(
-                null, (RSAPrivateKey) credentials.getPrivateKey());
         String token = JWT.create().withPayload(claims).sign(algorithm);
 
         return String.format("https://pay.google.com/gp/v/save/%s", token);
     }
 
+    /**
+     * Forget the cached ticket classes of changed products.
+     *
+     * @param event of type ProductChangedEvent
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        event.getProductKeys().forEach(ticketClasses::remove);
+    }
+
+    /**
+     * Load the service account credentials.
+     *
+     * @param serviceKeyPath The path of the service account key.
+     * @return The credentials, or null when they could not be loaded.
+     */
+    private static ServiceAccountCredentials loadCredentials(String serviceKeyPath) {
+        try (InputStream in = new FileInputStream(serviceKeyPath)) {
+            return ServiceAccountCredentials.fromStream(in);
+        } catch (IOException e) {
+            log.warn("Failed to parse Google Wallet service account: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Get the passes class of the product from the cache or create it.
+     *
+     * @param product The product to base it on.
+     * @return A Google compatible Ticket class.
+     */
+    private EventTicketClass getTicketClass(Product product) {
+        EventTicketClass ticketClass = ticketClasses.get(product.getKey());
+
+        if (ticketClass == null) {
+            ticketClass = this.createClass(product);
+            ticketClasses.put(product.getKey(), ticketClass);
+        }
+
+        return ticketClass;
+    }
+
     /**
      * Create the passes class based on the product.
-     * 
+     *
      * @param product The product to base it on.
      * @return A Google compatible Ticket class.
      */
@@ -102,10 +208,6 @@ private EventTicketClass createClass(Product product) {
         String homePage = product.getEvent().hasExternalProductUrl()
                 ? product.getEvent().getExternalProductUrl()
                 : baseUrl;
-        Uri tnc = new Uri()
-                .setUri(linkGTC)
-                .setDescription("Terms & Conditions")
-                .setId("LINK_GTC");
 
         String locationName = product.getEvent().getLocation();
 
@@ -121,7 +223,7 @@ private EventTicketClass createClass(Product product) {
                 .setEventName(this.makeLocalString(this.formatProduct(product)))
                 .setWideLogo(this.makeImage(String.format("%s/images/ch-logo.png", baseUrl)))
                 .setLogo(this.makeImage(String.format("%s/icons/apple-touch-icon.png", baseUrl)))
-                .setLinksModuleData(new LinksModuleData().setUris(Arrays.asList(tnc)))
+                .setLinksModuleData(linksModuleData)
                 .setHomepageUri(new Uri()
                         .setUri(homePage)
                         .setDescription("Events"))
@@ -135,10 +237,6 @@ private EventTicketClass createClass(Product product) {
 
     private EventTicketObject createObject(Ticket ticket) {
         Money cost = new Money().setCurrencyCode("EUR").setMicros((long) (ticket.getProduct().cost * 1000000));
-        Uri tnc = new Uri()
-                .setUri(linkGTC)
-                .setDescription("Terms & Conditions")
-                .setId("LINK_GTC");
 
         return new EventTicketObject()
                 .setId(this.getObjectId(ticket))
@@ -150,32 +248,32 @@ private EventTicketObject createObject(Ticket ticket) {
                 .setFaceValue(cost)
                 .setBarcode(new Barcode().setType("QR_CODE").setValue(ticket.getUniqueCode()))
                 .setGroupingInfo(new GroupingInfo().setGroupingId(ticket.product.event.getKey()).setSortIndex(1))
-                .setLinksModuleData(new LinksModuleData().setUris(Arrays.asList(tnc)));
+                .setLinksModuleData(linksModuleData);
     }
 
     /**
      * Get the ID of a product.
-     * 
+     *
      * @param product The product to derive the ID.
      * @return The ID
      */
     private String getClassId(Product product) {
-        return String.format("%s.%s", issuerId, product.getKey());
+        return issuerId + "." + product.getKey();
     }
 
     /**
      * Get the object ID of a ticket.
-     * 
+     *
      * @param ticket The ticket to get the ID for.
      * @return The ID
      */
     private String getObjectId(Ticket ticket) {
-        return String.format("%s-%s", this.getClassId(ticket.getProduct()), ticket.getKey());
+        return this.getClassId(ticket.getProduct()) + "-" + ticket.getKey();
     }
 
     /**
      * Format the product name accorting to if they have a second product
-     * 
+     *
      * @param product
      * @return
      */
@@ -191,14 +289,12 @@ private String formatProduct(Product product) {
 
     /**
      * Format a local date to the string format Google expects.
-     * 
+     *
      * @param localDate The Java date object.
      * @return The date in string form.
      */
     private String formatDate(LocalDateTime localDate) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSX");
-        String formattedDate = localDate.atOffset(ZoneOffset.UTC).format(formatter);
-        return formattedDate;
+        return localDate.atOffset(ZoneOffset.UTC).format(DATE_FORMATTER);
     }
 
     private LocalizedString makeLocalString(String str) {
@@ -0,0 +1,26 @@
+package ch.wisv.events.core.service.inventory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * InventoryChangedEvent class. Published when the sold or reserved counts of Products have changed.
+ */
+@Getter
+public class InventoryChangedEvent {
+
+    /** Ids of the changed Products. */
+    private final List<Integer> productIds;
+
+    /**
+     * Constructor InventoryChangedEvent creates a new InventoryChangedEvent instance.
+     *
+     * @param productIds of type Collection of Integers
+     */
+    public InventoryChangedEvent(Collection<Integer> productIds) {
+        this.productIds = Collections.unmodifiableList(new ArrayList<>(productIds));
+    }
+}
@@ -0,0 +1,65 @@
+package ch.wisv.events.core.service.inventory;
+
+import ch.wisv.events.core.model.order.Order;
+import ch.wisv.events.core.model.product.Product;
+
+/**
+ * InventoryService interface.
+ */
+public interface InventoryService {
+
+    /**
+     * Get the number of tickets of a Product that can still be sold or reserved.
+     *
+     * @param product of type Product
+     *
+     * @return Integer, null when the Product has no limit
+     */
+    Integer getRemaining(Product product);
+
+    /**
+     * Claim the Products in an Order as sold, if this does not exceed the Product limits.
+     *
+     * @param order of type Order
+     *
+     * @return boolean true when all Products have been claimed, nothing is claimed otherwise
+     */
+    boolean claimSold(Order order);
+
+    /**
+     * Claim the Products in an Order as reserved, if this does not exceed the Product limits.
+     *
+     * @param order of type Order
+     *
+     * @return boolean true when all Products have been claimed, nothing is claimed otherwise
+     */
+    boolean claimReserved(Order order);
+
+    /**
+     * Add the Products in an Order as sold, regardless of the Product limits.
+     *
+     * @param order of type Order
+     */
+    void addSold(Order order);
+
+    /**
+     * Move the Products in an Order from reserved to sold.
+     *
+     * @param order of type Order
+     */
+    void convertReservedToSold(Order order);
+
+    /**
+     * Release the sold Products in an Order.
+     *
+     * @param order of type Order
+     */
+    void releaseSold(Order order);
+
+    /**
+     * Release the reserved Products in an Order.
+     *
+     * @param order of type Order
+     */
+    void releaseReserved(Order order);
+}
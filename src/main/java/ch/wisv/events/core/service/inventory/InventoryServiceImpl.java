@@ -0,0 +1,200 @@
+package ch.wisv.events.core.service.inventory;
+
+import ch.wisv.events.core.model.order.Order;
+import ch.wisv.events.core.model.order.OrderProduct;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.repository.ProductRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+/**
+ * InventoryServiceImpl class.
+ *
+ * <p>The sold and reserved counters of a Product are only changed using single UPDATE statements in the database, so
+ * concurrent orders can never overwrite each other's counts and a limit can never be exceeded. Every change is
+ * published as an InventoryChangedEvent.</p>
+ */
+@Service
+@Slf4j
+public class InventoryServiceImpl implements InventoryService {
+
+    /** ProductRepository. */
+    private final ProductRepository productRepository;
+
+    /** ApplicationEventPublisher. */
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Constructor InventoryServiceImpl creates a new InventoryServiceImpl instance.
+     *
+     * @param productRepository         of type ProductRepository
+     * @param applicationEventPublisher of type ApplicationEventPublisher
+     */
+    @Autowired
+    public InventoryServiceImpl(ProductRepository productRepository, ApplicationEventPublisher applicationEventPublisher) {
+        this.productRepository = productRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Get the number of tickets of a Product that can still be sold or reserved.
+     *
+     * @param product of type Product
+     *
+     * @return Integer, null when the Product has no limit
+     */
+    @Override
+    public Integer getRemaining(Product product) {
+        if (product.getMaxSold() == null) {
+            return null;
+        }
+
+        int soldAndReserved = productRepository.findSoldAndReservedById(product.getId())
+                .orElse(product.getSold() + product.getReserved());
+
+        return product.getMaxSold() - soldAndReserved;
+    }
+
+    /**
+     * Claim the Products in an Order as sold, if this does not exceed the Product limits.
+     *
+     * @param order of type Order
+     *
+     * @return boolean true when all Products have been claimed, nothing is claimed otherwise
+     */
+    @Override
+    public boolean claimSold(Order order) {
+        return this.claim(order, productRepository::increaseSoldWithinLimit, productRepository::addSold);
+    }
+
+    /**
+     * Claim the Products in an Order as reserved, if this does not exceed the Product limits.
+     *
+     * @param order of type Order
+     *
+     * @return boolean true when all Products have been claimed, nothing is claimed otherwise
+     */
+    @Override
+    public boolean claimReserved(Order order) {
+        return this.claim(order, productRepository::increaseReservedWithinLimit, productRepository::addReserved);
+    }
+
+    /**
+     * Add the Products in an Order as sold, regardless of the Product limits.
+     *
+     * @param order of type Order
+     */
+    @Override
+    public void addSold(Order order) {
+        order.getOrderProducts().forEach(orderProduct ->
+                productRepository.addSold(orderProduct.getProduct().getId(), orderProduct.getAmount().intValue())
+        );
+        this.publishChanged(order);
+    }
+
+    /**
+     * Move the Products in an Order from reserved to sold.
+     *
+     * @param order of type Order
+     */
+    @Override
+    public void convertReservedToSold(Order order) {
+        order.getOrderProducts().forEach(orderProduct ->
+                productRepository.moveReservedToSold(orderProduct.getProduct().getId(), orderProduct.getAmount().intValue())
+        );
+        this.publishChanged(order);
+    }
+
+    /**
+     * Release the sold Products in an Order.
+     *
+     * @param order of type Order
+     */
+    @Override
+    public void releaseSold(Order order) {
+        order.getOrderProducts().forEach(orderProduct ->
+                productRepository.addSold(orderProduct.getProduct().getId(), -orderProduct.getAmount().intValue())
+        );
+        this.publishChanged(order);
+    }
+
+    /**
+     * Release the reserved Products in an Order.
+     *
+     * @param order of type Order
+     */
+    @Override
+    public void releaseReserved(Order order) {
+        order.getOrderProducts().forEach(orderProduct ->
+                productRepository.addReserved(orderProduct.getProduct().getId(), -orderProduct.getAmount().intValue())
+        );
+        this.publishChanged(order);
+    }
+
+    /**
+     * Claim all Products in an Order using a conditional update, releasing the earlier claims when one fails.
+     *
+     * @param order   of type Order
+     * @param update  of type ConditionalUpdate
+     * @param release of type BiConsumer
+     *
+     * @return boolean
+     */
+    private boolean claim(Order order, ConditionalUpdate update, BiConsumer<Integer, Integer> release) {
+        List<OrderProduct> claimed = new ArrayList<>();
+
+        for (OrderProduct orderProduct : order.getOrderProducts()) {
+            Product product = orderProduct.getProduct();
+            int amount = orderProduct.getAmount().intValue();
+            int limit = product.getMaxSold() == null ? Integer.MAX_VALUE : product.getMaxSold();
+
+            if (update.apply(product.getId(), amount, limit) == 0) {
+                log.warn("Order " + order.getPublicReference() + ": Product " + product.getKey() + " limit reached!");
+                claimed.forEach(c -> release.accept(c.getProduct().getId(), -c.getAmount().intValue()));
+
+                return false;
+            }
+
+            claimed.add(orderProduct);
+        }
+
+        this.publishChanged(order);
+
+        return true;
+    }
+
+    /**
+     * Publish that the counts of the Products in an Order have changed.
+     *
+     * @param order of type Order
+     */
+    private void publishChanged(Order order) {
+        applicationEventPublisher.publishEvent(new InventoryChangedEvent(order.getOrderProducts().stream()
+                .map(orderProduct -> orderProduct.getProduct().getId())
+                .collect(Collectors.toList())));
+    }
+
+    /**
+     * Conditional counter update on a Product.
+     */
+    @FunctionalInterface
+    private interface ConditionalUpdate {
+
+        /**
+         * Apply the update.
+         *
+         * @param id     of type Integer
+         * @param amount of type int
+         * @param limit  of type int
+         *
+         * @return number of updated rows
+         */
+        int apply(Integer id, int amount, int limit);
+    }
+}
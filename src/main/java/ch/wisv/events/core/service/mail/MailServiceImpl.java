@@ -1,22 +1,20 @@
 package ch.wisv.events.core.service.mail;
 
-import biweekly.util.IOUtils;
 import ch.wisv.events.core.model.customer.Customer;
 import ch.wisv.events.core.model.order.Order;
 import ch.wisv.events.core.model.ticket.Ticket;
 
-import java.awt.image.BufferedImage;
-import java.io.InputStream;
 import java.io.IOException;
-import java.net.URL;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import jakarta.validation.constraints.NotNull;
 
+import ch.wisv.events.core.service.ticket.QrCodeCache;
 import ch.wisv.events.core.service.ticket.TicketService;
-import ch.wisv.events.core.util.QrCode;
+import ch.wisv.events.core.util.EanBarcode;
 import com.google.zxing.WriterException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
@@ -47,6 +45,9 @@ public class MailServiceImpl implements MailService {
     /** TicketService. */
     private final TicketService ticketService;
 
+    /** QrCodeCache. */
+    private final QrCodeCache qrCodeCache;
+
     /** Link to GTC. */
     @Value("${links.gtc}")
     @NotNull
@@ -63,11 +64,15 @@ public class MailServiceImpl implements MailService {
      * @param mailSender     of type JavaMailSender
      * @param templateEngine of type templateEngine
      * @param ticketService  of type TicketService
+     * @param qrCodeCache    of type QrCodeCache
      */
-    public MailServiceImpl(JavaMailSender mailSender, SpringTemplateEngine templateEngine, TicketService ticketService) {
+    public MailServiceImpl(
+            JavaMailSender mailSender, SpringTemplateEngine templateEngine, TicketService ticketService, QrCodeCache qrCodeCache
+    ) {
         this.mailSender = mailSender;
         this.templateEngine = templateEngine;
         this.ticketService = ticketService;
+        this.qrCodeCache = qrCodeCache;
     }
 
     /**
@@ -177,30 +182,25 @@ private void sendMailWithContent(String recipientEmail, String subject, String c
                 message.addInline("apple-wallet.svg", new ClassPathResource("/static/images/apple-wallet.svg"), "image/svg+xml");
                 message.addInline("google-wallet.svg", new ClassPathResource("/static/images/google-wallet.svg"), "image/svg+xml");
 
+                // Get the wallet passes of all tickets at once, they are generated concurrently
+                Map<String, byte[]> walletPasses = ticketService.getApplePasses(
+                        tickets.stream().filter(ticket -> ticket.getUniqueCode().length() != 6).toList()
+                );
+
                 for (Ticket ticket : tickets) {
                     String uniqueCode = ticket.getUniqueCode();
-                    // Retrieve and return barcode (LEGACY)
+                    // Render the EAN-13 barcode (LEGACY)
                     if (uniqueCode.length() == 6){
-                        // Get barcode from url
-                        String url = "https://barcode.tec-it.com/barcode.ashx?data=978020" + uniqueCode + "&code=EAN13&multiplebarcodes=false&translate-esc=false&unit=Fit&dpi=96&imagetype=Gif&rotation=0&color=%23000000&bgcolor=%23FFFFFF&qunit=Mm&quiet=0";
-                        URL urlObj = new URL(url);
-                        InputStream is = urlObj.openStream();
-                        byte[] bytes = IOUtils.toByteArray(is);
-    
-                        // Attach image inline to message
+                        byte[] bytes = EanBarcode.generateLegacyBarcode(uniqueCode);
                         message.addInline("ch-" + uniqueCode + ".png", new ByteArrayResource(bytes), "image/png");
                     } else {
-                        BufferedImage qrCode = QrCode.generateQrCode(uniqueCode);
-                        byte[] bytes = QrCode.bufferedImageToBytes(qrCode);
+                        byte[] bytes = qrCodeCache.get(uniqueCode);
                         message.addInline("ch-" + uniqueCode + ".png", new ByteArrayResource(bytes), "image/png");
 
-                        // Get wallet passes
-                        try {
-                            byte[] walletPass = ticketService.getApplePass(ticket);
+                        // Attach wallet pass
+                        byte[] walletPass = walletPasses.get(ticket.getKey());
+                        if (walletPass != null) {
                             message.addAttachment("ch-" + uniqueCode + ".pkpass", new ByteArrayResource(walletPass), "application/vnd.apple.pkpass");
-                        } catch (Exception e) {
-                            // Do nothing
-                            System.out.println("Unable to generate wallet pass: " + e.getMessage());
                         }
                     }
                 }
@@ -0,0 +1,18 @@
+package ch.wisv.events.core.service.mail;
+
+import ch.wisv.events.core.model.mail.MailTaskType;
+import ch.wisv.events.core.model.order.Order;
+
+/**
+ * MailTaskService interface. Puts mails in the outbox, they are sent after the current transaction commits.
+ */
+public interface MailTaskService {
+
+    /**
+     * Put a mail about an Order in the outbox.
+     *
+     * @param type  of type MailTaskType
+     * @param order of type Order
+     */
+    void create(MailTaskType type, Order order);
+}
@@ -0,0 +1,55 @@
+package ch.wisv.events.core.service.mail;
+
+import ch.wisv.events.core.mail.MailTaskCreatedEvent;
+import ch.wisv.events.core.model.mail.MailTask;
+import ch.wisv.events.core.model.mail.MailTaskType;
+import ch.wisv.events.core.model.order.Order;
+import ch.wisv.events.core.repository.MailTaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * MailTaskServiceImpl class.
+ */
+@Service
+@Slf4j
+public class MailTaskServiceImpl implements MailTaskService {
+
+    /** MailTaskRepository. */
+    private final MailTaskRepository mailTaskRepository;
+
+    /** ApplicationEventPublisher. */
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Constructor MailTaskServiceImpl creates a new MailTaskServiceImpl instance.
+     *
+     * @param mailTaskRepository        of type MailTaskRepository
+     * @param applicationEventPublisher of type ApplicationEventPublisher
+     */
+    public MailTaskServiceImpl(MailTaskRepository mailTaskRepository, ApplicationEventPublisher applicationEventPublisher) {
+        this.mailTaskRepository = mailTaskRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Put a mail about an Order in the outbox. The task is stored in the current transaction, so it is only sent when
+     * the order change is committed, and dispatched as soon as it has been committed. Has to be called within the
+     * transaction that changes the order.
+     *
+     * @param type  of type MailTaskType
+     * @param order of type Order
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void create(MailTaskType type, Order order) {
+        MailTask mailTask = new MailTask(type, order.getPublicReference());
+        mailTaskRepository.saveAndFlush(mailTask);
+        log.info("Order " + order.getPublicReference() + ": Queued " + type + " mail #" + mailTask.getId());
+
+        applicationEventPublisher.publishEvent(new MailTaskCreatedEvent(mailTask.getId()));
+    }
+}
@@ -10,6 +10,8 @@
 import ch.wisv.events.core.model.order.OrderStatus;
 import ch.wisv.events.core.model.product.Product;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -154,6 +156,18 @@ public interface OrderService {
      */
     void delete(Order order);
 
+    /**
+     * Delete a batch of Orders with one of the given statuses created before a certain moment. Orders are removed with
+     * bulk statements, without loading them.
+     *
+     * @param statuses  of type Collection
+     * @param before    of type LocalDateTime
+     * @param batchSize of type int
+     *
+     * @return number of deleted Orders, less than batchSize when no Orders are left
+     */
+    int deleteAllByStatusCreatedBefore(Collection<OrderStatus> statuses, LocalDateTime before, int batchSize);
+
     Order saveAndFlush(Order order);
 
 }
@@ -1,10 +1,12 @@
 package ch.wisv.events.core.service.order;
 
 import ch.wisv.events.core.exception.normal.EventsException;
+import ch.wisv.events.core.exception.normal.OrderExceedProductLimitException;
 import ch.wisv.events.core.exception.normal.OrderInvalidException;
 import ch.wisv.events.core.exception.normal.OrderNotFoundException;
 import ch.wisv.events.core.exception.normal.ProductNotFoundException;
 import ch.wisv.events.core.model.customer.Customer;
+import ch.wisv.events.core.model.mail.MailTaskType;
 import ch.wisv.events.core.model.order.Order;
 import ch.wisv.events.core.model.order.OrderProduct;
 import ch.wisv.events.core.model.order.OrderProductDto;
@@ -21,18 +23,20 @@
 import static ch.wisv.events.core.model.order.OrderStatus.RESERVATION;
 
 import ch.wisv.events.core.model.product.Product;
-import ch.wisv.events.core.model.ticket.Ticket;
 import ch.wisv.events.core.repository.OrderProductRepository;
 import ch.wisv.events.core.repository.OrderRepository;
-import ch.wisv.events.core.service.mail.MailService;
+import ch.wisv.events.core.service.inventory.InventoryService;
+import ch.wisv.events.core.service.mail.MailTaskService;
 import ch.wisv.events.core.service.product.ProductService;
 import ch.wisv.events.core.service.ticket.TicketService;
 import com.google.common.collect.ImmutableList;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -41,7 +45,7 @@
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.mail.MailSendException;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * OrderServiceImpl class.
@@ -71,15 +75,25 @@ public class OrderServiceImpl implements OrderService {
     private final ProductService productService;
 
     /**
-     * MailService.
+     * InventoryService.
      */
-    private final MailService mailService;
+    private final InventoryService inventoryService;
+
+    /**
+     * MailTaskService.
+     */
+    private final MailTaskService mailTaskService;
 
     /**
      * TicketService.
      */
     private final TicketService ticketService;
 
+    /**
+     * ReservationExpiryQueue.
+     */
+    private final ReservationExpiryQueue reservationExpiryQueue;
+
     /**
      * Possible administration costs value
      */
@@ -93,22 +107,26 @@ public class OrderServiceImpl implements OrderService {
      * @param orderProductRepository of type OrderProductRepository
      * @param orderValidationService of type OrderValidationService
      * @param productService         of type ProductService
-     * @param mailService            of type MailService
+     * @param inventoryService       of type InventoryService
+     * @param mailTaskService        of type MailTaskService
      * @param ticketService          of type TicketService
+     * @param reservationExpiryQueue of type ReservationExpiryQueue
      */
     @Autowired
     public OrderServiceImpl(
             OrderRepository orderRepository, OrderProductRepository orderProductRepository,
             OrderValidationService orderValidationService, ProductService productService,
-            MailService mailService, TicketService
-                    ticketService
+            InventoryService inventoryService, MailTaskService mailTaskService, TicketService
+                    ticketService, ReservationExpiryQueue reservationExpiryQueue
     ) {
         this.orderRepository = orderRepository;
         this.orderProductRepository = orderProductRepository;
         this.orderValidationService = orderValidationService;
         this.productService = productService;
-        this.mailService = mailService;
+        this.inventoryService = inventoryService;
+        this.mailTaskService = mailTaskService;
         this.ticketService = ticketService;
+        this.reservationExpiryQueue = reservationExpiryQueue;
     }
 
     /**
@@ -198,13 +216,17 @@ public void update(Order order) throws OrderNotFoundException, OrderInvalidExcep
     }
 
     /**
-     * Update OrderStatus of an Order.
+     * Update OrderStatus of an Order. The status change, the inventory and the mails in the outbox are committed
+     * together, so a mail is only sent for a status change that has been stored.
      *
      * @param order  of type Order
      * @param status of type OrderStatus
+     * @throws OrderInvalidException            when status change is invalid.
+     * @throws OrderExceedProductLimitException when the Products in the Order are no longer available.
      */
     @Override
-    public void updateOrderStatus(Order order, OrderStatus status) throws OrderInvalidException {
+    @Transactional
+    public void updateOrderStatus(Order order, OrderStatus status) throws OrderInvalidException, OrderExceedProductLimitException {
         OrderStatus prevStatus = order.getStatus();
         log.info("Order " + order.getPublicReference() + ": Update status from " + prevStatus + " to " + status);
 
@@ -216,11 +238,16 @@ public void updateOrderStatus(Order order, OrderStatus status) throws OrderInval
                 this.updateOrderStatusToPaid(order, prevStatus);
                 break;
             case RESERVATION:
-                this.updateOrderStatusToReservation(order);
+                this.updateOrderStatusToReservation(order, prevStatus);
                 break;
             case REJECTED:
                 this.updateOrderStatusToRejected(order, prevStatus);
                 break;
+            case EXPIRED:
+                if (prevStatus == RESERVATION) {
+                    inventoryService.releaseReserved(order);
+                }
+                break;
             default:
                 break;
         }
@@ -357,6 +384,29 @@ public void delete(Order order) {
         orderRepository.delete(order);
     }
 
+    /**
+     * Delete a batch of Orders with one of the given statuses created before a certain moment.
+     *
+     * @param statuses  of type Collection
+     * @param before    of type LocalDateTime
+     * @param batchSize of type int
+     *
+     * @return number of deleted Orders
+     */
+    @Override
+    @Transactional
+    public int deleteAllByStatusCreatedBefore(Collection<OrderStatus> statuses, LocalDateTime before, int batchSize) {
+        List<Integer> ids = orderRepository.findIdsByStatusInAndCreatedAtBefore(statuses, before, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        orderRepository.deleteOrderProductLinksByOrderIds(ids);
+        orderRepository.deleteAllByIdInBatch(ids);
+
+        return ids.size();
+    }
+
     /**
      * Saves and flushes an Order.
      *
@@ -399,27 +449,31 @@ private void assertValidStatusChange(Order order, OrderStatus status) throws Ord
      *
      * @param order      of type Order
      * @param prevStatus of type OrderStatus
+     * @throws OrderExceedProductLimitException when the Products are no longer available and nothing has been paid yet.
      */
-    private void updateOrderStatusToPaid(Order order, OrderStatus prevStatus) {
-        List<Ticket> tickets = ticketService.createByOrder(order);
+    private void updateOrderStatusToPaid(Order order, OrderStatus prevStatus) throws OrderExceedProductLimitException {
+        if (prevStatus == OrderStatus.RESERVATION) {
+            inventoryService.convertReservedToSold(order);
+        } else if (!inventoryService.claimSold(order)) {
+            if (prevStatus != OrderStatus.PENDING) {
+                order.setStatus(prevStatus);
+                throw new OrderExceedProductLimitException(this.getRemaining(order));
+            }
+
+            // The payment has already been received, so the tickets have to be issued.
+            inventoryService.addSold(order);
+            log.warn("Order " + order.getPublicReference() + ": Paid while product limit was reached, limit has been exceeded!");
+        }
+
+        ticketService.createByOrder(order);
 
         order.setTicketCreated(true);
         order.setPaidAt(LocalDateTime.now());
 
-        productService.increaseProductCount(order, false, false);
-        if (prevStatus == OrderStatus.RESERVATION) {
-            productService.increaseProductCount(order, true, true);
-        }
-
         orderRepository.saveAndFlush(order);
         log.info("Order " + order.getPublicReference() + ": Status changed to PAID and tickets created!");
 
-        try {
-            mailService.sendOrderConfirmation(order, tickets);
-        } catch (MailSendException e) {
-            log.error("Failed to send confirmation email for order '" + order.getPublicReference() + "'!");
-            log.error(e.toString());
-        }
+        mailTaskService.create(MailTaskType.ORDER_CONFIRMATION, order);
     }
 
     /**
@@ -431,11 +485,11 @@ private void updateOrderStatusToPaid(Order order, OrderStatus prevStatus) {
     private void updateOrderStatusToRejected(Order order, OrderStatus prevStatus) {
         switch (prevStatus) {
             case PAID:
-                productService.increaseProductCount(order, false, true);
+                inventoryService.releaseSold(order);
                 ticketService.deleteByOrder(order);
                 break;
             case RESERVATION:
-                productService.increaseProductCount(order, true, true);
+                inventoryService.releaseReserved(order);
                 break;
             default:
         }
@@ -446,13 +500,34 @@ private void updateOrderStatusToRejected(Order order, OrderStatus prevStatus) {
     /**
      * Update order status to reservation.
      *
-     * @param order of type Order
+     * @param order      of type Order
+     * @param prevStatus of type OrderStatus
+     * @throws OrderExceedProductLimitException when the Products are no longer available.
      */
-    private void updateOrderStatusToReservation(Order order) {
-        mailService.sendOrderReservation(order);
-        productService.increaseProductCount(order, true, false);
+    private void updateOrderStatusToReservation(Order order, OrderStatus prevStatus) throws OrderExceedProductLimitException {
+        if (!inventoryService.claimReserved(order)) {
+            order.setStatus(prevStatus);
+            throw new OrderExceedProductLimitException(this.getRemaining(order));
+        }
 
         log.info("Order " + order.getPublicReference() + ": Status changed to RESERVATION!");
         orderRepository.saveAndFlush(order);
+        mailTaskService.create(MailTaskType.ORDER_RESERVATION, order);
+        reservationExpiryQueue.add(order);
+    }
+
+    /**
+     * Get the lowest number of tickets left of the limited Products in an Order.
+     *
+     * @param order of type Order
+     * @return int
+     */
+    private int getRemaining(Order order) {
+        return order.getOrderProducts().stream()
+                .map(orderProduct -> inventoryService.getRemaining(orderProduct.getProduct()))
+                .filter(Objects::nonNull)
+                .min(Integer::compare)
+                .map(remaining -> Math.max(remaining, 0))
+                .orElse(0);
     }
 }
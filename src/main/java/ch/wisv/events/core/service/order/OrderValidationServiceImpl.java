@@ -13,6 +13,7 @@
 import ch.wisv.events.core.model.product.Product;
 import ch.wisv.events.core.repository.OrderRepository;
 import ch.wisv.events.core.service.event.EventService;
+import ch.wisv.events.core.service.inventory.InventoryService;
 import ch.wisv.events.core.service.product.ProductService;
 import ch.wisv.events.core.service.ticket.TicketService;
 import java.time.LocalDateTime;
@@ -39,6 +40,9 @@ public class OrderValidationServiceImpl implements OrderValidationService {
     /** EventService. */
     private final EventService eventService;
 
+    /** InventoryService. */
+    private final InventoryService inventoryService;
+
     /**
      * Possible administration costs value
      */
@@ -49,15 +53,20 @@ public class OrderValidationServiceImpl implements OrderValidationService {
      * OrderValidationServiceImpl constructor.
      *
      * @param orderRepository of type OrderRepository
-     * @param ticketService   of type TicketService
-     * @param eventService    of type EventService
+     * @param ticketService    of type TicketService
+     * @param eventService     of type EventService
+     * @param inventoryService of type InventoryService
      */
     @Autowired
-    public OrderValidationServiceImpl(OrderRepository orderRepository, TicketService ticketService, ProductService productService, EventService eventService) {
+    public OrderValidationServiceImpl(
+            OrderRepository orderRepository, TicketService ticketService, ProductService productService, EventService eventService,
+            InventoryService inventoryService
+    ) {
         this.orderRepository = orderRepository;
         this.ticketService = ticketService;
         this.productService = productService;
         this.eventService = eventService;
+        this.inventoryService = inventoryService;
     }
 
     /**
@@ -201,7 +210,8 @@ private void assertOrderNotExceedEventLimit(Order order) throws OrderExceedEvent
     }
 
     /**
-     * Assert if the Product in the Order does not exceed the Product limit.
+     * Assert if the Product in the Order does not exceed the Product limit. The remaining amount is read from the
+     * database, the limit itself is enforced again when the Order is reserved or paid.
      *
      * @param order of type Order
      *
@@ -209,15 +219,14 @@ private void assertOrderNotExceedEventLimit(Order order) throws OrderExceedEvent
      */
     private void assertOrderNotExceedProductLimit(Order order) throws OrderExceedProductLimitException {
         for (OrderProduct orderProduct : order.getOrderProducts()) {
-            Product product = orderProduct.getProduct();
-            int ticketSold = product.getSold() + product.getReserved();
+            Integer remaining = inventoryService.getRemaining(orderProduct.getProduct());
 
-            if (product.getMaxSold() == null) {
+            if (remaining == null) {
                 continue;
             }
 
-            if (ticketSold + orderProduct.getAmount() > product.getMaxSold()) {
-                throw new OrderExceedProductLimitException(product.getMaxSold() - ticketSold);
+            if (orderProduct.getAmount() > remaining) {
+                throw new OrderExceedProductLimitException(remaining);
             }
         }
     }
@@ -0,0 +1,89 @@
+package ch.wisv.events.core.service.order;
+
+import ch.wisv.events.core.model.order.Order;
+import ch.wisv.events.core.model.order.OrderStatus;
+import ch.wisv.events.core.model.order.ReservationExpiry;
+import ch.wisv.events.core.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * ReservationExpiryQueue class. Keeps the open reservations ordered by their deadline, so expired reservations can be
+ * found without scanning all reservations.
+ */
+@Component
+@Slf4j
+public class ReservationExpiryQueue {
+
+    /** Delay after which expiring a reservation is tried again. */
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+    /** Reservations by deadline. */
+    private final DelayQueue<ReservationExpiry> queue = new DelayQueue<>();
+
+    /** OrderRepository. */
+    private final OrderRepository orderRepository;
+
+    /**
+     * ReservationExpiryQueue constructor.
+     *
+     * @param orderRepository of type OrderRepository
+     */
+    public ReservationExpiryQueue(OrderRepository orderRepository) {
+        this.orderRepository = orderRepository;
+    }
+
+    /**
+     * Fill the queue with the reservations that are open at startup.
+     */
+    @PostConstruct
+    public void seed() {
+        List<ReservationExpiry> reservations = orderRepository.findAllReservationExpiriesByStatus(OrderStatus.RESERVATION);
+        queue.addAll(reservations);
+        log.info("Reservation expiry: Scheduled " + reservations.size() + " open reservations");
+    }
+
+    /**
+     * Schedule the expiry of a reservation.
+     *
+     * @param order of type Order
+     */
+    public void add(Order order) {
+        queue.add(new ReservationExpiry(order.getPublicReference(), order.getCreatedAt()));
+    }
+
+    /**
+     * Schedule a reservation again after a short delay, when expiring it failed.
+     *
+     * @param expiry of type ReservationExpiry
+     */
+    public void retry(ReservationExpiry expiry) {
+        queue.add(expiry.postpone(RETRY_DELAY));
+    }
+
+    /**
+     * Take all reservations of which the deadline has passed out of the queue.
+     *
+     * @return List of ReservationExpiry
+     */
+    public List<ReservationExpiry> pollExpired() {
+        List<ReservationExpiry> expired = new ArrayList<>();
+        queue.drainTo(expired);
+
+        return expired;
+    }
+
+    /**
+     * Get the number of scheduled reservations.
+     *
+     * @return int
+     */
+    public int size() {
+        return queue.size();
+    }
+}
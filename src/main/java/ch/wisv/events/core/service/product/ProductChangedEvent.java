@@ -0,0 +1,25 @@
+package ch.wisv.events.core.service.product;
+
+import java.util.Collection;
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * ProductChangedEvent class. Published when Products, or the Event they belong to, have been created, updated or
+ * deleted. The list of keys is empty for an Event without Products.
+ */
+@Getter
+public class ProductChangedEvent {
+
+    /** Keys of the changed Products. */
+    private final List<String> productKeys;
+
+    /**
+     * Constructor ProductChangedEvent creates a new ProductChangedEvent instance.
+     *
+     * @param productKeys of type Collection of Strings
+     */
+    public ProductChangedEvent(Collection<String> productKeys) {
+        this.productKeys = List.copyOf(productKeys);
+    }
+}
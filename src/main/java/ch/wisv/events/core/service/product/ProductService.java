@@ -3,7 +3,6 @@
 import ch.wisv.events.api.request.ProductDto;
 import ch.wisv.events.core.exception.normal.ProductInvalidException;
 import ch.wisv.events.core.exception.normal.ProductNotFoundException;
-import ch.wisv.events.core.model.order.Order;
 import ch.wisv.events.core.model.product.Product;
 import java.util.List;
 
@@ -90,13 +89,4 @@ public interface ProductService {
      */
     void delete(Product product);
 
-    /**
-     * Change Product sold count.
-     *
-     * @param order            of type Order
-     * @param reservationCount of type boolean
-     * @param decrease         of type boolean
-     */
-    void increaseProductCount(Order order, boolean reservationCount, boolean decrease);
-
 }
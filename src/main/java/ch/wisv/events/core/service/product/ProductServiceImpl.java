@@ -4,13 +4,13 @@
 import ch.wisv.events.core.exception.normal.ProductInvalidException;
 import ch.wisv.events.core.exception.normal.ProductNotFoundException;
 import ch.wisv.events.core.exception.runtime.ProductAlreadyLinkedException;
-import ch.wisv.events.core.model.order.Order;
 import ch.wisv.events.core.model.product.Product;
 import ch.wisv.events.core.repository.ProductRepository;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 /**
@@ -22,14 +22,19 @@ public class ProductServiceImpl implements ProductService {
     /** ProductRepository. */
     private final ProductRepository productRepository;
 
+    /** ApplicationEventPublisher. */
+    private final ApplicationEventPublisher applicationEventPublisher;
+
     /**
      * Constructor ProductServiceImpl creates a new ProductServiceImpl instance.
      *
-     * @param productRepository of type ProductRepository
+     * @param productRepository         of type ProductRepository
+     * @param applicationEventPublisher of type ApplicationEventPublisher
      */
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository, ApplicationEventPublisher applicationEventPublisher) {
         this.productRepository = productRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -160,6 +165,7 @@ public void update(Product product) throws ProductNotFoundException, ProductInva
         model.setMaxSoldPerCustomer(product.getMaxSoldPerCustomer());
         model.setChOnly(product.isChOnly());
         model.setReservable(product.isReservable());
+        model.setQueued(product.isQueued());
         model.setParentProduct(product.getParentProduct());
 
         if (product.getSold() != 0) {
@@ -168,6 +174,7 @@ public void update(Product product) throws ProductNotFoundException, ProductInva
 
         this.updateLinkedProducts(product, model.getProducts(), true);
         productRepository.save(model);
+        applicationEventPublisher.publishEvent(new ProductChangedEvent(List.of(model.getKey())));
     }
 
     /**
@@ -182,25 +189,7 @@ public void delete(Product product) {
         }
 
         productRepository.delete(product);
-    }
-
-    /**
-     * Change Product sold count.
-     *
-     * @param order            of type Order
-     * @param reservationCount of type boolean
-     * @param decrease         of type boolean
-     */
-    @Override
-    public void increaseProductCount(Order order, boolean reservationCount, boolean decrease) {
-        order.getOrderProducts().forEach(orderProduct -> {
-            if (reservationCount) {
-                orderProduct.getProduct().increaseReserved(orderProduct.getAmount().intValue() * (decrease ? -1 : 1));
-            } else {
-                orderProduct.getProduct().increaseSold(orderProduct.getAmount().intValue() * (decrease ? -1 : 1));
-            }
-            productRepository.saveAndFlush(orderProduct.getProduct());
-        });
+        applicationEventPublisher.publishEvent(new ProductChangedEvent(List.of(product.getKey())));
     }
 
     /**
@@ -0,0 +1,93 @@
+package ch.wisv.events.core.service.ticket;
+
+import ch.wisv.events.core.util.QrCode;
+import com.google.zxing.WriterException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * QrCodeCache class. Keeps the encoded PNG images of the QR codes of the most recently shown tickets, keyed by unique
+ * code, so reloading a ticket or sending it again does not encode the QR code again.
+ */
+@Component
+public class QrCodeCache {
+
+    /** PNG images by unique code, the least recently used is evicted first. */
+    private final Map<String, byte[]> images;
+
+    /**
+     * QrCodeCache constructor.
+     *
+     * @param maximumSize of type int, the maximum number of cached images
+     */
+    public QrCodeCache(@Value("${wisvch.events.qrcode.cacheSize:4096}") int maximumSize) {
+        this.images = Collections.synchronizedMap(new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return this.size() > maximumSize;
+            }
+        });
+    }
+
+    /**
+     * Get the PNG image of the QR code of a unique code, it is encoded when it is not in the cache. The returned array
+     * is shared and must not be modified.
+     *
+     * @param uniqueCode of type String
+     *
+     * @return byte[]
+     * @throws WriterException when QR code is not generated
+     */
+    public byte[] get(String uniqueCode) throws WriterException {
+        byte[] png = images.get(uniqueCode);
+        if (png == null) {
+            png = QrCode.generateQrCodePng(uniqueCode);
+            images.put(uniqueCode, png);
+        }
+
+        return png;
+    }
+
+    /**
+     * Remove the image of a unique code that is no longer valid.
+     *
+     * @param uniqueCode of type String
+     */
+    public void evict(String uniqueCode) {
+        images.remove(uniqueCode);
+    }
+
+    /**
+     * Get the number of cached images.
+     *
+     * @return int
+     */
+    public int size() {
+        return images.size();
+    }
+
+    /**
+     * Get the strong entity tag of the QR code of a unique code. The image only depends on the unique code, so it can
+     * be validated without encoding the image. The tag is a hash, so the unique code itself is not exposed.
+     *
+     * @param uniqueCode of type String
+     *
+     * @return String
+     */
+    public static String getETag(String uniqueCode) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(uniqueCode.getBytes(StandardCharsets.UTF_8));
+
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package ch.wisv.events.core.service.ticket;
+
+import ch.wisv.events.core.model.event.Event;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * TicketScanBundleService interface.
+ */
+public interface TicketScanBundleService {
+
+    /**
+     * Write the signed scan bundle of an Event, with which a scanner can validate Tickets while offline. Legacy
+     * Tickets, of which the unique code is not a UUID, are left out.
+     *
+     * @param event of type Event
+     * @param out   of type OutputStream
+     *
+     * @throws IOException           when the bundle could not be written
+     * @throws IllegalStateException when no key is configured to sign the bundle
+     */
+    void writeBundle(Event event, OutputStream out) throws IOException;
+
+    /**
+     * Write a signed scan bundle with only the Tickets of an Event that have been created or changed since the given
+     * time, and the unique codes that have been removed since then.
+     *
+     * @param event of type Event
+     * @param since of type LocalDateTime, generated time of the previous bundle
+     * @param out   of type OutputStream
+     *
+     * @throws IOException           when the bundle could not be written
+     * @throws IllegalStateException when no key is configured to sign the bundle
+     */
+    void writeDelta(Event event, LocalDateTime since, OutputStream out) throws IOException;
+
+    /**
+     * Get the public key with which the signature of a bundle can be verified.
+     *
+     * @return String base64 encoded X.509 SubjectPublicKeyInfo of an ECDSA P-256 key, or null when no key is configured
+     */
+    String getPublicKey();
+}
@@ -0,0 +1,409 @@
+package ch.wisv.events.core.service.ticket;
+
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.model.ticket.TicketScanEntry;
+import ch.wisv.events.core.model.ticket.TicketStatus;
+import ch.wisv.events.core.repository.TicketRemovalRepository;
+import ch.wisv.events.core.repository.TicketRepository;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * TicketScanBundleServiceImpl class.
+ *
+ * <p>A bundle is a line based text file:</p>
+ * <pre>
+ * scan-bundle 2
+ * event {event key}
+ * generated {ISO date time}
+ * products {n}
+ * {product title}                       (n lines, referred to by index)
+ * tickets {n}
+ * {hash} {product index} {0 open|1 scanned}  (n lines, sorted by hash)
+ * removed {n}
+ * {hash}                                (n lines, sorted by hash)
+ * signature {base64 signature}
+ * </pre>
+ *
+ * <p>The hash is the first 48 bits of the SHA-256 of the unique code, in hex, so the codes themselves are not in the
+ * bundle. Only Tickets with a UUID as unique code are in the bundle: the six digit codes of legacy Tickets could all be
+ * recovered from their hashes, so those are always checked online. A delta contains the Tickets created or changed since the generated time of the previous bundle, and the
+ * codes that are no longer valid because their Ticket has been deleted or transferred. A scanner applies the ticket
+ * lines and drops the removed hashes.</p>
+ *
+ * <p>The signature is an ECDSA P-256 / SHA-256 signature (IEEE P1363 format, as used by WebCrypto) of all bytes
+ * before the signature line. The key pair is read from the PEM file configured as wisvch.events.scan.bundleKeyPath,
+ * which holds the PKCS#8 private key and the X.509 public key, so every instance signs with the same key. Without a
+ * key no bundles can be written and the scanners only check Tickets online.</p>
+ */
+@Slf4j
+@Service
+public class TicketScanBundleServiceImpl implements TicketScanBundleService {
+
+    /** Version of the bundle format. */
+    private static final int VERSION = 2;
+
+    /** Seconds a delta reaches back before the given time, so changes committed around that time are not missed. */
+    private static final int DELTA_OVERLAP_SECONDS = 60;
+
+    /** Number of bits of the code hash in the bundle. */
+    private static final int HASH_BITS = 48;
+
+    /** Number of bits used for the product index and scanned flag. */
+    private static final int INFO_BITS = 16;
+
+    /** Maximum number of products in a bundle. */
+    private static final int MAX_PRODUCTS = 1 << (INFO_BITS - 1);
+
+    /** Signature algorithm. */
+    private static final String SIGNATURE_ALGORITHM = "SHA256withECDSAinP1363Format";
+
+    /** PEM block of a key. */
+    private static final Pattern PEM_PATTERN = Pattern.compile(
+            "-----BEGIN (PRIVATE KEY|PUBLIC KEY)-----([^-]*)-----END \\1-----");
+
+    /** TicketRepository. */
+    private final TicketRepository ticketRepository;
+
+    /** TicketRemovalRepository. */
+    private final TicketRemovalRepository ticketRemovalRepository;
+
+    /** Key pair with which the bundles are signed, null when no key is configured. */
+    private final KeyPair keyPair;
+
+    /**
+     * TicketScanBundleServiceImpl constructor.
+     *
+     * @param ticketRepository        of type TicketRepository
+     * @param ticketRemovalRepository of type TicketRemovalRepository
+     * @param bundleKeyPath           of type String, path of the PEM file with the key pair
+     */
+    public TicketScanBundleServiceImpl(
+            TicketRepository ticketRepository,
+            TicketRemovalRepository ticketRemovalRepository,
+            @Value("${wisvch.events.scan.bundleKeyPath:}") String bundleKeyPath
+    ) {
+        this.ticketRepository = ticketRepository;
+        this.ticketRemovalRepository = ticketRemovalRepository;
+        this.keyPair = loadKeyPair(bundleKeyPath);
+    }
+
+    /**
+     * Load the key pair with which the bundles are signed.
+     *
+     * @param bundleKeyPath The path of the PEM file with the private and public key.
+     * @return The key pair, or null when it could not be loaded.
+     */
+    private static KeyPair loadKeyPair(String bundleKeyPath) {
+        if (bundleKeyPath == null || bundleKeyPath.isBlank()) {
+            log.warn("No scan bundle key configured, tickets can only be scanned online");
+
+            return null;
+        }
+
+        try {
+            PrivateKey privateKey = null;
+            PublicKey publicKey = null;
+            KeyFactory keyFactory = KeyFactory.getInstance("EC");
+
+            Matcher matcher = PEM_PATTERN.matcher(Files.readString(Path.of(bundleKeyPath)));
+            while (matcher.find()) {
+                byte[] encoded = Base64.getMimeDecoder().decode(matcher.group(2));
+                if (matcher.group(1).equals("PRIVATE KEY")) {
+                    privateKey = keyFactory.generatePrivate(new PKCS8EncodedKeySpec(encoded));
+                } else {
+                    publicKey = keyFactory.generatePublic(new X509EncodedKeySpec(encoded));
+                }
+            }
+
+            if (privateKey == null || publicKey == null) {
+                throw new GeneralSecurityException("the file needs both a PRIVATE KEY and a PUBLIC KEY");
+            }
+
+            // Make sure the public key belongs to the private key, or no bundle could ever be verified
+            byte[] test = bundleKeyPath.getBytes(StandardCharsets.UTF_8);
+            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            signature.initSign(privateKey);
+            signature.update(test);
+            byte[] signed = signature.sign();
+            signature.initVerify(publicKey);
+            signature.update(test);
+            if (!signature.verify(signed)) {
+                throw new GeneralSecurityException("the public key does not belong to the private key");
+            }
+
+            return new KeyPair(publicKey, privateKey);
+        } catch (IOException | GeneralSecurityException | IllegalArgumentException e) {
+            log.warn("Failed to load scan bundle key: " + e.getMessage());
+
+            return null;
+        }
+    }
+
+    /**
+     * Write the signed scan bundle of an Event.
+     *
+     * @param event of type Event
+     * @param out   of type OutputStream
+     *
+     * @throws IOException when the bundle could not be written
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void writeBundle(Event event, OutputStream out) throws IOException {
+        if (event.getProducts().isEmpty()) {
+            this.write(event, Stream.empty(), Stream.empty(), out);
+
+            return;
+        }
+
+        try (Stream<TicketScanEntry> entries = ticketRepository.streamAllScanEntriesByProductIn(event.getProducts())) {
+            this.write(event, entries, Stream.empty(), out);
+        }
+    }
+
+    /**
+     * Write a signed scan bundle with only the Tickets of an Event that have been created or changed since the given
+     * time, and the unique codes that have been removed since then.
+     *
+     * @param event of type Event
+     * @param since of type LocalDateTime, generated time of the previous bundle
+     * @param out   of type OutputStream
+     *
+     * @throws IOException when the bundle could not be written
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void writeDelta(Event event, LocalDateTime since, OutputStream out) throws IOException {
+        if (event.getProducts().isEmpty()) {
+            this.write(event, Stream.empty(), Stream.empty(), out);
+
+            return;
+        }
+
+        LocalDateTime from = since.minusSeconds(DELTA_OVERLAP_SECONDS);
+        List<Integer> productIds = event.getProducts().stream().map(Product::getId).collect(Collectors.toList());
+
+        try (Stream<TicketScanEntry> entries = ticketRepository.streamAllScanEntriesByProductInUpdatedSince(
+                event.getProducts(), from);
+             Stream<String> removed = ticketRemovalRepository.streamUniqueCodesByProductIdInRemovedSince(productIds, from)) {
+            this.write(event, entries, removed, out);
+        }
+    }
+
+    /**
+     * Get the public key with which the signature of a bundle can be verified.
+     *
+     * @return String, or null when no key is configured
+     */
+    @Override
+    public String getPublicKey() {
+        return keyPair == null ? null : Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+    }
+
+    /**
+     * Write a bundle. Every Ticket is packed in a single long (hash, product index and scanned flag), so the bundle
+     * can be sorted without keeping the Tickets themselves in memory.
+     *
+     * @param event   of type Event
+     * @param entries of type Stream
+     * @param removed of type Stream, unique codes that are no longer valid
+     * @param out     of type OutputStream
+     *
+     * @throws IOException when the bundle could not be written
+     */
+    private void write(Event event, Stream<TicketScanEntry> entries, Stream<String> removed, OutputStream out)
+            throws IOException {
+        if (keyPair == null) {
+            throw new IllegalStateException("No scan bundle key configured");
+        }
+
+        LocalDateTime generated = LocalDateTime.now();
+        MessageDigest digest = this.createDigest();
+        Map<String, Integer> productIndex = new HashMap<>();
+        List<String> products = new ArrayList<>();
+
+        long[] tickets = new long[64];
+        int size = 0;
+
+        for (TicketScanEntry entry : (Iterable<TicketScanEntry>) entries::iterator) {
+            if (!TicketServiceImpl.isUuid(entry.getUniqueCode())) {
+                continue;
+            }
+
+            int product = productIndex.computeIfAbsent(entry.getProductTitle(), title -> {
+                products.add(title);
+
+                return products.size() - 1;
+            });
+            if (product >= MAX_PRODUCTS) {
+                throw new IllegalStateException("Event " + event.getKey() + " has too many products for a scan bundle");
+            }
+
+            if (size == tickets.length) {
+                tickets = Arrays.copyOf(tickets, size * 2);
+            }
+
+            long info = ((long) product << 1) | (entry.getStatus() == TicketStatus.SCANNED ? 1 : 0);
+            // Flip the sign bit, so the signed sort orders the hashes as unsigned numbers
+            tickets[size++] = ((this.hash(digest, entry.getUniqueCode()) << INFO_BITS) | info) ^ Long.MIN_VALUE;
+        }
+
+        Arrays.sort(tickets, 0, size);
+
+        long[] removedHashes = removed.filter(TicketServiceImpl::isUuid)
+                .mapToLong(uniqueCode -> this.hash(digest, uniqueCode) ^ Long.MIN_VALUE)
+                .sorted()
+                .toArray();
+
+        Signature signature = this.createSignature();
+        BufferedOutputStream buffer = new BufferedOutputStream(out);
+
+        this.writeLine(buffer, signature, "scan-bundle " + VERSION);
+        this.writeLine(buffer, signature, "event " + event.getKey());
+        this.writeLine(buffer, signature, "generated " + generated.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        this.writeLine(buffer, signature, "products " + products.size());
+        for (String title : products) {
+            this.writeLine(buffer, signature, title == null ? "" : title.replaceAll("[\\r\\n]+", " "));
+        }
+
+        this.writeLine(buffer, signature, "tickets " + size);
+        StringBuilder line = new StringBuilder(24);
+        for (int i = 0; i < size; i++) {
+            long ticket = tickets[i] ^ Long.MIN_VALUE;
+
+            line.setLength(0);
+            line.append(this.formatHash(ticket >>> INFO_BITS))
+                    .append(' ').append((ticket & 0xFFFF) >>> 1)
+                    .append(' ').append(ticket & 1);
+            this.writeLine(buffer, signature, line.toString());
+        }
+
+        this.writeLine(buffer, signature, "removed " + removedHashes.length);
+        for (long removedHash : removedHashes) {
+            this.writeLine(buffer, signature, this.formatHash(removedHash ^ Long.MIN_VALUE));
+        }
+
+        try {
+            buffer.write(("signature " + Base64.getEncoder().encodeToString(signature.sign()) + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign scan bundle", e);
+        }
+
+        buffer.flush();
+    }
+
+    /**
+     * Write a line to the bundle and add it to the signature.
+     *
+     * @param out       of type OutputStream
+     * @param signature of type Signature
+     * @param line      of type String
+     *
+     * @throws IOException when the line could not be written
+     */
+    private void writeLine(OutputStream out, Signature signature, String line) throws IOException {
+        byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+
+        try {
+            signature.update(bytes);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign scan bundle", e);
+        }
+
+        out.write(bytes);
+    }
+
+    /**
+     * Format a hash as hex with leading zeros.
+     *
+     * @param hash of type long
+     *
+     * @return String
+     */
+    private String formatHash(long hash) {
+        String hex = Long.toHexString(hash);
+
+        return "0".repeat(HASH_BITS / 4 - hex.length()) + hex;
+    }
+
+    /**
+     * Get the first 48 bits of the SHA-256 hash of a unique code.
+     *
+     * @param digest     of type MessageDigest
+     * @param uniqueCode of type String
+     *
+     * @return long
+     */
+    private long hash(MessageDigest digest, String uniqueCode) {
+        byte[] hash = digest.digest(uniqueCode.getBytes(StandardCharsets.UTF_8));
+
+        long value = 0;
+        for (int i = 0; i < HASH_BITS / 8; i++) {
+            value = (value << 8) | (hash[i] & 0xFF);
+        }
+
+        return value;
+    }
+
+    /**
+     * Create a SHA-256 MessageDigest.
+     *
+     * @return MessageDigest
+     */
+    private MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Create a Signature initialized with the private key.
+     *
+     * @return Signature
+     */
+    private Signature createSignature() {
+        try {
+            Signature signature = Signature.getInstance(SIGNATURE_ALGORITHM);
+            signature.initSign(keyPair.getPrivate());
+
+            return signature;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign scan bundle", e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package ch.wisv.events.core.service.ticket;
+
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.model.ticket.Ticket;
+import ch.wisv.events.core.model.ticket.TicketScanEntry;
+import ch.wisv.events.core.repository.TicketRepository;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * TicketScanIndex class. Keeps the Tickets of the events that are being scanned in memory, keyed by unique code, so a
+ * scan does not have to query every Product of the Event.
+ *
+ * <p>Lookups are lock free, changes to the index are serialized. The database stays leading: a scan still has to
+ * succeed in updating the Ticket status.</p>
+ *
+ * <p>The Tickets of an Event are dropped some hours after it has ended, and at most a fixed number of Events is kept.
+ * A scan of an Event that is no longer indexed loads it again.</p>
+ */
+@Component
+@Slf4j
+public class TicketScanIndex {
+
+    /** Maximum number of indexed Events. */
+    private static final int MAX_EVENTS = 16;
+
+    /** Hours after the end of an Event after which its Tickets are dropped. */
+    private static final int EVICT_AFTER_HOURS = 12;
+
+    /** Interval in which ended Events are dropped (15 minutes). */
+    private static final int EVICT_INTERVAL_MILLIS = 15 * 60 * 1000;
+
+    /** Tickets by unique code, per Event key. */
+    private final Map<String, Map<String, TicketScanEntry>> ticketsByEvent = new ConcurrentHashMap<>();
+
+    /** Event key by Product id of the indexed Events. */
+    private final Map<Integer, String> eventByProduct = new ConcurrentHashMap<>();
+
+    /** Ending of the indexed Events, per Event key. */
+    private final Map<String, LocalDateTime> endingByEvent = new ConcurrentHashMap<>();
+
+    /** TicketRepository. */
+    private final TicketRepository ticketRepository;
+
+    /**
+     * TicketScanIndex constructor.
+     *
+     * @param ticketRepository of type TicketRepository
+     */
+    public TicketScanIndex(TicketRepository ticketRepository) {
+        this.ticketRepository = ticketRepository;
+    }
+
+    /**
+     * Check if the Tickets of an Event are in the index.
+     *
+     * @param eventKey of type String
+     *
+     * @return boolean
+     */
+    public boolean isLoaded(String eventKey) {
+        return ticketsByEvent.containsKey(eventKey);
+    }
+
+    /**
+     * (Re)load the Tickets of an Event.
+     *
+     * @param event of type Event
+     */
+    public synchronized void load(Event event) {
+        Map<String, TicketScanEntry> tickets = new ConcurrentHashMap<>();
+        if (!event.getProducts().isEmpty()) {
+            ticketRepository.findAllScanEntriesByProductIn(event.getProducts())
+                    .forEach(entry -> tickets.putIfAbsent(entry.getUniqueCode(), entry));
+        }
+
+        event.getProducts().forEach(product -> eventByProduct.put(product.getId(), event.getKey()));
+        ticketsByEvent.put(event.getKey(), tickets);
+        endingByEvent.put(event.getKey(), event.getEnding() != null ? event.getEnding() : LocalDateTime.MAX);
+
+        log.info("Scan index: Loaded " + tickets.size() + " tickets of event " + event.getKey());
+
+        // Drop the Event that ended first when too many Events are indexed
+        if (ticketsByEvent.size() > MAX_EVENTS) {
+            endingByEvent.entrySet().stream()
+                    .filter(entry -> !entry.getKey().equals(event.getKey()))
+                    .min(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+                    .ifPresent(entry -> this.evict(entry.getKey()));
+        }
+    }
+
+    /**
+     * Drop the Tickets of the Events which have ended some hours ago.
+     */
+    @Scheduled(fixedRate = EVICT_INTERVAL_MILLIS)
+    public synchronized void evictEnded() {
+        LocalDateTime before = LocalDateTime.now().minusHours(EVICT_AFTER_HOURS);
+
+        endingByEvent.entrySet().stream()
+                .filter(entry -> entry.getValue().isBefore(before))
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(this::evict);
+    }
+
+    /**
+     * Find a Ticket of an Event by its unique code.
+     *
+     * @param eventKey   of type String
+     * @param uniqueCode of type String
+     *
+     * @return Optional of TicketScanEntry
+     */
+    public Optional<TicketScanEntry> find(String eventKey, String uniqueCode) {
+        Map<String, TicketScanEntry> tickets = ticketsByEvent.get(eventKey);
+
+        return tickets == null ? Optional.empty() : Optional.ofNullable(tickets.get(uniqueCode));
+    }
+
+    /**
+     * Add a Ticket of an indexed Event to the index.
+     *
+     * @param eventKey of type String
+     * @param entry    of type TicketScanEntry
+     */
+    public synchronized void put(String eventKey, TicketScanEntry entry) {
+        Map<String, TicketScanEntry> tickets = ticketsByEvent.get(eventKey);
+        if (tickets != null) {
+            tickets.put(entry.getUniqueCode(), entry);
+        }
+    }
+
+    /**
+     * Add or replace Tickets in the index, Tickets of Events which are not indexed are ignored.
+     *
+     * @param tickets of type List
+     */
+    public synchronized void put(List<Ticket> tickets) {
+        tickets.forEach(ticket -> this.getTickets(ticket.getProduct())
+                .ifPresent(map -> map.put(ticket.getUniqueCode(), new TicketScanEntry(ticket))));
+    }
+
+    /**
+     * Replace a Ticket of which the unique code has changed.
+     *
+     * @param ticket        of type Ticket
+     * @param oldUniqueCode of type String
+     */
+    public synchronized void replace(Ticket ticket, String oldUniqueCode) {
+        this.getTickets(ticket.getProduct()).ifPresent(map -> {
+            map.remove(oldUniqueCode);
+            map.put(ticket.getUniqueCode(), new TicketScanEntry(ticket));
+        });
+    }
+
+    /**
+     * Remove Tickets from the index.
+     *
+     * @param tickets of type List
+     */
+    public synchronized void remove(List<Ticket> tickets) {
+        tickets.forEach(ticket -> this.getTickets(ticket.getProduct())
+                .ifPresent(map -> map.remove(ticket.getUniqueCode())));
+    }
+
+    /**
+     * Drop the Tickets of an Event from the index.
+     *
+     * @param eventKey of type String
+     */
+    private void evict(String eventKey) {
+        ticketsByEvent.remove(eventKey);
+        endingByEvent.remove(eventKey);
+        eventByProduct.values().removeIf(eventKey::equals);
+
+        log.info("Scan index: Dropped tickets of event " + eventKey);
+    }
+
+    /**
+     * Get the indexed Tickets of the Event of a Product.
+     *
+     * @param product of type Product
+     *
+     * @return Optional of Map
+     */
+    private Optional<Map<String, TicketScanEntry>> getTickets(Product product) {
+        if (product == null || product.getId() == null) {
+            return Optional.empty();
+        }
+
+        String eventKey = eventByProduct.get(product.getId());
+
+        return eventKey == null ? Optional.empty() : Optional.ofNullable(ticketsByEvent.get(eventKey));
+    }
+}
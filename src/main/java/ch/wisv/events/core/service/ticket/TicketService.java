@@ -1,17 +1,23 @@
 package ch.wisv.events.core.service.ticket;
 
+import ch.wisv.events.core.exception.normal.EventNotFoundException;
 import ch.wisv.events.core.exception.normal.TicketNotFoundException;
 import ch.wisv.events.core.exception.normal.TicketNotTransferableException;
 import ch.wisv.events.core.exception.normal.TicketPassFailedException;
 import ch.wisv.events.core.model.customer.Customer;
+import ch.wisv.events.core.model.event.Event;
 import ch.wisv.events.core.model.order.Order;
 import ch.wisv.events.core.model.product.Product;
 import ch.wisv.events.core.model.ticket.Ticket;
+import ch.wisv.events.core.model.ticket.TicketScanEntry;
 import ch.wisv.events.core.model.ticket.TicketStatus;
 import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
 
 import java.awt.image.BufferedImage;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * TicketService interface.
@@ -112,6 +118,39 @@ public interface TicketService {
      */
     void updateStatus(Ticket ticket, TicketStatus status);
 
+    /**
+     * Load the Tickets of an Event in the scan index.
+     *
+     * @param event of type Event
+     */
+    void loadScanIndex(Event event);
+
+    /**
+     * Get the scan information of a Ticket of an Event by its unique code.
+     *
+     * @param eventKey   of type String
+     * @param uniqueCode of type String
+     *
+     * @return TicketScanEntry
+     *
+     * @throws EventNotFoundException  when event is not found
+     * @throws TicketNotFoundException when ticket is not found
+     */
+    TicketScanEntry getScanEntry(String eventKey, String uniqueCode) throws EventNotFoundException, TicketNotFoundException;
+
+    /**
+     * Check in a Ticket, only an open Ticket can be checked in.
+     *
+     * @param entry     of type TicketScanEntry
+     * @param scannedAt of type LocalDateTime
+     * @param scannedBy of type String
+     *
+     * @return boolean true if the Ticket has been checked in by this scan, false if it already was scanned
+     *
+     * @throws TicketNotFoundException when ticket does not exist anymore
+     */
+    boolean checkIn(TicketScanEntry entry, LocalDateTime scannedAt, String scannedBy) throws TicketNotFoundException;
+
     /**
      * Get all Ticket.
      *
@@ -135,6 +174,24 @@ public interface TicketService {
      */
     BufferedImage generateQrCode(Ticket ticket) throws WriterException, IllegalArgumentException;
 
+    /**
+     * Get the QR code of a Ticket as PNG image, it is cached until the Ticket is transferred.
+     * @param ticket of type Ticket
+     * @return byte[]
+     * @throws WriterException when QR code is not generated
+     * @throws IllegalArgumentException when uniqueCode is not a valid UUID.
+     */
+    byte[] getQrCodeImage(Ticket ticket) throws WriterException, IllegalArgumentException;
+
+    /**
+     * Get the modules of the QR code of a Ticket, to write it in another format than PNG.
+     * @param ticket of type Ticket
+     * @return BitMatrix
+     * @throws WriterException when QR code is not generated
+     * @throws IllegalArgumentException when uniqueCode is not a valid UUID.
+     */
+    BitMatrix getQrCodeModules(Ticket ticket) throws WriterException, IllegalArgumentException;
+
     /**
      * Get Apple Wallet pass for a Ticket.
      * @param ticket of type Ticket
@@ -143,6 +200,13 @@ public interface TicketService {
      */
     byte[] getApplePass(Ticket ticket) throws TicketPassFailedException;
 
+    /**
+     * Get Apple Wallet passes for a number of Tickets, they are generated concurrently.
+     * @param tickets of type List of Tickets
+     * @return Map of the passes by ticket key, without the passes that could not be generated
+     */
+    Map<String, byte[]> getApplePasses(List<Ticket> tickets);
+
     /**
      * Get Google Wallet pass for a Ticket.
      * @param ticket of type Ticket.
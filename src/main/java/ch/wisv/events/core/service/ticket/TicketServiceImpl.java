@@ -10,33 +10,52 @@
 import ch.wisv.events.core.model.order.OrderProduct;
 import ch.wisv.events.core.model.product.Product;
 import ch.wisv.events.core.model.ticket.Ticket;
+import ch.wisv.events.core.model.ticket.TicketRemoval;
+import ch.wisv.events.core.model.ticket.TicketScanEntry;
 import ch.wisv.events.core.model.ticket.TicketStatus;
+import ch.wisv.events.core.repository.TicketRemovalRepository;
 import ch.wisv.events.core.repository.TicketRepository;
 
 import java.awt.image.BufferedImage;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.regex.Pattern;
 
+import ch.wisv.events.core.service.applewallet.ApplePassService;
 import ch.wisv.events.core.service.event.EventService;
 import ch.wisv.events.core.service.googlewallet.GoogleWalletService;
 import ch.wisv.events.core.util.QrCode;
 import com.google.zxing.WriterException;
-import org.springframework.beans.factory.annotation.Value;
+import com.google.zxing.common.BitMatrix;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import jakarta.validation.constraints.NotNull;
 
 /**
  * TicketServiceImpl class.
  */
 @Service
+@Slf4j
 public class TicketServiceImpl implements TicketService {
+
+    /** Number of times the creation of Tickets is tried when a unique code is already taken. */
+    private static final int MAX_CREATE_ATTEMPTS = 3;
+
+    /** Pattern of the unique codes of non-legacy Tickets. */
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
     /**
      * TicketRepository.
      */
     private final TicketRepository ticketRepository;
 
+    /**
+     * TicketRemovalRepository.
+     */
+    private final TicketRemovalRepository ticketRemovalRepository;
+
     /**
      * EventService.
      */
@@ -47,20 +66,48 @@ public class TicketServiceImpl implements TicketService {
      */
     private final GoogleWalletService googleWalletService;
 
-    @Value("${links.passes}")
-    @NotNull
-    private String passesLink;
+    /**
+     * TicketScanIndex.
+     */
+    private final TicketScanIndex ticketScanIndex;
+
+    /**
+     * QrCodeCache.
+     */
+    private final QrCodeCache qrCodeCache;
+
+    /**
+     * ApplePassService.
+     */
+    private final ApplePassService applePassService;
 
     /**
      * TicketServiceImpl constructor.
      *
-     * @param ticketRepository of type TicketRepository
-     * @param eventService     of type EventService
+     * @param ticketRepository        of type TicketRepository
+     * @param ticketRemovalRepository of type TicketRemovalRepository
+     * @param eventService            of type EventService
+     * @param googleWalletService     of type GoogleWalletService
+     * @param ticketScanIndex         of type TicketScanIndex
+     * @param qrCodeCache             of type QrCodeCache
+     * @param applePassService        of type ApplePassService
      */
-    public TicketServiceImpl(TicketRepository ticketRepository, EventService eventService, GoogleWalletService googleWalletService) {
+    public TicketServiceImpl(
+            TicketRepository ticketRepository,
+            TicketRemovalRepository ticketRemovalRepository,
+            EventService eventService,
+            GoogleWalletService googleWalletService,
+            TicketScanIndex ticketScanIndex,
+            QrCodeCache qrCodeCache,
+            ApplePassService applePassService
+    ) {
         this.ticketRepository = ticketRepository;
+        this.ticketRemovalRepository = ticketRemovalRepository;
         this.eventService = eventService;
         this.googleWalletService = googleWalletService;
+        this.ticketScanIndex = ticketScanIndex;
+        this.qrCodeCache = qrCodeCache;
+        this.applePassService = applePassService;
     }
 
     /**
@@ -157,6 +204,8 @@ public void deleteByOrder(Order order) {
         List<Ticket> tickets = ticketRepository.findAllByOrder(order);
 
         ticketRepository.deleteAll(tickets);
+        tickets.forEach(ticket -> this.recordRemoval(ticket.getProduct(), ticket.getUniqueCode()));
+        ticketScanIndex.remove(tickets);
     }
 
     /**
@@ -169,6 +218,73 @@ public void deleteByOrder(Order order) {
     public void updateStatus(Ticket ticket, TicketStatus status) {
         ticket.setStatus(status);
         ticketRepository.saveAndFlush(ticket);
+        ticketScanIndex.put(Collections.singletonList(ticket));
+    }
+
+    /**
+     * Load the Tickets of an Event in the scan index.
+     *
+     * @param event of type Event
+     */
+    @Override
+    public void loadScanIndex(Event event) {
+        ticketScanIndex.load(event);
+    }
+
+    /**
+     * Get the scan information of a Ticket of an Event by its unique code. The Tickets of the Event are loaded in the
+     * scan index on the first scan, a code which is not in the index is looked up in a single query.
+     *
+     * @param eventKey   of type String
+     * @param uniqueCode of type String
+     * @return TicketScanEntry
+     * @throws EventNotFoundException  when event is not found
+     * @throws TicketNotFoundException when ticket is not found
+     */
+    @Override
+    public TicketScanEntry getScanEntry(String eventKey, String uniqueCode) throws EventNotFoundException, TicketNotFoundException {
+        Optional<TicketScanEntry> entry = ticketScanIndex.find(eventKey, uniqueCode);
+        if (entry.isPresent()) {
+            return entry.get();
+        }
+
+        Event event = eventService.getByKey(eventKey);
+        if (!ticketScanIndex.isLoaded(eventKey)) {
+            ticketScanIndex.load(event);
+            entry = ticketScanIndex.find(eventKey, uniqueCode);
+        } else if (!event.getProducts().isEmpty()) {
+            entry = ticketRepository.findAllScanEntriesByProductInAndUniqueCode(event.getProducts(), uniqueCode)
+                    .stream()
+                    .findFirst();
+            entry.ifPresent(found -> ticketScanIndex.put(eventKey, found));
+        }
+
+        return entry.orElseThrow(() -> new TicketNotFoundException("Ticket " + uniqueCode + " does not exists"));
+    }
+
+    /**
+     * Check in a Ticket. The status is changed with a single conditional update, so a Ticket can only be checked in
+     * once, also when it is scanned at multiple entrances at the same time.
+     *
+     * @param entry     of type TicketScanEntry
+     * @param scannedAt of type LocalDateTime
+     * @param scannedBy of type String
+     * @return boolean true if the Ticket has been checked in by this scan, false if it already was scanned
+     * @throws TicketNotFoundException when ticket does not exist anymore
+     */
+    @Override
+    public boolean checkIn(TicketScanEntry entry, LocalDateTime scannedAt, String scannedBy) throws TicketNotFoundException {
+        if (ticketRepository.checkIn(entry.getTicketId(), scannedAt, scannedBy) == 1) {
+            entry.setStatus(TicketStatus.SCANNED);
+
+            return true;
+        }
+
+        TicketStatus status = ticketRepository.findStatusById(entry.getTicketId())
+                .orElseThrow(() -> new TicketNotFoundException("Ticket " + entry.getUniqueCode() + " does not exists"));
+        entry.setStatus(status);
+
+        return false;
     }
 
     /**
@@ -182,7 +298,9 @@ public List<Ticket> getAll() {
     }
 
     /**
-     * Create a Ticket by an OrderProduct.
+     * Create the Tickets of an Order. All Tickets are inserted in a single flush. The generated codes are checked in a
+     * single query, codes that are already taken are replaced before inserting, because a failed flush can not be
+     * retried in the same transaction. The unique constraint on the product and unique code stays the final guard.
      *
      * @param order of type Order
      * @return List of Ticket
@@ -194,39 +312,80 @@ public List<Ticket> createByOrder(Order order) {
         }
 
         List<Ticket> tickets = new ArrayList<>();
-
         for (OrderProduct orderProduct : order.getOrderProducts()) {
             for (int i = 0; i < orderProduct.getAmount(); i++) {
-                Ticket ticket = new Ticket(
-                        order,
-                        order.getOwner(),
-                        orderProduct.getProduct(),
-                        this.generateUniqueString(orderProduct.getProduct())
-                );
-
-                tickets.add(ticket);
-                ticketRepository.saveAndFlush(ticket);
+                tickets.add(new Ticket(order, order.getOwner(), orderProduct.getProduct(), this.generateUniqueString()));
+            }
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            Set<String> taken = this.getTakenUniqueCodes(tickets);
+            if (taken.isEmpty()) {
+                break;
             }
+
+            if (attempt >= MAX_CREATE_ATTEMPTS) {
+                throw new DataIntegrityViolationException("Order " + order.getPublicReference() + ": Unique codes already taken");
+            }
+
+            log.warn("Order " + order.getPublicReference() + ": " + taken.size() + " unique codes already taken, retrying with new codes");
+            tickets.stream()
+                    .filter(ticket -> taken.contains(ticket.getUniqueCode()))
+                    .forEach(ticket -> ticket.setUniqueCode(this.generateUniqueString()));
         }
 
+        ticketRepository.saveAllAndFlush(tickets);
+        ticketScanIndex.put(tickets);
+
         return tickets;
     }
 
     /**
-     * Generate a Ticket unique String.
+     * Get the unique codes of new Tickets that are already taken, by another Ticket of the same Product or by another
+     * new Ticket.
      *
-     * @param product of type Product
-     * @return String
+     * @param tickets of type List
+     *
+     * @return Set of unique codes
      */
-    private String generateUniqueString(Product product) {
-        // Generate a UUID
-        String ticketUnique = UUID.randomUUID().toString();
+    private Set<String> getTakenUniqueCodes(List<Ticket> tickets) {
+        Set<String> taken = new HashSet<>();
+        if (tickets.isEmpty()) {
+            return taken;
+        }
+
+        Set<String> uniqueCodes = new HashSet<>();
+        Set<Product> products = new HashSet<>();
+        for (Ticket ticket : tickets) {
+            if (!uniqueCodes.add(ticket.getUniqueCode())) {
+                taken.add(ticket.getUniqueCode());
+            }
+            products.add(ticket.getProduct());
+        }
+        taken.addAll(ticketRepository.findAllUniqueCodesByProductInAndUniqueCodeIn(products, uniqueCodes));
+
+        return taken;
+    }
 
-        while (ticketRepository.existsByProductAndUniqueCode(product, ticketUnique)) {
-            ticketUnique = UUID.randomUUID().toString();
+    /**
+     * Record that a unique code is no longer valid, so offline scanners drop it with their next scan bundle.
+     *
+     * @param product    of type Product
+     * @param uniqueCode of type String
+     */
+    private void recordRemoval(Product product, String uniqueCode) {
+        if (product != null) {
+            ticketRemovalRepository.save(new TicketRemoval(product.getId(), uniqueCode));
         }
+    }
 
-        return ticketUnique;
+    /**
+     * Generate a Ticket unique String. Uniqueness is enforced by the database.
+     *
+     * @return String
+     */
+    protected String generateUniqueString() {
+        return UUID.randomUUID().toString();
     }
 
     /**
@@ -238,12 +397,61 @@ private String generateUniqueString(Product product) {
      * @throws IllegalArgumentException when uniqueCode is not a valid UUID.
      */
     public BufferedImage generateQrCode(Ticket ticket) throws IllegalArgumentException, WriterException {
+        this.assertQrCodeAllowed(ticket);
+
+        return QrCode.generateQrCode(ticket.getUniqueCode());
+    }
+
+    /**
+     * Get the QR code of the uniqueCode as PNG image, from the cache if it has been encoded before.
+     *
+     * @param ticket of type Ticket
+     * @return byte[]
+     * @throws WriterException          when QR code is not generated
+     * @throws IllegalArgumentException when uniqueCode is not a valid UUID.
+     */
+    public byte[] getQrCodeImage(Ticket ticket) throws IllegalArgumentException, WriterException {
+        this.assertQrCodeAllowed(ticket);
+
+        return qrCodeCache.get(ticket.getUniqueCode());
+    }
+
+    /**
+     * Get the modules of the QR code of the uniqueCode, to write it in another format than PNG.
+     *
+     * @param ticket of type Ticket
+     * @return BitMatrix
+     * @throws WriterException          when QR code is not generated
+     * @throws IllegalArgumentException when uniqueCode is not a valid UUID.
+     */
+    public BitMatrix getQrCodeModules(Ticket ticket) throws IllegalArgumentException, WriterException {
+        this.assertQrCodeAllowed(ticket);
+
+        return QrCode.encode(ticket.getUniqueCode());
+    }
+
+    /**
+     * Assert that a QR code may be made of the uniqueCode of a Ticket. Legacy unique codes are too short to be shown
+     * as QR code.
+     *
+     * @param ticket of type Ticket
+     * @throws IllegalArgumentException when uniqueCode is not a valid UUID.
+     */
+    private void assertQrCodeAllowed(Ticket ticket) throws IllegalArgumentException {
         // Assert that the uniqueCode is a UUID (LEGACY CHECK)
-        if (!ticket.getUniqueCode().matches("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}")) {
+        if (!isUuid(ticket.getUniqueCode())) {
             throw new IllegalArgumentException("The uniqueCode is not a UUID");
         }
+    }
 
-        return QrCode.generateQrCode(ticket.getUniqueCode());
+    /**
+     * Check if a unique code is a UUID, unique codes of legacy Tickets are six digits.
+     *
+     * @param uniqueCode of type String
+     * @return boolean
+     */
+    static boolean isUuid(String uniqueCode) {
+        return uniqueCode != null && UUID_PATTERN.matcher(uniqueCode).matches();
     }
 
     /**
@@ -264,13 +472,17 @@ public Ticket transfer(Ticket ticket, Customer currentCustomer, Customer newCust
         ticket.canTransfer(currentCustomer, newCustomer, event);
 
         // Generate new unique code
-        String uniqueCode = this.generateUniqueString(ticket.getProduct());
+        String oldUniqueCode = ticket.getUniqueCode();
+        String uniqueCode = this.generateUniqueString();
 
         // Update ticket
         ticket.setUniqueCode(uniqueCode);
         ticket.setOwner(newCustomer);
 
         ticketRepository.saveAndFlush(ticket);
+        this.recordRemoval(ticket.getProduct(), oldUniqueCode);
+        ticketScanIndex.replace(ticket, oldUniqueCode);
+        qrCodeCache.evict(oldUniqueCode);
 
         return ticket;
     }
@@ -283,26 +495,17 @@ public Ticket transfer(Ticket ticket, Customer currentCustomer, Customer newCust
      * @throws TicketPassFailedException when the Apple Pass is not generated
      */
     public byte[] getApplePass(Ticket ticket) throws TicketPassFailedException {
-        try {
-            RestTemplate restTemplate = new RestTemplate();
-            Map<String, String> params = new HashMap<>();
-
-            params.put("title", ticket.getProduct().getTitle());
-            params.put("description", ticket.getProduct().getDescription());
-            params.put("date", ticket.getProduct().getEvent().getStart().format(DateTimeFormatter.ISO_LOCAL_DATE));
-            params.put("time", ticket.getProduct().getEvent().getStart().format(DateTimeFormatter.ofPattern("HH:mm")));
-            params.put("location", ticket.getProduct().getEvent().getLocation());
-            params.put("name", ticket.getOwner().getName());
-            params.put("code", ticket.getUniqueCode());
-
-            return restTemplate.getForObject(passesLink +
-                    "?title={title}&description={description}&date={date}&time={time}" +
-                            "&location={location}&code={code}&name={name}"
-                    , byte[].class, params);
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new TicketPassFailedException(e.getMessage());
-        }
+        return this.applePassService.getPass(ticket);
+    }
+
+    /**
+     * Get the Apple Passes of a number of Tickets, they are generated concurrently.
+     *
+     * @param tickets of type List of Tickets
+     * @return Map of the passes by ticket key, without the passes that could not be generated
+     */
+    public Map<String, byte[]> getApplePasses(List<Ticket> tickets) {
+        return this.applePassService.getPasses(tickets);
     }
 
     /**
@@ -2,18 +2,25 @@
 
 import ch.wisv.events.core.model.webhook.Webhook;
 import ch.wisv.events.core.model.webhook.WebhookTask;
+import ch.wisv.events.core.model.webhook.WebhookTaskSummary;
 import ch.wisv.events.core.model.webhook.WebhookTrigger;
-import java.util.List;
+import java.time.LocalDateTime;
 import org.json.simple.JSONObject;
+import org.springframework.data.domain.Slice;
 
 public interface WebhookTaskService {
 
     /**
-     * Method getAll returns the all of this WebhookTaskService object.
+     * Get a slice of the WebhookTasks without their payloads, the newest first.
      *
-     * @return List of WebhookTasks
+     * @param beforeCreatedAt of type LocalDateTime, creation time of the last WebhookTask of the previous slice, may
+     *                        be null
+     * @param beforeId        of type Integer, id of the last WebhookTask of the previous slice, may be null
+     * @param size            of type int
+     *
+     * @return Slice of WebhookTaskSummary
      */
-    List<WebhookTask> getAll();
+    Slice<WebhookTaskSummary> getSummaries(LocalDateTime beforeCreatedAt, Integer beforeId, int size);
 
     /**
      * Method create WebhookTask.
@@ -23,13 +30,16 @@ public interface WebhookTaskService {
     void create(WebhookTask webhookTask);
 
     /**
-     * Create webhook task by trigger, webhook and jsonObject.
+     * Create webhook task by trigger, webhook and jsonObject. A task of the webhook with the same trigger for the same
+     * entity that has not been sent yet gets the new payload instead, and a delete cancels the pending updates of the
+     * entity.
      *
      * @param webhookTrigger of type WebhookTrigger
      * @param webhook        of type Webhook
      * @param jsonObject     of type Object
+     * @param entityKey      of type String, key of the event or product, null if the task should not be coalesced
      */
-    void create(WebhookTrigger webhookTrigger, Webhook webhook, JSONObject jsonObject);
+    void create(WebhookTrigger webhookTrigger, Webhook webhook, JSONObject jsonObject, String entityKey);
 
     /**
      * Deletes all triggers associated to the given webhook.
@@ -2,11 +2,19 @@
 
 import ch.wisv.events.core.model.webhook.Webhook;
 import ch.wisv.events.core.model.webhook.WebhookTask;
+import ch.wisv.events.core.model.webhook.WebhookTaskStatus;
+import ch.wisv.events.core.model.webhook.WebhookTaskSummary;
 import ch.wisv.events.core.model.webhook.WebhookTrigger;
 import ch.wisv.events.core.repository.WebhookTaskRepository;
+import ch.wisv.events.core.webhook.WebhookTaskCreatedEvent;
+import java.time.LocalDateTime;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.json.simple.JSONObject;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 /**
@@ -19,27 +27,40 @@ public class WebhookTaskServiceImpl implements WebhookTaskService {
     /** WebhookTaskRepository. */
     private final WebhookTaskRepository webhookTaskRepository;
 
+    /** ApplicationEventPublisher. */
+    private final ApplicationEventPublisher applicationEventPublisher;
+
     /**
      * Constructor WebhookTaskServiceImpl creates a new WebhookTaskServiceImpl instance.
      *
-     * @param webhookTaskRepository of type WebhookTaskRepository
+     * @param webhookTaskRepository     of type WebhookTaskRepository
+     * @param applicationEventPublisher of type ApplicationEventPublisher
      */
-    public WebhookTaskServiceImpl(WebhookTaskRepository webhookTaskRepository) {
+    public WebhookTaskServiceImpl(
+            WebhookTaskRepository webhookTaskRepository,
+            ApplicationEventPublisher applicationEventPublisher
+    ) {
         this.webhookTaskRepository = webhookTaskRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     /**
-     * Method getAll returns the all of this WebhookTaskService object.
+     * Get a slice of the WebhookTasks without their payloads, the newest first.
+     *
+     * @param beforeCreatedAt of type LocalDateTime, creation time of the last WebhookTask of the previous slice, may
+     *                        be null
+     * @param beforeId        of type Integer, id of the last WebhookTask of the previous slice, may be null
+     * @param size            of type int
      *
-     * @return List of WebhookTask.
+     * @return Slice of WebhookTaskSummary
      */
     @Override
-    public List<WebhookTask> getAll() {
-        return webhookTaskRepository.findAllByOrderByCreatedAtDesc();
+    public Slice<WebhookTaskSummary> getSummaries(LocalDateTime beforeCreatedAt, Integer beforeId, int size) {
+        return webhookTaskRepository.findAllSummariesBefore(beforeCreatedAt, beforeId, PageRequest.of(0, size));
     }
 
     /**
-     * Method create WebhookTask.
+     * Method create WebhookTask. The task is dispatched as soon as the current transaction commits.
      *
      * @param webhookTask of type WebhookTask
      */
@@ -47,24 +68,104 @@ public List<WebhookTask> getAll() {
     public void create(WebhookTask webhookTask) {
         webhookTaskRepository.saveAndFlush(webhookTask);
         log.info("Created WebhookTask #" + webhookTask.getId() + ": " + webhookTask);
+
+        applicationEventPublisher.publishEvent(
+                new WebhookTaskCreatedEvent(webhookTask.getId(), webhookTask.getWebhook().getPayloadUrl())
+        );
     }
 
     /**
-     * Method create ...
+     * Create webhook task by trigger, webhook and jsonObject. Rapid edits of the same event or product are coalesced:
+     * a task that has not been sent yet gets the new payload instead of a new task being created, and a delete
+     * cancels the updates that have not been sent yet.
      *
      * @param webhookTrigger of type WebhookTrigger
+     * @param webhook        of type Webhook
      * @param jsonObject     of type Object
+     * @param entityKey      of type String
      */
     @Override
-    public void create(WebhookTrigger webhookTrigger, Webhook webhook, JSONObject jsonObject) {
+    public void create(WebhookTrigger webhookTrigger, Webhook webhook, JSONObject jsonObject, String entityKey) {
+        if (entityKey != null) {
+            webhookTrigger.getSupersededTrigger().ifPresent(trigger -> this.cancel(webhook, trigger, entityKey));
+
+            if (this.replace(webhookTrigger, webhook, jsonObject, entityKey)) {
+                return;
+            }
+        }
+
         WebhookTask webhookTask = new WebhookTask();
         webhookTask.setTrigger(webhookTrigger);
         webhookTask.setWebhook(webhook);
         webhookTask.setObject(jsonObject);
+        webhookTask.setEntityKey(entityKey);
 
         this.create(webhookTask);
     }
 
+    /**
+     * Replace the payload of a task for the same entity that has not been sent yet.
+     *
+     * @param webhookTrigger of type WebhookTrigger
+     * @param webhook        of type Webhook
+     * @param jsonObject     of type JSONObject
+     * @param entityKey      of type String
+     *
+     * @return boolean true if a task has been replaced
+     */
+    private boolean replace(WebhookTrigger webhookTrigger, Webhook webhook, JSONObject jsonObject, String entityKey) {
+        List<WebhookTask> tasks = webhookTaskRepository.findAllByWebhookAndTriggerAndEntityKeyAndWebhookTaskStatusIn(
+                webhook, webhookTrigger, entityKey, WebhookTaskStatus.DUE
+        );
+
+        for (WebhookTask webhookTask : tasks) {
+            webhookTask.setObject(jsonObject);
+
+            try {
+                webhookTaskRepository.saveAndFlush(webhookTask);
+            } catch (OptimisticLockingFailureException e) {
+                // The task has been sent in the meantime, so it can not be replaced anymore.
+                continue;
+            }
+            log.info("Replaced WebhookTask #" + webhookTask.getId() + ": " + webhookTask);
+
+            // A task waiting for a retry keeps its backoff, the endpoint is probably still unavailable.
+            if (webhookTask.getWebhookTaskStatus() == WebhookTaskStatus.PENDING) {
+                applicationEventPublisher.publishEvent(
+                        new WebhookTaskCreatedEvent(webhookTask.getId(), webhook.getPayloadUrl())
+                );
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Cancel the tasks for an entity that have not been sent yet.
+     *
+     * @param webhook        of type Webhook
+     * @param webhookTrigger of type WebhookTrigger
+     * @param entityKey      of type String
+     */
+    private void cancel(Webhook webhook, WebhookTrigger webhookTrigger, String entityKey) {
+        List<WebhookTask> tasks = webhookTaskRepository.findAllByWebhookAndTriggerAndEntityKeyAndWebhookTaskStatusIn(
+                webhook, webhookTrigger, entityKey, WebhookTaskStatus.DUE
+        );
+
+        for (WebhookTask webhookTask : tasks) {
+            webhookTask.setWebhookTaskStatus(WebhookTaskStatus.CANCELLED);
+
+            try {
+                webhookTaskRepository.save(webhookTask);
+                log.info("Cancelled WebhookTask #" + webhookTask.getId());
+            } catch (OptimisticLockingFailureException ignored) {
+                // The task has been sent in the meantime.
+            }
+        }
+    }
+
     /**
      * Deletes all triggers bound to this webhook.
      *
@@ -1,13 +1,17 @@
 package ch.wisv.events.core.tasks;
 
 import ch.wisv.events.core.exception.normal.EventsException;
+import ch.wisv.events.core.model.order.Order;
 import ch.wisv.events.core.model.order.OrderStatus;
+import ch.wisv.events.core.model.order.ReservationExpiry;
 import ch.wisv.events.core.service.order.OrderService;
+import ch.wisv.events.core.service.order.ReservationExpiryQueue;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.thymeleaf.util.ArrayUtils;
 
 /**
  * OrderTaskScheduler class.
@@ -16,8 +20,8 @@
 @Slf4j
 public class OrderTaskScheduler {
 
-    /** Cancel task interval in seconds (10 minutes). */
-    private static final int CANCEL_RESERVATION_TASK_INTERVAL_SECONDS = 600;
+    /** Cancel task interval in seconds, reservations expire at most this late. */
+    private static final int CANCEL_RESERVATION_TASK_INTERVAL_SECONDS = 1;
 
     /** Clean up task interval in seconds (30 minutes). */
     private static final int CLEAN_UP_TASK_INTERVAL_SECONDS = 1800;
@@ -25,8 +29,11 @@ public class OrderTaskScheduler {
     /** Clean up orders after when inactive (60 minutes). */
     private static final int CLEAN_UP_INTERVAL = 60;
 
-    /** Max number of days a reservation is valid. */
-    private static final int MAX_RESERVATION_DAYS = 3;
+    /** Maximum number of orders deleted in one transaction. */
+    private static final int CLEAN_UP_BATCH_SIZE = 500;
+
+    /** Statuses of orders that are cleaned up when inactive. */
+    private static final Set<OrderStatus> CLEAN_UP_STATUSES = EnumSet.of(OrderStatus.ANONYMOUS, OrderStatus.ASSIGNED);
 
     /** Amount of milli seconds in a seconds. */
     private static final int MILLISEC_IN_SEC = 1000;
@@ -34,46 +41,60 @@ public class OrderTaskScheduler {
     /** OrderService. */
     private final OrderService orderService;
 
+    /** ReservationExpiryQueue. */
+    private final ReservationExpiryQueue reservationExpiryQueue;
+
     /**
      * OrderTaskScheduler constructor.
      *
-     * @param orderService    of type OrderService
+     * @param orderService           of type OrderService
+     * @param reservationExpiryQueue of type ReservationExpiryQueue
      */
-    public OrderTaskScheduler(OrderService orderService) {
+    public OrderTaskScheduler(OrderService orderService, ReservationExpiryQueue reservationExpiryQueue) {
         this.orderService = orderService;
+        this.reservationExpiryQueue = reservationExpiryQueue;
     }
 
     /**
-     * Cancel all overdue reservation.
+     * Cancel the reservations of which the deadline has passed. Only the expired entries of the queue are visited, an
+     * entry that fails unexpectedly is tried again later.
      */
-    @Scheduled(fixedRate = CANCEL_RESERVATION_TASK_INTERVAL_SECONDS * MILLISEC_IN_SEC)
+    @Scheduled(fixedDelay = CANCEL_RESERVATION_TASK_INTERVAL_SECONDS * MILLISEC_IN_SEC)
     public void cancelReservationTask() {
-        orderService.getAllReservations().forEach(order -> {
-            if (order.getCreatedAt().isBefore(LocalDateTime.now().minusDays(MAX_RESERVATION_DAYS))) {
-                try {
+        for (ReservationExpiry expiry : reservationExpiryQueue.pollExpired()) {
+            try {
+                Order order = orderService.getByReference(expiry.getPublicReference());
+
+                // The reservation might have been paid or rejected in the meantime.
+                if (order.getStatus() == OrderStatus.RESERVATION) {
                     orderService.updateOrderStatus(order, OrderStatus.EXPIRED);
                     log.info("Order " + order.getPublicReference() + ": Has been EXPIRED!");
-                } catch (EventsException e) {
-                    log.error(e.getMessage());
                 }
+            } catch (EventsException e) {
+                log.error(e.getMessage());
+            } catch (RuntimeException e) {
+                // The entry has been taken out of the queue, so it has to be put back to be tried again
+                log.error("Order " + expiry.getPublicReference() + ": Failed to expire, trying again later", e);
+                reservationExpiryQueue.retry(expiry);
             }
-        });
+        }
     }
 
     /**
-     * Clean up order.
+     * Clean up inactive orders in batches, without loading them into memory.
      */
     @Scheduled(fixedRate = CLEAN_UP_TASK_INTERVAL_SECONDS * MILLISEC_IN_SEC)
     public void cleanUpTask() {
-        orderService.getAllOrders().forEach(order -> {
-            if (order.getCreatedAt().isBefore(LocalDateTime.now().minusMinutes(CLEAN_UP_INTERVAL))) {
-                OrderStatus[] cleanUpStatus = new OrderStatus[]{OrderStatus.ANONYMOUS, OrderStatus.ASSIGNED};
+        long start = System.currentTimeMillis();
+        LocalDateTime before = LocalDateTime.now().minusMinutes(CLEAN_UP_INTERVAL);
 
-                if (ArrayUtils.contains(cleanUpStatus, order.getStatus())) {
-                    log.info("Order " + order.getPublicReference() + ": Order has been deleted!");
-                    orderService.delete(order);
-                }
-            }
-        });
+        int deleted = 0;
+        int batch;
+        do {
+            batch = orderService.deleteAllByStatusCreatedBefore(CLEAN_UP_STATUSES, before, CLEAN_UP_BATCH_SIZE);
+            deleted += batch;
+        } while (batch == CLEAN_UP_BATCH_SIZE);
+
+        log.info("Clean up: " + deleted + " inactive orders have been deleted in " + (System.currentTimeMillis() - start) + " ms");
     }
 }
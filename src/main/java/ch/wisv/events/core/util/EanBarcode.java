@@ -0,0 +1,103 @@
+package ch.wisv.events.core.util;
+
+import ch.wisv.events.utils.Barcode;
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.oned.EAN13Writer;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * EAN-13 barcode renderer for the tickets with a legacy 6 digit unique code. The rendered images are cached per code,
+ * as the same tickets are mailed and shown again.
+ */
+public final class EanBarcode {
+
+    /** Prefix of the EAN-13 barcode of a legacy ticket. */
+    public static final String LEGACY_PREFIX = "978020";
+
+    /** Width of the image in pixels, 2 pixels per module including the quiet zones. */
+    private static final int WIDTH = 2 * 113;
+
+    /** Height of the image in pixels. */
+    private static final int HEIGHT = 80;
+
+    /** Maximum number of cached images. */
+    private static final int CACHE_SIZE = 1024;
+
+    /** Rendered PNG images by EAN-13 code, the least recently used is evicted first. */
+    private static final Map<String, byte[]> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                    return this.size() > CACHE_SIZE;
+                }
+            }
+    );
+
+    /**
+     * Utility classes should not have a public or default constructor.
+     */
+    private EanBarcode() {
+    }
+
+    /**
+     * Get the EAN-13 code of a legacy unique code, i.e. the prefix, the code and the check digit.
+     *
+     * @param uniqueCode of type String
+     *
+     * @return String
+     */
+    public static String getLegacyEanCode(String uniqueCode) {
+        String code = LEGACY_PREFIX + uniqueCode;
+
+        return code + Barcode.calculateChecksum(code.toCharArray());
+    }
+
+    /**
+     * Generate the EAN-13 barcode of a legacy unique code as PNG.
+     *
+     * @param uniqueCode of type String
+     *
+     * @return byte[]
+     * @throws WriterException when the code can not be encoded, e.g. it contains something else than digits
+     * @throws IOException     when the image could not be written
+     */
+    public static byte[] generateLegacyBarcode(String uniqueCode) throws WriterException, IOException {
+        String eanCode = getLegacyEanCode(uniqueCode);
+
+        byte[] png = CACHE.get(eanCode);
+        if (png == null) {
+            png = QrCode.bufferedImageToBytes(generateEanBarcode(eanCode));
+            CACHE.put(eanCode, png);
+        }
+
+        return png.clone();
+    }
+
+    /**
+     * Generate the image of an EAN-13 barcode.
+     *
+     * @param eanCode of type String, 13 digits with a valid check digit
+     *
+     * @return BufferedImage
+     * @throws WriterException when the code can not be encoded
+     */
+    public static BufferedImage generateEanBarcode(String eanCode) throws WriterException {
+        if (!eanCode.chars().allMatch(Character::isDigit) || !Barcode.isValidEanCode(eanCode)) {
+            throw new WriterException("Invalid EAN-13 code " + eanCode);
+        }
+
+        BitMatrix bitMatrix = new EAN13Writer().encode(
+                eanCode, BarcodeFormat.EAN_13, WIDTH, HEIGHT, Map.of(EncodeHintType.MARGIN, 9)
+        );
+
+        return MatrixToImageWriter.toBufferedImage(bitMatrix);
+    }
+}
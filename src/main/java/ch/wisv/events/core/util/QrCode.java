@@ -9,13 +9,33 @@
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 public class QrCode {
+
+    /** Width and height of a rendered QR code in pixels. */
+    public static final int SIZE = 2 * 13 * 13;
+
+    /** PNG file signature. */
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /** PNG row filter that stores the row as is. */
+    private static final int PNG_FILTER_NONE = 0;
+
+    /** PNG row filter that stores the difference with the row above. */
+    private static final int PNG_FILTER_UP = 2;
+
     public static BufferedImage generateQrCode(String text) throws WriterException {
         // Generate a QR code
         QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        BitMatrix bitMatrix = qrCodeWriter.encode(text, BarcodeFormat.QR_CODE, 2 * 13 * 13, 2 * 13 * 13);
+        BitMatrix bitMatrix = qrCodeWriter.encode(text, BarcodeFormat.QR_CODE, SIZE, SIZE);
 
         return MatrixToImageWriter.toBufferedImage(bitMatrix);
     }
@@ -27,4 +47,158 @@ public static byte[] bufferedImageToBytes(BufferedImage image) throws IOExceptio
         ImageIO.write(image, "png", baos);
         return baos.toByteArray();
     }
+
+    /**
+     * Encode a text as QR code with one bit per module, including the quiet zone.
+     *
+     * @param text of type String
+     *
+     * @return BitMatrix
+     * @throws WriterException when the text can not be encoded
+     */
+    public static BitMatrix encode(String text) throws WriterException {
+        return new QRCodeWriter().encode(text, BarcodeFormat.QR_CODE, 0, 0);
+    }
+
+    /**
+     * Generate the QR code of a text as PNG, the same image as generateQrCode without going through a BufferedImage.
+     *
+     * @param text of type String
+     *
+     * @return byte[]
+     * @throws WriterException when the text can not be encoded
+     */
+    public static byte[] generateQrCodePng(String text) throws WriterException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        try {
+            writePng(encode(text), SIZE, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Write a QR code as 1-bit grayscale PNG of size by size pixels. The modules are scaled and centered the same way
+     * as zxing does. Rows that repeat the row above are stored as zeros with the up filter, so they compress to almost
+     * nothing and no image is held in memory.
+     *
+     * @param modules of type BitMatrix, one bit per module
+     * @param size    of type int
+     * @param out     of type OutputStream
+     *
+     * @throws IOException when the output could not be written
+     */
+    public static void writePng(BitMatrix modules, int size, OutputStream out) throws IOException {
+        int scale = Math.max(1, Math.min(size / modules.getWidth(), size / modules.getHeight()));
+        int left = (size - modules.getWidth() * scale) / 2;
+        int top = (size - modules.getHeight() * scale) / 2;
+
+        int rowLength = (size + 7) / 8;
+        byte[] row = new byte[rowLength];
+        byte[] previous = new byte[rowLength];
+        byte[] zeros = new byte[rowLength];
+
+        ByteArrayOutputStream data = new ByteArrayOutputStream(1024);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(data, deflater, rowLength + 1)) {
+            for (int y = 0; y < size; y++) {
+                int moduleY = Math.floorDiv(y - top, scale);
+                Arrays.fill(row, (byte) 0xFF);
+
+                if (moduleY >= 0 && moduleY < modules.getHeight()) {
+                    for (int x = Math.max(left, 0); x < Math.min(left + modules.getWidth() * scale, size); x++) {
+                        if (modules.get((x - left) / scale, moduleY)) {
+                            row[x >> 3] &= (byte) ~(0x80 >>> (x & 7));
+                        }
+                    }
+                }
+
+                if (y > 0 && Arrays.equals(row, previous)) {
+                    deflate.write(PNG_FILTER_UP);
+                    deflate.write(zeros);
+                } else {
+                    deflate.write(PNG_FILTER_NONE);
+                    deflate.write(row);
+
+                    byte[] swap = previous;
+                    previous = row;
+                    row = swap;
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+
+        ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+        DataOutputStream headerData = new DataOutputStream(header);
+        headerData.writeInt(size);
+        headerData.writeInt(size);
+        headerData.write(new byte[] {1, 0, 0, 0, 0}); // 1-bit grayscale, deflate, no interlacing
+
+        out.write(PNG_SIGNATURE);
+        writePngChunk(out, "IHDR", header.toByteArray());
+        writePngChunk(out, "IDAT", data.toByteArray());
+        writePngChunk(out, "IEND", new byte[0]);
+        out.flush();
+    }
+
+    /**
+     * Write a QR code as SVG, with one path of the horizontal runs of dark modules.
+     *
+     * @param modules of type BitMatrix, one bit per module
+     * @param out     of type OutputStream
+     *
+     * @throws IOException when the output could not be written
+     */
+    public static void writeSvg(BitMatrix modules, OutputStream out) throws IOException {
+        StringBuilder svg = new StringBuilder(64 * modules.getHeight());
+        svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 ")
+                .append(modules.getWidth()).append(' ').append(modules.getHeight())
+                .append("\" shape-rendering=\"crispEdges\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path d=\"");
+
+        for (int y = 0; y < modules.getHeight(); y++) {
+            int x = 0;
+            while (x < modules.getWidth()) {
+                if (!modules.get(x, y)) {
+                    x++;
+                    continue;
+                }
+
+                int start = x;
+                while (x < modules.getWidth() && modules.get(x, y)) {
+                    x++;
+                }
+                svg.append('M').append(start).append(' ').append(y)
+                        .append('h').append(x - start).append("v1h-").append(x - start).append('z');
+            }
+        }
+
+        svg.append("\"/></svg>");
+        out.write(svg.toString().getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /**
+     * Write a PNG chunk.
+     *
+     * @param out  of type OutputStream
+     * @param type of type String
+     * @param data of type byte[]
+     *
+     * @throws IOException when the output could not be written
+     */
+    private static void writePngChunk(OutputStream out, String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+
+        DataOutputStream chunk = new DataOutputStream(out);
+        chunk.writeInt(data.length);
+        chunk.write(typeBytes);
+        chunk.write(data);
+        chunk.writeInt((int) crc.getValue());
+    }
 }
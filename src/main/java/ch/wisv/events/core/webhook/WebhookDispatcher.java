@@ -0,0 +1,366 @@
+package ch.wisv.events.core.webhook;
+
+import ch.wisv.events.core.model.webhook.WebhookTask;
+import ch.wisv.events.core.model.webhook.WebhookTaskStatus;
+import ch.wisv.events.core.repository.WebhookTaskRepository;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * WebhookDispatcher class. Sends WebhookTasks on a pool of worker threads with a shared, pooled HTTP client.
+ *
+ * <p>Every webhook endpoint has its own lane with a bounded number of concurrent requests, tasks beyond that wait in
+ * the lane. A slow endpoint therefore only delays its own tasks. A task is dispatched at most once at a time.</p>
+ *
+ * <p>New tasks are dispatched directly after the transaction that created them commits, the WebhookTaskScheduler
+ * sweeps up the tasks that are due for a retry or were missed, e.g. because of a restart.</p>
+ *
+ * <p>Failed tasks are retried with an exponential backoff, after the maximum number of attempts or a permanent
+ * failure they are moved to the dead letters.</p>
+ *
+ * <p>When the payload of a task is replaced while it is being sent, storing the result fails on its version and the
+ * task is sent again with the new payload.</p>
+ */
+@Component
+@Slf4j
+public class WebhookDispatcher {
+
+    /** Connect timeout in milliseconds. */
+    private static final int CONNECT_TIMEOUT = 5000;
+
+    /** Read timeout in milliseconds. */
+    private static final int READ_TIMEOUT = 10000;
+
+    /** Backoff after the first failed attempt in seconds. */
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+
+    /** Maximum backoff in seconds. */
+    private static final long MAX_BACKOFF_SECONDS = 6 * 60 * 60;
+
+    /** WebhookTaskRepository. */
+    private final WebhookTaskRepository webhookTaskRepository;
+
+    /** Shared HTTP client. */
+    private final CloseableHttpClient httpClient;
+
+    /** Worker pool. */
+    private final ExecutorService executor;
+
+    /** Maximum number of concurrent requests to one endpoint. */
+    private final int maxConcurrentPerEndpoint;
+
+    /** Number of attempts after which a task is moved to the dead letters. */
+    private final int maxAttempts;
+
+    /** Lanes by payload url. */
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    /** Ids of the tasks that are queued or being sent. */
+    private final Set<Integer> dispatched = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor WebhookDispatcher creates a new WebhookDispatcher instance.
+     *
+     * @param webhookTaskRepository    of type WebhookTaskRepository
+     * @param workers                  of type int
+     * @param maxConcurrentPerEndpoint of type int
+     * @param maxAttempts              of type int
+     */
+    public WebhookDispatcher(
+            WebhookTaskRepository webhookTaskRepository,
+            @Value("${wisvch.events.webhook.workers:8}") int workers,
+            @Value("${wisvch.events.webhook.maxConcurrentPerEndpoint:2}") int maxConcurrentPerEndpoint,
+            @Value("${wisvch.events.webhook.maxAttempts:10}") int maxAttempts
+    ) {
+        this.webhookTaskRepository = webhookTaskRepository;
+        this.maxConcurrentPerEndpoint = maxConcurrentPerEndpoint;
+        this.maxAttempts = maxAttempts;
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(workers);
+        connectionManager.setDefaultMaxPerRoute(maxConcurrentPerEndpoint);
+
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(CONNECT_TIMEOUT)
+                        .setConnectionRequestTimeout(READ_TIMEOUT)
+                        .setSocketTimeout(READ_TIMEOUT)
+                        .build())
+                .build();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "webhook-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    /**
+     * Dispatch a WebhookTask, unless it is already queued or being sent.
+     *
+     * @param webhookTask of type WebhookTask
+     *
+     * @return boolean true if the task has been dispatched
+     */
+    public boolean dispatch(WebhookTask webhookTask) {
+        return this.dispatch(webhookTask.getId(), webhookTask.getWebhook().getPayloadUrl());
+    }
+
+    /**
+     * Dispatch a WebhookTask by its id, unless it is already queued or being sent. The task is loaded by the worker
+     * that sends it.
+     *
+     * @param taskId     of type Integer
+     * @param payloadUrl of type String
+     *
+     * @return boolean true if the task has been dispatched
+     */
+    public boolean dispatch(Integer taskId, String payloadUrl) {
+        if (!dispatched.add(taskId)) {
+            return false;
+        }
+
+        lanes.computeIfAbsent(payloadUrl, Lane::new).submit(taskId);
+
+        return true;
+    }
+
+    /**
+     * Dispatch a newly created WebhookTask as soon as the transaction in which it is created has been committed.
+     *
+     * @param event of type WebhookTaskCreatedEvent
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWebhookTaskCreated(WebhookTaskCreatedEvent event) {
+        this.dispatch(event.getTaskId(), event.getPayloadUrl());
+    }
+
+    /**
+     * Get the number of tasks that are queued or being sent.
+     *
+     * @return int
+     */
+    public int getDispatchedCount() {
+        return dispatched.size();
+    }
+
+    /**
+     * Stop the workers and close the HTTP client.
+     *
+     * @throws IOException when the client could not be closed
+     */
+    @PreDestroy
+    public void shutdown() throws IOException {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(READ_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        httpClient.close();
+    }
+
+    /**
+     * Send a WebhookTask and store the result.
+     *
+     * @param webhookTask of type WebhookTask
+     */
+    private void send(WebhookTask webhookTask) {
+        log.info("Starting WebhookTask #" + webhookTask.getId() + ": " + webhookTask);
+
+        // Counted before anything can fail, so every attempt is counted exactly once
+        webhookTask.setAttempts(webhookTask.getAttempts() + 1);
+
+        HttpPost httpPost = new HttpPost(webhookTask.getWebhook().getPayloadUrl());
+        httpPost.setHeader("Content-type", "application/json");
+        httpPost.setHeader("Accept", "application/json");
+        httpPost.setHeader(
+                "EventAuthorization",
+                "Basic " + Base64.getEncoder().encodeToString(("CH events:" + webhookTask.getWebhook().getSecret()).getBytes())
+        );
+        httpPost.setEntity(new StringEntity(webhookTask.getObject().toJSONString(), "UTF8"));
+
+        try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
+            String responseBody = response.getEntity() == null ? "" : EntityUtils.toString(response.getEntity());
+            int statusCode = response.getStatusLine().getStatusCode();
+
+            if (statusCode == HttpStatus.SC_OK) {
+                webhookTask.setWebhookTaskStatus(WebhookTaskStatus.SUCCESS);
+                webhookTask.setWebhookError(null);
+            } else {
+                log.error("FLASH_ERROR Task #" + webhookTask.getId() + ": " + responseBody);
+                this.failed(webhookTask, statusCode + ": " + responseBody, this.isPermanent(statusCode));
+            }
+        } catch (IOException e) {
+            log.error("IOException Task #" + webhookTask.getId() + ": " + e.getMessage());
+            this.failed(webhookTask, e.getMessage(), false);
+        }
+
+        log.info("Finished WebhookTask #" + webhookTask.getId() + ": " + webhookTask.getWebhookTaskStatus());
+        webhookTaskRepository.save(webhookTask);
+    }
+
+    /**
+     * Mark an attempt as failed. The task is retried with an exponential backoff with jitter, until the maximum number
+     * of attempts is reached or the failure is permanent.
+     *
+     * @param webhookTask of type WebhookTask
+     * @param error       of type String
+     * @param permanent   of type boolean
+     */
+    private void failed(WebhookTask webhookTask, String error, boolean permanent) {
+        webhookTask.setWebhookError(error);
+
+        if (permanent || webhookTask.getAttempts() >= maxAttempts) {
+            webhookTask.setWebhookTaskStatus(WebhookTaskStatus.DEAD_LETTER);
+        } else {
+            webhookTask.setWebhookTaskStatus(WebhookTaskStatus.ERROR);
+            webhookTask.setNextAttemptAt(LocalDateTime.now().plusSeconds(this.getBackoff(webhookTask.getAttempts())));
+        }
+    }
+
+    /**
+     * Get the backoff after a number of attempts in seconds. The backoff doubles every attempt, half of it is random,
+     * so tasks that failed together are not retried together.
+     *
+     * @param attempts of type int
+     *
+     * @return long
+     */
+    long getBackoff(int attempts) {
+        long backoff = INITIAL_BACKOFF_SECONDS << Math.min(attempts - 1, 20);
+        backoff = Math.min(backoff, MAX_BACKOFF_SECONDS);
+
+        return backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    /**
+     * Check if a failed response will not be different when retried, i.e. a client error other than a timeout or rate
+     * limit.
+     *
+     * @param statusCode of type int
+     *
+     * @return boolean
+     */
+    private boolean isPermanent(int statusCode) {
+        return statusCode >= 400 && statusCode < 500
+                && statusCode != HttpStatus.SC_REQUEST_TIMEOUT
+                && statusCode != 429;
+    }
+
+    /**
+     * Lane of the tasks of one endpoint.
+     */
+    private class Lane {
+
+        /** Payload url of the endpoint. */
+        private final String payloadUrl;
+
+        /** Ids of the tasks waiting for a free slot. */
+        private final Deque<Integer> waiting = new ArrayDeque<>();
+
+        /** Number of tasks being sent. */
+        private int running;
+
+        /**
+         * Constructor Lane creates a new Lane instance.
+         *
+         * @param payloadUrl of type String
+         */
+        Lane(String payloadUrl) {
+            this.payloadUrl = payloadUrl;
+        }
+
+        /**
+         * Submit a task, it is sent directly when the lane has a free slot.
+         *
+         * @param taskId of type Integer
+         */
+        synchronized void submit(Integer taskId) {
+            if (running < maxConcurrentPerEndpoint) {
+                running++;
+                executor.execute(() -> this.run(taskId));
+            } else {
+                waiting.add(taskId);
+            }
+        }
+
+        /**
+         * Send a task, if it still has to be sent, and start the next waiting task of this lane.
+         *
+         * @param taskId of type Integer
+         */
+        private void run(Integer taskId) {
+            boolean changed = false;
+            try {
+                WebhookTask webhookTask = webhookTaskRepository.findWithPayloadById(taskId)
+                        .filter(task -> WebhookTaskStatus.DUE.contains(task.getWebhookTaskStatus()))
+                        .orElse(null);
+
+                if (webhookTask != null) {
+                    try {
+                        send(webhookTask);
+                    } catch (OptimisticLockingFailureException e) {
+                        log.info("WebhookTask #" + taskId + " changed while it was sent, sending it again");
+                        changed = true;
+                    } catch (RuntimeException e) {
+                        log.error("Sending WebhookTask #" + taskId + " failed", e);
+                        failed(webhookTask, e.getMessage(), false);
+                        webhookTaskRepository.save(webhookTask);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("Loading WebhookTask #" + taskId + " failed", e);
+            } finally {
+                dispatched.remove(taskId);
+                this.next();
+            }
+
+            if (changed) {
+                dispatch(taskId, payloadUrl);
+            }
+        }
+
+        /**
+         * Start the next waiting task or free the slot.
+         */
+        private synchronized void next() {
+            Integer next = waiting.poll();
+            if (next == null) {
+                running--;
+            } else {
+                executor.execute(() -> this.run(next));
+            }
+        }
+    }
+}
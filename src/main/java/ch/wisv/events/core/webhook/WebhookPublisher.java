@@ -58,13 +58,30 @@ public void createWebhookTask(WebhookTrigger webhookTrigger, Object content) {
 
             webhookService.getByTrigger(webhookTrigger).forEach(webhook -> {
                 if (this.isWebhookAuthenticated(webhook, content)) {
-                    webhookTaskService.create(webhookTrigger, webhook, jsonObject);
+                    webhookTaskService.create(webhookTrigger, webhook, jsonObject, this.getEntityKey(content));
                 }
             });
         } catch (WebhookRequestFactoryNotFoundException | WebhookRequestObjectIncorrect ignored) {
         }
     }
 
+    /**
+     * Get the key of the event or product a webhook task is about.
+     *
+     * @param content of type Object.
+     *
+     * @return String
+     */
+    private String getEntityKey(Object content) {
+        if (content instanceof Event event) {
+            return event.getKey();
+        } else if (content instanceof Product product) {
+            return product.getKey();
+        }
+
+        return null;
+    }
+
     /**
      * Check if a webhook is authenticated to receive the given update.
      *
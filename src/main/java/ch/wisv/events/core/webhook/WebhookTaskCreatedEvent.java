@@ -0,0 +1,27 @@
+package ch.wisv.events.core.webhook;
+
+import lombok.Getter;
+
+/**
+ * WebhookTaskCreatedEvent class. Published when a WebhookTask has been created.
+ */
+@Getter
+public class WebhookTaskCreatedEvent {
+
+    /** Id of the WebhookTask. */
+    private final Integer taskId;
+
+    /** Payload url of the Webhook of the task. */
+    private final String payloadUrl;
+
+    /**
+     * Constructor WebhookTaskCreatedEvent creates a new WebhookTaskCreatedEvent instance.
+     *
+     * @param taskId     of type Integer
+     * @param payloadUrl of type String
+     */
+    public WebhookTaskCreatedEvent(Integer taskId, String payloadUrl) {
+        this.taskId = taskId;
+        this.payloadUrl = payloadUrl;
+    }
+}
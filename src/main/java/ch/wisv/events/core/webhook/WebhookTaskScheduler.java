@@ -3,18 +3,11 @@
 import ch.wisv.events.core.model.webhook.WebhookTask;
 import ch.wisv.events.core.model.webhook.WebhookTaskStatus;
 import ch.wisv.events.core.repository.WebhookTaskRepository;
-import java.io.IOException;
-import java.util.Base64;
+import java.time.LocalDateTime;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.http.HttpResponse;
-import org.apache.http.HttpStatus;
-import org.apache.http.client.HttpClient;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -23,72 +16,44 @@
 public class WebhookTaskScheduler {
 
     /** Task interval in seconds. */
-    private static final int WEBHOOK_TASK_INTERVAL_SECONDS = 60;
+    private static final int WEBHOOK_TASK_INTERVAL_SECONDS = 30;
 
-    /** Initial task interval delay in seconds */
-    private static final int WEBHOOK_TASK_INTERVAL_INITIAL_DELAY = 600;
+    /** Maximum number of tasks dispatched per run. */
+    private static final int WEBHOOK_TASK_BATCH_SIZE = 100;
 
     /** WebhookTaskRepository. */
     private final WebhookTaskRepository webhookTaskRepository;
 
+    /** WebhookDispatcher. */
+    private final WebhookDispatcher webhookDispatcher;
+
     /**
      * Constructor WebhookTaskScheduler creates a new WebhookTaskScheduler instance.
      *
      * @param webhookTaskRepository of type WebhookTaskRepository
+     * @param webhookDispatcher     of type WebhookDispatcher
      */
     @Autowired
-    public WebhookTaskScheduler(WebhookTaskRepository webhookTaskRepository) {
+    public WebhookTaskScheduler(WebhookTaskRepository webhookTaskRepository, WebhookDispatcher webhookDispatcher) {
         this.webhookTaskRepository = webhookTaskRepository;
+        this.webhookDispatcher = webhookDispatcher;
     }
 
     /**
-     * Method webhookTask ...
+     * Hand the WebhookTasks that are due to the dispatcher every 30 seconds, tasks which are still being sent are
+     * skipped. New tasks are dispatched when they are created, so this sweep only picks up retries and tasks that have
+     * been missed. A retry is therefore sent up to 30 seconds after it is due.
      */
-    @Scheduled(fixedRate = WEBHOOK_TASK_INTERVAL_SECONDS * 1000, initialDelay = WEBHOOK_TASK_INTERVAL_INITIAL_DELAY * 1000)
+    @Scheduled(fixedDelay = WEBHOOK_TASK_INTERVAL_SECONDS * 1000)
     public void webhookTask() {
-        List<WebhookTask> webhookTaskList = this.webhookTaskRepository.findAllByWebhookTaskStatus(WebhookTaskStatus.PENDING);
-
-        webhookTaskList.forEach(webhookTask -> {
-            log.info("Starting WebhookTask #" + webhookTask.getId() + ": " + webhookTask.toString());
-            this.sendRequest(webhookTask);
-        });
-    }
-
-    /**
-     * Method sendRequest sends out the sendRequest to a url.
-     *
-     * @param webhookTask of type Webhook
-     */
-    private void sendRequest(WebhookTask webhookTask) {
-        HttpClient httpClient = HttpClients.createDefault();
-        HttpPost httpPost = new HttpPost(webhookTask.getWebhook().getPayloadUrl());
-
-        httpPost.setHeader("Content-type", "application/json");
-        httpPost.setHeader("Accept", "application/json");
-        httpPost.setHeader(
-                "EventAuthorization",
-                "Basic " + Base64.getEncoder().encodeToString(("CH events:" + webhookTask.getWebhook().getSecret()).getBytes())
-        );
-        httpPost.setEntity(new StringEntity(webhookTask.getObject().toJSONString(), "UTF8"));
-
-        try {
-            HttpResponse response = httpClient.execute(httpPost);
-            String responseBody = EntityUtils.toString(response.getEntity());
-
-            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_OK) {
-                webhookTask.setWebhookTaskStatus(WebhookTaskStatus.SUCCESS);
-            } else {
-                log.error("FLASH_ERROR Task #" + webhookTask.getId() + ": " + responseBody);
-                webhookTask.setWebhookTaskStatus(WebhookTaskStatus.ERROR);
-                webhookTask.setWebhookError(responseBody);
-            }
-        } catch (IOException e) {
-            log.error("IOException Task #" + webhookTask.getId() + ": " + e.getMessage());
-            webhookTask.setWebhookTaskStatus(WebhookTaskStatus.ERROR);
-            webhookTask.setWebhookError(e.getMessage());
+        List<WebhookTask> webhookTaskList = this.webhookTaskRepository
+                .findAllByWebhookTaskStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                        WebhookTaskStatus.DUE, LocalDateTime.now(), PageRequest.of(0, WEBHOOK_TASK_BATCH_SIZE)
+                );
+
+        long count = webhookTaskList.stream().filter(webhookDispatcher::dispatch).count();
+        if (count > 0) {
+            log.info("Dispatched " + count + " WebhookTasks");
         }
-
-        log.info("Finished WebhookTask #" + webhookTask.getId());
-        this.webhookTaskRepository.save(webhookTask);
     }
 }
@@ -3,12 +3,20 @@
 import ch.wisv.events.core.exception.normal.EventNotFoundException;
 import ch.wisv.events.core.model.event.Event;
 import ch.wisv.events.core.service.event.EventService;
+import ch.wisv.events.core.service.ticket.TicketScanBundleService;
+import ch.wisv.events.core.service.ticket.TicketService;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 /**
@@ -25,19 +33,36 @@ public class SalesScanEventController {
     /** Attribute error. */
     private static final String ATTR_ERROR = "error";
 
+    /** Error when the bundles can not be signed. */
+    private static final String ERROR_NO_BUNDLE_KEY = "No scan bundle key configured";
+
     /** Default return redirect on error. */
     private static final String ERROR_REDIRECT = "redirect:/sales/scan/";
 
     /** EventService. */
     private final EventService eventService;
 
+    /** TicketService. */
+    private final TicketService ticketService;
+
+    /** TicketScanBundleService. */
+    private final TicketScanBundleService ticketScanBundleService;
+
     /**
      * SalesScanEventController.
      *
-     * @param eventService of type EventService
+     * @param eventService            of type EventService
+     * @param ticketService           of type TicketService
+     * @param ticketScanBundleService of type TicketScanBundleService
      */
-    public SalesScanEventController(EventService eventService) {
+    public SalesScanEventController(
+            EventService eventService,
+            TicketService ticketService,
+            TicketScanBundleService ticketScanBundleService
+    ) {
         this.eventService = eventService;
+        this.ticketService = ticketService;
+        this.ticketScanBundleService = ticketScanBundleService;
     }
 
     /**
@@ -56,6 +81,9 @@ public String scanner(Model model, RedirectAttributes redirect, @PathVariable St
             Event event = eventService.getByKey(key);
             model.addAttribute(ATTR_EVENT, event);
 
+            // Warm up the scan index, so the first scans at the door do not have to load it
+            ticketService.loadScanIndex(event);
+
             return "sales/scan/event/" + method;
         } catch (EventNotFoundException e) {
             redirect.addFlashAttribute(ATTR_ERROR, e.getMessage());
@@ -64,4 +92,67 @@ public String scanner(Model model, RedirectAttributes redirect, @PathVariable St
         }
     }
 
+    /**
+     * Download the signed bundle of the tickets of an event, to scan tickets while offline. When the generated time of
+     * a previous bundle is given only the tickets changed since then and the codes removed since then are in the
+     * bundle. Scans done offline are synced back through the batch scan endpoint. The signature is verified with the
+     * key of the bundle endpoint.
+     *
+     * @param response of type HttpServletResponse
+     * @param key      of type String
+     * @param since    of type LocalDateTime
+     *
+     * @throws IOException when the bundle could not be written
+     */
+    @GetMapping("/bundle")
+    public void bundle(
+            HttpServletResponse response,
+            @PathVariable String key,
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since
+    ) throws IOException {
+        Event event;
+        try {
+            event = eventService.getByKey(key);
+        } catch (EventNotFoundException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, e.getMessage());
+
+            return;
+        }
+
+        if (ticketScanBundleService.getPublicKey() == null) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, ERROR_NO_BUNDLE_KEY);
+
+            return;
+        }
+
+        response.setContentType("text/plain;charset=UTF-8");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + key + ".bundle\"");
+
+        if (since != null) {
+            ticketScanBundleService.writeDelta(event, since, response.getOutputStream());
+        } else {
+            ticketScanBundleService.writeBundle(event, response.getOutputStream());
+        }
+    }
+
+    /**
+     * Get the public key with which the signature of a bundle is verified, base64 encoded X.509 of an ECDSA P-256 key.
+     *
+     * @param response of type HttpServletResponse
+     *
+     * @throws IOException when the key could not be written
+     */
+    @GetMapping("/bundle/key")
+    public void bundleKey(HttpServletResponse response) throws IOException {
+        String publicKey = ticketScanBundleService.getPublicKey();
+        if (publicKey == null) {
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, ERROR_NO_BUNDLE_KEY);
+
+            return;
+        }
+
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(publicKey);
+    }
 }
@@ -1,22 +1,24 @@
 package ch.wisv.events.sales.controller.scan;
 
 import ch.wisv.events.core.exception.normal.EventsException;
-import ch.wisv.events.core.exception.normal.TicketNotFoundException;
-import ch.wisv.events.core.model.event.Event;
-import ch.wisv.events.core.model.ticket.Ticket;
-import ch.wisv.events.core.model.ticket.TicketStatus;
-import ch.wisv.events.core.service.event.EventService;
+import ch.wisv.events.core.model.ticket.TicketScanEntry;
+import ch.wisv.events.core.service.auth.AuthenticationService;
 import ch.wisv.events.core.service.ticket.TicketService;
 import static ch.wisv.events.utils.ResponseEntityBuilder.createResponseEntity;
-import java.util.Objects;
+import java.time.LocalDateTime;
 
 import ch.wisv.events.sales.model.ScanDto;
+import ch.wisv.events.sales.model.ScanRequestDto;
+import ch.wisv.events.sales.model.ScanType;
+import ch.wisv.events.sales.service.SalesService;
+import java.util.List;
 import org.json.simple.JSONObject;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -29,28 +31,33 @@
 @PreAuthorize("hasRole('USER')")
 public class SalesScanRestController {
 
-    /** Unique code length. */
-    private static final int UNIQUE_CODE_LEGACY_LENGTH = 6;
-    private static final int UNIQUE_CODE_UUID_LENGTH = 36;
-
-    /** Barcode length. */
-    private static final int BARCODE_LENGTH = 13;
-
-    /** EventService. */
-    private final EventService eventService;
+    /** Maximum number of scans in a batch. */
+    private static final int MAX_BATCH_SIZE = 500;
 
     /** TicketService. */
     private final TicketService ticketService;
 
+    /** AuthenticationService. */
+    private final AuthenticationService authenticationService;
+
+    /** SalesService. */
+    private final SalesService salesService;
+
     /**
      * SalesScanRestController.
      *
-     * @param eventService  of type EventService
-     * @param ticketService of type TicketService
+     * @param ticketService         of type TicketService
+     * @param authenticationService of type AuthenticationService
+     * @param salesService          of type SalesService
      */
-    public SalesScanRestController(EventService eventService, TicketService ticketService) {
-        this.eventService = eventService;
+    public SalesScanRestController(
+            TicketService ticketService,
+            AuthenticationService authenticationService,
+            SalesService salesService
+    ) {
         this.ticketService = ticketService;
+        this.authenticationService = authenticationService;
+        this.salesService = salesService;
     }
 
     /**
@@ -61,13 +68,7 @@ public SalesScanRestController(EventService eventService, TicketService ticketSe
      */
     @PostMapping("/barcode")
     public ResponseEntity barcodeScanner(@PathVariable String key, @RequestParam("barcode") String barcode) {
-        if (barcode.length() != BARCODE_LENGTH) {
-            return createResponseEntity(HttpStatus.BAD_REQUEST, "Invalid EAN 13 barcode length!");
-        }
-
-        String uniqueCode = barcode.substring(barcode.length() - (UNIQUE_CODE_LEGACY_LENGTH + 1), barcode.length() - 1);
-
-        return this.handleScanTicket(key, uniqueCode);
+        return this.handleScanTicket(key, barcode, ScanType.BARCODE);
     }
 
     /**
@@ -78,63 +79,59 @@ public ResponseEntity barcodeScanner(@PathVariable String key, @RequestParam("ba
      */
     @PostMapping("/code")
     public ResponseEntity codeScanner(@PathVariable String key, @RequestParam("code") String code) {
-        if (code.length() != UNIQUE_CODE_UUID_LENGTH && code.length() != UNIQUE_CODE_LEGACY_LENGTH) {
-            return createResponseEntity(HttpStatus.BAD_REQUEST, "Invalid unique code length!");
-        }
-
-        return this.handleScanTicket(key, code);
+        return this.handleScanTicket(key, code, ScanType.CODE);
     }
 
     /**
-     * Scan a Ticket using a unique code.
+     * Check in a batch of scanned codes, e.g. scans queued by a client while it was offline. All scans are handled in
+     * one transaction and a result is returned for each scan. The codes are read like the code and barcode scanners do,
+     * depending on the type of each scan.
      *
-     * @param event      of type Event
-     * @param uniqueCode of type String
+     * @param key   of type String
+     * @param scans of type List of ScanRequestDto
      *
-     * @return Ticket
-     *
-     * @throws EventsException when Ticket is not found or ticket has already been scanned
+     * @return String
      */
-    private Ticket getTicketByUniqueCode(Event event, String uniqueCode) throws EventsException {
-        return event.getProducts().stream()
-                .map(product -> {
-                    try {
-                        return ticketService.getByUniqueCode(product, uniqueCode);
-                    } catch (TicketNotFoundException ignored) {
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .findFirst()
-                .orElseThrow(() -> new TicketNotFoundException("Ticket " + uniqueCode + " does not exists"));
+    @PostMapping("/batch")
+    public ResponseEntity batchScanner(@PathVariable String key, @RequestBody List<ScanRequestDto> scans) {
+        if (scans.size() > MAX_BATCH_SIZE) {
+            return createResponseEntity(HttpStatus.BAD_REQUEST, "Batch contains more than " + MAX_BATCH_SIZE + " scans!");
+        }
+
+        try {
+            JSONObject json = new JSONObject();
+            json.put("results", salesService.scanAll(key, scans, authenticationService.getCurrentUsername()));
+
+            return createResponseEntity(HttpStatus.OK, "Batch scan processed", json);
+        } catch (EventsException e) {
+            return createResponseEntity(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     /**
      * Handle scan Tickets.
      *
-     * @param key  of type String
-     * @param code of type String
+     * @param key     of type String
+     * @param scanned of type String
+     * @param type    of type ScanType
      *
      * @return String
      */
-    private ResponseEntity handleScanTicket(String key, String code) {
+    private ResponseEntity handleScanTicket(String key, String scanned, ScanType type) {
         JSONObject json = new JSONObject();
 
         try {
-            Event event = eventService.getByKey(key);
-            Ticket ticket = this.getTicketByUniqueCode(event, code);
-            ScanDto scan = new ScanDto(ticket.getProduct().getTitle(), ticket.getOwner().getName());
+            TicketScanEntry ticket = ticketService.getScanEntry(key, type.toUniqueCode(scanned));
+            ScanDto scan = new ScanDto(ticket.getProductTitle(), ticket.getOwnerName());
 
             json.put("ticket", scan);
 
-            if (ticket.getStatus() == TicketStatus.OPEN) {
-                ticketService.updateStatus(ticket, TicketStatus.SCANNED);
-
+            if (ticketService.checkIn(ticket, LocalDateTime.now(), authenticationService.getCurrentUsername())) {
                 return createResponseEntity(HttpStatus.OK, "Ticket scan successful", json);
             } else {
                 return createResponseEntity(HttpStatus.ALREADY_REPORTED, "Ticket has already been scanned", json);
             }
-        } catch (EventsException e) {
+        } catch (EventsException | IllegalArgumentException e) {
             return createResponseEntity(HttpStatus.BAD_REQUEST, e.getMessage());
         }
     }
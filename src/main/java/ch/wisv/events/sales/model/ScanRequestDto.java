@@ -0,0 +1,36 @@
+package ch.wisv.events.sales.model;
+
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ScanRequestDto {
+
+    /**
+     * The scanned code.
+     */
+    private String code;
+
+    /**
+     * (Optional) Type of the scanned code, a unique code when not given.
+     */
+    private ScanType type = ScanType.CODE;
+
+    /**
+     * (Optional) Time at which the code has been scanned by the client.
+     */
+    private LocalDateTime scannedAt;
+
+    public ScanRequestDto(String code, LocalDateTime scannedAt) {
+        this.code = code;
+        this.scannedAt = scannedAt;
+    }
+
+    public ScanRequestDto(String code, ScanType type, LocalDateTime scannedAt) {
+        this.code = code;
+        this.type = type;
+        this.scannedAt = scannedAt;
+    }
+}
@@ -0,0 +1,28 @@
+package ch.wisv.events.sales.model;
+
+import lombok.Data;
+
+@Data
+public class ScanResultDto {
+
+    /**
+     * The scanned code.
+     */
+    private String code;
+
+    /**
+     * Result of the scan.
+     */
+    private ScanResultStatus status;
+
+    /**
+     * The scanned ticket, null if the code is unknown.
+     */
+    private ScanDto ticket;
+
+    public ScanResultDto(String code, ScanResultStatus status, ScanDto ticket) {
+        this.code = code;
+        this.status = status;
+        this.ticket = ticket;
+    }
+}
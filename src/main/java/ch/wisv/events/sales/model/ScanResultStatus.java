@@ -0,0 +1,22 @@
+package ch.wisv.events.sales.model;
+
+/**
+ * Result of a single scan in a batch.
+ */
+public enum ScanResultStatus {
+
+    /**
+     * Ticket has been checked in.
+     */
+    OK,
+
+    /**
+     * Ticket had already been scanned.
+     */
+    ALREADY_SCANNED,
+
+    /**
+     * Code does not belong to a ticket of the event.
+     */
+    UNKNOWN
+}
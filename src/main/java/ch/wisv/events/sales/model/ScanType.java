@@ -0,0 +1,53 @@
+package ch.wisv.events.sales.model;
+
+/**
+ * Type of a scan, which determines how the unique code of the ticket is read from the scanned value.
+ */
+public enum ScanType {
+
+    /**
+     * Unique code of a ticket, a UUID or a legacy code.
+     */
+    CODE {
+        @Override
+        public String toUniqueCode(String scanned) {
+            if (scanned == null || (scanned.length() != UNIQUE_CODE_UUID_LENGTH && scanned.length() != UNIQUE_CODE_LEGACY_LENGTH)) {
+                throw new IllegalArgumentException("Invalid unique code length!");
+            }
+
+            return scanned;
+        }
+    },
+
+    /**
+     * EAN 13 barcode of a legacy ticket, the unique code are the digits before the checksum.
+     */
+    BARCODE {
+        @Override
+        public String toUniqueCode(String scanned) {
+            if (scanned == null || scanned.length() != BARCODE_LENGTH) {
+                throw new IllegalArgumentException("Invalid EAN 13 barcode length!");
+            }
+
+            return scanned.substring(BARCODE_LENGTH - (UNIQUE_CODE_LEGACY_LENGTH + 1), BARCODE_LENGTH - 1);
+        }
+    };
+
+    /** Unique code length. */
+    private static final int UNIQUE_CODE_LEGACY_LENGTH = 6;
+    private static final int UNIQUE_CODE_UUID_LENGTH = 36;
+
+    /** Barcode length. */
+    private static final int BARCODE_LENGTH = 13;
+
+    /**
+     * Get the unique code of the ticket from a scanned value.
+     *
+     * @param scanned of type String
+     *
+     * @return String
+     *
+     * @throws IllegalArgumentException when the scanned value can not contain a unique code
+     */
+    public abstract String toUniqueCode(String scanned);
+}
@@ -1,9 +1,12 @@
 package ch.wisv.events.sales.service;
 
+import ch.wisv.events.core.exception.normal.EventNotFoundException;
 import ch.wisv.events.core.model.customer.Customer;
 import ch.wisv.events.core.model.event.Event;
 import ch.wisv.events.core.model.order.Order;
 import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.sales.model.ScanRequestDto;
+import ch.wisv.events.sales.model.ScanResultDto;
 
 import java.util.List;
 
@@ -32,4 +35,15 @@ public interface SalesService {
      * @return list of Orders
      */
     List<Order> getAllOrdersByEvent(Event event);
+
+    /**
+     * Check in a batch of scanned codes of an event in one transaction.
+     *
+     * @param eventKey  of type String
+     * @param scans     of type List of ScanRequestDto
+     * @param scannedBy of type String
+     * @return list of ScanResultDto, in the order of the scans
+     * @throws EventNotFoundException when the event does not exist
+     */
+    List<ScanResultDto> scanAll(String eventKey, List<ScanRequestDto> scans, String scannedBy) throws EventNotFoundException;
 }
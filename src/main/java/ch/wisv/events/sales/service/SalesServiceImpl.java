@@ -1,19 +1,32 @@
 package ch.wisv.events.sales.service;
 
+import ch.wisv.events.core.exception.normal.EventNotFoundException;
+import ch.wisv.events.core.exception.normal.TicketNotFoundException;
 import ch.wisv.events.core.model.customer.Customer;
 import ch.wisv.events.core.model.event.Event;
 import ch.wisv.events.core.model.order.Order;
 import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.model.ticket.TicketScanEntry;
 import ch.wisv.events.core.service.event.EventService;
 import ch.wisv.events.core.service.order.OrderService;
+import ch.wisv.events.core.service.ticket.TicketService;
+import ch.wisv.events.sales.model.ScanDto;
+import ch.wisv.events.sales.model.ScanRequestDto;
+import ch.wisv.events.sales.model.ScanResultDto;
+import ch.wisv.events.sales.model.ScanResultStatus;
+import ch.wisv.events.sales.model.ScanType;
 import ch.wisv.events.utils.LdapGroup;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * SalesServiceImpl class.
@@ -31,16 +44,23 @@ public class SalesServiceImpl implements SalesService {
      */
     private final OrderService orderService;
 
+    /**
+     * TicketService.
+     */
+    private final TicketService ticketService;
+
     /**
      * Default constructor.
      *
-     * @param eventService of type EventService.
-     * @param orderService of type OrderService.
+     * @param eventService  of type EventService.
+     * @param orderService  of type OrderService.
+     * @param ticketService of type TicketService.
      */
     @Autowired
-    public SalesServiceImpl(EventService eventService, OrderService orderService) {
+    public SalesServiceImpl(EventService eventService, OrderService orderService, TicketService ticketService) {
         this.eventService = eventService;
         this.orderService = orderService;
+        this.ticketService = ticketService;
     }
 
     /**
@@ -87,4 +107,67 @@ public List<Order> getAllOrdersByEvent(Event event) {
 
         return ordersAssociatedWithEvent;
     }
+
+    /**
+     * Check in a batch of scanned codes of an event in one transaction. The scans are handled in the order in which
+     * they have been scanned by the clients, so of two scans of the same ticket the first one wins. Client times in the
+     * future are replaced by the current time. A scanned value that can not contain a unique code is unknown.
+     *
+     * @param eventKey  of type String
+     * @param scans     of type List of ScanRequestDto
+     * @param scannedBy of type String
+     * @return list of ScanResultDto, in the order of the scans
+     * @throws EventNotFoundException when the event does not exist
+     */
+    @Override
+    @Transactional
+    public List<ScanResultDto> scanAll(String eventKey, List<ScanRequestDto> scans, String scannedBy) throws EventNotFoundException {
+        eventService.getByKey(eventKey);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime[] scannedAt = scans.stream()
+                .map(scan -> scan.getScannedAt() == null || scan.getScannedAt().isAfter(now) ? now : scan.getScannedAt())
+                .toArray(LocalDateTime[]::new);
+
+        ScanResultDto[] results = new ScanResultDto[scans.size()];
+        int[] order = IntStream.range(0, scans.size())
+                .boxed()
+                .sorted(Comparator.comparing(i -> scannedAt[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        for (int i : order) {
+            results[i] = this.scan(eventKey, scans.get(i), scannedAt[i], scannedBy);
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Check in a single scanned code.
+     *
+     * @param eventKey  of type String
+     * @param scan      of type ScanRequestDto
+     * @param scannedAt of type LocalDateTime
+     * @param scannedBy of type String
+     * @return ScanResultDto, with the scanned value as code
+     * @throws EventNotFoundException when the event does not exist
+     */
+    private ScanResultDto scan(String eventKey, ScanRequestDto scan, LocalDateTime scannedAt, String scannedBy) throws EventNotFoundException {
+        String code = scan.getCode();
+        ScanType type = scan.getType() == null ? ScanType.CODE : scan.getType();
+
+        try {
+            TicketScanEntry entry = ticketService.getScanEntry(eventKey, type.toUniqueCode(code));
+            ScanDto ticket = new ScanDto(entry.getProductTitle(), entry.getOwnerName());
+
+            if (ticketService.checkIn(entry, scannedAt, scannedBy)) {
+                return new ScanResultDto(code, ScanResultStatus.OK, ticket);
+            }
+
+            return new ScanResultDto(code, ScanResultStatus.ALREADY_SCANNED, ticket);
+        } catch (TicketNotFoundException | IllegalArgumentException e) {
+            return new ScanResultDto(code, ScanResultStatus.UNKNOWN, null);
+        }
+    }
 }
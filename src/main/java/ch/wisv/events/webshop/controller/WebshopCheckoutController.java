@@ -3,12 +3,20 @@
 import ch.wisv.events.core.exception.normal.EventsException;
 import ch.wisv.events.core.exception.normal.OrderInvalidException;
 import ch.wisv.events.core.exception.normal.OrderNotFoundException;
+import ch.wisv.events.core.exception.normal.QueueTokenInvalidException;
 import ch.wisv.events.core.model.order.Order;
 import ch.wisv.events.core.model.order.OrderProductDto;
 import ch.wisv.events.core.model.order.OrderStatus;
 import ch.wisv.events.core.service.auth.AuthenticationService;
 import ch.wisv.events.core.service.order.OrderService;
 import ch.wisv.events.core.service.order.OrderValidationService;
+import static ch.wisv.events.utils.ResponseEntityBuilder.createResponseEntity;
+import ch.wisv.events.webshop.service.queue.AdmissionQueueEntry;
+import ch.wisv.events.webshop.service.queue.AdmissionQueueService;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,6 +24,7 @@
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 /**
@@ -36,27 +45,43 @@ public class WebshopCheckoutController extends WebshopController {
     /** Success message Order cancelled. */
     private static final String SUCCESS_MESSAGE_ORDER_CANCELLED = "Order has successfully been cancelled.";
 
+    /** Model attr queue token. */
+    private static final String MODEL_ATTR_TOKEN = "token";
+
+    /** Model attr position in the queue. */
+    private static final String MODEL_ATTR_POSITION = "position";
+
+    /** Redirect to the queue page. */
+    private static final String REDIRECT_QUEUE = "redirect:/checkout/queue/";
+
     /** OrderValidationService. */
     private final OrderValidationService orderValidationService;
 
+    /** AdmissionQueueService. */
+    private final AdmissionQueueService admissionQueueService;
+
     /**
      * Constructor WebshopController.
      *
      * @param orderService           of type OrderService
      * @param orderValidationService of type OrderValidationService
      * @param authenticationService  of type AuthenticationService
+     * @param admissionQueueService  of type AdmissionQueueService
      */
     public WebshopCheckoutController(
             OrderService orderService,
             OrderValidationService orderValidationService,
-            AuthenticationService authenticationService
+            AuthenticationService authenticationService,
+            AdmissionQueueService admissionQueueService
     ) {
         super(orderService, authenticationService);
         this.orderValidationService = orderValidationService;
+        this.admissionQueueService = admissionQueueService;
     }
 
     /**
-     * Post mapping for the checkout of a shopping basket.
+     * Post mapping for the checkout of a shopping basket. Shopping baskets containing queued products have to wait for
+     * their turn in the admission queue before the Order is created.
      *
      * @param redirect        of type RedirectAttributes
      * @param orderProductDto of type OrderProductDto
@@ -77,12 +102,85 @@ public String checkoutShoppingBasket(RedirectAttributes redirect, @ModelAttribut
                 return REDIRECT_EVENTS_HOME;
             }
 
-            Order order = orderService.createOrderByOrderProductDto(orderProductDto);
-            order.setCreatedBy(USERNAME_ORDER_CREATED);
-            orderValidationService.assertOrderIsValid(order);
-            orderService.create(order);
+            Optional<String> queueKey = admissionQueueService.getQueueKey(orderProductDto);
+            if (queueKey.isPresent()) {
+                AdmissionQueueEntry entry = admissionQueueService.enqueue(queueKey.get(), orderProductDto);
+
+                if (!admissionQueueService.consume(entry)) {
+                    return REDIRECT_QUEUE + entry.getToken();
+                }
+            }
+
+            return this.createOrder(orderProductDto);
+        } catch (EventsException e) {
+            redirect.addFlashAttribute(MODEL_ATTR_ERROR, e.getMessage());
+
+            return REDIRECT_EVENTS_HOME;
+        }
+    }
+
+    /**
+     * GetMapping for "/checkout/queue/{token}".
+     *
+     * @param model    of type Model
+     * @param redirect of type RedirectAttributes
+     * @param token    of type String
+     *
+     * @return String
+     */
+    @GetMapping("/queue/{token}")
+    public String checkoutQueue(Model model, RedirectAttributes redirect, @PathVariable String token) {
+        try {
+            AdmissionQueueEntry entry = admissionQueueService.getByToken(token);
+
+            model.addAttribute(MODEL_ATTR_TOKEN, entry.getToken());
+            model.addAttribute(MODEL_ATTR_POSITION, admissionQueueService.getPosition(entry));
+
+            return "webshop/checkout/queue";
+        } catch (QueueTokenInvalidException e) {
+            redirect.addFlashAttribute(MODEL_ATTR_ERROR, e.getMessage());
+
+            return REDIRECT_EVENTS_HOME;
+        }
+    }
+
+    /**
+     * GetMapping for "/checkout/queue/{token}/status", polled by the queue page. Does not touch the database.
+     *
+     * @param token of type String
+     *
+     * @return ResponseEntity
+     */
+    @GetMapping("/queue/{token}/status")
+    @ResponseBody
+    public ResponseEntity<?> checkoutQueueStatus(@PathVariable String token) {
+        try {
+            AdmissionQueueEntry entry = admissionQueueService.getByToken(token);
 
-            return "redirect:/checkout/" + order.getPublicReference();
+            return createResponseEntity(HttpStatus.OK, "Position in queue", Map.of(MODEL_ATTR_POSITION, admissionQueueService.getPosition(entry)));
+        } catch (QueueTokenInvalidException e) {
+            return createResponseEntity(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    /**
+     * PostMapping for "/checkout/queue/{token}", checks out the shopping basket once it has been admitted.
+     *
+     * @param redirect of type RedirectAttributes
+     * @param token    of type String
+     *
+     * @return String
+     */
+    @PostMapping("/queue/{token}")
+    public String checkoutQueueAdmitted(RedirectAttributes redirect, @PathVariable String token) {
+        try {
+            AdmissionQueueEntry entry = admissionQueueService.getByToken(token);
+
+            if (!admissionQueueService.consume(entry)) {
+                return REDIRECT_QUEUE + token;
+            }
+
+            return this.createOrder(entry.getOrderProductDto());
         } catch (EventsException e) {
             redirect.addFlashAttribute(MODEL_ATTR_ERROR, e.getMessage());
 
@@ -140,4 +238,22 @@ public String checkoutCancel(RedirectAttributes redirect, @PathVariable String k
             return REDIRECT_EVENTS_HOME;
         }
     }
+
+    /**
+     * Create and validate an Order from a shopping basket.
+     *
+     * @param orderProductDto of type OrderProductDto
+     *
+     * @return String
+     *
+     * @throws EventsException when the Order is invalid
+     */
+    private String createOrder(OrderProductDto orderProductDto) throws EventsException {
+        Order order = orderService.createOrderByOrderProductDto(orderProductDto);
+        order.setCreatedBy(USERNAME_ORDER_CREATED);
+        orderValidationService.assertOrderIsValid(order);
+        orderService.create(order);
+
+        return "redirect:/checkout/" + order.getPublicReference();
+    }
 }
@@ -1,19 +1,25 @@
 package ch.wisv.events.webshop.controller;
 
 import ch.wisv.events.core.exception.normal.EventNotFoundException;
-import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.catalog.CatalogEvent;
 import ch.wisv.events.core.model.order.OrderProductDto;
 import ch.wisv.events.core.service.auth.AuthenticationService;
+import ch.wisv.events.core.service.catalog.CatalogService;
 import ch.wisv.events.core.service.event.EventService;
 import ch.wisv.events.core.service.order.OrderService;
 import ch.wisv.events.webshop.service.WebshopService;
-import java.util.List;
+import ch.wisv.events.webshop.service.stock.StockStreamService;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.constraints.NotNull;
 
@@ -41,6 +47,12 @@ public class WebshopIndexController extends WebshopController {
     /** WebshopService. */
     private final WebshopService webshopService;
 
+    /** CatalogService. */
+    private final CatalogService catalogService;
+
+    /** StockStreamService. */
+    private final StockStreamService stockStreamService;
+
     /**
      * Link to General Terms and Conditions
      */
@@ -60,18 +72,24 @@ public class WebshopIndexController extends WebshopController {
      *
      * @param eventService          of type EventService
      * @param webshopService        of type WebshopService
+     * @param catalogService        of type CatalogService
+     * @param stockStreamService    of type StockStreamService
      * @param orderService          of type OrderService
      * @param authenticationService of type AuthenticationService.
      */
     protected WebshopIndexController(
             EventService eventService,
             WebshopService webshopService,
+            CatalogService catalogService,
+            StockStreamService stockStreamService,
             OrderService orderService,
             AuthenticationService authenticationService
     ) {
         super(orderService, authenticationService);
         this.eventService = eventService;
         this.webshopService = webshopService;
+        this.catalogService = catalogService;
+        this.stockStreamService = stockStreamService;
     }
 
     /**
@@ -83,9 +101,8 @@ protected WebshopIndexController(
      */
     @GetMapping("/")
     public String index(Model model) {
-        List<Event> upcoming = eventService.getUpcoming();
         model.addAttribute(MODEL_ATTR_CUSTOMER, authenticationService.getCurrentCustomer());
-        model.addAttribute(MODEL_ATTR_EVENTS, webshopService.filterEventProductNotSalable(upcoming));
+        model.addAttribute(MODEL_ATTR_EVENTS, catalogService.getSnapshot().getEvents());
         model.addAttribute(MODEL_ATTR_ORDER_PRODUCT, new OrderProductDto());
         model.addAttribute(MODEL_ATTR_ADMINISTRATION_COSTS, administrationCosts);
         model.addAttribute("linkGTC", linkGTC);
@@ -105,7 +122,13 @@ public String index(Model model) {
     public String index(Model model, @PathVariable String key) {
         try {
             model.addAttribute(MODEL_ATTR_CUSTOMER, authenticationService.getCurrentCustomer());
-            model.addAttribute(MODEL_ATTR_EVENT, webshopService.filterEventProductNotSalable(eventService.getByKey(key)));
+
+            // Events that are not upcoming and published are not in the catalog, but can still be opened by key
+            Optional<CatalogEvent> event = catalogService.getSnapshot().getEvent(key);
+            model.addAttribute(MODEL_ATTR_EVENT, event.isPresent()
+                    ? event.get()
+                    : webshopService.getSalableView(eventService.getByKey(key)));
+
             model.addAttribute(MODEL_ATTR_ORDER_PRODUCT, new OrderProductDto());
             model.addAttribute(MODEL_ATTR_ADMINISTRATION_COSTS, administrationCosts);
 
@@ -114,4 +137,22 @@ public String index(Model model, @PathVariable String key) {
             return "redirect:/";
         }
     }
+
+    /**
+     * Stream of the stock levels of the products of an event, used by the event page to show the availability
+     * without reloading.
+     *
+     * @param key of type String
+     *
+     * @return ResponseEntity with the SseEmitter, not found when the event does not exist
+     */
+    @GetMapping(value = "/{key}/stock", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> stock(@PathVariable String key) {
+        try {
+            return ResponseEntity.ok(stockStreamService.subscribe(key));
+        } catch (EventNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 }
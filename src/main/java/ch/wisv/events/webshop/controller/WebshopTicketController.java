@@ -9,17 +9,21 @@
 import ch.wisv.events.core.service.customer.CustomerService;
 import ch.wisv.events.core.service.mail.MailService;
 import ch.wisv.events.core.service.order.OrderService;
+import ch.wisv.events.core.service.ticket.QrCodeCache;
 import ch.wisv.events.core.service.ticket.TicketService;
 import ch.wisv.events.core.util.QrCode;
 import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import java.awt.image.BufferedImage;
 import java.io.IOException;
 
 /**
@@ -137,35 +141,86 @@ public String transferTicket(Model model, RedirectAttributes redirect, @PathVari
     }
 
     /**
-     * Get QR-code of ticket.
+     * Get QR-code of ticket as PNG. The image only changes when the ticket gets a new unique code, so a browser that
+     * has the current image gets a 304 without the image being encoded.
      */
     @GetMapping("/{key}/qrcode.png")
-    public void getQrCode(HttpServletResponse response, @PathVariable String key) throws IOException {
-        Customer customer = authenticationService.getCurrentCustomer();
-        try {
-            Ticket ticket = ticketService.getByKey(key);
-
-            if (!ticket.owner.equals(customer)) {
-                response.sendError(HttpServletResponse.SC_FORBIDDEN);
-                return;
-            }
+    public void getQrCode(HttpServletRequest request, HttpServletResponse response, @PathVariable String key) throws IOException {
+        Ticket ticket = this.getQrCodeTicket(request, response, key);
+        if (ticket == null) {
+            return;
+        }
 
-            BufferedImage qrCode = ticketService.generateQrCode(ticket);
-            byte[] bytes = QrCode.bufferedImageToBytes(qrCode);
+        try {
+            byte[] bytes = ticketService.getQrCodeImage(ticket);
 
             response.setContentType("image/png");
             response.setContentLength(bytes.length);
             response.getOutputStream().write(bytes);
             response.getOutputStream().close();
         }
-        catch (TicketNotFoundException e) {
+        catch (IllegalArgumentException e) {
+            // Legacy tickets have no QR code
             response.sendError(HttpServletResponse.SC_NOT_FOUND);
         }
         catch (WriterException e) {
             response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         }
-        catch (IOException e) {
+    }
+
+    /**
+     * Get QR-code of ticket as SVG, written straight from the encoded modules to the response.
+     */
+    @GetMapping("/{key}/qrcode.svg")
+    public void getQrCodeSvg(HttpServletRequest request, HttpServletResponse response, @PathVariable String key) throws IOException {
+        Ticket ticket = this.getQrCodeTicket(request, response, key);
+        if (ticket == null) {
+            return;
+        }
+
+        try {
+            BitMatrix modules = ticketService.getQrCodeModules(ticket);
+
+            response.setContentType("image/svg+xml");
+            QrCode.writeSvg(modules, response.getOutputStream());
+            response.getOutputStream().close();
+        }
+        catch (IllegalArgumentException e) {
+            // Legacy tickets have no QR code
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+        }
+        catch (WriterException e) {
             response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         }
     }
+
+    /**
+     * Get the ticket of which the QR-code is requested. Nothing has to be written when the ticket is not found, is not
+     * of the current customer or the browser already has the current QR-code.
+     *
+     * @return Ticket or null when the response is complete
+     */
+    private Ticket getQrCodeTicket(HttpServletRequest request, HttpServletResponse response, String key) throws IOException {
+        Customer customer = authenticationService.getCurrentCustomer();
+        try {
+            Ticket ticket = ticketService.getByKey(key);
+
+            if (!ticket.owner.equals(customer)) {
+                response.sendError(HttpServletResponse.SC_FORBIDDEN);
+                return null;
+            }
+
+            // The same url shows a new image after a transfer, so the browser has to revalidate it every time
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+            if (new ServletWebRequest(request, response).checkNotModified(QrCodeCache.getETag(ticket.getUniqueCode()))) {
+                return null;
+            }
+
+            return ticket;
+        }
+        catch (TicketNotFoundException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return null;
+        }
+    }
 }
@@ -1,7 +1,7 @@
 package ch.wisv.events.webshop.service;
 
+import ch.wisv.events.core.model.catalog.CatalogEvent;
 import ch.wisv.events.core.model.event.Event;
-import java.util.List;
 
 /**
  * WebshopService class.
@@ -9,20 +9,11 @@
 public interface WebshopService {
 
     /**
-     * Filter the products in a Event which are not sold now.
+     * Get a view of an Event containing only the Products which are sold now.
      *
      * @param event of type Event
      *
-     * @return Event
+     * @return CatalogEvent
      */
-    Event filterEventProductNotSalable(Event event);
-
-    /**
-     * Filter the products by events if they can be sold or not.
-     *
-     * @param events of type List
-     *
-     * @return List
-     */
-    List<Event> filterEventProductNotSalable(List<Event> events);
+    CatalogEvent getSalableView(Event event);
 }
@@ -0,0 +1,43 @@
+package ch.wisv.events.webshop.service.queue;
+
+import ch.wisv.events.core.model.order.OrderProductDto;
+import java.time.LocalDateTime;
+import lombok.Getter;
+
+/**
+ * AdmissionQueueEntry class. A place in the admission queue of a single event.
+ */
+@Getter
+public class AdmissionQueueEntry {
+
+    /** Token handed out to the customer. */
+    private final String token;
+
+    /** Key of the queue this entry is placed in. */
+    private final String queueKey;
+
+    /** Place of the entry in the queue, starting at 1. */
+    private final long sequence;
+
+    /** Shopping basket that will be checked out once admitted. */
+    private final OrderProductDto orderProductDto;
+
+    /** Moment the entry has been placed in the queue. */
+    private final LocalDateTime createdAt;
+
+    /**
+     * AdmissionQueueEntry constructor.
+     *
+     * @param token           of type String
+     * @param queueKey        of type String
+     * @param sequence        of type long
+     * @param orderProductDto of type OrderProductDto
+     */
+    public AdmissionQueueEntry(String token, String queueKey, long sequence, OrderProductDto orderProductDto) {
+        this.token = token;
+        this.queueKey = queueKey;
+        this.sequence = sequence;
+        this.orderProductDto = orderProductDto;
+        this.createdAt = LocalDateTime.now();
+    }
+}
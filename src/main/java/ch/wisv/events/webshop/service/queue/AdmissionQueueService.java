@@ -0,0 +1,69 @@
+package ch.wisv.events.webshop.service.queue;
+
+import ch.wisv.events.core.exception.normal.QueueTokenInvalidException;
+import ch.wisv.events.core.model.order.OrderProductDto;
+import java.util.Optional;
+
+/**
+ * AdmissionQueueService interface. Spreads the checkouts of queued products over time.
+ */
+public interface AdmissionQueueService {
+
+    /**
+     * Get the queue a shopping basket has to pass before checkout.
+     *
+     * @param orderProductDto of type OrderProductDto
+     *
+     * @return Optional containing the queue key, empty when no queue is needed
+     */
+    Optional<String> getQueueKey(OrderProductDto orderProductDto);
+
+    /**
+     * Place a shopping basket at the end of a queue.
+     *
+     * @param queueKey        of type String
+     * @param orderProductDto of type OrderProductDto
+     *
+     * @return AdmissionQueueEntry
+     */
+    AdmissionQueueEntry enqueue(String queueKey, OrderProductDto orderProductDto);
+
+    /**
+     * Get an entry by its token.
+     *
+     * @param token of type String
+     *
+     * @return AdmissionQueueEntry
+     *
+     * @throws QueueTokenInvalidException when the token is unknown or expired
+     */
+    AdmissionQueueEntry getByToken(String token) throws QueueTokenInvalidException;
+
+    /**
+     * Get the number of entries in front of an entry, including itself.
+     *
+     * @param entry of type AdmissionQueueEntry
+     *
+     * @return long, 0 when the entry has been admitted
+     */
+    long getPosition(AdmissionQueueEntry entry);
+
+    /**
+     * Take an admitted entry out of the queue, the token can not be used again.
+     *
+     * @param entry of type AdmissionQueueEntry
+     *
+     * @return true when the entry was admitted and not used before
+     */
+    boolean consume(AdmissionQueueEntry entry);
+
+    /**
+     * Admit the next entries of all queues.
+     */
+    void admitNext();
+
+    /**
+     * Remove entries which have been in the store for too long.
+     */
+    void removeExpired();
+}
@@ -0,0 +1,155 @@
+package ch.wisv.events.webshop.service.queue;
+
+import ch.wisv.events.core.exception.normal.QueueTokenInvalidException;
+import ch.wisv.events.core.model.order.OrderProductDto;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.repository.ProductRepository;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * AdmissionQueueServiceImpl class.
+ */
+@Service
+@Slf4j
+public class AdmissionQueueServiceImpl implements AdmissionQueueService {
+
+    /** Interval in which expired entries are removed (1 minute). */
+    private static final int CLEAN_UP_INTERVAL_MILLIS = 60 * 1000;
+
+    /** Time an entry stays in the store (30 minutes). */
+    private static final int ENTRY_EXPIRY_MINUTES = 30;
+
+    /** Time the queue setting of a product is cached (5 seconds). */
+    private static final int QUEUE_KEY_CACHE_SECONDS = 5;
+
+    /** AdmissionQueueStore. */
+    private final AdmissionQueueStore admissionQueueStore;
+
+    /** Queue key by product key, empty when the product is not queued. */
+    private final LoadingCache<String, Optional<String>> queueKeys;
+
+    /** Number of checkouts per second let through per queue. */
+    private final int checkoutsPerSecond;
+
+    /**
+     * AdmissionQueueServiceImpl constructor.
+     *
+     * @param admissionQueueStore of type AdmissionQueueStore
+     * @param productRepository   of type ProductRepository
+     * @param checkoutsPerSecond  of type int
+     */
+    public AdmissionQueueServiceImpl(
+            AdmissionQueueStore admissionQueueStore,
+            ProductRepository productRepository,
+            @Value("${wisvch.events.queue.checkoutsPerSecond:10}") int checkoutsPerSecond
+    ) {
+        this.admissionQueueStore = admissionQueueStore;
+        this.checkoutsPerSecond = checkoutsPerSecond;
+        this.queueKeys = CacheBuilder.newBuilder()
+                .expireAfterWrite(QUEUE_KEY_CACHE_SECONDS, TimeUnit.SECONDS)
+                .build(CacheLoader.from((String key) -> productRepository.findByKey(key)
+                        .filter(Product::isQueued)
+                        .map(product -> product.getEvent() != null ? product.getEvent().getKey() : product.getKey())));
+    }
+
+    /**
+     * Get the queue a shopping basket has to pass before checkout. The products are resolved from a short-lived cache,
+     * so a rush of checkouts does not hit the database before it is queued.
+     *
+     * @param orderProductDto of type OrderProductDto
+     *
+     * @return Optional containing the queue key, empty when no queue is needed
+     */
+    @Override
+    public Optional<String> getQueueKey(OrderProductDto orderProductDto) {
+        return orderProductDto.getProducts().entrySet().stream()
+                .filter(entry -> entry.getValue() != null && entry.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .map(queueKeys::getUnchecked)
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    /**
+     * Place a shopping basket at the end of a queue.
+     *
+     * @param queueKey        of type String
+     * @param orderProductDto of type OrderProductDto
+     *
+     * @return AdmissionQueueEntry
+     */
+    @Override
+    public AdmissionQueueEntry enqueue(String queueKey, OrderProductDto orderProductDto) {
+        return admissionQueueStore.add(queueKey, orderProductDto);
+    }
+
+    /**
+     * Get an entry by its token.
+     *
+     * @param token of type String
+     *
+     * @return AdmissionQueueEntry
+     *
+     * @throws QueueTokenInvalidException when the token is unknown or expired
+     */
+    @Override
+    public AdmissionQueueEntry getByToken(String token) throws QueueTokenInvalidException {
+        return admissionQueueStore.get(token).orElseThrow(QueueTokenInvalidException::new);
+    }
+
+    /**
+     * Get the number of entries in front of an entry, including itself.
+     *
+     * @param entry of type AdmissionQueueEntry
+     *
+     * @return long, 0 when the entry has been admitted
+     */
+    @Override
+    public long getPosition(AdmissionQueueEntry entry) {
+        return Math.max(0, entry.getSequence() - admissionQueueStore.getAdmittedSequence(entry.getQueueKey()));
+    }
+
+    /**
+     * Take an admitted entry out of the queue, the token can not be used again.
+     *
+     * @param entry of type AdmissionQueueEntry
+     *
+     * @return true when the entry was admitted and not used before
+     */
+    @Override
+    public boolean consume(AdmissionQueueEntry entry) {
+        return this.getPosition(entry) == 0 && admissionQueueStore.remove(entry.getToken());
+    }
+
+    /**
+     * Admit the next entries of all queues, every second unless the admissions are disabled with the cron "-".
+     */
+    @Override
+    @Scheduled(cron = "${wisvch.events.queue.admitCron:* * * * * *}")
+    public void admitNext() {
+        admissionQueueStore.getQueueKeys().forEach(queueKey -> admissionQueueStore.admit(queueKey, checkoutsPerSecond));
+    }
+
+    /**
+     * Remove entries which have been in the store for too long.
+     */
+    @Override
+    @Scheduled(fixedRate = CLEAN_UP_INTERVAL_MILLIS)
+    public void removeExpired() {
+        int removed = admissionQueueStore.removeCreatedBefore(LocalDateTime.now().minusMinutes(ENTRY_EXPIRY_MINUTES));
+        if (removed > 0) {
+            log.info("Admission queue: Removed " + removed + " expired entries");
+        }
+    }
+}
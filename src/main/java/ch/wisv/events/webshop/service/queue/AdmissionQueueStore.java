@@ -0,0 +1,74 @@
+package ch.wisv.events.webshop.service.queue;
+
+import ch.wisv.events.core.model.order.OrderProductDto;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * AdmissionQueueStore interface. Storage of the admission queues, implementations have to be thread-safe.
+ */
+public interface AdmissionQueueStore {
+
+    /**
+     * Place a shopping basket at the end of a queue.
+     *
+     * @param queueKey        of type String
+     * @param orderProductDto of type OrderProductDto
+     *
+     * @return AdmissionQueueEntry
+     */
+    AdmissionQueueEntry add(String queueKey, OrderProductDto orderProductDto);
+
+    /**
+     * Get an entry by its token.
+     *
+     * @param token of type String
+     *
+     * @return Optional
+     */
+    Optional<AdmissionQueueEntry> get(String token);
+
+    /**
+     * Remove an entry from the store.
+     *
+     * @param token of type String
+     *
+     * @return true when the entry was still present
+     */
+    boolean remove(String token);
+
+    /**
+     * Get the highest sequence number of a queue that has been admitted.
+     *
+     * @param queueKey of type String
+     *
+     * @return long
+     */
+    long getAdmittedSequence(String queueKey);
+
+    /**
+     * Admit the next entries of a queue. Unused admissions do not pile up, at most amount admissions are available
+     * ahead of the last entry in the queue.
+     *
+     * @param queueKey of type String
+     * @param amount   of type int
+     */
+    void admit(String queueKey, int amount);
+
+    /**
+     * Get the keys of all queues.
+     *
+     * @return Collection
+     */
+    Collection<String> getQueueKeys();
+
+    /**
+     * Remove all entries created before a certain moment.
+     *
+     * @param before of type LocalDateTime
+     *
+     * @return number of removed entries
+     */
+    int removeCreatedBefore(LocalDateTime before);
+}
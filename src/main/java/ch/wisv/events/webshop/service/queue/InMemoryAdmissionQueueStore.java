@@ -0,0 +1,165 @@
+package ch.wisv.events.webshop.service.queue;
+
+import ch.wisv.events.core.model.order.OrderProductDto;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * InMemoryAdmissionQueueStore class. Keeps the admission queues in the memory of this instance. A queue is dropped
+ * with its last entry, so the queues of past events do not stay in memory.
+ */
+@Component
+public class InMemoryAdmissionQueueStore implements AdmissionQueueStore {
+
+    /** Entries by token. */
+    private final Map<String, AdmissionQueueEntry> entries = new ConcurrentHashMap<>();
+
+    /** Queue state by queue key. */
+    private final Map<String, QueueState> queues = new ConcurrentHashMap<>();
+
+    /**
+     * Place a shopping basket at the end of a queue.
+     *
+     * @param queueKey        of type String
+     * @param orderProductDto of type OrderProductDto
+     *
+     * @return AdmissionQueueEntry
+     */
+    @Override
+    public AdmissionQueueEntry add(String queueKey, OrderProductDto orderProductDto) {
+        AtomicLong sequence = new AtomicLong();
+        queues.compute(queueKey, (key, state) -> {
+            QueueState next = state != null ? state : new QueueState();
+            next.issued++;
+            next.size++;
+            sequence.set(next.issued);
+
+            return next;
+        });
+
+        AdmissionQueueEntry entry = new AdmissionQueueEntry(UUID.randomUUID().toString(), queueKey, sequence.get(), orderProductDto);
+        entries.put(entry.getToken(), entry);
+
+        return entry;
+    }
+
+    /**
+     * Get an entry by its token.
+     *
+     * @param token of type String
+     *
+     * @return Optional
+     */
+    @Override
+    public Optional<AdmissionQueueEntry> get(String token) {
+        return Optional.ofNullable(entries.get(token));
+    }
+
+    /**
+     * Remove an entry from the store.
+     *
+     * @param token of type String
+     *
+     * @return true when the entry was still present
+     */
+    @Override
+    public boolean remove(String token) {
+        AdmissionQueueEntry entry = entries.remove(token);
+        if (entry == null) {
+            return false;
+        }
+
+        this.release(entry.getQueueKey());
+
+        return true;
+    }
+
+    /**
+     * Get the highest sequence number of a queue that has been admitted.
+     *
+     * @param queueKey of type String
+     *
+     * @return long
+     */
+    @Override
+    public long getAdmittedSequence(String queueKey) {
+        QueueState state = queues.get(queueKey);
+
+        return state != null ? state.admitted : 0;
+    }
+
+    /**
+     * Admit the next entries of a queue.
+     *
+     * @param queueKey of type String
+     * @param amount   of type int
+     */
+    @Override
+    public void admit(String queueKey, int amount) {
+        queues.computeIfPresent(queueKey, (key, state) -> {
+            state.admitted = Math.min(state.admitted + amount, state.issued + amount);
+
+            return state;
+        });
+    }
+
+    /**
+     * Get the keys of all queues.
+     *
+     * @return Collection
+     */
+    @Override
+    public Collection<String> getQueueKeys() {
+        return queues.keySet();
+    }
+
+    /**
+     * Remove all entries created before a certain moment.
+     *
+     * @param before of type LocalDateTime
+     *
+     * @return number of removed entries
+     */
+    @Override
+    public int removeCreatedBefore(LocalDateTime before) {
+        int removed = 0;
+        for (AdmissionQueueEntry entry : entries.values()) {
+            if (entry.getCreatedAt().isBefore(before) && entries.remove(entry.getToken(), entry)) {
+                this.release(entry.getQueueKey());
+                removed++;
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Release the place of a removed entry in its queue, the queue is dropped when it has no entries left.
+     *
+     * @param queueKey of type String
+     */
+    private void release(String queueKey) {
+        queues.computeIfPresent(queueKey, (key, state) -> --state.size > 0 ? state : null);
+    }
+
+    /**
+     * State of a single queue, only changed while holding the lock of its key in the queues map.
+     */
+    private static class QueueState {
+
+        /** Last sequence number handed out. */
+        private long issued;
+
+        /** Last sequence number admitted. */
+        private volatile long admitted;
+
+        /** Number of entries in the store. */
+        private int size;
+    }
+}
@@ -0,0 +1,53 @@
+package ch.wisv.events.webshop.service.stock;
+
+import ch.wisv.events.core.model.product.Product;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * StockLevel class. The availability of a Product as shown on the webshop pages.
+ */
+@Getter
+@EqualsAndHashCode
+public class StockLevel {
+
+    /** Key of the Product. */
+    private final String key;
+
+    /** Number of tickets sold, including the Products sharing the availability. */
+    private final int sold;
+
+    /** Number of tickets reserved, including the Products sharing the availability. */
+    private final int reserved;
+
+    /** Number of tickets that can still be sold or reserved, null when the Product has no limit. */
+    private final Integer remaining;
+
+    /** Percentage of the tickets sold. */
+    private final double progress;
+
+    /** If the Product is sold out. */
+    private final boolean soldOut;
+
+    /**
+     * StockLevel constructor.
+     *
+     * @param product of type Product
+     */
+    public StockLevel(Product product) {
+        Product root = product.getParentProduct() != null ? product.getParentProduct() : product;
+        int totalReserved = root.getReserved();
+        if (root.getChildProducts() != null) {
+            for (Product childProduct : root.getChildProducts()) {
+                totalReserved += childProduct.getReserved();
+            }
+        }
+
+        this.key = product.getKey();
+        this.sold = product.getTotalSold();
+        this.reserved = totalReserved;
+        this.remaining = product.getMaxSold() != null ? Math.max(0, product.getMaxSold() - sold - reserved) : null;
+        this.progress = product.calcProgress();
+        this.soldOut = product.isSoldOut() || (remaining != null && remaining == 0);
+    }
+}
@@ -0,0 +1,35 @@
+package ch.wisv.events.webshop.service.stock;
+
+import ch.wisv.events.core.exception.normal.EventNotFoundException;
+import ch.wisv.events.core.service.inventory.InventoryChangedEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * StockStreamService interface. Pushes the stock levels of the Products of an Event to the open webshop pages.
+ */
+public interface StockStreamService {
+
+    /**
+     * Subscribe to the stock levels of the Products of an Event. The current levels are sent right away, after that
+     * only the levels that changed.
+     *
+     * @param eventKey of type String
+     *
+     * @return SseEmitter
+     *
+     * @throws EventNotFoundException when the Event does not exist or is not published
+     */
+    SseEmitter subscribe(String eventKey) throws EventNotFoundException;
+
+    /**
+     * Remember the Products of which the stock levels changed, they are sent with the next broadcast.
+     *
+     * @param event of type InventoryChangedEvent
+     */
+    void onInventoryChanged(InventoryChangedEvent event);
+
+    /**
+     * Send the changed stock levels to the subscribers.
+     */
+    void broadcast();
+}
@@ -0,0 +1,332 @@
+package ch.wisv.events.webshop.service.stock;
+
+import ch.wisv.events.core.exception.normal.EventNotFoundException;
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.event.EventStatus;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.repository.EventRepository;
+import ch.wisv.events.core.service.inventory.InventoryChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * StockStreamServiceImpl class.
+ *
+ * <p>All subscribers of an Event share one subscription. Inventory changes are only collected when they happen, a
+ * scheduled broadcast loads each changed Event once, serializes the changed levels once and writes them to all of its
+ * subscribers. However many tickets are sold, a subscriber receives at most the configured number of updates per
+ * second.</p>
+ *
+ * <p>The broadcasts run on their own thread, so a slow subscriber can not delay the other scheduled tasks. The
+ * stream requests are excluded from the open EntityManager in view, so an open stream does not hold a database
+ * connection.</p>
+ */
+@Service
+@Slf4j
+public class StockStreamServiceImpl implements StockStreamService {
+
+    /** Name of the server-sent events. */
+    private static final String EVENT_NAME = "stock";
+
+    /** EventRepository. */
+    private final EventRepository eventRepository;
+
+    /** Read-only transaction the stock levels are loaded in. */
+    private final TransactionTemplate transactionTemplate;
+
+    /** ObjectMapper. */
+    private final ObjectMapper objectMapper;
+
+    /** Milliseconds after which a subscriber has to reconnect. */
+    private final long timeoutMillis;
+
+    /** Subscriptions by event key. */
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    /** Ids of the Products changed since the last broadcast. */
+    private final Set<Integer> changedProductIds = ConcurrentHashMap.newKeySet();
+
+    /** Thread the broadcasts run on. */
+    private final ScheduledExecutorService broadcaster;
+
+    /**
+     * StockStreamServiceImpl constructor.
+     *
+     * @param eventRepository    of type EventRepository
+     * @param transactionManager of type PlatformTransactionManager
+     * @param objectMapper       of type ObjectMapper
+     * @param timeoutMinutes     of type int
+     * @param updatesPerSecond   of type int, 0 disables the scheduled broadcasts
+     */
+    @Autowired
+    public StockStreamServiceImpl(
+            EventRepository eventRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${wisvch.events.stock.timeoutMinutes:30}") int timeoutMinutes,
+            @Value("${wisvch.events.stock.updatesPerSecond:2}") int updatesPerSecond
+    ) {
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeoutMinutes * 60 * 1000L;
+
+        this.broadcaster = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-stream");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        if (updatesPerSecond > 0) {
+            long interval = 1000L / updatesPerSecond;
+            this.broadcaster.scheduleAtFixedRate(this::broadcast, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stop the broadcasts.
+     */
+    @PreDestroy
+    public void shutdown() {
+        broadcaster.shutdownNow();
+    }
+
+    /**
+     * Subscribe to the stock levels of the Products of an Event. The current levels are sent right away, after that
+     * only the levels that changed.
+     *
+     * @param eventKey of type String
+     *
+     * @return SseEmitter
+     *
+     * @throws EventNotFoundException when the Event does not exist or is not published
+     */
+    @Override
+    public SseEmitter subscribe(String eventKey) throws EventNotFoundException {
+        Stock stock = this.loadStock(eventKey);
+        if (stock == null) {
+            throw new EventNotFoundException("key " + eventKey);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitter.onCompletion(() -> this.unsubscribe(eventKey, emitter));
+        emitter.onError(e -> this.unsubscribe(eventKey, emitter));
+
+        subscriptions.compute(eventKey, (key, subscription) -> {
+            if (subscription == null) {
+                subscription = new Subscription(stock);
+            } else {
+                // Products added since the first subscriber are followed as well
+                subscription.productIds = stock.productIds;
+            }
+            subscription.emitters.add(emitter);
+
+            return subscription;
+        });
+
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(this.serialize(stock.levels.values())));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Remember the Products of which the stock levels changed, they are sent with the next broadcast.
+     *
+     * @param event of type InventoryChangedEvent
+     */
+    @Override
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (!subscriptions.isEmpty()) {
+            event.getProductIds().stream().filter(Objects::nonNull).forEach(changedProductIds::add);
+        }
+    }
+
+    /**
+     * Send the changed stock levels to the subscribers.
+     */
+    @Override
+    public void broadcast() {
+        if (changedProductIds.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> changed = new HashSet<>(changedProductIds);
+        changedProductIds.removeAll(changed);
+
+        subscriptions.forEach((eventKey, subscription) -> {
+            if (Collections.disjoint(subscription.productIds, changed)) {
+                return;
+            }
+
+            try {
+                this.broadcast(eventKey, subscription);
+            } catch (RuntimeException | JsonProcessingException e) {
+                log.warn("Stock stream: Failed to broadcast " + eventKey + ": " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Send the changed stock levels of an Event to its subscribers.
+     *
+     * @param eventKey     of type String
+     * @param subscription of type Subscription
+     *
+     * @throws JsonProcessingException when the stock levels could not be serialized
+     */
+    private void broadcast(String eventKey, Subscription subscription) throws JsonProcessingException {
+        Stock stock = this.loadStock(eventKey);
+        if (stock == null) {
+            return;
+        }
+
+        List<StockLevel> delta = new ArrayList<>();
+        stock.levels.forEach((key, level) -> {
+            if (!level.equals(subscription.levels.get(key))) {
+                delta.add(level);
+            }
+        });
+        subscription.levels = stock.levels;
+        subscription.productIds = stock.productIds;
+
+        if (delta.isEmpty()) {
+            return;
+        }
+
+        String data = this.serialize(delta);
+        for (SseEmitter emitter : subscription.emitters) {
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(data));
+            } catch (IOException | IllegalStateException e) {
+                // The client has gone, completing the emitter unsubscribes it
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    /**
+     * Remove a subscriber, the subscription is dropped with its last subscriber.
+     *
+     * @param eventKey of type String
+     * @param emitter  of type SseEmitter
+     */
+    private void unsubscribe(String eventKey, SseEmitter emitter) {
+        subscriptions.computeIfPresent(eventKey, (key, subscription) -> {
+            subscription.emitters.remove(emitter);
+
+            return subscription.emitters.isEmpty() ? null : subscription;
+        });
+    }
+
+    /**
+     * Load the current stock levels of the Products of an Event.
+     *
+     * @param eventKey of type String
+     *
+     * @return Stock, null when the Event does not exist or is not published
+     */
+    private Stock loadStock(String eventKey) {
+        return transactionTemplate.execute(status -> eventRepository.findByKey(eventKey)
+                .filter(event -> event.getPublished() == EventStatus.PUBLISHED)
+                .map(Stock::new)
+                .orElse(null));
+    }
+
+    /**
+     * Serialize stock levels.
+     *
+     * @param levels of type Collection of StockLevels
+     *
+     * @return String
+     *
+     * @throws JsonProcessingException when the stock levels could not be serialized
+     */
+    private String serialize(Collection<StockLevel> levels) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(levels);
+    }
+
+    /**
+     * Stock levels of the Products of an Event.
+     */
+    private static class Stock {
+
+        /** Ids of the Products that affect the levels, including the Products sharing their availability. */
+        private final Set<Integer> productIds = new HashSet<>();
+
+        /** Stock levels by product key. */
+        private final Map<String, StockLevel> levels = new LinkedHashMap<>();
+
+        /**
+         * Stock constructor.
+         *
+         * @param event of type Event
+         */
+        Stock(Event event) {
+            for (Product product : event.getProducts()) {
+                Product root = product.getParentProduct() != null ? product.getParentProduct() : product;
+                productIds.add(product.getId());
+                productIds.add(root.getId());
+                if (root.getChildProducts() != null) {
+                    root.getChildProducts().forEach(childProduct -> productIds.add(childProduct.getId()));
+                }
+
+                levels.put(product.getKey(), new StockLevel(product));
+            }
+        }
+    }
+
+    /**
+     * Subscribers of the stock levels of an Event.
+     */
+    private static class Subscription {
+
+        /** Emitters of the subscribers. */
+        private final Set<SseEmitter> emitters = new CopyOnWriteArraySet<>();
+
+        /** Ids of the Products that affect the levels. */
+        private volatile Set<Integer> productIds;
+
+        /** Stock levels last sent by product key. */
+        private volatile Map<String, StockLevel> levels;
+
+        /**
+         * Subscription constructor.
+         *
+         * @param stock of type Stock
+         */
+        Subscription(Stock stock) {
+            this.productIds = stock.productIds;
+            this.levels = stock.levels;
+        }
+    }
+}
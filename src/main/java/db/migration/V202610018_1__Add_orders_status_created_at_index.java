@@ -0,0 +1,27 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+
+
+/**
+ * DB migration which adds an index on the status and creation date of orders, used to clean up abandoned orders
+ */
+public class V202610018_1__Add_orders_status_created_at_index extends BaseJavaMigration {
+
+    /**
+     * Executes this migration. The execution will automatically take place within a transaction, when the underlying
+     * database supports it.
+     *
+     * @param context of type Context
+     * @throws Exception when something is wrong
+     */
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement()) {
+            select.execute("CREATE INDEX IF NOT EXISTS orders_status_created_at_idx ON public.orders (status, created_at)");
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+
+
+/**
+ * DB migration which makes the unique code of a ticket unique per product, so codes do not have to be checked before
+ * tickets are created
+ */
+public class V202610018_2__Add_ticket_unique_code_index extends BaseJavaMigration {
+
+    /**
+     * Executes this migration. The execution will automatically take place within a transaction, when the underlying
+     * database supports it.
+     *
+     * @param context of type Context
+     * @throws Exception when something is wrong
+     */
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement()) {
+            select.execute("CREATE UNIQUE INDEX IF NOT EXISTS ticket_product_unique_code_idx ON public.ticket (product_id, unique_code)");
+        }
+    }
+
+}
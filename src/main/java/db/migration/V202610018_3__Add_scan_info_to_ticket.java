@@ -0,0 +1,28 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+
+
+/**
+ * DB migration which adds the time at which and the user by whom a ticket has been scanned
+ */
+public class V202610018_3__Add_scan_info_to_ticket extends BaseJavaMigration {
+
+    /**
+     * Executes this migration. The execution will automatically take place within a transaction, when the underlying
+     * database supports it.
+     *
+     * @param context of type Context
+     * @throws Exception when something is wrong
+     */
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement()) {
+            select.execute("ALTER TABLE public.ticket ADD COLUMN IF NOT EXISTS scanned_at timestamp");
+            select.execute("ALTER TABLE public.ticket ADD COLUMN IF NOT EXISTS scanned_by varchar(255)");
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+
+
+/**
+ * DB migration which adds the attempts and due time of a webhook task, so failed tasks can be retried. Tasks that
+ * failed before are moved to the dead letters (status 3) instead of being retried with an outdated payload.
+ */
+public class V202610018_4__Add_webhook_task_retries extends BaseJavaMigration {
+
+    /**
+     * Executes this migration. The execution will automatically take place within a transaction, when the underlying
+     * database supports it.
+     *
+     * @param context of type Context
+     * @throws Exception when something is wrong
+     */
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement()) {
+            select.execute("ALTER TABLE public.webhook_task ADD COLUMN IF NOT EXISTS attempts integer NOT NULL DEFAULT 0");
+            select.execute("ALTER TABLE public.webhook_task ADD COLUMN IF NOT EXISTS next_attempt_at timestamp");
+            select.execute("UPDATE public.webhook_task SET next_attempt_at = created_at WHERE next_attempt_at IS NULL");
+            select.execute("ALTER TABLE public.webhook_task DROP CONSTRAINT IF EXISTS webhook_task_webhook_task_status_check");
+            select.execute("UPDATE public.webhook_task SET webhook_task_status = 3 WHERE webhook_task_status = 2");
+            select.execute("CREATE INDEX IF NOT EXISTS webhook_task_status_next_attempt_at_idx ON public.webhook_task (webhook_task_status, next_attempt_at)");
+        }
+    }
+
+}
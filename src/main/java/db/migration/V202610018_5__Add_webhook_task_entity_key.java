@@ -0,0 +1,30 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+
+
+/**
+ * DB migration which adds the key of the event or product a webhook task is about and a version, so pending tasks
+ * for the same entity can be coalesced.
+ */
+public class V202610018_5__Add_webhook_task_entity_key extends BaseJavaMigration {
+
+    /**
+     * Executes this migration. The execution will automatically take place within a transaction, when the underlying
+     * database supports it.
+     *
+     * @param context of type Context
+     * @throws Exception when something is wrong
+     */
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement()) {
+            select.execute("ALTER TABLE public.webhook_task ADD COLUMN IF NOT EXISTS entity_key varchar(255)");
+            select.execute("ALTER TABLE public.webhook_task ADD COLUMN IF NOT EXISTS version integer NOT NULL DEFAULT 0");
+            select.execute("CREATE INDEX IF NOT EXISTS webhook_task_entity_key_trigger_idx ON public.webhook_task (entity_key, trigger)");
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package db.migration;
+
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.json.simple.JSONObject;
+
+
+/**
+ * DB migration which stores the payload of a webhook task as its JSON document instead of the serialized JSONObject.
+ * The existing payloads are deserialized and written as JSON, after which the old column is dropped.
+ */
+public class V202610018_6__Store_webhook_task_payload_as_json extends BaseJavaMigration {
+
+    /**
+     * Executes this migration. The execution will automatically take place within a transaction, when the underlying
+     * database supports it.
+     *
+     * @param context of type Context
+     * @throws Exception when something is wrong
+     */
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement()) {
+            select.execute("ALTER TABLE public.webhook_task ADD COLUMN IF NOT EXISTS payload TEXT");
+            select.execute("CREATE INDEX IF NOT EXISTS webhook_task_created_at_idx ON public.webhook_task (created_at)");
+
+            try (ResultSet rows = select.executeQuery("SELECT id, object FROM public.webhook_task WHERE object IS NOT NULL");
+                 PreparedStatement update = context.getConnection().prepareStatement(
+                         "UPDATE public.webhook_task SET payload = ? WHERE id = ?")
+            ) {
+                while (rows.next()) {
+                    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(rows.getBytes("object")))) {
+                        update.setString(1, ((JSONObject) in.readObject()).toJSONString());
+                    }
+                    update.setInt(2, rows.getInt("id"));
+                    update.addBatch();
+                }
+                update.executeBatch();
+            }
+
+            select.execute("ALTER TABLE public.webhook_task DROP COLUMN IF EXISTS object");
+        }
+    }
+
+}
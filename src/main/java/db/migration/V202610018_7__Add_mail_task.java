@@ -0,0 +1,40 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+
+
+/**
+ * DB migration which adds the mail outbox, the mails about orders that still have to be sent.
+ */
+public class V202610018_7__Add_mail_task extends BaseJavaMigration {
+
+    /**
+     * Executes this migration. The execution will automatically take place within a transaction, when the underlying
+     * database supports it.
+     *
+     * @param context of type Context
+     * @throws Exception when something is wrong
+     */
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement()) {
+            String mailTaskTable = "CREATE TABLE IF NOT EXISTS public.mail_task (\n"
+                    + "    id integer NOT NULL PRIMARY KEY,\n"
+                    + "    type smallint,\n"
+                    + "    order_reference character varying(255),\n"
+                    + "    created_at timestamp without time zone,\n"
+                    + "    mail_task_status smallint,\n"
+                    + "    error text,\n"
+                    + "    attempts integer NOT NULL DEFAULT 0,\n"
+                    + "    next_attempt_at timestamp without time zone,\n"
+                    + "    sent_at timestamp without time zone\n"
+                    + ")";
+            select.execute(mailTaskTable);
+            select.execute("CREATE SEQUENCE IF NOT EXISTS public.mail_task_seq START WITH 1 INCREMENT BY 50");
+            select.execute("CREATE INDEX IF NOT EXISTS mail_task_status_next_attempt_at_idx ON public.mail_task (mail_task_status, next_attempt_at)");
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+
+
+/**
+ * DB migration which adds the modification time of tickets and the removed ticket codes, so scan bundle deltas
+ * contain the changed and removed tickets.
+ */
+public class V202610018_8__Add_ticket_updated_at_and_removal extends BaseJavaMigration {
+
+    /**
+     * Executes this migration. The execution will automatically take place within a transaction, when the underlying
+     * database supports it.
+     *
+     * @param context of type Context
+     * @throws Exception when something is wrong
+     */
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement()) {
+            select.execute("ALTER TABLE public.ticket ADD COLUMN IF NOT EXISTS updated_at timestamp without time zone");
+            select.execute("CREATE INDEX IF NOT EXISTS ticket_product_updated_at_idx ON public.ticket (product_id, updated_at)");
+
+            String ticketRemovalTable = "CREATE TABLE IF NOT EXISTS public.ticket_removal (\n"
+                    + "    id integer NOT NULL PRIMARY KEY,\n"
+                    + "    product_id integer,\n"
+                    + "    unique_code character varying(255),\n"
+                    + "    removed_at timestamp without time zone\n"
+                    + ")";
+            select.execute(ticketRemovalTable);
+            select.execute("CREATE SEQUENCE IF NOT EXISTS public.ticket_removal_seq START WITH 1 INCREMENT BY 50");
+            select.execute("CREATE INDEX IF NOT EXISTS ticket_removal_product_removed_at_idx ON public.ticket_removal (product_id, removed_at)");
+        }
+    }
+
+}
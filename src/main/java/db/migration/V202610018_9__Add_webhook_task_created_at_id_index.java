@@ -0,0 +1,29 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+
+
+/**
+ * DB migration which indexes the webhook tasks on their creation time and id, so the task list can be paged by the
+ * last task shown instead of an offset.
+ */
+public class V202610018_9__Add_webhook_task_created_at_id_index extends BaseJavaMigration {
+
+    /**
+     * Executes this migration. The execution will automatically take place within a transaction, when the underlying
+     * database supports it.
+     *
+     * @param context of type Context
+     * @throws Exception when something is wrong
+     */
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement()) {
+            select.execute("CREATE INDEX IF NOT EXISTS webhook_task_created_at_id_idx ON public.webhook_task (created_at, id)");
+            select.execute("DROP INDEX IF EXISTS public.webhook_task_created_at_idx");
+        }
+    }
+
+}
@@ -0,0 +1,29 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+
+
+/**
+ * DB migration which adds a queued column to products, setting the already existing products to queued = false
+ */
+public class V202610018__Add_queued_to_product extends BaseJavaMigration {
+
+    /**
+     * Executes this migration. The execution will automatically take place within a transaction, when the underlying
+     * database supports it.
+     *
+     * @param context of type Context
+     * @throws Exception when something is wrong
+     */
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement()) {
+            select.execute("ALTER TABLE public.product ADD COLUMN queued BOOLEAN");
+            select.execute("UPDATE public.product SET queued = FALSE");
+            select.execute("ALTER TABLE public.product ALTER COLUMN queued SET NOT NULL");
+        }
+    }
+
+}
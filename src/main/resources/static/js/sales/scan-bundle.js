@@ -0,0 +1,305 @@
+/**
+ * Signed bundle of the tickets of an event, with which a scanner page validates tickets while it has no connection. The
+ * bundle is downloaded once, its signature is verified with the public key of the bundle endpoint and it is stored in
+ * localStorage. After that only the changes since the previous bundle are downloaded. The scans themselves are still
+ * sent to the server through the ScanQueue, so the server has the final word once the connection is back.
+ *
+ * Only tickets with a UUID as unique code are in the bundle, legacy codes and barcodes are always checked online.
+ *
+ * @param {string} url      URL of the bundle endpoint of the event
+ * @param {string} eventKey key of the event
+ * @constructor
+ */
+function ScanBundle(url, eventKey) {
+    this.url = url;
+    this.eventKey = eventKey;
+    this.storageKey = "scan-bundle:" + url;
+    this.state = this.load();
+    this.publicKey = null;
+    this.syncing = false;
+
+    if (!window.crypto || !window.crypto.subtle) {
+        // WebCrypto is only available on https, without it a bundle can not be verified
+        return;
+    }
+
+    setInterval(this.sync.bind(this), ScanBundle.SYNC_INTERVAL);
+    this.sync();
+}
+
+/** Version of the bundle format. */
+ScanBundle.VERSION = 2;
+
+/** Time between two downloads of the changes, in milliseconds. */
+ScanBundle.SYNC_INTERVAL = 30000;
+
+/** Length of a unique code that can be in the bundle. */
+ScanBundle.UUID_LENGTH = 36;
+
+/**
+ * Validate a scan against the bundle.
+ *
+ * @param {string} code     scanned value
+ * @param {string} type     CODE for a unique code, BARCODE for an EAN 13 barcode
+ * @param {function} callback called with a result like the batch endpoint returns it, or with null when the bundle
+ *                            can not tell whether the ticket is valid
+ */
+ScanBundle.prototype.check = function (code, type, callback) {
+    var state = this.state;
+    if (state.generated === null || type !== "CODE" || code.length !== ScanBundle.UUID_LENGTH) {
+        callback(null);
+
+        return;
+    }
+
+    var bundle = this;
+    ScanBundle.hash(code).then(function (hash) {
+        var ticket = state.tickets[hash];
+        if (ticket === undefined) {
+            callback({code: code, status: "UNKNOWN", ticket: null});
+
+            return;
+        }
+
+        var scanned = ticket[1] === 1 || state.scanned[hash] === true;
+        bundle.markScanned(hash);
+
+        callback({
+            code: code,
+            status: scanned ? "ALREADY_SCANNED" : "OK",
+            ticket: {productTitle: state.products[ticket[0]], ownerName: "Checked offline"}
+        });
+    }, function () {
+        callback(null);
+    });
+};
+
+/**
+ * Mark a ticket as scanned, e.g. when it has been scanned online, so scanning it again offline shows it is a double.
+ *
+ * @param {string} code unique code of the ticket
+ */
+ScanBundle.prototype.scanned = function (code) {
+    if (this.state.generated === null || code.length !== ScanBundle.UUID_LENGTH) {
+        return;
+    }
+
+    ScanBundle.hash(code).then(this.markScanned.bind(this), function () {
+    });
+};
+
+/**
+ * Download the bundle, or the changes since the stored bundle, and store it once its signature is valid.
+ */
+ScanBundle.prototype.sync = function () {
+    if (this.syncing) {
+        return;
+    }
+
+    var bundle = this;
+    var url = this.url + (this.state.generated === null ? "" : "?since=" + encodeURIComponent(this.state.generated));
+    this.syncing = true;
+
+    this.getPublicKey().then(function (publicKey) {
+        return fetch(url, {credentials: "same-origin", cache: "no-store"}).then(function (response) {
+            if (!response.ok) {
+                throw new Error("Could not download the scan bundle: " + response.status);
+            }
+
+            return response.arrayBuffer();
+        }).then(function (buffer) {
+            return bundle.verify(publicKey, new Uint8Array(buffer));
+        });
+    }).then(function (content) {
+        bundle.apply(ScanBundle.parse(content), url !== bundle.url);
+    }).catch(function (e) {
+        // Keep the stored bundle and try again at the next interval
+        console.warn(e.message);
+    }).then(function () {
+        bundle.syncing = false;
+    });
+};
+
+/**
+ * Get the public key of the bundle endpoint.
+ *
+ * @returns {Promise<CryptoKey>}
+ */
+ScanBundle.prototype.getPublicKey = function () {
+    if (this.publicKey === null) {
+        var bundle = this;
+
+        this.publicKey = fetch(this.url + "/key", {credentials: "same-origin"}).then(function (response) {
+            if (!response.ok) {
+                throw new Error("Could not download the scan bundle key: " + response.status);
+            }
+
+            return response.text();
+        }).then(function (text) {
+            var der = Uint8Array.from(atob(text.trim()), function (c) {
+                return c.charCodeAt(0);
+            });
+
+            return crypto.subtle.importKey("spki", der, {name: "ECDSA", namedCurve: "P-256"}, false, ["verify"]);
+        }).catch(function (e) {
+            bundle.publicKey = null;
+
+            throw e;
+        });
+    }
+
+    return this.publicKey;
+};
+
+/**
+ * Verify the signature of a bundle.
+ *
+ * @param {CryptoKey} publicKey
+ * @param {Uint8Array} bytes the bundle as downloaded
+ * @returns {Promise<string>} the content of the bundle without the signature line
+ */
+ScanBundle.prototype.verify = function (publicKey, bytes) {
+    var text = new TextDecoder().decode(bytes);
+    var start = text.lastIndexOf("\nsignature ") + 1;
+    if (start === 0) {
+        return Promise.reject(new Error("The scan bundle is not signed"));
+    }
+
+    var content = text.substring(0, start);
+    var signature = Uint8Array.from(atob(text.substring(start + "signature ".length).trim()), function (c) {
+        return c.charCodeAt(0);
+    });
+
+    return crypto.subtle.verify(
+        {name: "ECDSA", hash: "SHA-256"}, publicKey, signature, new TextEncoder().encode(content)
+    ).then(function (valid) {
+        if (!valid) {
+            throw new Error("The signature of the scan bundle is invalid");
+        }
+
+        return content;
+    });
+};
+
+/**
+ * Apply a verified bundle to the stored one.
+ *
+ * @param {object} parsed bundle
+ * @param {boolean} delta whether the bundle only has the changes since the stored bundle
+ */
+ScanBundle.prototype.apply = function (parsed, delta) {
+    if (parsed.event !== this.eventKey) {
+        throw new Error("The scan bundle is of another event");
+    }
+
+    var state = delta ? this.state : {generated: null, products: [], tickets: {}, scanned: this.state.scanned};
+
+    // Product indexes are per bundle, so map them to the products of the stored bundle
+    var products = parsed.products.map(function (title) {
+        var index = state.products.indexOf(title);
+        if (index === -1) {
+            state.products.push(title);
+            index = state.products.length - 1;
+        }
+
+        return index;
+    });
+
+    parsed.tickets.forEach(function (ticket) {
+        state.tickets[ticket[0]] = [products[ticket[1]], ticket[2]];
+    });
+
+    parsed.removed.forEach(function (hash) {
+        delete state.tickets[hash];
+        delete state.scanned[hash];
+    });
+
+    state.generated = parsed.generated;
+    this.state = state;
+    this.store();
+};
+
+ScanBundle.prototype.markScanned = function (hash) {
+    this.state.scanned[hash] = true;
+    this.store();
+};
+
+ScanBundle.prototype.load = function () {
+    try {
+        var state = JSON.parse(localStorage.getItem(this.storageKey));
+        if (state && state.tickets) {
+            return state;
+        }
+    } catch (e) {
+        // Start over with an empty bundle
+    }
+
+    return {generated: null, products: [], tickets: {}, scanned: {}};
+};
+
+ScanBundle.prototype.store = function () {
+    try {
+        localStorage.setItem(this.storageKey, JSON.stringify(this.state));
+    } catch (e) {
+        // The bundle is kept in memory when the storage is full
+        console.warn(e.message);
+    }
+};
+
+/**
+ * Parse the content of a bundle.
+ *
+ * @param {string} content bundle without the signature line
+ * @returns {{event: string, generated: string, products: Array, tickets: Array, removed: Array}}
+ */
+ScanBundle.parse = function (content) {
+    var lines = content.split("\n");
+    var line = 0;
+
+    var header = function (name) {
+        var value = lines[line++] || "";
+        if (value.indexOf(name + " ") !== 0) {
+            throw new Error("Invalid scan bundle, expected " + name);
+        }
+
+        return value.substring(name.length + 1);
+    };
+    var count = function (name) {
+        return parseInt(header(name), 10);
+    };
+
+    if (count("scan-bundle") !== ScanBundle.VERSION) {
+        throw new Error("Unsupported scan bundle version");
+    }
+
+    var parsed = {event: header("event"), generated: header("generated"), products: [], tickets: [], removed: []};
+
+    for (var products = count("products"); products > 0; products--) {
+        parsed.products.push(lines[line++]);
+    }
+
+    for (var tickets = count("tickets"); tickets > 0; tickets--) {
+        var ticket = lines[line++].split(" ");
+        parsed.tickets.push([ticket[0], parseInt(ticket[1], 10), parseInt(ticket[2], 10)]);
+    }
+
+    for (var removed = count("removed"); removed > 0; removed--) {
+        parsed.removed.push(lines[line++]);
+    }
+
+    return parsed;
+};
+
+/**
+ * Get the hash of a unique code like it is in the bundle, the first 48 bits of the SHA-256 in hex.
+ *
+ * @param {string} code
+ * @returns {Promise<string>}
+ */
+ScanBundle.hash = function (code) {
+    return crypto.subtle.digest("SHA-256", new TextEncoder().encode(code)).then(function (digest) {
+        return Array.from(new Uint8Array(digest, 0, 6), function (b) {
+            return (b < 16 ? "0" : "") + b.toString(16);
+        }).join("");
+    });
+};
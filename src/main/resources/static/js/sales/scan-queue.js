@@ -0,0 +1,167 @@
+/**
+ * Queue of the scans of a scanner page. Every scan is stored in localStorage first and the queue is flushed in batches
+ * to the batch endpoint of the event, so scans made without a connection are checked in as soon as it is back. The
+ * scans keep the time at which they have been scanned, so of two scans of the same ticket the first one wins.
+ *
+ * @param {string} url        URL of the batch endpoint of the event
+ * @param {string} csrfHeader name of the CSRF header
+ * @param {string} csrfToken  CSRF token of the page
+ * @constructor
+ */
+function ScanQueue(url, csrfHeader, csrfToken) {
+    this.url = url;
+    this.headers = {};
+    this.headers[csrfHeader] = csrfToken;
+    this.storageKey = "scan-queue:" + url;
+    this.callbacks = {};
+    this.flushing = false;
+
+    window.addEventListener("online", this.flush.bind(this));
+    setInterval(this.flush.bind(this), ScanQueue.RETRY_INTERVAL);
+    this.flush();
+}
+
+/** Maximum number of scans in a batch, the same as the server accepts. */
+ScanQueue.MAX_BATCH_SIZE = 500;
+
+/** Time between attempts to flush a queue that could not be sent, in milliseconds. */
+ScanQueue.RETRY_INTERVAL = 10000;
+
+/**
+ * Add a scan to the queue and flush it.
+ *
+ * @param {string} code     scanned value
+ * @param {string} type     CODE for a unique code, BARCODE for an EAN 13 barcode
+ * @param {function} callback called with the result of the scan, or with null when it has been queued for later
+ */
+ScanQueue.prototype.add = function (code, type, callback) {
+    var scan = {
+        id: Date.now() + "-" + Math.random().toString(36).substring(2),
+        code: code,
+        type: type,
+        scannedAt: ScanQueue.localDateTime(new Date())
+    };
+
+    var scans = this.load();
+    scans.push(scan);
+    this.store(scans);
+
+    if (callback) {
+        this.callbacks[scan.id] = callback;
+    }
+
+    this.flush();
+};
+
+/**
+ * Get the number of scans that have not been sent yet.
+ *
+ * @returns {number}
+ */
+ScanQueue.prototype.size = function () {
+    return this.load().length;
+};
+
+/**
+ * Send the oldest queued scans in one batch, and the next batch when it has been sent.
+ */
+ScanQueue.prototype.flush = function () {
+    var batch = this.load().slice(0, ScanQueue.MAX_BATCH_SIZE);
+    if (this.flushing || batch.length === 0) {
+        return;
+    }
+
+    var queue = this;
+    this.flushing = true;
+
+    $.ajax({
+        method: "POST",
+        url: this.url,
+        headers: this.headers,
+        contentType: "application/json",
+        dataType: "json",
+        data: JSON.stringify(batch.map(function (scan) {
+            return {code: scan.code, type: scan.type, scannedAt: scan.scannedAt};
+        }))
+    }).done(function (data) {
+        queue.remove(batch);
+        batch.forEach(function (scan, i) {
+            queue.notify(scan, data.object.results[i]);
+        });
+    }).fail(function (xhr) {
+        if (xhr.status === 400) {
+            // The batch has been rejected as a whole, e.g. because the event no longer exists
+            queue.remove(batch);
+            batch.forEach(function (scan) {
+                queue.notify(scan, {code: scan.code, status: "UNKNOWN", ticket: null});
+            });
+        } else {
+            batch.forEach(function (scan) {
+                queue.notify(scan, null);
+            });
+        }
+    }).always(function (data, textStatus) {
+        queue.flushing = false;
+
+        if (textStatus === "success") {
+            queue.flush();
+        }
+    });
+};
+
+/**
+ * Call the callback of a scan once.
+ *
+ * @param {object} scan
+ * @param {object} result
+ */
+ScanQueue.prototype.notify = function (scan, result) {
+    var callback = this.callbacks[scan.id];
+    if (callback) {
+        delete this.callbacks[scan.id];
+        callback(result);
+    }
+};
+
+/**
+ * Remove sent scans from the queue, scans added in the meantime are kept.
+ *
+ * @param {Array} sent
+ */
+ScanQueue.prototype.remove = function (sent) {
+    var ids = {};
+    sent.forEach(function (scan) {
+        ids[scan.id] = true;
+    });
+
+    this.store(this.load().filter(function (scan) {
+        return !ids[scan.id];
+    }));
+};
+
+ScanQueue.prototype.load = function () {
+    try {
+        return JSON.parse(localStorage.getItem(this.storageKey)) || [];
+    } catch (e) {
+        return [];
+    }
+};
+
+ScanQueue.prototype.store = function (scans) {
+    localStorage.setItem(this.storageKey, JSON.stringify(scans));
+};
+
+/**
+ * Format a date as the local date and time without a zone, like the server expects it.
+ *
+ * @param {Date} date
+ * @returns {string}
+ */
+ScanQueue.localDateTime = function (date) {
+    var pad = function (value) {
+        return (value < 10 ? "0" : "") + value;
+    };
+
+    return date.getFullYear() + "-" + pad(date.getMonth() + 1) + "-" + pad(date.getDate())
+        + "T" + pad(date.getHours()) + ":" + pad(date.getMinutes()) + ":" + pad(date.getSeconds());
+};
@@ -18,6 +18,7 @@
 import ch.wisv.events.core.repository.ProductRepository;
 import ch.wisv.events.core.repository.WebhookRepository;
 import ch.wisv.events.core.repository.WebhookTaskRepository;
+import ch.wisv.events.core.service.catalog.CatalogService;
 import ch.wisv.events.core.service.event.EventService;
 import ch.wisv.events.core.service.order.OrderService;
 import ch.wisv.events.core.service.ticket.TicketService;
@@ -68,6 +69,9 @@ public abstract class ControllerTest {
     @Autowired
     protected TicketService ticketService;
 
+    @Autowired
+    protected CatalogService catalogService;
+
     /**
      * Repositories.
      */
@@ -110,6 +114,9 @@ public abstract class ControllerTest {
     @Before
     public void setup() {
         this.mockMvc = MockMvcBuilders.webAppContextSetup(this.wac).build();
+
+        // The catalog snapshot is shared between tests, while the test transactions are rolled back
+        this.catalogService.invalidate();
     }
 
     @After
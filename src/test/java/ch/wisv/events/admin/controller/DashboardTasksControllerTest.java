@@ -3,7 +3,10 @@
 import ch.wisv.events.ControllerTest;
 import ch.wisv.events.EventsApplicationTest;
 import ch.wisv.events.core.model.webhook.WebhookTask;
+import ch.wisv.events.core.model.webhook.WebhookTaskSummary;
 import com.google.common.collect.ImmutableList;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -21,14 +24,74 @@ public class DashboardTasksControllerTest extends ControllerTest {
 
     @Test
     public void testIndex() throws Exception {
-        WebhookTask webhookTask = this.createWebhookTask();
+        WebhookTask webhookTask = this.createWebhookTask(LocalDateTime.now());
         webhookRepository.saveAndFlush(webhookTask.getWebhook());
         webhookTaskRepository.saveAndFlush(webhookTask);
 
         mockMvc.perform(get("/administrator/tasks"))
                 .andExpect(status().is2xxSuccessful())
                 .andExpect(view().name("admin/tasks/index"))
-                .andExpect(model().attribute("tasks", ImmutableList.of(webhookTask)));
+                .andExpect(model().attribute("tasks", ImmutableList.of(this.toSummary(webhookTask))));
+    }
+
+    @Test
+    public void testIndexPage() throws Exception {
+        WebhookTask older = this.createWebhookTask(LocalDateTime.now().minusDays(1));
+        webhookRepository.saveAndFlush(older.getWebhook());
+        webhookTaskRepository.saveAndFlush(older);
+
+        WebhookTask newer = this.createWebhookTask(LocalDateTime.now());
+        webhookRepository.saveAndFlush(newer.getWebhook());
+        webhookTaskRepository.saveAndFlush(newer);
+
+        mockMvc.perform(get("/administrator/tasks"))
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(model().attribute("tasks", ImmutableList.of(this.toSummary(newer), this.toSummary(older))));
+
+        mockMvc.perform(get("/administrator/tasks")
+                        .param("beforeCreatedAt", newer.getCreatedAt().toString())
+                        .param("beforeId", newer.getId().toString()))
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(model().attribute("tasks", ImmutableList.of(this.toSummary(older))));
+
+        mockMvc.perform(get("/administrator/tasks")
+                        .param("beforeCreatedAt", older.getCreatedAt().toString())
+                        .param("beforeId", older.getId().toString()))
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(model().attribute("tasks", ImmutableList.of()));
+    }
+
+    @Test
+    public void testIndexPageSameCreatedAt() throws Exception {
+        LocalDateTime createdAt = LocalDateTime.now();
+        WebhookTask first = this.createWebhookTask(createdAt);
+        webhookRepository.saveAndFlush(first.getWebhook());
+        webhookTaskRepository.saveAndFlush(first);
+
+        WebhookTask second = this.createWebhookTask(createdAt);
+        webhookRepository.saveAndFlush(second.getWebhook());
+        webhookTaskRepository.saveAndFlush(second);
+
+        mockMvc.perform(get("/administrator/tasks")
+                        .param("beforeCreatedAt", second.getCreatedAt().toString())
+                        .param("beforeId", second.getId().toString()))
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(model().attribute("tasks", ImmutableList.of(this.toSummary(first))));
+    }
+
+    private WebhookTask createWebhookTask(LocalDateTime createdAt) {
+        // The summaries are read from the database, which stores the times with a lower precision.
+        WebhookTask webhookTask = this.createWebhookTask();
+        webhookTask.setCreatedAt(createdAt.truncatedTo(ChronoUnit.SECONDS));
+        webhookTask.setNextAttemptAt(webhookTask.getCreatedAt());
+
+        return webhookTask;
+    }
+
+    private WebhookTaskSummary toSummary(WebhookTask webhookTask) {
+        return new WebhookTaskSummary(webhookTask.getId(), webhookTask.getCreatedAt(), webhookTask.getTrigger(),
+                webhookTask.getWebhook().getPayloadUrl(), webhookTask.getWebhookTaskStatus(),
+                webhookTask.getWebhookError(), webhookTask.getAttempts(), webhookTask.getNextAttemptAt());
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,107 @@
+package ch.wisv.events.api.controller;
+
+import ch.wisv.events.ControllerTest;
+import ch.wisv.events.EventsApplicationTest;
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.event.EventStatus;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = EventsApplicationTest.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class EventRestControllerTest extends ControllerTest {
+
+    @Test
+    public void testGetUpcoming() throws Exception {
+        Event event = this.createPublishedEvent();
+
+        mockMvc.perform(get("/api/v1/event"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$[0].key", is(event.getKey())));
+    }
+
+    @Test
+    public void testGetUpcomingNotModified() throws Exception {
+        this.createPublishedEvent();
+
+        String etag = mockMvc.perform(get("/api/v1/event"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/event").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void testGetUpcomingChanged() throws Exception {
+        this.createPublishedEvent();
+
+        String etag = mockMvc.perform(get("/api/v1/event"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Event event = this.createPublishedEvent();
+        catalogService.invalidate();
+
+        String changed = mockMvc.perform(get("/api/v1/event").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].key", is(event.getKey())))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    public void testGetUpcomingEventEnded() throws Exception {
+        Event ending = this.createPublishedEvent();
+        ending.setStart(LocalDateTime.now().minusHours(1));
+        ending.setEnding(LocalDateTime.now().plusSeconds(1));
+        eventRepository.saveAndFlush(ending);
+        Event event = this.createPublishedEvent();
+
+        String etag = mockMvc.perform(get("/api/v1/event"))
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        long changeCount = catalogService.getChangeCount();
+
+        Thread.sleep(Math.max(0, Duration.between(LocalDateTime.now(), ending.getEnding()).toMillis()) + 100);
+
+        String changed = mockMvc.perform(get("/api/v1/event").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].key", is(event.getKey())))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+        assertEquals(changeCount, catalogService.getChangeCount());
+    }
+
+    /**
+     * Create a published, upcoming Event.
+     *
+     * @return Event
+     */
+    private Event createPublishedEvent() {
+        Event event = this.createEvent();
+        event.setPublished(EventStatus.PUBLISHED);
+        eventRepository.saveAndFlush(event);
+
+        return event;
+    }
+}
@@ -0,0 +1,141 @@
+package ch.wisv.events.api.controller;
+
+import ch.wisv.events.ControllerTest;
+import ch.wisv.events.EventsApplicationTest;
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.event.EventCategory;
+import ch.wisv.events.core.model.event.EventStatus;
+import ch.wisv.events.core.model.product.Product;
+import com.jayway.jsonpath.JsonPath;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(classes = EventsApplicationTest.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class EventV2RestControllerTest extends ControllerTest {
+
+    @Test
+    public void testGetUpcomingDefaultFields() throws Exception {
+        Event event = this.createPublishedEvent(LocalDateTime.now().plusDays(1), EventCategory.SOCIAL);
+
+        mockMvc.perform(get("/api/v2/event"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", hasSize(1)))
+                .andExpect(jsonPath("$.events[0].key", is(event.getKey())))
+                .andExpect(jsonPath("$.events[0].categories[0]", is("SOCIAL")))
+                .andExpect(jsonPath("$.events[0].description").doesNotExist())
+                .andExpect(jsonPath("$.events[0].products").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    public void testGetUpcomingFields() throws Exception {
+        Event event = this.createPublishedEvent(LocalDateTime.now().plusDays(1), EventCategory.SOCIAL);
+
+        mockMvc.perform(get("/api/v2/event").param("fields", "key,description,products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events[0].key", is(event.getKey())))
+                .andExpect(jsonPath("$.events[0].description", is("description")))
+                .andExpect(jsonPath("$.events[0].products", hasSize(0)))
+                .andExpect(jsonPath("$.events[0].title").doesNotExist());
+    }
+
+    @Test
+    public void testGetUpcomingProducts() throws Exception {
+        Event event = this.createPublishedEvent(LocalDateTime.now().plusDays(1), EventCategory.SOCIAL);
+        Product product = this.createProduct();
+        product.setSold(1);
+        productRepository.saveAndFlush(product);
+        event.addProduct(product);
+        event.setMaxSold(1);
+        eventRepository.saveAndFlush(event);
+
+        mockMvc.perform(get("/api/v2/event").param("fields", "key,soldOut,products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events[0].key", is(event.getKey())))
+                .andExpect(jsonPath("$.events[0].soldOut", is(true)))
+                .andExpect(jsonPath("$.events[0].products", hasSize(1)))
+                .andExpect(jsonPath("$.events[0].products[0].key", is(product.getKey())));
+    }
+
+    @Test
+    public void testGetUpcomingPages() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Event first = this.createPublishedEvent(start, EventCategory.SOCIAL);
+        Event second = this.createPublishedEvent(start, EventCategory.SOCIAL);
+        Event third = this.createPublishedEvent(start.plusDays(1), EventCategory.SOCIAL);
+
+        String body = mockMvc.perform(get("/api/v2/event").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events[0].key", is(first.getKey())))
+                .andExpect(jsonPath("$.events[1].key", is(second.getKey())))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = JsonPath.read(body, "$.nextCursor");
+
+        mockMvc.perform(get("/api/v2/event").param("limit", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", hasSize(1)))
+                .andExpect(jsonPath("$.events[0].key", is(third.getKey())))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    public void testGetUpcomingFilters() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        this.createPublishedEvent(start, EventCategory.SOCIAL);
+        Event career = this.createPublishedEvent(start, EventCategory.CAREER);
+        this.createPublishedEvent(start.plusDays(7), EventCategory.CAREER);
+
+        mockMvc.perform(get("/api/v2/event")
+                        .param("category", "CAREER")
+                        .param("to", start.plusDays(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.events", hasSize(1)))
+                .andExpect(jsonPath("$.events[0].key", is(career.getKey())));
+    }
+
+    @Test
+    public void testGetUpcomingBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v2/event").param("cursor", "invalid"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v2/event").param("fields", "key,organizedBy"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v2/event").param("limit", "1000"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v2/event").param("fields", ","))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Create a published Event.
+     *
+     * @param start    of type LocalDateTime
+     * @param category of type EventCategory
+     *
+     * @return Event
+     */
+    private Event createPublishedEvent(LocalDateTime start, EventCategory category) {
+        Event event = this.createEvent();
+        event.setStart(start);
+        event.setEnding(start.plusHours(1));
+        event.setCategories(new ArrayList<>(List.of(category)));
+        event.setPublished(EventStatus.PUBLISHED);
+        eventRepository.saveAndFlush(event);
+
+        return event;
+    }
+}
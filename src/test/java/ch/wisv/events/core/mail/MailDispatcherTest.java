@@ -0,0 +1,163 @@
+package ch.wisv.events.core.mail;
+
+import ch.wisv.events.ServiceTest;
+import ch.wisv.events.core.exception.normal.OrderNotFoundException;
+import ch.wisv.events.core.model.mail.MailTask;
+import ch.wisv.events.core.model.mail.MailTaskStatus;
+import ch.wisv.events.core.model.mail.MailTaskType;
+import ch.wisv.events.core.model.order.Order;
+import ch.wisv.events.core.model.ticket.Ticket;
+import ch.wisv.events.core.repository.MailTaskRepository;
+import ch.wisv.events.core.service.mail.MailService;
+import ch.wisv.events.core.service.order.OrderService;
+import ch.wisv.events.core.service.ticket.TicketService;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.mail.MailSendException;
+
+/**
+ * MailDispatcher test.
+ */
+public class MailDispatcherTest extends ServiceTest {
+
+    /** MailTaskRepository. */
+    @Mock
+    private MailTaskRepository mailTaskRepository;
+
+    /** OrderService. */
+    @Mock
+    private OrderService orderService;
+
+    /** TicketService. */
+    @Mock
+    private TicketService ticketService;
+
+    /** MailService. */
+    @Mock
+    private MailService mailService;
+
+    /** MailDispatcher. */
+    private MailDispatcher mailDispatcher;
+
+    /** Order. */
+    private Order order;
+
+    @Before
+    public void setUp() throws Exception {
+        mailDispatcher = new MailDispatcher(mailTaskRepository, orderService, ticketService, mailService, 2, 3);
+
+        order = new Order();
+        when(orderService.getByReference(order.getPublicReference())).thenReturn(order);
+    }
+
+    @After
+    public void tearDown() {
+        mailDispatcher.shutdown();
+    }
+
+    @Test
+    public void testDispatchOrderConfirmation() {
+        List<Ticket> tickets = List.of(new Ticket());
+        when(ticketService.getAllByOrder(order)).thenReturn(tickets);
+        MailTask mailTask = this.createTask(1, MailTaskType.ORDER_CONFIRMATION);
+
+        assertTrue(mailDispatcher.dispatch(1));
+
+        verify(mailTaskRepository, timeout(5000)).save(mailTask);
+        verify(mailService).sendOrderConfirmation(order, tickets);
+        assertEquals(MailTaskStatus.SENT, mailTask.getMailTaskStatus());
+        assertEquals(1, mailTask.getAttempts());
+        assertNotNull(mailTask.getSentAt());
+    }
+
+    @Test
+    public void testDispatchOrderReservation() {
+        MailTask mailTask = this.createTask(1, MailTaskType.ORDER_RESERVATION);
+
+        mailDispatcher.dispatch(1);
+
+        verify(mailTaskRepository, timeout(5000)).save(mailTask);
+        verify(mailService).sendOrderReservation(order);
+        assertEquals(MailTaskStatus.SENT, mailTask.getMailTaskStatus());
+    }
+
+    @Test
+    public void testDispatchMailServerError() {
+        doThrow(new MailSendException("Connection refused")).when(mailService).sendOrderReservation(order);
+        MailTask mailTask = this.createTask(1, MailTaskType.ORDER_RESERVATION);
+
+        mailDispatcher.dispatch(1);
+
+        verify(mailTaskRepository, timeout(5000)).save(mailTask);
+        assertEquals(MailTaskStatus.ERROR, mailTask.getMailTaskStatus());
+        assertTrue(mailTask.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+    }
+
+    @Test
+    public void testDispatchMailServerErrorMaxAttempts() {
+        doThrow(new MailSendException("Connection refused")).when(mailService).sendOrderReservation(order);
+        MailTask mailTask = this.createTask(1, MailTaskType.ORDER_RESERVATION);
+        mailTask.setAttempts(2);
+
+        mailDispatcher.dispatch(1);
+
+        verify(mailTaskRepository, timeout(5000)).save(mailTask);
+        assertEquals(MailTaskStatus.DEAD_LETTER, mailTask.getMailTaskStatus());
+        assertEquals(3, mailTask.getAttempts());
+    }
+
+    @Test
+    public void testDispatchOrderNotFound() throws Exception {
+        MailTask mailTask = this.createTask(1, MailTaskType.ORDER_CONFIRMATION);
+        mailTask.setOrderReference("unknown");
+        when(orderService.getByReference("unknown")).thenThrow(new OrderNotFoundException("reference unknown"));
+
+        mailDispatcher.dispatch(1);
+
+        verify(mailTaskRepository, timeout(5000)).save(mailTask);
+        assertEquals(MailTaskStatus.DEAD_LETTER, mailTask.getMailTaskStatus());
+    }
+
+    @Test
+    public void testDispatchAlreadySent() {
+        MailTask mailTask = this.createTask(1, MailTaskType.ORDER_CONFIRMATION);
+        mailTask.setMailTaskStatus(MailTaskStatus.SENT);
+
+        mailDispatcher.dispatch(1);
+
+        verify(mailTaskRepository, timeout(5000)).findById(1);
+        verify(mailService, never()).sendOrderConfirmation(order, List.of());
+        verify(mailTaskRepository, never()).save(mailTask);
+    }
+
+    @Test
+    public void testOnMailTaskCreated() {
+        MailTask mailTask = this.createTask(2, MailTaskType.ORDER_RESERVATION);
+
+        mailDispatcher.onMailTaskCreated(new MailTaskCreatedEvent(2));
+
+        verify(mailTaskRepository, timeout(5000)).save(mailTask);
+        assertEquals(MailTaskStatus.SENT, mailTask.getMailTaskStatus());
+    }
+
+    private MailTask createTask(Integer id, MailTaskType type) {
+        MailTask mailTask = new MailTask(type, order.getPublicReference());
+        mailTask.setId(id);
+        when(mailTaskRepository.findById(id)).thenReturn(Optional.of(mailTask));
+
+        return mailTask;
+    }
+}
@@ -0,0 +1,162 @@
+package ch.wisv.events.core.service;
+
+import ch.wisv.events.ServiceTest;
+import ch.wisv.events.core.exception.normal.TicketPassFailedException;
+import ch.wisv.events.core.model.customer.Customer;
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.model.ticket.Ticket;
+import ch.wisv.events.core.service.applewallet.ApplePassServiceImpl;
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * ApplePassServiceImpl test.
+ */
+public class ApplePassServiceImplTest extends ServiceTest {
+
+    /** ApplePassServiceImpl. */
+    private ApplePassServiceImpl applePassService;
+
+    /** Passes HTTP server. */
+    private HttpServer server;
+
+    /** Time the server takes to respond in milliseconds. */
+    private volatile long responseDelay = 0;
+
+    /** Number of requests handled. */
+    private final AtomicInteger requests = new AtomicInteger();
+
+    /** Event. */
+    private Event event;
+
+    /** Product. */
+    private Product product;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(responseDelay);
+            } catch (InterruptedException ignored) {
+            }
+
+            String query = exchange.getRequestURI().getQuery();
+            if (query.contains("code=fail")) {
+                exchange.sendResponseHeaders(500, -1);
+            } else {
+                byte[] body = query.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+
+        applePassService = new ApplePassServiceImpl(
+                "http://localhost:" + server.getAddress().getPort() + "/pass", 4, 16);
+
+        event = new Event();
+        event.setStart(LocalDateTime.of(2026, 10, 18, 20, 0));
+        event.setLocation("CH");
+
+        product = new Product();
+        product.setTitle("Ticket");
+        product.setDescription("Description");
+        product.setEvent(event);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        applePassService.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    public void testGetPassCached() throws Exception {
+        Ticket ticket = this.createTicket("123456");
+
+        byte[] pass = applePassService.getPass(ticket);
+
+        assertTrue(new String(pass, StandardCharsets.UTF_8).contains("code=123456"));
+        assertArrayEquals(pass, applePassService.getPass(ticket));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void testGetPassNewUniqueCode() throws Exception {
+        Ticket ticket = this.createTicket("123456");
+        applePassService.getPass(ticket);
+
+        ticket.setUniqueCode("654321");
+
+        assertTrue(new String(applePassService.getPass(ticket), StandardCharsets.UTF_8).contains("code=654321"));
+        assertEquals(2, requests.get());
+    }
+
+    @Test(expected = TicketPassFailedException.class)
+    public void testGetPassFailed() throws Exception {
+        applePassService.getPass(this.createTicket("fail"));
+    }
+
+    @Test
+    public void testGetPassesConcurrently() {
+        responseDelay = 500;
+        List<Ticket> tickets = List.of(
+                this.createTicket("111111"),
+                this.createTicket("222222"),
+                this.createTicket("333333"),
+                this.createTicket("444444")
+        );
+
+        long start = System.currentTimeMillis();
+        Map<String, byte[]> passes = applePassService.getPasses(tickets);
+        long duration = System.currentTimeMillis() - start;
+
+        assertEquals(4, passes.size());
+        tickets.forEach(ticket -> assertTrue(new String(passes.get(ticket.getKey()), StandardCharsets.UTF_8)
+                .contains("code=" + ticket.getUniqueCode())));
+        assertTrue(duration < 4 * responseDelay);
+    }
+
+    @Test
+    public void testGetPassesOmitsFailed() {
+        Ticket ticket = this.createTicket("123456");
+        Ticket failed = this.createTicket("fail");
+
+        Map<String, byte[]> passes = applePassService.getPasses(List.of(ticket, failed));
+
+        assertTrue(passes.containsKey(ticket.getKey()));
+        assertFalse(passes.containsKey(failed.getKey()));
+    }
+
+    /**
+     * Create a Ticket for the product.
+     *
+     * @param uniqueCode of type String
+     *
+     * @return Ticket
+     */
+    private Ticket createTicket(String uniqueCode) {
+        Customer customer = new Customer();
+        customer.setName("Christiaan Huygens");
+
+        return new Ticket(null, customer, product, uniqueCode);
+    }
+}
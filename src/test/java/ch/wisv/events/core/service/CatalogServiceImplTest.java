@@ -0,0 +1,138 @@
+package ch.wisv.events.core.service;
+
+import ch.wisv.events.ServiceTest;
+import ch.wisv.events.core.model.catalog.CatalogEvent;
+import ch.wisv.events.core.model.catalog.CatalogSnapshot;
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.event.EventStatus;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.repository.EventRepository;
+import ch.wisv.events.core.service.catalog.CatalogServiceImpl;
+import ch.wisv.events.core.service.inventory.InventoryChangedEvent;
+import ch.wisv.events.core.service.product.ProductChangedEvent;
+import java.time.LocalDateTime;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * CatalogServiceImpl test.
+ */
+public class CatalogServiceImplTest extends ServiceTest {
+
+    /** EventRepository. */
+    @Mock
+    private EventRepository eventRepository;
+
+    /** PlatformTransactionManager. */
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    /** CatalogServiceImpl. */
+    private CatalogServiceImpl catalogService;
+
+    /** Event. */
+    private Event event;
+
+    /** Product that is on sale. */
+    private Product product;
+
+    @Before
+    public void setUp() {
+        catalogService = new CatalogServiceImpl(eventRepository, transactionManager, 0);
+
+        event = new Event();
+        event.setTitle("Event");
+        event.setStart(LocalDateTime.now().plusDays(1));
+        event.setEnding(LocalDateTime.now().plusDays(2));
+
+        product = new Product();
+        product.setTitle("Product");
+        product.setSellStart(LocalDateTime.now().minusDays(1));
+        product.setEvent(event);
+        event.getProducts().add(product);
+
+        when(eventRepository.findAllReadOnlyByPublishedAndEndingAfter(eq(EventStatus.PUBLISHED), any(LocalDateTime.class)))
+                .thenReturn(List.of(event));
+    }
+
+    @Test
+    public void testGetSnapshot() {
+        CatalogSnapshot snapshot = catalogService.getSnapshot();
+
+        assertEquals(1, snapshot.getEvents().size());
+        assertEquals(event.getKey(), snapshot.getEvents().get(0).getKey());
+        assertEquals(product.getKey(), snapshot.getEvents().get(0).getProducts().get(0).getKey());
+        assertSame(snapshot, catalogService.getSnapshot());
+        verify(eventRepository, times(1)).findAllReadOnlyByPublishedAndEndingAfter(eq(EventStatus.PUBLISHED), any(LocalDateTime.class));
+    }
+
+    @Test
+    public void testGetSnapshotProductChanged() {
+        CatalogSnapshot snapshot = catalogService.getSnapshot();
+        event.setTitle("Renamed");
+
+        catalogService.onProductChanged(new ProductChangedEvent(List.of(product.getKey())));
+
+        CatalogSnapshot rebuilt = catalogService.getSnapshot();
+        assertNotSame(snapshot, rebuilt);
+        assertTrue(rebuilt.getVersion() > snapshot.getVersion());
+        assertEquals("Renamed", rebuilt.getEvents().get(0).getTitle());
+    }
+
+    @Test
+    public void testGetSnapshotInventoryChanged() {
+        CatalogSnapshot snapshot = catalogService.getSnapshot();
+        product.setMaxSold(1);
+        product.setSold(1);
+
+        catalogService.onInventoryChanged(new InventoryChangedEvent(List.of(1)));
+
+        assertTrue(catalogService.getSnapshot().getEvents().get(0).getProducts().get(0).isSoldOut());
+        assertNotSame(snapshot, catalogService.getSnapshot());
+    }
+
+    @Test
+    public void testGetSnapshotNotSalable() {
+        product.setSellStart(LocalDateTime.now().plusDays(1));
+
+        CatalogSnapshot snapshot = catalogService.getSnapshot();
+
+        assertTrue(snapshot.getEvents().isEmpty());
+        CatalogEvent catalogEvent = snapshot.getEvent(event.getKey()).orElseThrow();
+        assertTrue(catalogEvent.getProducts().isEmpty());
+        assertEquals(product.getSellStart(), snapshot.getNextBoundary());
+    }
+
+    @Test
+    public void testGetSnapshotDoesNotChangeEvent() {
+        product.setSellEnd(LocalDateTime.now().minusHours(1));
+
+        assertTrue(catalogService.getSnapshot().getEvent(event.getKey()).orElseThrow().getProducts().isEmpty());
+        assertEquals(List.of(product), event.getProducts());
+    }
+
+    @Test
+    public void testGetSnapshotSellStartPassed() throws Exception {
+        product.setSellStart(LocalDateTime.now().plusNanos(50_000_000));
+
+        assertTrue(catalogService.getSnapshot().getEvents().isEmpty());
+        Thread.sleep(100);
+
+        CatalogSnapshot snapshot = catalogService.getSnapshot();
+        assertFalse(snapshot.getEvents().isEmpty());
+        assertEquals(event.getEnding(), snapshot.getNextBoundary());
+    }
+}
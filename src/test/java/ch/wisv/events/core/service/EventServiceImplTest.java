@@ -23,6 +23,7 @@
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import org.springframework.context.ApplicationEventPublisher;
 
 /**
  * EventService test.
@@ -35,13 +36,17 @@ public class EventServiceImplTest extends ServiceTest {
     @Mock
     private ProductService productService;
 
+    /** ApplicationEventPublisher. */
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     private EventService service;
 
     private Event event;
 
     @Before
     public void setUp() {
-        this.service = new EventServiceImpl(repository, productService);
+        this.service = new EventServiceImpl(repository, productService, applicationEventPublisher);
 
         this.event = new Event(
                 "Test",
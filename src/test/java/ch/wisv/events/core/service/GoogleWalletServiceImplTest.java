@@ -0,0 +1,135 @@
+package ch.wisv.events.core.service;
+
+import ch.wisv.events.ServiceTest;
+import ch.wisv.events.core.model.customer.Customer;
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.model.ticket.Ticket;
+import ch.wisv.events.core.service.googlewallet.GoogleWalletServiceImpl;
+import ch.wisv.events.core.service.product.ProductChangedEvent;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.google.auth.oauth2.ServiceAccountCredentials;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * GoogleWalletServiceImpl test.
+ */
+public class GoogleWalletServiceImplTest extends ServiceTest {
+
+    /** Prefix of the save links. */
+    private static final String SAVE_LINK = "https://pay.google.com/gp/v/save/";
+
+    /** Key pair of the service account. */
+    private KeyPair keyPair;
+
+    /** GoogleWalletServiceImpl. */
+    private GoogleWalletServiceImpl googleWalletService;
+
+    /** Product. */
+    private Product product;
+
+    @Before
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+
+        ServiceAccountCredentials credentials = ServiceAccountCredentials.newBuilder()
+                .setClientEmail("wallet@example.com")
+                .setPrivateKey(keyPair.getPrivate())
+                .build();
+        googleWalletService = new GoogleWalletServiceImpl(
+                credentials, "3388000000022297569", "https://example.com/events", "https://example.com", "https://example.com/gtc");
+
+        Event event = new Event();
+        event.setTitle("Event");
+        event.setLocation("CH");
+        event.setStart(LocalDateTime.of(2026, 10, 18, 20, 0));
+        event.setEnding(LocalDateTime.of(2026, 10, 18, 23, 0));
+
+        product = new Product();
+        product.setTitle("Product");
+        product.setCost(2.5);
+        product.setEvent(event);
+        event.getProducts().add(product);
+    }
+
+    @Test
+    public void testGetPass() throws Exception {
+        Ticket ticket = this.createTicket();
+
+        String link = googleWalletService.getPass(ticket);
+
+        assertTrue(link.startsWith(SAVE_LINK));
+        DecodedJWT token = JWT.require(Algorithm.RSA256((RSAPublicKey) keyPair.getPublic(), null))
+                .build()
+                .verify(link.substring(SAVE_LINK.length()));
+        assertEquals("wallet@example.com", token.getIssuer());
+        assertEquals(List.of("https://example.com"), token.getClaim("origins").asList(String.class));
+        assertTrue(this.getPayload(link).contains(ticket.getUniqueCode()));
+    }
+
+    @Test
+    public void testGetPassCachedClass() throws Exception {
+        googleWalletService.getPass(this.createTicket());
+        product.getEvent().setTitle("Renamed");
+
+        assertFalse(this.getPayload(googleWalletService.getPass(this.createTicket())).contains("Renamed"));
+    }
+
+    @Test
+    public void testGetPassProductChanged() throws Exception {
+        googleWalletService.getPass(this.createTicket());
+        product.getEvent().setTitle("Renamed");
+
+        googleWalletService.onProductChanged(new ProductChangedEvent(List.of(product.getKey())));
+
+        assertTrue(this.getPayload(googleWalletService.getPass(this.createTicket())).contains("Renamed"));
+    }
+
+    @Test
+    public void testGetPassWithoutCredentials() throws Exception {
+        GoogleWalletServiceImpl service = new GoogleWalletServiceImpl(
+                "does-not-exist.json", "3388000000022297569", "https://example.com/events", "https://example.com", "https://example.com/gtc");
+
+        assertEquals(SAVE_LINK + "FAILED", service.getPass(this.createTicket()));
+    }
+
+    /**
+     * Create a Ticket for the product.
+     *
+     * @return Ticket
+     */
+    private Ticket createTicket() {
+        Customer customer = new Customer();
+        customer.setName("Christiaan Huygens");
+
+        return new Ticket(null, customer, product, "123456");
+    }
+
+    /**
+     * Get the decoded claims of a save link.
+     *
+     * @param link of type String
+     *
+     * @return String
+     */
+    private String getPayload(String link) {
+        String payload = JWT.decode(link.substring(SAVE_LINK.length())).getPayload();
+
+        return new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,133 @@
+package ch.wisv.events.core.service;
+
+import ch.wisv.events.ServiceTest;
+import ch.wisv.events.core.model.order.Order;
+import ch.wisv.events.core.model.order.OrderProduct;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.repository.ProductRepository;
+import ch.wisv.events.core.service.inventory.InventoryChangedEvent;
+import ch.wisv.events.core.service.inventory.InventoryService;
+import ch.wisv.events.core.service.inventory.InventoryServiceImpl;
+import ch.wisv.events.core.util.VatRate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.springframework.context.ApplicationEventPublisher;
+
+public class InventoryServiceImplTest extends ServiceTest {
+
+    /** ProductRepository. */
+    @Mock
+    private ProductRepository productRepository;
+
+    /** ApplicationEventPublisher. */
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    /** InventoryService. */
+    private InventoryService inventoryService;
+
+    /** Limited product. */
+    private Product limited;
+
+    /** Unlimited product. */
+    private Product unlimited;
+
+    /** Order containing both products. */
+    private Order order;
+
+    @Before
+    public void setUp() {
+        inventoryService = new InventoryServiceImpl(productRepository, applicationEventPublisher);
+
+        limited = mock(Product.class);
+        when(limited.getId()).thenReturn(1);
+        when(limited.getMaxSold()).thenReturn(10);
+        when(limited.getCost()).thenReturn(1.d);
+        when(limited.getVatRate()).thenReturn(VatRate.VAT_HIGH);
+
+        unlimited = new Product("Unlimited", "", 1.d, VatRate.VAT_HIGH, null, LocalDateTime.now(), null);
+
+        order = new Order();
+        order.addOrderProduct(new OrderProduct(unlimited, 1.d, 2L));
+        order.addOrderProduct(new OrderProduct(limited, 1.d, 3L));
+    }
+
+    @After
+    public void tearDown() {
+        inventoryService = null;
+        order = null;
+    }
+
+    @Test
+    public void testGetRemaining() {
+        when(productRepository.findSoldAndReservedById(1)).thenReturn(Optional.of(7));
+
+        assertEquals(Integer.valueOf(3), inventoryService.getRemaining(limited));
+    }
+
+    @Test
+    public void testGetRemainingUnlimited() {
+        assertNull(inventoryService.getRemaining(unlimited));
+    }
+
+    @Test
+    public void testClaimSold() {
+        when(productRepository.increaseSoldWithinLimit(unlimited.getId(), 2, Integer.MAX_VALUE)).thenReturn(1);
+        when(productRepository.increaseSoldWithinLimit(1, 3, 10)).thenReturn(1);
+
+        assertTrue(inventoryService.claimSold(order));
+        verify(productRepository, times(0)).addSold(unlimited.getId(), -2);
+        verify(applicationEventPublisher, times(1)).publishEvent(any(InventoryChangedEvent.class));
+    }
+
+    @Test
+    public void testClaimSoldLimitReached() {
+        when(productRepository.increaseSoldWithinLimit(unlimited.getId(), 2, Integer.MAX_VALUE)).thenReturn(1);
+        when(productRepository.increaseSoldWithinLimit(1, 3, 10)).thenReturn(0);
+
+        assertFalse(inventoryService.claimSold(order));
+        verify(productRepository, times(1)).addSold(unlimited.getId(), -2);
+        verify(applicationEventPublisher, times(0)).publishEvent(any(InventoryChangedEvent.class));
+    }
+
+    @Test
+    public void testClaimReservedLimitReached() {
+        when(productRepository.increaseReservedWithinLimit(unlimited.getId(), 2, Integer.MAX_VALUE)).thenReturn(1);
+        when(productRepository.increaseReservedWithinLimit(1, 3, 10)).thenReturn(0);
+
+        assertFalse(inventoryService.claimReserved(order));
+        verify(productRepository, times(1)).addReserved(unlimited.getId(), -2);
+    }
+
+    @Test
+    public void testConvertReservedToSold() {
+        inventoryService.convertReservedToSold(order);
+
+        verify(productRepository, times(1)).moveReservedToSold(1, 3);
+        verify(productRepository, times(0)).increaseSoldWithinLimit(eq(1), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testRelease() {
+        inventoryService.releaseSold(order);
+        inventoryService.releaseReserved(order);
+
+        verify(productRepository, times(1)).addSold(1, -3);
+        verify(productRepository, times(1)).addReserved(1, -3);
+    }
+}
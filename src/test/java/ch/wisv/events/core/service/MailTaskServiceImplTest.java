@@ -0,0 +1,61 @@
+package ch.wisv.events.core.service;
+
+import ch.wisv.events.ServiceTest;
+import ch.wisv.events.core.mail.MailTaskCreatedEvent;
+import ch.wisv.events.core.model.mail.MailTask;
+import ch.wisv.events.core.model.mail.MailTaskStatus;
+import ch.wisv.events.core.model.mail.MailTaskType;
+import ch.wisv.events.core.model.order.Order;
+import ch.wisv.events.core.repository.MailTaskRepository;
+import ch.wisv.events.core.service.mail.MailTaskService;
+import ch.wisv.events.core.service.mail.MailTaskServiceImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * MailTaskServiceImpl test.
+ */
+public class MailTaskServiceImplTest extends ServiceTest {
+
+    /** MailTaskRepository. */
+    @Mock
+    private MailTaskRepository mailTaskRepository;
+
+    /** ApplicationEventPublisher. */
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    /** MailTaskService. */
+    private MailTaskService mailTaskService;
+
+    @Before
+    public void setUp() {
+        mailTaskService = new MailTaskServiceImpl(mailTaskRepository, applicationEventPublisher);
+    }
+
+    /**
+     * Test if a mail is only put in the outbox and announced, so it can be sent after commit.
+     */
+    @Test
+    public void testCreate() {
+        Order order = new Order();
+
+        mailTaskService.create(MailTaskType.ORDER_CONFIRMATION, order);
+
+        ArgumentCaptor<MailTask> task = ArgumentCaptor.forClass(MailTask.class);
+        verify(mailTaskRepository, times(1)).saveAndFlush(task.capture());
+        assertEquals(MailTaskType.ORDER_CONFIRMATION, task.getValue().getType());
+        assertEquals(order.getPublicReference(), task.getValue().getOrderReference());
+        assertEquals(MailTaskStatus.PENDING, task.getValue().getMailTaskStatus());
+
+        verify(applicationEventPublisher, times(1)).publishEvent(any(MailTaskCreatedEvent.class));
+    }
+}
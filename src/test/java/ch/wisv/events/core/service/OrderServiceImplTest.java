@@ -3,10 +3,12 @@
 import ch.wisv.events.ServiceTest;
 import ch.wisv.events.core.exception.LogLevelEnum;
 import ch.wisv.events.core.exception.normal.EventsException;
+import ch.wisv.events.core.exception.normal.OrderExceedProductLimitException;
 import ch.wisv.events.core.exception.normal.OrderInvalidException;
 import ch.wisv.events.core.exception.normal.OrderNotFoundException;
 import ch.wisv.events.core.exception.runtime.EventsRuntimeException;
 import ch.wisv.events.core.model.customer.Customer;
+import ch.wisv.events.core.model.mail.MailTaskType;
 import ch.wisv.events.core.model.order.Order;
 import ch.wisv.events.core.model.order.OrderProduct;
 import ch.wisv.events.core.model.order.OrderProductDto;
@@ -15,16 +17,19 @@
 import ch.wisv.events.core.model.product.Product;
 import ch.wisv.events.core.repository.OrderProductRepository;
 import ch.wisv.events.core.repository.OrderRepository;
-import ch.wisv.events.core.service.mail.MailService;
+import ch.wisv.events.core.service.inventory.InventoryService;
+import ch.wisv.events.core.service.mail.MailTaskService;
 import ch.wisv.events.core.service.order.OrderService;
 import ch.wisv.events.core.service.order.OrderServiceImpl;
 import ch.wisv.events.core.service.order.OrderValidationService;
+import ch.wisv.events.core.service.order.ReservationExpiryQueue;
 import ch.wisv.events.core.service.product.ProductService;
 import ch.wisv.events.core.service.ticket.TicketService;
 import ch.wisv.events.core.util.VatRate;
 import com.google.common.collect.ImmutableList;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
@@ -36,9 +41,11 @@
 import org.junit.Before;
 import org.junit.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -79,14 +86,22 @@ public class OrderServiceImplTest extends ServiceTest {
     @MockBean
     private ProductService productService;
 
-    /** MailService. */
+    /** InventoryService. */
     @MockBean
-    private MailService mailService;
+    private InventoryService inventoryService;
+
+    /** MailTaskService. */
+    @MockBean
+    private MailTaskService mailTaskService;
 
     /** TicketService. */
     @MockBean
     private TicketService ticketService;
 
+    /** ReservationExpiryQueue. */
+    @MockBean
+    private ReservationExpiryQueue reservationExpiryQueue;
+
     /** Administration Costs*/
     @Value("${administrationCosts}")
     private double administrationCosts;
@@ -390,6 +405,7 @@ public void testUpdateOrderStatusPaid() throws Exception {
         assertEquals(OrderStatus.PAID, order.getStatus());
         assertNotEquals(null, order.getPaidAt());
         verify(ticketService, times(1)).createByOrder(order);
+        verify(mailTaskService, times(1)).create(MailTaskType.ORDER_CONFIRMATION, order);
     }
 
     /**
@@ -426,9 +442,71 @@ public void testUpdateOrderStatusReservation() throws Exception {
         order.setStatus(OrderStatus.ASSIGNED);
 
         when(ticketService.createByOrder(order)).thenReturn(ImmutableList.of());
+        when(inventoryService.claimReserved(order)).thenReturn(true);
         orderService.updateOrderStatus(order, OrderStatus.RESERVATION);
 
         assertEquals(OrderStatus.RESERVATION, order.getStatus());
+        verify(inventoryService, times(1)).claimReserved(order);
+        verify(reservationExpiryQueue, times(1)).add(order);
+    }
+
+    @Test
+    public void testUpdateOrderStatusReservationSoldOut() throws Exception {
+        Order order = new Order();
+        order.setStatus(OrderStatus.ASSIGNED);
+
+        when(inventoryService.claimReserved(order)).thenReturn(false);
+
+        thrown.expect(OrderExceedProductLimitException.class);
+        try {
+            orderService.updateOrderStatus(order, OrderStatus.RESERVATION);
+        } finally {
+            assertEquals(OrderStatus.ASSIGNED, order.getStatus());
+            verify(mailTaskService, times(0)).create(MailTaskType.ORDER_RESERVATION, order);
+            verify(reservationExpiryQueue, times(0)).add(order);
+        }
+    }
+
+    @Test
+    public void testUpdateOrderStatusPaidFromReservation() throws Exception {
+        Order order = new Order();
+        order.setStatus(OrderStatus.RESERVATION);
+
+        when(ticketService.createByOrder(order)).thenReturn(new ArrayList<>());
+        orderService.updateOrderStatus(order, OrderStatus.PAID);
+
+        verify(inventoryService, times(1)).convertReservedToSold(order);
+        verify(inventoryService, times(0)).claimSold(order);
+    }
+
+    @Test
+    public void testUpdateOrderStatusPaidSoldOutAfterPayment() throws Exception {
+        Order order = new Order();
+        order.setStatus(OrderStatus.PENDING);
+
+        when(inventoryService.claimSold(order)).thenReturn(false);
+        when(ticketService.createByOrder(order)).thenReturn(new ArrayList<>());
+        orderService.updateOrderStatus(order, OrderStatus.PAID);
+
+        assertEquals(OrderStatus.PAID, order.getStatus());
+        verify(inventoryService, times(1)).addSold(order);
+        verify(ticketService, times(1)).createByOrder(order);
+    }
+
+    @Test
+    public void testUpdateOrderStatusPaidSoldOutBeforePayment() throws Exception {
+        Order order = new Order();
+        order.setStatus(OrderStatus.ASSIGNED);
+
+        when(inventoryService.claimSold(order)).thenReturn(false);
+
+        thrown.expect(OrderExceedProductLimitException.class);
+        try {
+            orderService.updateOrderStatus(order, OrderStatus.PAID);
+        } finally {
+            assertEquals(OrderStatus.ASSIGNED, order.getStatus());
+            verify(ticketService, times(0)).createByOrder(order);
+        }
     }
 
     @Test
@@ -445,6 +523,7 @@ public void testUpdateOrderStatusRejectedFromPaid() throws Exception {
 
         assertEquals(OrderStatus.REJECTED, order.getStatus());
         verify(ticketService, times(1)).deleteByOrder(order);
+        verify(inventoryService, times(1)).releaseSold(order);
     }
 
     @Test
@@ -461,6 +540,7 @@ public void testUpdateOrderStatusRejectedFromReservation() throws Exception {
 
         assertEquals(OrderStatus.REJECTED, order.getStatus());
         verify(orderRepository, times(2)).saveAndFlush(order);
+        verify(inventoryService, times(1)).releaseReserved(order);
     }
 
     @Test
@@ -535,4 +615,35 @@ public void testDelete() {
 
         verify(orderRepository, times(1)).delete(order);
     }
-}
\ No newline at end of file
+
+    /**
+     * Test deleteAllByStatusCreatedBefore.
+     */
+    @Test
+    public void testDeleteAllByStatusCreatedBefore() {
+        EnumSet<OrderStatus> statuses = EnumSet.of(OrderStatus.ANONYMOUS, OrderStatus.ASSIGNED);
+        LocalDateTime before = LocalDateTime.now().minusHours(1);
+        List<Integer> ids = ImmutableList.of(1, 2, 3);
+        when(orderRepository.findIdsByStatusInAndCreatedAtBefore(statuses, before, Pageable.ofSize(10))).thenReturn(ids);
+
+        assertEquals(3, orderService.deleteAllByStatusCreatedBefore(statuses, before, 10));
+
+        verify(orderRepository, times(1)).deleteOrderProductLinksByOrderIds(ids);
+        verify(orderRepository, times(1)).deleteAllByIdInBatch(ids);
+    }
+
+    /**
+     * Test deleteAllByStatusCreatedBefore when there are no Orders to delete.
+     */
+    @Test
+    public void testDeleteAllByStatusCreatedBeforeEmpty() {
+        EnumSet<OrderStatus> statuses = EnumSet.of(OrderStatus.ANONYMOUS, OrderStatus.ASSIGNED);
+        when(orderRepository.findIdsByStatusInAndCreatedAtBefore(anyCollection(), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(ImmutableList.of());
+
+        assertEquals(0, orderService.deleteAllByStatusCreatedBefore(statuses, LocalDateTime.now(), 10));
+
+        verify(orderRepository, times(0)).deleteOrderProductLinksByOrderIds(anyCollection());
+        verify(orderRepository, times(0)).deleteAllByIdInBatch(any());
+    }
+}
@@ -0,0 +1,175 @@
+package ch.wisv.events.core.service;
+
+import ch.wisv.events.ServiceTest;
+import ch.wisv.events.core.mail.MailDispatcher;
+import ch.wisv.events.core.model.customer.Customer;
+import ch.wisv.events.core.model.order.Order;
+import ch.wisv.events.core.model.order.OrderProduct;
+import ch.wisv.events.core.model.order.OrderStatus;
+import ch.wisv.events.core.model.order.PaymentMethod;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.repository.CustomerRepository;
+import ch.wisv.events.core.repository.MailTaskRepository;
+import ch.wisv.events.core.repository.OrderProductRepository;
+import ch.wisv.events.core.repository.OrderRepository;
+import ch.wisv.events.core.repository.ProductRepository;
+import ch.wisv.events.core.service.order.OrderService;
+import ch.wisv.events.core.service.order.ReservationExpiryQueue;
+import ch.wisv.events.core.util.VatRate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Test if a status change of an Order and the mails it puts in the outbox are committed or rolled back together.
+ */
+public class OrderStatusOutboxTest extends ServiceTest {
+
+    /** OrderService. */
+    @Autowired
+    private OrderService orderService;
+
+    /** OrderRepository. */
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /** OrderProductRepository. */
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    /** ProductRepository. */
+    @Autowired
+    private ProductRepository productRepository;
+
+    /** CustomerRepository. */
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    /** MailTaskRepository. */
+    @Autowired
+    private MailTaskRepository mailTaskRepository;
+
+    /** PlatformTransactionManager. */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** MailDispatcher. */
+    @SpyBean
+    private MailDispatcher mailDispatcher;
+
+    /** ReservationExpiryQueue. */
+    @MockBean
+    private ReservationExpiryQueue reservationExpiryQueue;
+
+    /** Product. */
+    private Product product;
+
+    /** Order. */
+    private Order order;
+
+    @Before
+    public void setUp() {
+        // Only record the dispatches, the mails themselves are not sent
+        doReturn(true).when(mailDispatcher).dispatch(any(Integer.class));
+
+        Customer customer = new Customer();
+        customer.setSub("WISVCH.1234");
+        customer.setName("Test user");
+        customer.setEmail("test@test.com");
+        customerRepository.saveAndFlush(customer);
+
+        product = new Product();
+        product.setTitle("Product");
+        product.setCost(1.d);
+        product.setVatRate(VatRate.VAT_HIGH);
+        product.setSellStart(LocalDateTime.now());
+        product.setProducts(new ArrayList<>());
+        productRepository.saveAndFlush(product);
+
+        OrderProduct orderProduct = new OrderProduct(product, product.getCost(), 1L);
+        orderProductRepository.saveAndFlush(orderProduct);
+
+        order = new Order();
+        order.setOwner(customer);
+        order.setStatus(OrderStatus.ASSIGNED);
+        order.setCreatedBy("events-online");
+        order.setPaymentMethod(PaymentMethod.IDEAL);
+        order.addOrderProduct(orderProduct);
+        orderRepository.saveAndFlush(order);
+    }
+
+    @After
+    public void tearDown() {
+        mailTaskRepository.deleteAll();
+        orderRepository.deleteAll();
+        orderProductRepository.deleteAll();
+        productRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    /**
+     * Test if no mail is queued or dispatched when the status change fails halfway.
+     */
+    @Test
+    public void testUpdateOrderStatusFailureRollsBackMail() {
+        doThrow(new IllegalStateException("queue unavailable")).when(reservationExpiryQueue).add(any(Order.class));
+
+        try {
+            orderService.updateOrderStatus(order, OrderStatus.RESERVATION);
+        } catch (Exception ignored) {
+        }
+
+        this.assertRolledBack();
+    }
+
+    /**
+     * Test if no mail is queued or dispatched when the transaction the status is changed in is rolled back.
+     */
+    @Test
+    public void testUpdateOrderStatusRollbackRollsBackMail() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                orderService.updateOrderStatus(order, OrderStatus.RESERVATION);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+        });
+
+        this.assertRolledBack();
+    }
+
+    /**
+     * Test if the mail is dispatched once the status change has been committed.
+     */
+    @Test
+    public void testUpdateOrderStatusDispatchesMailAfterCommit() throws Exception {
+        orderService.updateOrderStatus(order, OrderStatus.RESERVATION);
+
+        assertEquals(1, mailTaskRepository.count());
+        verify(mailDispatcher).dispatch(any(Integer.class));
+    }
+
+    /**
+     * Assert that neither the mail nor the reservation has been stored, and that no mail has been dispatched.
+     */
+    private void assertRolledBack() {
+        assertEquals(0, mailTaskRepository.count());
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getReserved());
+        assertEquals(OrderStatus.ASSIGNED, orderRepository.findById(order.getId()).orElseThrow().getStatus());
+        verify(mailDispatcher, never()).dispatch(any(Integer.class));
+    }
+}
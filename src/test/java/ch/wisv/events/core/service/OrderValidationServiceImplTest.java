@@ -16,6 +16,7 @@
 import ch.wisv.events.core.model.ticket.Ticket;
 import ch.wisv.events.core.repository.OrderRepository;
 import ch.wisv.events.core.service.event.EventService;
+import ch.wisv.events.core.service.inventory.InventoryService;
 import ch.wisv.events.core.service.order.OrderValidationService;
 import ch.wisv.events.core.service.product.ProductService;
 import ch.wisv.events.core.service.ticket.TicketService;
@@ -56,6 +57,10 @@ public class OrderValidationServiceImplTest extends ServiceTest {
     @MockBean
     private EventService eventService;
 
+    /** InventoryService. */
+    @MockBean
+    private InventoryService inventoryService;
+
     /** Administration Costs*/
     @Value("${administrationCosts}")
     private double administrationCosts;
@@ -72,6 +77,7 @@ public class OrderValidationServiceImplTest extends ServiceTest {
     public void setUp() {
         product = mock(Product.class);
         when(product.getVatRate()).thenReturn(VatRate.VAT_HIGH);
+        when(inventoryService.getRemaining(product)).thenReturn(null);
 
         order = new Order();
         order.setOwner(mock(Customer.class));
@@ -206,6 +212,7 @@ public void assertOrderIsValidProductLimitExceed() throws Exception {
         when(product.getSold()).thenReturn(9);
         when(product.getReserved()).thenReturn(1);
         when(product.getMaxSold()).thenReturn(10);
+        when(inventoryService.getRemaining(product)).thenReturn(0);
 
         order.setAmount(1.d + administrationCosts);
         order.setVat(0.17d);
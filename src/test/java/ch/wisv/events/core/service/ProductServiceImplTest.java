@@ -7,6 +7,7 @@
 import ch.wisv.events.core.exception.runtime.ProductAlreadyLinkedException;
 import ch.wisv.events.core.model.product.Product;
 import ch.wisv.events.core.repository.ProductRepository;
+import ch.wisv.events.core.service.product.ProductChangedEvent;
 import ch.wisv.events.core.service.product.ProductService;
 import ch.wisv.events.core.service.product.ProductServiceImpl;
 import ch.wisv.events.core.util.VatRate;
@@ -24,6 +25,7 @@
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import org.springframework.context.ApplicationEventPublisher;
 
 public class ProductServiceImplTest extends ServiceTest {
 
@@ -33,6 +35,10 @@ public class ProductServiceImplTest extends ServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    /** ApplicationEventPublisher. */
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
     /**
      * ProductService
      */
@@ -48,7 +54,7 @@ public class ProductServiceImplTest extends ServiceTest {
      */
     @Before
     public void setUp() {
-        productService = new ProductServiceImpl(productRepository);
+        productService = new ProductServiceImpl(productRepository, applicationEventPublisher);
         product = new Product(
                 "Product",
                 "Description",
@@ -143,6 +149,7 @@ public void testUpdate() throws Exception {
 
         productService.update(product);
         verify(productRepository, times(1)).save(product);
+        verify(applicationEventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
     }
 
     /**
@@ -309,6 +316,7 @@ public void testCreateLinkProducts() throws Exception {
     public void testDelete() {
         productService.delete(product);
         verify(productRepository, times(1)).delete(product);
+        verify(applicationEventPublisher, times(1)).publishEvent(any(ProductChangedEvent.class));
     }
 
     /**
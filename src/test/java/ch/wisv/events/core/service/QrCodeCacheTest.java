@@ -0,0 +1,65 @@
+package ch.wisv.events.core.service;
+
+import ch.wisv.events.core.service.ticket.QrCodeCache;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
+import java.io.ByteArrayInputStream;
+import java.util.UUID;
+import javax.imageio.ImageIO;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+public class QrCodeCacheTest {
+
+    @Test
+    public void testGet() throws Exception {
+        QrCodeCache qrCodeCache = new QrCodeCache(16);
+        String uniqueCode = UUID.randomUUID().toString();
+
+        byte[] png = qrCodeCache.get(uniqueCode);
+
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(
+                new BufferedImageLuminanceSource(ImageIO.read(new ByteArrayInputStream(png)))
+        ));
+        assertEquals(uniqueCode, new QRCodeReader().decode(bitmap).getText());
+        assertSame(png, qrCodeCache.get(uniqueCode));
+    }
+
+    @Test
+    public void testMaximumSize() throws Exception {
+        QrCodeCache qrCodeCache = new QrCodeCache(2);
+        String first = UUID.randomUUID().toString();
+        byte[] png = qrCodeCache.get(first);
+
+        qrCodeCache.get(UUID.randomUUID().toString());
+        qrCodeCache.get(UUID.randomUUID().toString());
+
+        assertEquals(2, qrCodeCache.size());
+        assertNotSame(png, qrCodeCache.get(first));
+    }
+
+    @Test
+    public void testEvict() throws Exception {
+        QrCodeCache qrCodeCache = new QrCodeCache(16);
+        String uniqueCode = UUID.randomUUID().toString();
+        qrCodeCache.get(uniqueCode);
+
+        qrCodeCache.evict(uniqueCode);
+
+        assertEquals(0, qrCodeCache.size());
+    }
+
+    @Test
+    public void testGetETag() {
+        String uniqueCode = UUID.randomUUID().toString();
+
+        assertEquals(QrCodeCache.getETag(uniqueCode), QrCodeCache.getETag(uniqueCode));
+        assertNotEquals(QrCodeCache.getETag(uniqueCode), QrCodeCache.getETag(UUID.randomUUID().toString()));
+        assertEquals(24, QrCodeCache.getETag(uniqueCode).length());
+    }
+}
@@ -0,0 +1,234 @@
+package ch.wisv.events.core.service;
+
+import ch.wisv.events.ServiceTest;
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.model.ticket.TicketScanEntry;
+import ch.wisv.events.core.model.ticket.TicketStatus;
+import ch.wisv.events.core.repository.TicketRemovalRepository;
+import ch.wisv.events.core.repository.TicketRepository;
+import ch.wisv.events.core.service.ticket.TicketScanBundleServiceImpl;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * TicketScanBundleServiceImpl test.
+ */
+public class TicketScanBundleServiceImplTest extends ServiceTest {
+
+    /** Key pair of the tests. */
+    private static final String BUNDLE_KEY_PATH = "src/test/resources/scanbundlekey.pem";
+
+    /** Unique codes. */
+    private static final String CODE_1 = "0b6e3b2a-7c1f-4d8e-9a35-3f7c2d1e8b01";
+    private static final String CODE_2 = "5a9d1c47-2e8b-4f63-b0a1-6c4e9f2d7a02";
+    private static final String CODE_3 = "c3f8e2d1-9b4a-4e7c-8d56-1a2b3c4d5e03";
+
+    /** TicketRepository. */
+    @Mock
+    private TicketRepository ticketRepository;
+
+    /** TicketRemovalRepository. */
+    @Mock
+    private TicketRemovalRepository ticketRemovalRepository;
+
+    /** TicketScanBundleService. */
+    private TicketScanBundleServiceImpl ticketScanBundleService;
+
+    /** Event. */
+    private Event event;
+
+    /**
+     * Setup for the test class.
+     */
+    @Before
+    public void setUp() throws Exception {
+        ticketScanBundleService = new TicketScanBundleServiceImpl(ticketRepository, ticketRemovalRepository, BUNDLE_KEY_PATH);
+
+        event = new Event();
+        event.addProduct(new Product());
+    }
+
+    /**
+     * Test if the bundle contains the hashes of the codes, sorted, with their product and status.
+     */
+    @Test
+    public void writeBundle() throws Exception {
+        when(ticketRepository.streamAllScanEntriesByProductIn(event.getProducts())).thenReturn(Stream.of(
+                new TicketScanEntry(1, CODE_1, TicketStatus.OPEN, "Regular", "Owner"),
+                new TicketScanEntry(7, CODE_2, TicketStatus.SCANNED, "Member", "Owner"),
+                new TicketScanEntry(3, CODE_3, TicketStatus.OPEN, "Regular", "Owner")
+        ));
+
+        List<String> lines = this.write();
+
+        assertEquals("scan-bundle 2", lines.get(0));
+        assertEquals("event " + event.getKey(), lines.get(1));
+        assertEquals(Arrays.asList("products 2", "Regular", "Member", "tickets 3"), lines.subList(3, 7));
+
+        List<String> tickets = lines.subList(7, 10);
+        assertTrue(tickets.contains(this.hash(CODE_1) + " 0 0"));
+        assertTrue(tickets.contains(this.hash(CODE_2) + " 1 1"));
+        assertTrue(tickets.contains(this.hash(CODE_3) + " 0 0"));
+        assertEquals(tickets.stream().sorted().toList(), tickets);
+        assertEquals("removed 0", lines.get(10));
+    }
+
+    /**
+     * Test if the signature of a bundle can be verified with the public key.
+     */
+    @Test
+    public void writeBundleSignature() throws Exception {
+        when(ticketRepository.streamAllScanEntriesByProductIn(event.getProducts())).thenReturn(Stream.of(
+                new TicketScanEntry(1, CODE_1, TicketStatus.OPEN, "Regular", "Owner")
+        ));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ticketScanBundleService.writeBundle(event, out);
+        String bundle = out.toString(StandardCharsets.UTF_8);
+
+        int signatureStart = bundle.lastIndexOf("signature ");
+        byte[] content = bundle.substring(0, signatureStart).getBytes(StandardCharsets.UTF_8);
+        byte[] signed = Base64.getDecoder().decode(bundle.substring(signatureStart + "signature ".length()).trim());
+
+        PublicKey key = KeyFactory.getInstance("EC")
+                .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(ticketScanBundleService.getPublicKey())));
+
+        Signature signature = Signature.getInstance("SHA256withECDSAinP1363Format");
+        signature.initVerify(key);
+        signature.update(content);
+        assertTrue(signature.verify(signed));
+
+        content[content.length - 2] ^= 1;
+        signature.initVerify(key);
+        signature.update(content);
+        assertFalse(signature.verify(signed));
+    }
+
+    /**
+     * Test if a delta only contains the changed tickets and the removed codes.
+     */
+    @Test
+    public void writeDelta() throws Exception {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(5);
+        when(ticketRepository.streamAllScanEntriesByProductInUpdatedSince(eq(event.getProducts()), any(LocalDateTime.class)))
+                .thenReturn(Stream.of(new TicketScanEntry(2, CODE_1, TicketStatus.SCANNED, "Regular", "Owner")));
+        when(ticketRemovalRepository.streamUniqueCodesByProductIdInRemovedSince(any(), any(LocalDateTime.class)))
+                .thenReturn(Stream.of(CODE_3, CODE_2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ticketScanBundleService.writeDelta(event, since, out);
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertEquals("tickets 1", lines.get(5));
+        assertEquals(this.hash(CODE_1) + " 0 1", lines.get(6));
+        assertEquals("removed 2", lines.get(7));
+
+        List<String> removed = lines.subList(8, 10);
+        assertTrue(removed.contains(this.hash(CODE_2)));
+        assertTrue(removed.contains(this.hash(CODE_3)));
+        assertEquals(removed.stream().sorted().toList(), removed);
+    }
+
+    /**
+     * Test if the legacy codes, of which all hashes could be computed, are left out of a bundle and a delta.
+     */
+    @Test
+    public void writeDeltaWithoutLegacyCodes() throws Exception {
+        LocalDateTime since = LocalDateTime.now().minusMinutes(5);
+        when(ticketRepository.streamAllScanEntriesByProductInUpdatedSince(eq(event.getProducts()), any(LocalDateTime.class)))
+                .thenReturn(Stream.of(
+                        new TicketScanEntry(1, CODE_1, TicketStatus.OPEN, "Regular", "Owner"),
+                        new TicketScanEntry(2, "123456", TicketStatus.OPEN, "Regular", "Owner")
+                ));
+        when(ticketRemovalRepository.streamUniqueCodesByProductIdInRemovedSince(any(), any(LocalDateTime.class)))
+                .thenReturn(Stream.of("654321", CODE_2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ticketScanBundleService.writeDelta(event, since, out);
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertEquals(Arrays.asList("tickets 1", this.hash(CODE_1) + " 0 0"), lines.subList(5, 7));
+        assertEquals(Arrays.asList("removed 1", this.hash(CODE_2)), lines.subList(7, 9));
+    }
+
+    /**
+     * Test if the public key is the one of the configured key pair.
+     */
+    @Test
+    public void getPublicKey() {
+        assertEquals("MFkwEwYHKoZIzj0CAQYIKoZIzj0DAQcDQgAECYVKK5f35UK89PV6YFJytKnnt30wMQjLcoGdoaFo2lLejsDpkdLASCza0ICuf8D17vkYc1OTIIzcm13b/E774g==",
+                ticketScanBundleService.getPublicKey());
+    }
+
+    /**
+     * Test if no bundle can be written without a key.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void writeBundleWithoutKey() throws Exception {
+        ticketScanBundleService = new TicketScanBundleServiceImpl(ticketRepository, ticketRemovalRepository, "");
+
+        assertNull(ticketScanBundleService.getPublicKey());
+        this.write();
+    }
+
+    /**
+     * Test if a bundle of an event without products is empty.
+     */
+    @Test
+    public void writeBundleWithoutProducts() throws Exception {
+        event = new Event();
+
+        List<String> lines = this.write();
+
+        assertEquals("products 0", lines.get(3));
+        assertEquals("tickets 0", lines.get(4));
+        assertEquals("removed 0", lines.get(5));
+    }
+
+    /**
+     * Write the bundle of the event.
+     *
+     * @return List of lines
+     */
+    private List<String> write() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ticketScanBundleService.writeBundle(event, out);
+
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    /**
+     * Get the bundle hash of a code.
+     *
+     * @param code of type String
+     *
+     * @return String
+     */
+    private String hash(String code) throws Exception {
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(code.getBytes(StandardCharsets.UTF_8));
+
+        return HexFormat.of().formatHex(hash, 0, 6);
+    }
+}
@@ -0,0 +1,81 @@
+package ch.wisv.events.core.service;
+
+import ch.wisv.events.ServiceTest;
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.repository.TicketRepository;
+import ch.wisv.events.core.service.ticket.TicketScanIndex;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+/**
+ * TicketScanIndex test.
+ */
+public class TicketScanIndexTest extends ServiceTest {
+
+    /** TicketRepository. */
+    @Mock
+    private TicketRepository ticketRepository;
+
+    /** TicketScanIndex. */
+    private TicketScanIndex ticketScanIndex;
+
+    /**
+     * Setup for the test class.
+     */
+    @Before
+    public void setUp() {
+        ticketScanIndex = new TicketScanIndex(ticketRepository);
+    }
+
+    /**
+     * Test if the Tickets of an Event are dropped some hours after it has ended.
+     */
+    @Test
+    public void evictEnded() {
+        Event ended = this.createEvent(LocalDateTime.now().minusDays(1));
+        Event upcoming = this.createEvent(LocalDateTime.now().plusHours(1));
+        ticketScanIndex.load(ended);
+        ticketScanIndex.load(upcoming);
+
+        ticketScanIndex.evictEnded();
+
+        assertFalse(ticketScanIndex.isLoaded(ended.getKey()));
+        assertTrue(ticketScanIndex.isLoaded(upcoming.getKey()));
+    }
+
+    /**
+     * Test if the Event that ended first is dropped when too many Events are indexed.
+     */
+    @Test
+    public void loadBounded() {
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 17; i++) {
+            Event event = this.createEvent(LocalDateTime.now().plusDays(i));
+            ticketScanIndex.load(event);
+            events.add(event);
+        }
+
+        assertFalse(ticketScanIndex.isLoaded(events.get(0).getKey()));
+        events.subList(1, events.size()).forEach(event -> assertTrue(ticketScanIndex.isLoaded(event.getKey())));
+    }
+
+    /**
+     * Create an Event without Products.
+     *
+     * @param ending of type LocalDateTime
+     *
+     * @return Event
+     */
+    private Event createEvent(LocalDateTime ending) {
+        Event event = new Event();
+        event.setEnding(ending);
+
+        return event;
+    }
+}
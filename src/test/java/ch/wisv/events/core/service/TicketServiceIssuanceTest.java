@@ -0,0 +1,209 @@
+package ch.wisv.events.core.service;
+
+import ch.wisv.events.ServiceTest;
+import ch.wisv.events.core.model.customer.Customer;
+import ch.wisv.events.core.model.order.Order;
+import ch.wisv.events.core.model.order.OrderProduct;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.model.ticket.Ticket;
+import ch.wisv.events.core.repository.CustomerRepository;
+import ch.wisv.events.core.repository.OrderProductRepository;
+import ch.wisv.events.core.repository.OrderRepository;
+import ch.wisv.events.core.repository.ProductRepository;
+import ch.wisv.events.core.repository.TicketRemovalRepository;
+import ch.wisv.events.core.repository.TicketRepository;
+import ch.wisv.events.core.service.applewallet.ApplePassService;
+import ch.wisv.events.core.service.event.EventService;
+import ch.wisv.events.core.service.googlewallet.GoogleWalletService;
+import ch.wisv.events.core.service.ticket.QrCodeCache;
+import ch.wisv.events.core.service.ticket.TicketScanIndex;
+import ch.wisv.events.core.service.ticket.TicketServiceImpl;
+import ch.wisv.events.core.util.VatRate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Test the issuance of Tickets against the test database.
+ */
+@Transactional
+public class TicketServiceIssuanceTest extends ServiceTest {
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketRemovalRepository ticketRemovalRepository;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private GoogleWalletService googleWalletService;
+
+    @Autowired
+    private TicketScanIndex ticketScanIndex;
+
+    @Autowired
+    private QrCodeCache qrCodeCache;
+
+    @Autowired
+    private ApplePassService applePassService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderProductRepository orderProductRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    /** Unique codes handed out before random ones. */
+    private final Deque<String> uniqueCodes = new ArrayDeque<>();
+
+    /** TicketService that hands out the queued unique codes first. */
+    private TicketServiceImpl ticketService;
+
+    /** Product. */
+    private Product product;
+
+    /** Customer. */
+    private Customer customer;
+
+    @Before
+    public void setUp() {
+        ticketService = new TicketServiceImpl(ticketRepository, ticketRemovalRepository, eventService,
+                googleWalletService, ticketScanIndex, qrCodeCache, applePassService) {
+            @Override
+            protected String generateUniqueString() {
+                return uniqueCodes.isEmpty() ? UUID.randomUUID().toString() : uniqueCodes.poll();
+            }
+        };
+
+        product = new Product("Issuance", "Issuance ticket", 1.d, VatRate.VAT_HIGH, null, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1));
+        productRepository.saveAndFlush(product);
+
+        customer = new Customer("issuance", "Issuance", "issuance@ch.tudelft.nl", "");
+        customerRepository.saveAndFlush(customer);
+    }
+
+    /**
+     * Test if all Tickets of an Order are stored with distinct codes.
+     */
+    @Test
+    public void createByOrder() {
+        Product other = new Product("Other", "Other ticket", 2.d, VatRate.VAT_HIGH, null, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1));
+        productRepository.saveAndFlush(other);
+        Order order = this.createOrder(List.of(this.createOrderProduct(product, 25), this.createOrderProduct(other, 5)));
+
+        List<Ticket> tickets = ticketService.createByOrder(order);
+
+        List<Ticket> stored = ticketRepository.findAllByOrder(order);
+        assertEquals(30, tickets.size());
+        assertEquals(30, stored.size());
+        assertEquals(30, stored.stream().map(Ticket::getUniqueCode).distinct().count());
+        assertEquals(25, stored.stream().filter(ticket -> ticket.getProduct().equals(product)).count());
+        stored.forEach(ticket -> assertNotNull(ticket.getId()));
+    }
+
+    /**
+     * Test if a code that is already taken by a Ticket of the Product is replaced before inserting.
+     */
+    @Test
+    public void createByOrderUniqueCodeTaken() {
+        uniqueCodes.add("taken");
+        ticketService.createByOrder(this.createOrder(List.of(this.createOrderProduct(product, 1))));
+
+        uniqueCodes.addAll(List.of("taken", "fresh"));
+        Order order = this.createOrder(List.of(this.createOrderProduct(product, 2)));
+        List<Ticket> tickets = ticketService.createByOrder(order);
+
+        List<String> stored = ticketRepository.findAllByOrder(order).stream()
+                .map(Ticket::getUniqueCode)
+                .collect(Collectors.toList());
+        assertEquals(2, tickets.size());
+        assertEquals(2, stored.size());
+        assertTrue(stored.contains("fresh"));
+        assertEquals(1, ticketRepository.findAllByProduct(product).stream()
+                .filter(ticket -> ticket.getUniqueCode().equals("taken"))
+                .count());
+    }
+
+    /**
+     * Test if a code that is used twice within the same Order is replaced.
+     */
+    @Test
+    public void createByOrderUniqueCodeDuplicated() {
+        uniqueCodes.addAll(List.of("same", "same", "other"));
+        Order order = this.createOrder(List.of(this.createOrderProduct(product, 2)));
+
+        ticketService.createByOrder(order);
+
+        assertEquals(2, ticketRepository.findAllByOrder(order).stream().map(Ticket::getUniqueCode).distinct().count());
+    }
+
+    /**
+     * Test if the creation gives up when the codes stay taken, without storing any Ticket.
+     */
+    @Test
+    public void createByOrderUniqueCodeTakenTooOften() {
+        uniqueCodes.add("taken");
+        ticketService.createByOrder(this.createOrder(List.of(this.createOrderProduct(product, 1))));
+
+        uniqueCodes.addAll(List.of("taken", "taken", "taken"));
+        Order order = this.createOrder(List.of(this.createOrderProduct(product, 1)));
+        try {
+            ticketService.createByOrder(order);
+        } catch (DataIntegrityViolationException e) {
+            assertTrue(ticketRepository.findAllByOrder(order).isEmpty());
+
+            return;
+        }
+
+        throw new AssertionError("Expected a DataIntegrityViolationException");
+    }
+
+    /**
+     * Create a saved OrderProduct.
+     *
+     * @param product of type Product
+     * @param amount  of type long
+     *
+     * @return OrderProduct
+     */
+    private OrderProduct createOrderProduct(Product product, long amount) {
+        OrderProduct orderProduct = new OrderProduct(product, product.getCost(), amount);
+
+        return orderProductRepository.saveAndFlush(orderProduct);
+    }
+
+    /**
+     * Create a saved Order.
+     *
+     * @param orderProducts of type List
+     *
+     * @return Order
+     */
+    private Order createOrder(List<OrderProduct> orderProducts) {
+        Order order = new Order();
+        order.setOwner(customer);
+        orderProducts.forEach(order::addOrderProduct);
+
+        return orderRepository.saveAndFlush(order);
+    }
+}
@@ -3,20 +3,28 @@
 import ch.wisv.events.ServiceTest;
 import ch.wisv.events.core.exception.normal.TicketNotFoundException;
 import ch.wisv.events.core.model.customer.Customer;
+import ch.wisv.events.core.model.event.Event;
 import ch.wisv.events.core.model.order.Order;
 import ch.wisv.events.core.model.order.OrderProduct;
 import ch.wisv.events.core.model.product.Product;
 import ch.wisv.events.core.model.ticket.Ticket;
+import ch.wisv.events.core.model.ticket.TicketRemoval;
+import ch.wisv.events.core.model.ticket.TicketScanEntry;
 import ch.wisv.events.core.model.ticket.TicketStatus;
+import ch.wisv.events.core.repository.TicketRemovalRepository;
 import ch.wisv.events.core.repository.TicketRepository;
+import ch.wisv.events.core.service.applewallet.ApplePassService;
 import ch.wisv.events.core.service.event.EventService;
 import ch.wisv.events.core.service.googlewallet.GoogleWalletService;
+import ch.wisv.events.core.service.ticket.QrCodeCache;
 import ch.wisv.events.core.service.ticket.TicketService;
+import ch.wisv.events.core.service.ticket.TicketScanIndex;
 import ch.wisv.events.core.service.ticket.TicketServiceImpl;
 import ch.wisv.events.core.util.VatRate;
 import com.google.common.collect.ImmutableList;
 
 import java.awt.image.BufferedImage;
+import java.time.LocalDateTime;
 import java.util.*;
 
 import com.google.zxing.BinaryBitmap;
@@ -26,16 +34,22 @@
 import com.google.zxing.qrcode.QRCodeReader;
 import org.junit.After;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import org.springframework.dao.DataIntegrityViolationException;
 
 /**
  * TicketService test.
@@ -46,6 +60,10 @@ public class TicketServiceTest extends ServiceTest {
     @Mock
     private TicketRepository ticketRepository;
 
+    /** TicketRemovalRepository. */
+    @Mock
+    private TicketRemovalRepository ticketRemovalRepository;
+
     @Mock
     /** EventService. */
     private EventService eventService;
@@ -54,6 +72,18 @@ public class TicketServiceTest extends ServiceTest {
     /** GoogleWalletService. */
     private GoogleWalletService googleWalletService;
 
+    /** TicketScanIndex. */
+    @Mock
+    private TicketScanIndex ticketScanIndex;
+
+    /** QrCodeCache. */
+    @Mock
+    private QrCodeCache qrCodeCache;
+
+    /** ApplePassService. */
+    @Mock
+    private ApplePassService applePassService;
+
     /** TicketService. */
     private TicketService ticketService;
 
@@ -71,7 +101,7 @@ public class TicketServiceTest extends ServiceTest {
      */
     @Before
     public void setUp() {
-        ticketService = new TicketServiceImpl(ticketRepository, eventService, googleWalletService);
+        ticketService = new TicketServiceImpl(ticketRepository, ticketRemovalRepository, eventService, googleWalletService, ticketScanIndex, qrCodeCache, applePassService);
 
         ticket1 = new Ticket();
         ticket2 = new Ticket();
@@ -127,6 +157,46 @@ public void generateQrCodeException() throws Exception {
         ticketService.generateQrCode(ticket);
     }
 
+    /**
+     * Test if the QR code image of a ticket comes from the cache.
+     * @throws Exception
+     */
+    @Test
+    public void getQrCodeImage() throws Exception {
+        String uniqueCode = UUID.randomUUID().toString();
+        Ticket ticket = new Ticket();
+        ticket.setUniqueCode(uniqueCode);
+        byte[] image = new byte[] {1, 2, 3};
+        when(qrCodeCache.get(uniqueCode)).thenReturn(image);
+
+        assertEquals(image, ticketService.getQrCodeImage(ticket));
+    }
+
+    /**
+     * Test if the QR code modules of a legacy ticket are refused, like its PNG image.
+     * @throws Exception
+     */
+    @Test
+    public void getQrCodeModulesException() throws Exception {
+        thrown.expect(IllegalArgumentException.class);
+        Ticket ticket = new Ticket();
+        ticket.setUniqueCode("131313");
+
+        ticketService.getQrCodeModules(ticket);
+    }
+
+    /**
+     * Test if the QR code modules of a ticket are encoded.
+     * @throws Exception
+     */
+    @Test
+    public void getQrCodeModules() throws Exception {
+        Ticket ticket = new Ticket();
+        ticket.setUniqueCode(UUID.randomUUID().toString());
+
+        assertTrue(ticketService.getQrCodeModules(ticket).getWidth() > 0);
+    }
+
     /**
      * End-to-end test generation of a QR code.
      * @throws Exception
@@ -247,6 +317,8 @@ public void deleteByOrder() {
         int random = (new Random()).nextInt(500);
         this.fillOrderWithAmountOfProducts(order, random);
 
+        ticket3.setProduct(product);
+        ticket3.setUniqueCode("123456");
         when(ticketRepository.findAllByOrder(order)).thenReturn(ImmutableList.of(ticket3));
         doNothing().when(ticketRepository).delete(ticket3);
 
@@ -257,6 +329,8 @@ public void deleteByOrder() {
 
         verify(ticketRepository, times(1)).findAllByOrder(order);
         verify(ticketRepository, times(1)).deleteAll(ticketList);
+        verify(ticketRemovalRepository, times(1)).save(argThat((TicketRemoval removal) ->
+                Objects.equals(product.getId(), removal.getProductId()) && removal.getUniqueCode().equals("123456")));
     }
 
     @Test
@@ -267,6 +341,106 @@ public void updateStatus() {
         verify(ticket, times(1)).setStatus(TicketStatus.SCANNED);
     }
 
+    /**
+     * Test if a Ticket in the scan index is returned without querying the database.
+     */
+    @Test
+    public void getScanEntryFromIndex() throws Exception {
+        TicketScanEntry entry = new TicketScanEntry(1, "123456", TicketStatus.OPEN, "Product", "Owner");
+        when(ticketScanIndex.find("event", "123456")).thenReturn(Optional.of(entry));
+
+        assertEquals(entry, ticketService.getScanEntry("event", "123456"));
+        verify(eventService, never()).getByKey("event");
+    }
+
+    /**
+     * Test if the scan index of an Event is loaded on the first scan.
+     */
+    @Test
+    public void getScanEntryLoadsIndex() throws Exception {
+        Event event = new Event();
+        TicketScanEntry entry = new TicketScanEntry(1, "123456", TicketStatus.OPEN, "Product", "Owner");
+        when(eventService.getByKey("event")).thenReturn(event);
+        when(ticketScanIndex.isLoaded("event")).thenReturn(false);
+        when(ticketScanIndex.find("event", "123456")).thenReturn(Optional.empty(), Optional.of(entry));
+
+        assertEquals(entry, ticketService.getScanEntry("event", "123456"));
+        verify(ticketScanIndex, times(1)).load(event);
+    }
+
+    /**
+     * Test if a code which is not in the loaded scan index is looked up in the database.
+     */
+    @Test
+    public void getScanEntryNotInIndex() throws Exception {
+        Event event = new Event();
+        event.addProduct(product);
+        TicketScanEntry entry = new TicketScanEntry(1, "123456", TicketStatus.OPEN, "Product", "Owner");
+        when(eventService.getByKey("event")).thenReturn(event);
+        when(ticketScanIndex.isLoaded("event")).thenReturn(true);
+        when(ticketScanIndex.find("event", "123456")).thenReturn(Optional.empty());
+        when(ticketRepository.findAllScanEntriesByProductInAndUniqueCode(event.getProducts(), "123456"))
+                .thenReturn(ImmutableList.of(entry));
+
+        assertEquals(entry, ticketService.getScanEntry("event", "123456"));
+        verify(ticketScanIndex, times(1)).put("event", entry);
+    }
+
+    /**
+     * Test if a TicketNotFoundException is thrown if the code is unknown.
+     */
+    @Test
+    public void getScanEntryNotFound() throws Exception {
+        thrown.expect(TicketNotFoundException.class);
+        Event event = new Event();
+        when(eventService.getByKey("event")).thenReturn(event);
+        when(ticketScanIndex.isLoaded("event")).thenReturn(false);
+        when(ticketScanIndex.find("event", "123456")).thenReturn(Optional.empty());
+
+        ticketService.getScanEntry("event", "123456");
+    }
+
+    /**
+     * Test if an open Ticket is checked in.
+     */
+    @Test
+    public void checkIn() throws Exception {
+        TicketScanEntry entry = new TicketScanEntry(1, "123456", TicketStatus.OPEN, "Product", "Owner");
+        LocalDateTime scannedAt = LocalDateTime.now();
+        when(ticketRepository.checkIn(1, scannedAt, "scanner")).thenReturn(1);
+
+        assertTrue(ticketService.checkIn(entry, scannedAt, "scanner"));
+        assertEquals(TicketStatus.SCANNED, entry.getStatus());
+    }
+
+    /**
+     * Test if a Ticket which has been scanned at another entrance is not checked in again.
+     */
+    @Test
+    public void checkInAlreadyScanned() throws Exception {
+        TicketScanEntry entry = new TicketScanEntry(1, "123456", TicketStatus.OPEN, "Product", "Owner");
+        LocalDateTime scannedAt = LocalDateTime.now();
+        when(ticketRepository.checkIn(1, scannedAt, "scanner")).thenReturn(0);
+        when(ticketRepository.findStatusById(1)).thenReturn(Optional.of(TicketStatus.SCANNED));
+
+        assertFalse(ticketService.checkIn(entry, scannedAt, "scanner"));
+        assertEquals(TicketStatus.SCANNED, entry.getStatus());
+    }
+
+    /**
+     * Test if a TicketNotFoundException is thrown if the Ticket has been deleted.
+     */
+    @Test
+    public void checkInDeleted() throws Exception {
+        thrown.expect(TicketNotFoundException.class);
+        TicketScanEntry entry = new TicketScanEntry(1, "123456", TicketStatus.OPEN, "Product", "Owner");
+        LocalDateTime scannedAt = LocalDateTime.now();
+        when(ticketRepository.checkIn(1, scannedAt, "scanner")).thenReturn(0);
+        when(ticketRepository.findStatusById(1)).thenReturn(Optional.empty());
+
+        ticketService.checkIn(entry, scannedAt, "scanner");
+    }
+
     /**
      *
      */
@@ -277,10 +451,9 @@ public void createByOrder() {
         int random = (new Random()).nextInt(500);
         this.fillOrderWithAmountOfProducts(order, random);
 
-        when(ticketRepository.saveAndFlush(any(Ticket.class))).thenReturn(new Ticket());
-
         List<Ticket> createdTickets = ticketService.createByOrder(order);
 
+        verify(ticketRepository, times(1)).saveAllAndFlush(createdTickets);
         assertEquals(random, createdTickets.size());
         assertEquals(customer, createdTickets.get(Math.abs((new Random()).nextInt(random))).getOwner());
         assertEquals(product, createdTickets.get(Math.abs((new Random()).nextInt(random))).getProduct());
@@ -293,14 +466,45 @@ public void createByOrder() {
     public void createByOrderUniqueCodeExists() {
         Order order = new Order();
         order.setOwner(customer);
-        this.fillOrderWithAmountOfProducts(order, 1);
+        this.fillOrderWithAmountOfProducts(order, 2);
 
-        when(ticketRepository.saveAndFlush(any(Ticket.class))).thenReturn(new Ticket());
-        when(ticketRepository.existsByProductAndUniqueCode(any(Product.class), any(String.class))).thenReturn(true).thenReturn(false);
+        List<String> taken = new ArrayList<>();
+        when(ticketRepository.findAllUniqueCodesByProductInAndUniqueCodeIn(anyCollection(), anyCollection()))
+                .thenAnswer(invocation -> {
+                    Collection<String> uniqueCodes = invocation.getArgument(1);
+                    taken.add(uniqueCodes.iterator().next());
 
-        ticketService.createByOrder(order);
+                    return List.of(taken.get(0));
+                })
+                .thenReturn(new ArrayList<>());
 
-        verify(ticketRepository, times(2)).existsByProductAndUniqueCode(any(Product.class), any(String.class));
+        List<Ticket> createdTickets = ticketService.createByOrder(order);
+
+        verify(ticketRepository, times(2)).findAllUniqueCodesByProductInAndUniqueCodeIn(anyCollection(), anyCollection());
+        verify(ticketRepository, times(1)).saveAllAndFlush(anyList());
+        assertEquals(2, createdTickets.size());
+        assertFalse(createdTickets.stream().anyMatch(ticket -> ticket.getUniqueCode().equals(taken.get(0))));
+    }
+
+    /**
+     *
+     */
+    @Test
+    public void createByOrderUniqueCodeExistsTooOften() {
+        Order order = new Order();
+        order.setOwner(customer);
+        this.fillOrderWithAmountOfProducts(order, 1);
+
+        when(ticketRepository.findAllUniqueCodesByProductInAndUniqueCodeIn(anyCollection(), anyCollection()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<Collection<String>>getArgument(1)));
+
+        thrown.expect(DataIntegrityViolationException.class);
+        try {
+            ticketService.createByOrder(order);
+        } finally {
+            verify(ticketRepository, times(3)).findAllUniqueCodesByProductInAndUniqueCodeIn(anyCollection(), anyCollection());
+            verify(ticketRepository, never()).saveAllAndFlush(anyList());
+        }
     }
 
     /**
@@ -7,12 +7,17 @@
 import ch.wisv.events.core.model.event.Event;
 import ch.wisv.events.core.model.product.Product;
 import ch.wisv.events.core.model.ticket.Ticket;
+import ch.wisv.events.core.model.ticket.TicketRemoval;
 import ch.wisv.events.core.model.ticket.TicketStatus;
+import ch.wisv.events.core.repository.TicketRemovalRepository;
 import ch.wisv.events.core.repository.TicketRepository;
 import ch.wisv.events.core.service.auth.AuthenticationService;
+import ch.wisv.events.core.service.applewallet.ApplePassService;
 import ch.wisv.events.core.service.event.EventService;
 import ch.wisv.events.core.service.googlewallet.GoogleWalletService;
+import ch.wisv.events.core.service.ticket.QrCodeCache;
 import ch.wisv.events.core.service.ticket.TicketService;
+import ch.wisv.events.core.service.ticket.TicketScanIndex;
 import ch.wisv.events.core.service.ticket.TicketServiceImpl;
 
 import java.time.LocalDateTime;
@@ -22,8 +27,10 @@
 
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -35,6 +42,10 @@ public class TicketTransferTest extends ServiceTest {
     @Mock
     private TicketRepository ticketRepository;
 
+    /** TicketRemovalRepository. */
+    @Mock
+    private TicketRemovalRepository ticketRemovalRepository;
+
     /** AuthenticationService. */
     @Mock
     private AuthenticationService authenticationService;
@@ -47,6 +58,18 @@ public class TicketTransferTest extends ServiceTest {
     /** GoogleWalletService. */
     private GoogleWalletService googleWalletService;
 
+    /** TicketScanIndex. */
+    @Mock
+    private TicketScanIndex ticketScanIndex;
+
+    /** QrCodeCache. */
+    @Mock
+    private QrCodeCache qrCodeCache;
+
+    /** ApplePassService. */
+    @Mock
+    private ApplePassService applePassService;
+
     /** TicketService. */
     private TicketService ticketService;
 
@@ -64,7 +87,7 @@ public class TicketTransferTest extends ServiceTest {
      */
     @Before
     public void setUp() {
-        ticketService = new TicketServiceImpl(ticketRepository, eventService, googleWalletService);
+        ticketService = new TicketServiceImpl(ticketRepository, ticketRemovalRepository, eventService, googleWalletService, ticketScanIndex, qrCodeCache, applePassService);
 
         customer1 = new Customer();
         customer1.setVerifiedChMember(true);
@@ -115,6 +138,12 @@ public void transferTicket() {
 
         // Check if unique code is changed
         assertNotEquals(uniqueCode, ticket1.getUniqueCode());
+
+        // Check if the QR code of the old unique code is no longer cached
+        verify(qrCodeCache).evict(uniqueCode);
+
+        // Check if the old unique code is dropped from the offline scan bundles
+        verify(ticketRemovalRepository).save(argThat((TicketRemoval removal) -> uniqueCode.equals(removal.getUniqueCode())));
     }
 
     /**
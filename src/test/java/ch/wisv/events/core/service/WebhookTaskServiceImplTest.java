@@ -0,0 +1,139 @@
+package ch.wisv.events.core.service;
+
+import ch.wisv.events.ServiceTest;
+import ch.wisv.events.core.model.webhook.Webhook;
+import ch.wisv.events.core.model.webhook.WebhookTask;
+import ch.wisv.events.core.model.webhook.WebhookTaskStatus;
+import ch.wisv.events.core.model.webhook.WebhookTrigger;
+import ch.wisv.events.core.repository.WebhookTaskRepository;
+import ch.wisv.events.core.service.webhook.WebhookTaskService;
+import ch.wisv.events.core.service.webhook.WebhookTaskServiceImpl;
+import ch.wisv.events.core.webhook.WebhookTaskCreatedEvent;
+import java.util.List;
+import org.json.simple.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * WebhookTaskServiceImpl test.
+ */
+public class WebhookTaskServiceImplTest extends ServiceTest {
+
+    /** WebhookTaskRepository. */
+    @Mock
+    private WebhookTaskRepository webhookTaskRepository;
+
+    /** ApplicationEventPublisher. */
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    /** WebhookTaskService. */
+    private WebhookTaskService webhookTaskService;
+
+    @Before
+    public void setUp() {
+        webhookTaskService = new WebhookTaskServiceImpl(webhookTaskRepository, applicationEventPublisher);
+    }
+
+    /**
+     * Test if a created task is saved and announced, so it can be dispatched after commit.
+     */
+    @Test
+    public void testCreate() {
+        Webhook webhook = new Webhook();
+        webhook.setPayloadUrl("https://ch.tudelft.nl/webhook");
+        JSONObject object = new JSONObject();
+
+        webhookTaskService.create(WebhookTrigger.EVENT_CREATE_UPDATE, webhook, object, null);
+
+        ArgumentCaptor<WebhookTask> task = ArgumentCaptor.forClass(WebhookTask.class);
+        verify(webhookTaskRepository, times(1)).saveAndFlush(task.capture());
+        assertEquals(WebhookTaskStatus.PENDING, task.getValue().getWebhookTaskStatus());
+        assertEquals(object, task.getValue().getObject());
+
+        ArgumentCaptor<WebhookTaskCreatedEvent> event = ArgumentCaptor.forClass(WebhookTaskCreatedEvent.class);
+        verify(applicationEventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals("https://ch.tudelft.nl/webhook", event.getValue().getPayloadUrl());
+    }
+
+    /**
+     * Test if a task for an entity that has not been sent yet gets the new payload instead of a new task.
+     */
+    @Test
+    public void testCreateReplacesPendingTask() {
+        Webhook webhook = new Webhook();
+        webhook.setPayloadUrl("https://ch.tudelft.nl/webhook");
+        WebhookTask pending = new WebhookTask();
+        pending.setId(1);
+        pending.setTrigger(WebhookTrigger.EVENT_CREATE_UPDATE);
+        pending.setWebhook(webhook);
+        pending.setObject(new JSONObject());
+        pending.setEntityKey("key");
+        when(webhookTaskRepository.findAllByWebhookAndTriggerAndEntityKeyAndWebhookTaskStatusIn(
+                webhook, WebhookTrigger.EVENT_CREATE_UPDATE, "key", WebhookTaskStatus.DUE
+        )).thenReturn(List.of(pending));
+        JSONObject object = new JSONObject();
+        object.put("title", "Updated");
+
+        webhookTaskService.create(WebhookTrigger.EVENT_CREATE_UPDATE, webhook, object, "key");
+
+        verify(webhookTaskRepository, times(1)).saveAndFlush(pending);
+        assertEquals(object, pending.getObject());
+
+        ArgumentCaptor<WebhookTaskCreatedEvent> event = ArgumentCaptor.forClass(WebhookTaskCreatedEvent.class);
+        verify(applicationEventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(Integer.valueOf(1), event.getValue().getTaskId());
+    }
+
+    /**
+     * Test if a new task is created when the pending task has been sent while it was replaced.
+     */
+    @Test
+    public void testCreateTaskSentWhileReplaced() {
+        Webhook webhook = new Webhook();
+        WebhookTask pending = new WebhookTask();
+        pending.setWebhook(webhook);
+        when(webhookTaskRepository.findAllByWebhookAndTriggerAndEntityKeyAndWebhookTaskStatusIn(
+                webhook, WebhookTrigger.EVENT_CREATE_UPDATE, "key", WebhookTaskStatus.DUE
+        )).thenReturn(List.of(pending));
+        when(webhookTaskRepository.saveAndFlush(pending)).thenThrow(new OptimisticLockingFailureException("sent"));
+
+        webhookTaskService.create(WebhookTrigger.EVENT_CREATE_UPDATE, webhook, new JSONObject(), "key");
+
+        ArgumentCaptor<WebhookTask> task = ArgumentCaptor.forClass(WebhookTask.class);
+        verify(webhookTaskRepository, times(2)).saveAndFlush(task.capture());
+        assertEquals("key", task.getAllValues().get(1).getEntityKey());
+        assertEquals(WebhookTaskStatus.PENDING, task.getAllValues().get(1).getWebhookTaskStatus());
+    }
+
+    /**
+     * Test if a delete cancels the updates of the entity that have not been sent yet.
+     */
+    @Test
+    public void testCreateDeleteCancelsPendingUpdates() {
+        Webhook webhook = new Webhook();
+        WebhookTask pending = new WebhookTask();
+        pending.setWebhook(webhook);
+        when(webhookTaskRepository.findAllByWebhookAndTriggerAndEntityKeyAndWebhookTaskStatusIn(
+                webhook, WebhookTrigger.PRODUCT_CREATE_UPDATE, "key", WebhookTaskStatus.DUE
+        )).thenReturn(List.of(pending));
+
+        webhookTaskService.create(WebhookTrigger.PRODUCT_DELETE, webhook, new JSONObject(), "key");
+
+        verify(webhookTaskRepository, times(1)).save(pending);
+        assertEquals(WebhookTaskStatus.CANCELLED, pending.getWebhookTaskStatus());
+
+        ArgumentCaptor<WebhookTask> task = ArgumentCaptor.forClass(WebhookTask.class);
+        verify(webhookTaskRepository, times(1)).saveAndFlush(task.capture());
+        assertEquals(WebhookTrigger.PRODUCT_DELETE, task.getValue().getTrigger());
+    }
+}
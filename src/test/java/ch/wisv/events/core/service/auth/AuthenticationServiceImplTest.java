@@ -115,4 +115,33 @@ public void testReplaceUserEmail() throws Exception {
         assertNotEquals("email", oneTimeOrderCustomer.getEmail());
         assertEquals("email", customer.getEmail());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetCurrentUsernameOidcUser() {
+        HashMap<String, Object> claims = new HashMap<>();
+        claims.put("sub", "WISVCH.1234");
+        claims.put("email", "email");
+        OidcUserInfo userInfo = new OidcUserInfo(claims);
+
+        Authentication auth = mock(Authentication.class);
+        when(auth.getPrincipal()).thenReturn(new DefaultOidcUser(null,new OidcIdToken("11", Instant.MIN, Instant.MAX, claims), userInfo));
+
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        assertEquals("email", authenticationService.getCurrentUsername());
+    }
+
+    @Test
+    public void testGetCurrentUsernameOtherAuth() {
+        Authentication auth = mock(UsernamePasswordAuthenticationToken.class);
+        when(auth.getName()).thenReturn("user");
+
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        assertEquals("user", authenticationService.getCurrentUsername());
+    }
+
+    @Test
+    public void testGetCurrentUsernameNotLoggedIn() {
+        SecurityContextHolder.clearContext();
+        assertNull(authenticationService.getCurrentUsername());
+    }
+}
@@ -3,13 +3,19 @@
 import ch.wisv.events.ServiceTest;
 import ch.wisv.events.core.model.order.Order;
 import ch.wisv.events.core.model.order.OrderStatus;
+import ch.wisv.events.core.repository.OrderRepository;
 import ch.wisv.events.core.service.order.OrderService;
-import com.google.common.collect.ImmutableList;
+import ch.wisv.events.core.service.order.ReservationExpiryQueue;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import static org.junit.Assert.assertEquals;
 import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -23,6 +29,11 @@ public class OrderTaskSchedulerTest extends ServiceTest {
     @Mock
     private OrderService orderService;
 
+    @Mock
+    private OrderRepository orderRepository;
+
+    private ReservationExpiryQueue reservationExpiryQueue;
+
     private OrderTaskScheduler orderTaskScheduler;
 
     /**
@@ -30,7 +41,8 @@ public class OrderTaskSchedulerTest extends ServiceTest {
      */
     @Before
     public void setUp() {
-        this.orderTaskScheduler = new OrderTaskScheduler(orderService);
+        this.reservationExpiryQueue = new ReservationExpiryQueue(orderRepository);
+        this.orderTaskScheduler = new OrderTaskScheduler(orderService, reservationExpiryQueue);
     }
 
     /**
@@ -49,41 +61,74 @@ public void tearDown() {
     @Test
     public void testCancelReservationTask() throws Exception {
         Order order1 = new Order();
+        order1.setStatus(OrderStatus.RESERVATION);
         order1.setCreatedAt(LocalDateTime.now().minusDays(4));
 
         Order order2 = new Order();
+        order2.setStatus(OrderStatus.RESERVATION);
         order2.setCreatedAt(LocalDateTime.now().minusDays(3).plusHours(1));
 
-        when(orderService.getAllReservations()).thenReturn(ImmutableList.of(order1, order2));
+        Order order3 = new Order();
+        order3.setStatus(OrderStatus.PAID);
+        order3.setCreatedAt(LocalDateTime.now().minusDays(4));
+
+        reservationExpiryQueue.add(order1);
+        reservationExpiryQueue.add(order2);
+        reservationExpiryQueue.add(order3);
+
+        when(orderService.getByReference(order1.getPublicReference())).thenReturn(order1);
+        when(orderService.getByReference(order3.getPublicReference())).thenReturn(order3);
         doNothing().when(orderService).updateOrderStatus(order1, OrderStatus.EXPIRED);
-        doNothing().when(orderService).updateOrderStatus(order2, OrderStatus.EXPIRED);
 
         orderTaskScheduler.cancelReservationTask();
 
         verify(orderService, times(1)).updateOrderStatus(order1, OrderStatus.EXPIRED);
         verify(orderService, times(0)).updateOrderStatus(order2, OrderStatus.EXPIRED);
+        verify(orderService, times(0)).updateOrderStatus(order3, OrderStatus.EXPIRED);
+        verify(orderService, times(0)).getByReference(order2.getPublicReference());
+        assertEquals(1, reservationExpiryQueue.size());
     }
 
     /**
-     * Test cleanUpTask.
+     * Test cancelReservationTask when expiring an order fails unexpectedly.
+     *
+     * @throws Exception when something is wrong
      */
     @Test
-    public void testCleanUpTask() {
+    public void testCancelReservationTaskRetry() throws Exception {
         Order order1 = new Order();
-        order1.setStatus(OrderStatus.ANONYMOUS);
-        order1.setCreatedAt(LocalDateTime.now().minusMinutes(61));
+        order1.setStatus(OrderStatus.RESERVATION);
+        order1.setCreatedAt(LocalDateTime.now().minusDays(4));
 
         Order order2 = new Order();
-        order2.setStatus(OrderStatus.ANONYMOUS);
-        order2.setCreatedAt(LocalDateTime.now());
+        order2.setStatus(OrderStatus.RESERVATION);
+        order2.setCreatedAt(LocalDateTime.now().minusDays(4));
+
+        reservationExpiryQueue.add(order1);
+        reservationExpiryQueue.add(order2);
 
-        when(orderService.getAllOrders()).thenReturn(ImmutableList.of(order1, order2));
-        doNothing().when(orderService).delete(order1);
-        doNothing().when(orderService).delete(order2);
+        when(orderService.getByReference(order1.getPublicReference())).thenThrow(new IllegalStateException("Database down"));
+        when(orderService.getByReference(order2.getPublicReference())).thenReturn(order2);
+
+        orderTaskScheduler.cancelReservationTask();
+
+        verify(orderService, times(1)).updateOrderStatus(order2, OrderStatus.EXPIRED);
+        assertEquals(1, reservationExpiryQueue.size());
+        assertEquals(0, reservationExpiryQueue.pollExpired().size());
+    }
+
+    /**
+     * Test cleanUpTask.
+     */
+    @Test
+    public void testCleanUpTask() {
+        EnumSet<OrderStatus> statuses = EnumSet.of(OrderStatus.ANONYMOUS, OrderStatus.ASSIGNED);
+        when(orderService.deleteAllByStatusCreatedBefore(eq(statuses), any(LocalDateTime.class), anyInt()))
+                .thenReturn(500, 500, 12);
 
         orderTaskScheduler.cleanUpTask();
 
-        verify(orderService, times(1)).delete(order1);
-        verify(orderService, times(0)).delete(order2);
+        verify(orderService, times(3)).deleteAllByStatusCreatedBefore(eq(statuses), any(LocalDateTime.class), eq(500));
+        verify(orderService, times(0)).getAllOrders();
     }
 }
\ No newline at end of file
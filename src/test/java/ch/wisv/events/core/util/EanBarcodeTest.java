@@ -0,0 +1,37 @@
+package ch.wisv.events.core.util;
+
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.oned.EAN13Reader;
+import java.io.ByteArrayInputStream;
+import javax.imageio.ImageIO;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class EanBarcodeTest {
+
+    @Test
+    public void testGetLegacyEanCode() {
+        assertEquals("9780201234565", EanBarcode.getLegacyEanCode("123456"));
+    }
+
+    @Test
+    public void testGenerateLegacyBarcode() throws Exception {
+        byte[] png = EanBarcode.generateLegacyBarcode("123456");
+
+        BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(
+                new BufferedImageLuminanceSource(ImageIO.read(new ByteArrayInputStream(png)))
+        ));
+
+        assertEquals("9780201234565", new EAN13Reader().decode(bitmap).getText());
+        assertArrayEquals(png, EanBarcode.generateLegacyBarcode("123456"));
+    }
+
+    @Test(expected = WriterException.class)
+    public void testGenerateLegacyBarcodeNotNumeric() throws Exception {
+        EanBarcode.generateLegacyBarcode("12345a");
+    }
+}
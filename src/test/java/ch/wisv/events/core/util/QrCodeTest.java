@@ -0,0 +1,42 @@
+package ch.wisv.events.core.util;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.UUID;
+import javax.imageio.ImageIO;
+import javax.xml.parsers.DocumentBuilderFactory;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+public class QrCodeTest {
+
+    @Test
+    public void testGenerateQrCodePng() throws Exception {
+        String uniqueCode = UUID.randomUUID().toString();
+
+        BufferedImage expected = QrCode.generateQrCode(uniqueCode);
+        BufferedImage actual = ImageIO.read(new ByteArrayInputStream(QrCode.generateQrCodePng(uniqueCode)));
+
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals((expected.getRGB(x, y) & 0xFFFFFF) == 0, (actual.getRGB(x, y) & 0xFFFFFF) == 0);
+            }
+        }
+    }
+
+    @Test
+    public void testWriteSvg() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        QrCode.writeSvg(QrCode.encode(UUID.randomUUID().toString()), out);
+
+        Document svg = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("svg", svg.getDocumentElement().getNodeName());
+        assertEquals(1, svg.getElementsByTagName("path").getLength());
+    }
+}
@@ -0,0 +1,227 @@
+package ch.wisv.events.core.webhook;
+
+import ch.wisv.events.ServiceTest;
+import ch.wisv.events.core.model.webhook.Webhook;
+import ch.wisv.events.core.model.webhook.WebhookTask;
+import ch.wisv.events.core.model.webhook.WebhookTaskStatus;
+import ch.wisv.events.core.repository.WebhookTaskRepository;
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.simple.JSONObject;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * WebhookDispatcher test.
+ */
+public class WebhookDispatcherTest extends ServiceTest {
+
+    /** WebhookTaskRepository. */
+    @Mock
+    private WebhookTaskRepository webhookTaskRepository;
+
+    /** WebhookDispatcher. */
+    private WebhookDispatcher webhookDispatcher;
+
+    /** Receiving HTTP server. */
+    private HttpServer server;
+
+    /** Status code returned by the server. */
+    private volatile int responseStatus = 200;
+
+    /** Time the server takes to respond in milliseconds. */
+    private volatile long responseDelay = 0;
+
+    /** Number of requests being handled. */
+    private final AtomicInteger running = new AtomicInteger();
+
+    /** Highest number of requests handled at the same time. */
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        webhookDispatcher = new WebhookDispatcher(webhookTaskRepository, 8, 2, 3);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(responseDelay);
+            } catch (InterruptedException ignored) {
+            }
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(responseStatus, -1);
+            exchange.close();
+            running.decrementAndGet();
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        webhookDispatcher.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    public void testDispatchSuccess() {
+        WebhookTask webhookTask = this.createTask(1, "/success");
+
+        assertTrue(webhookDispatcher.dispatch(webhookTask));
+
+        verify(webhookTaskRepository, timeout(5000)).save(webhookTask);
+        assertEquals(WebhookTaskStatus.SUCCESS, webhookTask.getWebhookTaskStatus());
+    }
+
+    @Test
+    public void testDispatchError() {
+        responseStatus = 500;
+        WebhookTask webhookTask = this.createTask(1, "/error");
+
+        webhookDispatcher.dispatch(webhookTask);
+
+        verify(webhookTaskRepository, timeout(5000)).save(webhookTask);
+        assertEquals(WebhookTaskStatus.ERROR, webhookTask.getWebhookTaskStatus());
+        assertEquals(1, webhookTask.getAttempts());
+        assertTrue(webhookTask.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(10)));
+    }
+
+    @Test
+    public void testDispatchErrorMaxAttempts() {
+        responseStatus = 503;
+        WebhookTask webhookTask = this.createTask(1, "/unavailable");
+        webhookTask.setAttempts(2);
+
+        webhookDispatcher.dispatch(webhookTask);
+
+        verify(webhookTaskRepository, timeout(5000)).save(webhookTask);
+        assertEquals(WebhookTaskStatus.DEAD_LETTER, webhookTask.getWebhookTaskStatus());
+        assertEquals(3, webhookTask.getAttempts());
+    }
+
+    @Test
+    public void testDispatchSaveFailedCountsAttemptOnce() {
+        WebhookTask webhookTask = this.createTask(1, "/save-failed");
+        when(webhookTaskRepository.save(webhookTask)).thenThrow(new IllegalStateException("Connection lost")).thenReturn(webhookTask);
+
+        webhookDispatcher.dispatch(webhookTask);
+
+        verify(webhookTaskRepository, timeout(5000).times(2)).save(webhookTask);
+        assertEquals(WebhookTaskStatus.ERROR, webhookTask.getWebhookTaskStatus());
+        assertEquals(1, webhookTask.getAttempts());
+    }
+
+    @Test
+    public void testDispatchPermanentError() {
+        responseStatus = 404;
+        WebhookTask webhookTask = this.createTask(1, "/not-found");
+
+        webhookDispatcher.dispatch(webhookTask);
+
+        verify(webhookTaskRepository, timeout(5000)).save(webhookTask);
+        assertEquals(WebhookTaskStatus.DEAD_LETTER, webhookTask.getWebhookTaskStatus());
+    }
+
+    @Test
+    public void testBackoff() {
+        for (int attempts = 1; attempts < 30; attempts++) {
+            long expected = Math.min(30L << Math.min(attempts - 1, 20), 6 * 60 * 60);
+            long backoff = webhookDispatcher.getBackoff(attempts);
+
+            assertTrue(backoff >= expected / 2);
+            assertTrue(backoff <= expected);
+        }
+    }
+
+    @Test
+    public void testDispatchOnCreated() {
+        WebhookTask webhookTask = this.createTask(1, "/created");
+
+        webhookDispatcher.onWebhookTaskCreated(new WebhookTaskCreatedEvent(1, webhookTask.getWebhook().getPayloadUrl()));
+
+        verify(webhookTaskRepository, timeout(5000)).save(webhookTask);
+        assertEquals(WebhookTaskStatus.SUCCESS, webhookTask.getWebhookTaskStatus());
+    }
+
+    @Test
+    public void testDispatchAlreadySent() throws Exception {
+        WebhookTask webhookTask = this.createTask(1, "/sent");
+        webhookTask.setWebhookTaskStatus(WebhookTaskStatus.SUCCESS);
+
+        webhookDispatcher.dispatch(webhookTask);
+
+        verify(webhookTaskRepository, timeout(5000)).findWithPayloadById(1);
+        Thread.sleep(100);
+        verify(webhookTaskRepository, never()).save(webhookTask);
+        assertEquals(0, webhookTask.getAttempts());
+    }
+
+    @Test
+    public void testDispatchTwice() {
+        responseDelay = 200;
+        WebhookTask webhookTask = this.createTask(1, "/twice");
+
+        assertTrue(webhookDispatcher.dispatch(webhookTask));
+        assertFalse(webhookDispatcher.dispatch(webhookTask));
+
+        verify(webhookTaskRepository, timeout(5000)).save(webhookTask);
+        verify(webhookTaskRepository, times(1)).save(webhookTask);
+    }
+
+    @Test
+    public void testConcurrencyPerEndpoint() {
+        responseDelay = 100;
+        WebhookTask[] tasks = new WebhookTask[6];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = this.createTask(i + 1, "/endpoint");
+        }
+
+        for (WebhookTask task : tasks) {
+            webhookDispatcher.dispatch(task);
+        }
+
+        for (WebhookTask task : tasks) {
+            verify(webhookTaskRepository, timeout(5000)).save(task);
+        }
+
+        assertTrue(maxRunning.get() <= 2);
+        assertEquals(0, webhookDispatcher.getDispatchedCount());
+    }
+
+    /**
+     * Create a WebhookTask for a path of the test server.
+     *
+     * @param id   of type int
+     * @param path of type String
+     *
+     * @return WebhookTask
+     */
+    private WebhookTask createTask(int id, String path) {
+        Webhook webhook = new Webhook();
+        webhook.setPayloadUrl("http://localhost:" + server.getAddress().getPort() + path);
+        webhook.setSecret("secret");
+
+        WebhookTask webhookTask = new WebhookTask();
+        webhookTask.setId(id);
+        webhookTask.setWebhook(webhook);
+        webhookTask.setObject(new JSONObject());
+        when(webhookTaskRepository.findWithPayloadById(id)).thenReturn(Optional.of(webhookTask));
+
+        return webhookTask;
+    }
+}
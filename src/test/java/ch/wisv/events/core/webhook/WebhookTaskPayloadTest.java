@@ -0,0 +1,82 @@
+package ch.wisv.events.core.webhook;
+
+import ch.wisv.events.ServiceTest;
+import ch.wisv.events.core.model.webhook.Webhook;
+import ch.wisv.events.core.model.webhook.WebhookTask;
+import ch.wisv.events.core.model.webhook.WebhookTaskStatus;
+import ch.wisv.events.core.model.webhook.WebhookTrigger;
+import ch.wisv.events.core.repository.WebhookRepository;
+import ch.wisv.events.core.repository.WebhookTaskRepository;
+import org.hibernate.Hibernate;
+import org.json.simple.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test that the payload of a WebhookTask is only loaded when it is asked for, against the test database.
+ */
+public class WebhookTaskPayloadTest extends ServiceTest {
+
+    @Autowired
+    private WebhookRepository webhookRepository;
+
+    @Autowired
+    private WebhookTaskRepository webhookTaskRepository;
+
+    /** Webhook. */
+    private Webhook webhook;
+
+    /** WebhookTask. */
+    private WebhookTask webhookTask;
+
+    @Before
+    public void setUp() {
+        webhook = new Webhook();
+        webhook.setPayloadUrl("https://ch.tudelft.nl/webhook");
+        webhookRepository.saveAndFlush(webhook);
+
+        JSONObject object = new JSONObject();
+        object.put("title", "Payload");
+
+        // A finished task, so it is not picked up by the scheduler
+        webhookTask = new WebhookTask();
+        webhookTask.setTrigger(WebhookTrigger.EVENT_CREATE_UPDATE);
+        webhookTask.setWebhook(webhook);
+        webhookTask.setObject(object);
+        webhookTask.setWebhookTaskStatus(WebhookTaskStatus.SUCCESS);
+        webhookTask = webhookTaskRepository.saveAndFlush(webhookTask);
+    }
+
+    @After
+    public void tearDown() {
+        webhookTaskRepository.deleteById(webhookTask.getId());
+        webhookRepository.delete(webhook);
+    }
+
+    /**
+     * Test if finding a task does not read its payload.
+     */
+    @Test
+    public void testFindByIdSkipsPayload() {
+        WebhookTask found = webhookTaskRepository.findById(webhookTask.getId()).orElseThrow();
+
+        assertFalse(Hibernate.isPropertyInitialized(found, "object"));
+    }
+
+    /**
+     * Test if the task that is sent is loaded with its payload.
+     */
+    @Test
+    public void testFindWithPayloadById() {
+        WebhookTask found = webhookTaskRepository.findWithPayloadById(webhookTask.getId()).orElseThrow();
+
+        assertTrue(Hibernate.isPropertyInitialized(found, "object"));
+        assertEquals("Payload", found.getObject().get("title"));
+    }
+}
@@ -2,13 +2,24 @@
 
 import ch.wisv.events.ControllerTest;
 import ch.wisv.events.EventsApplicationTest;
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.order.Order;
+import ch.wisv.events.core.model.order.OrderStatus;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.service.ticket.TicketScanBundleService;
+import com.google.common.collect.ImmutableList;
+import java.time.LocalDateTime;
 import java.util.UUID;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -20,6 +31,9 @@
 @ActiveProfiles("test")
 public class SalesScanEventControllerTest extends ControllerTest {
 
+    @Autowired
+    private TicketScanBundleService ticketScanBundleService;
+
     @Test
     public void testScanner() {
         // TODO: fix this test with csrf enabled.
@@ -38,4 +52,52 @@ public void testScannerEventNotExists() throws Exception {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/sales/scan/"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBundle() throws Exception {
+        Event event = this.createEvent();
+        Product product = this.createProduct();
+        event.addProduct(product);
+        eventRepository.saveAndFlush(event);
+
+        Order order = this.createOrder(createCustomer(), ImmutableList.of(product), OrderStatus.PAID, "sales-scan-test");
+        ticketService.createByOrder(order);
+
+        mockMvc.perform(get("/sales/scan/event/" + event.getKey() + "/bundle"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith("scan-bundle 2\nevent " + event.getKey() + "\n")))
+                .andExpect(content().string(containsString("\ntickets 1\n")))
+                .andExpect(content().string(containsString("\nsignature ")));
+    }
+
+    @Test
+    public void testBundleDelta() throws Exception {
+        Event event = this.createEvent();
+        Product product = this.createProduct();
+        event.addProduct(product);
+        eventRepository.saveAndFlush(event);
+
+        Order order = this.createOrder(createCustomer(), ImmutableList.of(product), OrderStatus.PAID, "sales-scan-test");
+        ticketService.createByOrder(order);
+        LocalDateTime since = LocalDateTime.now();
+        ticketService.deleteByOrder(order);
+
+        mockMvc.perform(get("/sales/scan/event/" + event.getKey() + "/bundle").param("since", since.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\ntickets 0\n")))
+                .andExpect(content().string(containsString("\nremoved 1\n")));
+    }
+
+    @Test
+    public void testBundleEventNotExists() throws Exception {
+        mockMvc.perform(get("/sales/scan/event/" + UUID.randomUUID() + "/bundle"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testBundleKey() throws Exception {
+        mockMvc.perform(get("/sales/scan/event/" + UUID.randomUUID() + "/bundle/key"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(ticketScanBundleService.getPublicKey()));
+    }
+}
@@ -14,10 +14,12 @@
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -118,6 +120,26 @@ public void testCodeScanner() throws Exception {
                 .andExpect(status().is(200));
     }
 
+    @Test
+    public void testCodeScannerCheckedInOnce() throws Exception {
+        Event event = this.createEvent();
+        Product product = this.createProduct();
+        event.addProduct(product);
+        eventRepository.saveAndFlush(event);
+
+        Order order = this.createOrder(createCustomer(), ImmutableList.of(product), OrderStatus.PAID, "sales-scan-test");
+        Ticket ticket = ticketService.createByOrder(order).get(0);
+
+        mockMvc.perform(
+                post("/api/v1/sales/scan/event/" + event.getKey() + "/code")
+                        .param("code", ticket.getUniqueCode()))
+                .andExpect(status().is(200));
+
+        mockMvc.perform(
+                post("/api/v1/sales/scan/event/" + event.getKey() + "/code")
+                        .param("code", ticket.getUniqueCode()))
+                .andExpect(status().is(208));
+    }
 
     /**
      * Test code scan. (LEGACY)
@@ -180,4 +202,66 @@ public void testCodeScannerInvalidLength() throws Exception {
                         .param("code", "12456"))
                 .andExpect(status().is(400));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBatchScanner() throws Exception {
+        Event event = this.createEvent();
+        Product product = this.createProduct();
+        event.addProduct(product);
+        eventRepository.saveAndFlush(event);
+
+        Order order = this.createOrder(createCustomer(), ImmutableList.of(product), OrderStatus.PAID, "sales-scan-test");
+        Ticket ticket = ticketService.createByOrder(order).get(0);
+
+        String body = "[{\"code\": \"" + ticket.getUniqueCode() + "\", \"scannedAt\": \"2026-01-01T20:00:00\"},"
+                + "{\"code\": \"" + ticket.getUniqueCode() + "\", \"scannedAt\": \"2026-01-01T20:05:00\"},"
+                + "{\"code\": \"123456\"}]";
+
+        mockMvc.perform(
+                post("/api/v1/sales/scan/event/" + event.getKey() + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.object.results[0].status").value("OK"))
+                .andExpect(jsonPath("$.object.results[1].status").value("ALREADY_SCANNED"))
+                .andExpect(jsonPath("$.object.results[2].status").value("UNKNOWN"));
+    }
+
+    @Test
+    public void testBatchScannerBarcode() throws Exception {
+        Event event = this.createEvent();
+        Product product = this.createProduct();
+        event.addProduct(product);
+        eventRepository.saveAndFlush(event);
+
+        Order order = this.createOrder(createCustomer(), ImmutableList.of(product), OrderStatus.PAID, "sales-scan-test");
+        Ticket ticket = ticketService.createByOrder(order).get(0);
+
+        // Override the unique code to generate a legacy barcode
+        ticket.setUniqueCode(RandomStringUtils.random(6, "0123456789"));
+
+        String barcode = RandomStringUtils.random(6, "0123456789") + ticket.getUniqueCode();
+        barcode += Barcode.calculateChecksum(barcode.toCharArray());
+
+        String body = "[{\"code\": \"" + barcode + "\", \"type\": \"BARCODE\"},"
+                + "{\"code\": \"12345\", \"type\": \"CODE\"}]";
+
+        mockMvc.perform(
+                post("/api/v1/sales/scan/event/" + event.getKey() + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().is(200))
+                .andExpect(jsonPath("$.object.results[0].status").value("OK"))
+                .andExpect(jsonPath("$.object.results[0].code").value(barcode))
+                .andExpect(jsonPath("$.object.results[1].status").value("UNKNOWN"));
+    }
+
+    @Test
+    public void testBatchScannerEventNotExists() throws Exception {
+        mockMvc.perform(
+                post("/api/v1/sales/scan/event/not-existing/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"code\": \"123456\"}]"))
+                .andExpect(status().is(400));
+    }
+}
@@ -5,10 +5,19 @@
 import ch.wisv.events.core.model.customer.Customer;
 import ch.wisv.events.core.model.event.Event;
 import ch.wisv.events.core.model.order.*;
+import ch.wisv.events.core.exception.normal.TicketNotFoundException;
 import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.model.ticket.TicketScanEntry;
+import ch.wisv.events.core.model.ticket.TicketStatus;
 import ch.wisv.events.core.service.event.EventService;
 import ch.wisv.events.core.service.order.OrderService;
+import ch.wisv.events.core.service.ticket.TicketService;
+import ch.wisv.events.sales.model.ScanRequestDto;
+import ch.wisv.events.sales.model.ScanResultDto;
+import ch.wisv.events.sales.model.ScanResultStatus;
+import ch.wisv.events.sales.model.ScanType;
 import ch.wisv.events.utils.LdapGroup;
+import com.google.common.collect.ImmutableList;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -35,6 +44,12 @@ public class SalesServiceTest extends ServiceTest {
     @Mock
     private OrderService orderService;
 
+    /**
+     * TicketService.
+     */
+    @Mock
+    private TicketService ticketService;
+
     /**
      * SalesService.
      */
@@ -60,7 +75,7 @@ public class SalesServiceTest extends ServiceTest {
      */
     @Before
     public void setUp() {
-        salesService = new SalesServiceImpl(eventService, orderService);
+        salesService = new SalesServiceImpl(eventService, orderService, ticketService);
         product = mock(Product.class);
         event = mock(Event.class);
         order = mock(Order.class);
@@ -201,4 +216,93 @@ public void testGetAllOrdersByEvent() throws EventNotFoundException {
         assertEquals(orders, returnedOrders);
     }
 
-}
\ No newline at end of file
+
+    /**
+     * Test if every scan in a batch gets a result, in the order of the scans.
+     */
+    @Test
+    public void testScanAll() throws Exception {
+        TicketScanEntry open = new TicketScanEntry(1, "100001", TicketStatus.OPEN, "Product", "Owner");
+        TicketScanEntry scanned = new TicketScanEntry(2, "100002", TicketStatus.SCANNED, "Product", "Owner");
+        when(ticketService.getScanEntry("event", "100001")).thenReturn(open);
+        when(ticketService.getScanEntry("event", "100002")).thenReturn(scanned);
+        when(ticketService.getScanEntry("event", "100003")).thenThrow(new TicketNotFoundException());
+        when(ticketService.checkIn(eq(open), any(LocalDateTime.class), eq("scanner"))).thenReturn(true);
+        when(ticketService.checkIn(eq(scanned), any(LocalDateTime.class), eq("scanner"))).thenReturn(false);
+
+        List<ScanResultDto> results = salesService.scanAll("event", ImmutableList.of(
+                new ScanRequestDto("100003", null),
+                new ScanRequestDto("100001", null),
+                new ScanRequestDto("100002", null)
+        ), "scanner");
+
+        assertEquals(3, results.size());
+        assertEquals(ScanResultStatus.UNKNOWN, results.get(0).getStatus());
+        assertEquals(ScanResultStatus.OK, results.get(1).getStatus());
+        assertEquals(ScanResultStatus.ALREADY_SCANNED, results.get(2).getStatus());
+        assertEquals("100001", results.get(1).getCode());
+    }
+
+    /**
+     * Test if the scans in a batch are checked in in the order they have been scanned, with the client time.
+     */
+    @Test
+    public void testScanAllInScanOrder() throws Exception {
+        TicketScanEntry entry = new TicketScanEntry(1, "100001", TicketStatus.OPEN, "Product", "Owner");
+        LocalDateTime earlier = LocalDateTime.now().minusMinutes(10);
+        LocalDateTime later = LocalDateTime.now().minusMinutes(5);
+        when(ticketService.getScanEntry("event", "100001")).thenReturn(entry);
+        when(ticketService.checkIn(entry, earlier, "scanner")).thenReturn(true);
+        when(ticketService.checkIn(entry, later, "scanner")).thenReturn(false);
+
+        List<ScanResultDto> results = salesService.scanAll("event", ImmutableList.of(
+                new ScanRequestDto("100001", later),
+                new ScanRequestDto("100001", earlier)
+        ), "scanner");
+
+        assertEquals(ScanResultStatus.ALREADY_SCANNED, results.get(0).getStatus());
+        assertEquals(ScanResultStatus.OK, results.get(1).getStatus());
+    }
+
+    /**
+     * Test if a barcode in a batch is read like the barcode scanner does, and the result has the scanned barcode.
+     */
+    @Test
+    public void testScanAllBarcode() throws Exception {
+        TicketScanEntry entry = new TicketScanEntry(1, "100001", TicketStatus.OPEN, "Product", "Owner");
+        when(ticketService.getScanEntry("event", "100001")).thenReturn(entry);
+        when(ticketService.checkIn(eq(entry), any(LocalDateTime.class), eq("scanner"))).thenReturn(true);
+
+        List<ScanResultDto> results = salesService.scanAll("event", ImmutableList.of(
+                new ScanRequestDto("1234561000013", ScanType.BARCODE, null)
+        ), "scanner");
+
+        assertEquals(ScanResultStatus.OK, results.get(0).getStatus());
+        assertEquals("1234561000013", results.get(0).getCode());
+    }
+
+    /**
+     * Test if a scan that can not contain a unique code is unknown, without looking it up.
+     */
+    @Test
+    public void testScanAllInvalidCode() throws Exception {
+        List<ScanResultDto> results = salesService.scanAll("event", ImmutableList.of(
+                new ScanRequestDto("12345", null),
+                new ScanRequestDto("123456", ScanType.BARCODE, null),
+                new ScanRequestDto(null, null)
+        ), "scanner");
+
+        results.forEach(result -> assertEquals(ScanResultStatus.UNKNOWN, result.getStatus()));
+        verify(ticketService, never()).getScanEntry(anyString(), anyString());
+    }
+
+    /**
+     * Test if a batch for an unknown event throws an EventNotFoundException.
+     */
+    @Test(expected = EventNotFoundException.class)
+    public void testScanAllEventNotFound() throws Exception {
+        when(eventService.getByKey("event")).thenThrow(new EventNotFoundException("key event"));
+
+        salesService.scanAll("event", ImmutableList.of(new ScanRequestDto("100001", null)), "scanner");
+    }
+}
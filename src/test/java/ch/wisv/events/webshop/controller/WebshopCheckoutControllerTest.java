@@ -7,12 +7,14 @@
 import ch.wisv.events.core.model.order.OrderProductDto;
 import ch.wisv.events.core.model.order.OrderStatus;
 import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.webshop.service.queue.AdmissionQueueService;
 import java.time.LocalDateTime;
 import static org.junit.Assert.assertEquals;
 
 import ch.wisv.events.core.util.VatRate;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
@@ -21,6 +23,7 @@
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
@@ -31,6 +34,10 @@
 @SpringBootTest(classes = EventsApplicationTest.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
 public class WebshopCheckoutControllerTest extends ControllerTest {
+
+    @Autowired
+    private AdmissionQueueService admissionQueueService;
+
     @Test
     public void testCheckoutShoppingBasket() throws Exception {
         Product product = new Product("test", "test ticket", 1.33d, VatRate.VAT_HIGH, 100, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1));
@@ -158,6 +165,62 @@ public void testCheckoutShoppingBasketProductNotExists() throws Exception {
                 .andExpect(flash().attribute("error", "Product with key 123-345-567 not found!"));
     }
 
+    @Test
+    public void testCheckoutShoppingBasketQueued() throws Exception {
+        Product product = new Product("test", "test ticket", 1.33d, VatRate.VAT_HIGH, 100, LocalDateTime.now().minusHours(1), LocalDateTime.now().plusHours(1));
+        product.setQueued(true);
+        productRepository.saveAndFlush(product);
+
+        String queueUrl = mockMvc.perform(
+                post("/checkout")
+                        .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                        .param("products['" + product.getKey() + "']", "2")
+                        .param("agreedGTC", "True")
+                        .sessionAttr("orderProduct", new OrderProductDto()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrlPattern("/checkout/queue/*"))
+                .andReturn().getResponse().getRedirectedUrl();
+
+        assertEquals(0, orderRepository.findAll().size());
+
+        mockMvc.perform(get(queueUrl))
+                .andExpect(status().isOk())
+                .andExpect(view().name("webshop/checkout/queue"));
+
+        mockMvc.perform(get(queueUrl + "/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.object.position").value(1));
+
+        admissionQueueService.admitNext();
+
+        mockMvc.perform(get(queueUrl + "/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.object.position").value(0));
+
+        mockMvc.perform(post(queueUrl))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrlPattern("/checkout/*"));
+
+        Order order = orderRepository.findAll().get(0);
+        assertEquals(OrderStatus.ANONYMOUS, order.getStatus());
+
+        mockMvc.perform(post(queueUrl))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/"))
+                .andExpect(flash().attribute("error", "Your place in the queue has expired, please try again."));
+    }
+
+    @Test
+    public void testCheckoutQueueTokenInvalid() throws Exception {
+        mockMvc.perform(get("/checkout/queue/invalid"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/"))
+                .andExpect(flash().attribute("error", "Your place in the queue has expired, please try again."));
+
+        mockMvc.perform(get("/checkout/queue/invalid/status"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void testCheckoutOverview() throws Exception {
         Order order = new Order();
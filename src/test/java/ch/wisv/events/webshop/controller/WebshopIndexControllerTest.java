@@ -5,23 +5,37 @@
 import ch.wisv.events.core.model.event.Event;
 import ch.wisv.events.core.model.event.EventStatus;
 import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.service.inventory.InventoryChangedEvent;
+import ch.wisv.events.webshop.service.stock.StockStreamService;
+import com.zaxxer.hikari.HikariDataSource;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import javax.sql.DataSource;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
@@ -30,6 +44,12 @@
 @ActiveProfiles("test")
 public class WebshopIndexControllerTest extends ControllerTest {
 
+    @Autowired
+    private StockStreamService stockStreamService;
+
+    @Autowired
+    private DataSource dataSource;
+
     @Test
     public void testIndex() throws Exception {
         Event event = new Event(
@@ -143,4 +163,135 @@ public void testIndexSoldOutEvent() throws Exception {
                 .andExpect(model().attribute("events", hasItem(hasProperty("key", is(event.getKey())))))
                 .andExpect(content().string(containsString("Sold out")));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEvent() throws Exception {
+        Event event = this.createEventWithFutureProduct(EventStatus.PUBLISHED);
+
+        mockMvc.perform(get("/" + event.getKey()))
+                .andExpect(status().isOk())
+                .andExpect(view().name("webshop/event"))
+                .andExpect(model().attribute("event", hasProperty("key", is(event.getKey()))))
+                .andExpect(model().attribute("event", hasProperty("products", hasSize(1))));
+    }
+
+    @Test
+    public void testEventNotPublished() throws Exception {
+        Event event = this.createEventWithFutureProduct(EventStatus.NOT_PUBLISHED);
+
+        mockMvc.perform(get("/" + event.getKey()))
+                .andExpect(status().isOk())
+                .andExpect(view().name("webshop/event"))
+                .andExpect(model().attribute("event", hasProperty("products", hasSize(1))));
+
+        assertEquals(2, eventRepository.findByKey(event.getKey()).get().getProducts().size());
+    }
+
+    @Test
+    public void testEventNotFound() throws Exception {
+        mockMvc.perform(get("/does-not-exist"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(view().name("redirect:/"));
+    }
+
+    @Test
+    public void testEventStock() throws Exception {
+        Event event = this.createEventWithFutureProduct(EventStatus.PUBLISHED);
+
+        mockMvc.perform(get("/" + event.getKey() + "/stock"))
+                .andExpect(request().asyncStarted())
+                .andExpect(content().string(containsString("event:stock")))
+                .andExpect(content().string(containsString(event.getProducts().get(0).getKey())));
+    }
+
+    @Test
+    public void testEventStockChanged() throws Exception {
+        Event event = this.createEventWithFutureProduct(EventStatus.PUBLISHED);
+        Product product = event.getProducts().get(0);
+        product.setMaxSold(10);
+        productRepository.saveAndFlush(product);
+
+        MvcResult result = mockMvc.perform(get("/" + event.getKey() + "/stock"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(result.getResponse().getContentAsString(), not(containsString("\"sold\":4")));
+
+        product.setSold(4);
+        productRepository.saveAndFlush(product);
+        stockStreamService.onInventoryChanged(new InventoryChangedEvent(List.of(product.getId())));
+        stockStreamService.broadcast();
+
+        assertThat(result.getResponse().getContentAsString(), containsString("\"sold\":4"));
+        assertThat(result.getResponse().getContentAsString(), containsString("\"remaining\":6"));
+    }
+
+    @Test
+    public void testEventStockNotFound() throws Exception {
+        mockMvc.perform(get("/does-not-exist/stock"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testEventStockNotPublished() throws Exception {
+        Event event = this.createEventWithFutureProduct(EventStatus.NOT_PUBLISHED);
+
+        mockMvc.perform(get("/" + event.getKey() + "/stock"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testEventStockDoesNotHoldConnections() throws Exception {
+        Event event = this.createEvent();
+        event.setPublished(EventStatus.PUBLISHED);
+        eventRepository.saveAndFlush(event);
+
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        List<MvcResult> streams = new ArrayList<>();
+        try {
+            for (int i = 0; i < hikari.getMaximumPoolSize() + 2; i++) {
+                streams.add(mockMvc.perform(get("/" + event.getKey() + "/stock"))
+                        .andExpect(request().asyncStarted())
+                        .andReturn());
+            }
+
+            assertEquals(0, hikari.getHikariPoolMXBean().getActiveConnections());
+        } finally {
+            streams.forEach(stream -> stream.getRequest().getAsyncContext().complete());
+        }
+    }
+
+    /**
+     * Create an Event with a Product on sale and a Product that is not on sale yet.
+     *
+     * @param published of type EventStatus
+     *
+     * @return Event
+     */
+    private Event createEventWithFutureProduct(EventStatus published) {
+        Event event = new Event(
+                "Event",
+                "description",
+                "location",
+                10,
+                10,
+                "",
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2),
+                "short description"
+        );
+        Product product = new Product();
+        product.setSellStart(LocalDateTime.now().minusDays(2));
+        productRepository.saveAndFlush(product);
+
+        Product future = new Product();
+        future.setSellStart(LocalDateTime.now().plusHours(1));
+        productRepository.saveAndFlush(future);
+
+        event.setProducts(Arrays.asList(product, future));
+        event.setPublished(published);
+        eventRepository.saveAndFlush(event);
+
+        return event;
+    }
+}
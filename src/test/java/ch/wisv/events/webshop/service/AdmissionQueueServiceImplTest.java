@@ -0,0 +1,135 @@
+package ch.wisv.events.webshop.service;
+
+import ch.wisv.events.ServiceTest;
+import ch.wisv.events.core.exception.normal.QueueTokenInvalidException;
+import ch.wisv.events.core.model.event.Event;
+import ch.wisv.events.core.model.order.OrderProductDto;
+import ch.wisv.events.core.model.product.Product;
+import ch.wisv.events.core.repository.ProductRepository;
+import ch.wisv.events.webshop.service.queue.AdmissionQueueEntry;
+import ch.wisv.events.webshop.service.queue.AdmissionQueueServiceImpl;
+import ch.wisv.events.webshop.service.queue.InMemoryAdmissionQueueStore;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * AdmissionQueueServiceImpl test.
+ */
+public class AdmissionQueueServiceImplTest extends ServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private InMemoryAdmissionQueueStore admissionQueueStore;
+
+    private AdmissionQueueServiceImpl admissionQueueService;
+
+    private Event event;
+
+    private Product queued;
+
+    private Product product;
+
+    @Before
+    public void setUp() {
+        this.admissionQueueStore = new InMemoryAdmissionQueueStore();
+        this.admissionQueueService = new AdmissionQueueServiceImpl(admissionQueueStore, productRepository, 2);
+
+        this.event = new Event();
+        this.queued = new Product();
+        this.queued.setQueued(true);
+        this.queued.setEvent(event);
+        this.product = new Product();
+
+        when(productRepository.findByKey(queued.getKey())).thenReturn(Optional.of(queued));
+        when(productRepository.findByKey(product.getKey())).thenReturn(Optional.of(product));
+    }
+
+    @After
+    public void tearDown() {
+        this.admissionQueueService = null;
+    }
+
+    @Test
+    public void testGetQueueKey() {
+        OrderProductDto orderProductDto = new OrderProductDto();
+        orderProductDto.getProducts().put(product.getKey(), 1L);
+
+        assertEquals(Optional.empty(), admissionQueueService.getQueueKey(orderProductDto));
+
+        orderProductDto.getProducts().put(queued.getKey(), 2L);
+
+        assertEquals(Optional.of(event.getKey()), admissionQueueService.getQueueKey(orderProductDto));
+    }
+
+    @Test
+    public void testAdmitNext() throws Exception {
+        AdmissionQueueEntry first = admissionQueueService.enqueue(event.getKey(), new OrderProductDto());
+        AdmissionQueueEntry second = admissionQueueService.enqueue(event.getKey(), new OrderProductDto());
+        AdmissionQueueEntry third = admissionQueueService.enqueue(event.getKey(), new OrderProductDto());
+
+        assertEquals(1, admissionQueueService.getPosition(first));
+        assertEquals(3, admissionQueueService.getPosition(third));
+        assertFalse(admissionQueueService.consume(first));
+
+        admissionQueueService.admitNext();
+
+        assertEquals(0, admissionQueueService.getPosition(first));
+        assertEquals(0, admissionQueueService.getPosition(second));
+        assertEquals(1, admissionQueueService.getPosition(third));
+        assertTrue(admissionQueueService.consume(first));
+        assertFalse(admissionQueueService.consume(first));
+        assertEquals(third, admissionQueueService.getByToken(third.getToken()));
+    }
+
+    @Test
+    public void testAdmitNextIdleQueue() {
+        admissionQueueService.enqueue(event.getKey(), new OrderProductDto());
+        admissionQueueService.admitNext();
+        admissionQueueService.admitNext();
+
+        AdmissionQueueEntry first = admissionQueueService.enqueue(event.getKey(), new OrderProductDto());
+        AdmissionQueueEntry second = admissionQueueService.enqueue(event.getKey(), new OrderProductDto());
+        AdmissionQueueEntry third = admissionQueueService.enqueue(event.getKey(), new OrderProductDto());
+
+        assertEquals(0, admissionQueueService.getPosition(first));
+        assertEquals(0, admissionQueueService.getPosition(second));
+        assertEquals(1, admissionQueueService.getPosition(third));
+    }
+
+    @Test
+    public void testEmptyQueueIsDropped() {
+        AdmissionQueueEntry first = admissionQueueService.enqueue(event.getKey(), new OrderProductDto());
+        AdmissionQueueEntry second = admissionQueueService.enqueue(event.getKey(), new OrderProductDto());
+        admissionQueueService.admitNext();
+
+        assertTrue(admissionQueueService.consume(first));
+        assertTrue(admissionQueueStore.getQueueKeys().contains(event.getKey()));
+
+        assertTrue(admissionQueueService.consume(second));
+        assertTrue(admissionQueueStore.getQueueKeys().isEmpty());
+    }
+
+    @Test
+    public void testExpiredQueueIsDropped() {
+        admissionQueueService.enqueue(event.getKey(), new OrderProductDto());
+
+        assertEquals(1, admissionQueueStore.removeCreatedBefore(LocalDateTime.now().plusSeconds(1)));
+        assertTrue(admissionQueueStore.getQueueKeys().isEmpty());
+    }
+
+    @Test
+    public void testGetByTokenInvalid() throws Exception {
+        thrown.expect(QueueTokenInvalidException.class);
+
+        admissionQueueService.getByToken("invalid");
+    }
+}